@@ -1,5 +1,9 @@
 package ai.chub;
 
+import ai.chub.plugins.chatlog.ChatLogPlugin;
+import ai.chub.plugins.lorebook.LorebookPlugin;
+import ai.chub.plugins.search.SearchPlugin;
+import ai.chub.plugins.tokenizer.TokenizerPlugin;
 import android.os.Bundle;
 import com.codetrixstudio.capacitor.GoogleAuth.GoogleAuth;
 import com.getcapacitor.BridgeActivity;
@@ -7,6 +11,10 @@ import com.getcapacitor.BridgeActivity;
 public class MainActivity extends BridgeActivity {
     @Override // com.getcapacitor.BridgeActivity, androidx.fragment.app.FragmentActivity, androidx.activity.ComponentActivity, androidx.core.app.ComponentActivity, android.app.Activity
     public void onCreate(Bundle bundle) {
+        registerPlugin(LorebookPlugin.class);
+        registerPlugin(TokenizerPlugin.class);
+        registerPlugin(ChatLogPlugin.class);
+        registerPlugin(SearchPlugin.class);
         super.onCreate(bundle);
         registerPlugin(GoogleAuth.class);
     }
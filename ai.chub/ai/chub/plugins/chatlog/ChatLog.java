@@ -0,0 +1,789 @@
+package ai.chub.plugins.chatlog;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only message log for one chat, stored as memory-mapped segment files.
+ *
+ * <p>Every record is {@code size, crc, kind, id, parent, payload}; the size is written last so a
+ * torn append is detected on open (zero size or CRC mismatch) and truncated. Messages form a
+ * tree through their parent ids, where siblings are swipes/branches. Appending a message makes it
+ * the active leaf; a HEAD record moves the active leaf elsewhere. Only every
+ * {@link #INDEX_INTERVAL}th message offset is kept in memory; lookups scan forward from the
+ * nearest indexed record.
+ *
+ * <p>Compaction writes the live messages into a new generation directory and switches to it by
+ * renaming a {@code CURRENT} file over the old one, so a crash leaves either the old or the new
+ * generation intact; whatever else is in the chat directory is deleted on open. A chat directory
+ * without {@code CURRENT} keeps its segments at the top level, as generation 0.
+ */
+public class ChatLog implements Closeable {
+    static final int HEADER_SIZE = 20;
+    static final int INDEX_INTERVAL = 32;
+    static final byte KIND_DELETE = 3;
+    static final byte KIND_EDIT = 2;
+    static final byte KIND_HEAD = 4;
+    static final byte KIND_MESSAGE = 1;
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String CURRENT_TEMP_FILE = "CURRENT.tmp";
+    private static final String GENERATION_PREFIX = "gen-";
+    private static final int NO_ID = -1;
+    private static final long NO_LOCATION = -1;
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    static final int SEGMENT_SIZE = 4194304;
+    private boolean closed;
+    private final CRC32 crc;
+    private long deadBytes;
+    private boolean[] deleted;
+    private boolean recovering;
+    private int[] recordSize;
+    private final File dir;
+    private final HashMap<Integer, Long> edits;
+    private int[] firstChild;
+    private int generation;
+    private int head;
+    private int[] lastChild;
+    private int messageCount;
+    private int[] nextSibling;
+    private int[] parent;
+    private int[] path;
+    private int pathLength;
+    private int rootFirst;
+    private int rootLast;
+    private final ArrayList<FileChannel> segmentChannels;
+    private File segmentDir;
+    private int[] segmentEnd;
+    private final ArrayList<MappedByteBuffer> segments;
+    private long[] sparse;
+    private long totalBytes;
+
+    public static class Message {
+        public String data;
+        public int id;
+        public int index;
+        public int parentId;
+        public int swipeCount;
+        public int swipeIndex;
+    }
+
+    public ChatLog(File dir) throws IOException {
+        this.crc = new CRC32();
+        this.edits = new HashMap<>();
+        this.segmentChannels = new ArrayList<>();
+        this.segments = new ArrayList<>();
+        this.dir = dir;
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+        selectGeneration();
+        open();
+    }
+
+    public synchronized int size() {
+        return this.pathLength;
+    }
+
+    public synchronized int getHead() {
+        return this.head;
+    }
+
+    public synchronized long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    public synchronized long getDeadBytes() {
+        return this.deadBytes;
+    }
+
+    public synchronized Message append(String data) throws IOException {
+        return append(data, this.head);
+    }
+
+    public synchronized Message append(String data, int parentId) throws IOException {
+        checkOpen();
+        if (parentId != NO_ID && !isLive(parentId)) {
+            throw new IllegalArgumentException("Unknown parent message " + parentId);
+        }
+        write(KIND_MESSAGE, this.messageCount, parentId, data.getBytes(StandardCharsets.UTF_8));
+        return read(this.pathLength - 1);
+    }
+
+    public synchronized void edit(int id, String data) throws IOException {
+        checkOpen();
+        if (!isLive(id)) {
+            throw new IllegalArgumentException("Unknown message " + id);
+        }
+        write(KIND_EDIT, id, NO_ID, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public synchronized void delete(int id) throws IOException {
+        checkOpen();
+        if (!isLive(id)) {
+            throw new IllegalArgumentException("Unknown message " + id);
+        }
+        int i = this.parent[id];
+        write(KIND_DELETE, id, NO_ID, null);
+        if (this.head == NO_ID || !isLive(this.head)) {
+            int i2 = i != NO_ID ? lastLiveChild(i) : lastLiveRoot();
+            if (i2 == NO_ID) {
+                i2 = i;
+            }
+            write(KIND_HEAD, deepestLeaf(i2), NO_ID, null);
+        }
+    }
+
+    public synchronized void setHead(int id) throws IOException {
+        checkOpen();
+        if (id != NO_ID && !isLive(id)) {
+            throw new IllegalArgumentException("Unknown message " + id);
+        }
+        write(KIND_HEAD, id, NO_ID, null);
+    }
+
+    public synchronized int swipe(int index, int direction) throws IOException {
+        checkOpen();
+        if (index < 0 || index >= this.pathLength) {
+            throw new IndexOutOfBoundsException("index " + index + " out of " + this.pathLength);
+        }
+        int i = this.path[index];
+        int nextLiveSibling = direction >= 0 ? nextLiveSibling(i) : previousLiveSibling(i);
+        if (nextLiveSibling == NO_ID) {
+            return NO_ID;
+        }
+        write(KIND_HEAD, deepestLeaf(nextLiveSibling), NO_ID, null);
+        return nextLiveSibling;
+    }
+
+    public synchronized Message read(int index) throws IOException {
+        checkOpen();
+        if (index < 0 || index >= this.pathLength) {
+            throw new IndexOutOfBoundsException("index " + index + " out of " + this.pathLength);
+        }
+        int i = this.path[index];
+        Message message = new Message();
+        message.index = index;
+        message.id = i;
+        message.parentId = this.parent[i];
+        message.data = readPayload(i);
+        int i2 = message.parentId == NO_ID ? this.rootFirst : this.firstChild[message.parentId];
+        int i3 = 0;
+        while (i2 != NO_ID) {
+            if (!this.deleted[i2]) {
+                if (i2 == i) {
+                    message.swipeIndex = i3;
+                }
+                i3++;
+            }
+            i2 = this.nextSibling[i2];
+        }
+        message.swipeCount = i3;
+        return message;
+    }
+
+    public synchronized ArrayList<Message> readPage(int start, int count) throws IOException {
+        checkOpen();
+        int max = Math.max(start, 0);
+        int min = Math.min(this.pathLength, max + Math.max(count, 0));
+        ArrayList<Message> arrayList = new ArrayList<>(Math.max(min - max, 0));
+        for (int i = max; i < min; i++) {
+            arrayList.add(read(i));
+        }
+        return arrayList;
+    }
+
+    public synchronized void flush() {
+        for (int i = 0; i < this.segments.size(); i++) {
+            this.segments.get(i).force();
+        }
+    }
+
+    public synchronized boolean shouldCompact() {
+        return this.totalBytes > 1048576 && this.deadBytes * 2 > this.totalBytes;
+    }
+
+    public synchronized void compact() throws IOException {
+        checkOpen();
+        int i = this.generation + 1;
+        String str = GENERATION_PREFIX + i;
+        File file = new File(this.dir, str);
+        deleteRecursively(file);
+        if (!file.mkdirs()) {
+            throw new IOException("Unable to create " + file);
+        }
+        ChatLog chatLog = new ChatLog(file);
+        chatLog.recovering = true;
+        try {
+            for (int i2 = 0; i2 < this.messageCount; i2++) {
+                if (isLive(i2)) {
+                    chatLog.writeMessage(i2, this.parent[i2], readPayload(i2).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            chatLog.write(KIND_HEAD, this.head, NO_ID, null);
+            chatLog.flush();
+            chatLog.close();
+            writeCurrent(str);
+        } catch (Throwable th) {
+            chatLog.close();
+            deleteRecursively(file);
+            throw th;
+        }
+        closeSegments();
+        this.generation = i;
+        this.segmentDir = file;
+        deleteStale();
+        open();
+    }
+
+    @Override // java.io.Closeable, java.lang.AutoCloseable
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        flush();
+        closeSegments();
+    }
+
+    private void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Chat log is closed");
+        }
+    }
+
+    private void open() throws IOException {
+        resetState();
+        File[] listFiles = this.segmentDir.listFiles();
+        ArrayList arrayList = new ArrayList();
+        if (listFiles != null) {
+            for (File file : listFiles) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    arrayList.add(file);
+                }
+            }
+        }
+        this.recovering = true;
+        File[] fileArr = (File[]) arrayList.toArray(new File[0]);
+        Arrays.sort(fileArr, (file2, file3) -> Integer.compare(segmentNumber(file2), segmentNumber(file3)));
+        for (int i = 0; i < fileArr.length; i++) {
+            if (segmentNumber(fileArr[i]) != i) {
+                throw new IOException("Missing segment " + i + " in " + this.dir);
+            }
+            mapSegment(fileArr[i], 0);
+            if (!recover(i)) {
+                for (int i2 = i + 1; i2 < fileArr.length; i2++) {
+                    fileArr[i2].delete();
+                }
+                break;
+            }
+        }
+        if (this.segments.isEmpty()) {
+            mapSegment(segmentFile(0), SEGMENT_SIZE);
+        }
+        this.recovering = false;
+        rebuildPath();
+    }
+
+    private boolean recover(int segment) {
+        MappedByteBuffer mappedByteBuffer = this.segments.get(segment);
+        int capacity = mappedByteBuffer.capacity();
+        int i = 0;
+        byte[] bArr = new byte[256];
+        while (true) {
+            if (i + HEADER_SIZE > capacity) {
+                break;
+            }
+            int i2 = mappedByteBuffer.getInt(i);
+            if (i2 == 0) {
+                break;
+            }
+            if (i2 < HEADER_SIZE || i2 > capacity - i) {
+                truncate(segment, i);
+                return false;
+            }
+            i2 -= HEADER_SIZE;
+            if (i2 > bArr.length) {
+                bArr = new byte[i2];
+            }
+            ByteBuffer duplicate = mappedByteBuffer.duplicate();
+            duplicate.position(i + HEADER_SIZE);
+            duplicate.get(bArr, 0, i2);
+            byte b = mappedByteBuffer.get(i + 8);
+            int i3 = mappedByteBuffer.getInt(i + 12);
+            int i4 = mappedByteBuffer.getInt(i + 16);
+            if (mappedByteBuffer.getInt(i + 4) != checksum(b, i3, i4, bArr, i2)) {
+                truncate(segment, i);
+                return false;
+            }
+            apply(b, i3, i4, location(segment, i), i2 + HEADER_SIZE);
+            i += i2 + HEADER_SIZE;
+        }
+        this.segmentEnd[segment] = i;
+        return true;
+    }
+
+    private void truncate(int segment, int position) {
+        MappedByteBuffer mappedByteBuffer = this.segments.get(segment);
+        int capacity = mappedByteBuffer.capacity();
+        for (int i = position; i < capacity; i++) {
+            mappedByteBuffer.put(i, (byte) 0);
+        }
+        mappedByteBuffer.force();
+        this.segmentEnd[segment] = position;
+    }
+
+    private void writeMessage(int id, int parentId, byte[] payload) throws IOException {
+        grow(id);
+        write(KIND_MESSAGE, id, parentId, payload);
+    }
+
+    private void write(byte kind, int id, int parentId, byte[] payload) throws IOException {
+        int length = payload == null ? 0 : payload.length;
+        int i = length + HEADER_SIZE;
+        int size = this.segments.size() - 1;
+        int i2 = this.segmentEnd[size];
+        if (i2 + i > this.segments.get(size).capacity()) {
+            size++;
+            mapSegment(segmentFile(size), Math.max(SEGMENT_SIZE, i + 4));
+            this.segmentEnd[size] = 0;
+            i2 = 0;
+        }
+        MappedByteBuffer mappedByteBuffer = this.segments.get(size);
+        mappedByteBuffer.put(i2 + 8, kind);
+        mappedByteBuffer.putInt(i2 + 12, id);
+        mappedByteBuffer.putInt(i2 + 16, parentId);
+        if (length > 0) {
+            ByteBuffer duplicate = mappedByteBuffer.duplicate();
+            duplicate.position(i2 + HEADER_SIZE);
+            duplicate.put(payload, 0, length);
+        }
+        mappedByteBuffer.putInt(i2 + 4, checksum(kind, id, parentId, payload, length));
+        mappedByteBuffer.putInt(i2, i);
+        this.segmentEnd[size] = i2 + i;
+        apply(kind, id, parentId, location(size, i2), i);
+    }
+
+    private void apply(byte kind, int id, int parentId, long location, int size) {
+        this.totalBytes += size;
+        switch (kind) {
+            case 1:
+                grow(id);
+                if (id >= this.messageCount) {
+                    this.messageCount = id + 1;
+                }
+                this.parent[id] = parentId;
+                this.deleted[id] = false;
+                this.recordSize[id] = size;
+                if (parentId == NO_ID) {
+                    int i = this.rootLast;
+                    if (i == NO_ID) {
+                        this.rootFirst = id;
+                    } else {
+                        this.nextSibling[i] = id;
+                    }
+                    this.rootLast = id;
+                } else {
+                    int i2 = this.lastChild[parentId];
+                    if (i2 == NO_ID) {
+                        this.firstChild[parentId] = id;
+                    } else {
+                        this.nextSibling[i2] = id;
+                    }
+                    this.lastChild[parentId] = id;
+                }
+                int i3 = id / INDEX_INTERVAL;
+                long[] jArr = this.sparse;
+                if (i3 >= jArr.length) {
+                    this.sparse = Arrays.copyOf(jArr, Math.max(jArr.length * 2, i3 + 1));
+                    Arrays.fill(this.sparse, jArr.length, this.sparse.length, NO_LOCATION);
+                }
+                long[] jArr2 = this.sparse;
+                if (jArr2[i3] == NO_LOCATION) {
+                    jArr2[i3] = location;
+                }
+                if (this.recovering) {
+                    this.head = id;
+                    return;
+                }
+                if (parentId == this.head) {
+                    pushPath(id);
+                    return;
+                }
+                this.head = id;
+                rebuildPath();
+                return;
+            case 2:
+                this.edits.put(Integer.valueOf(id), Long.valueOf(location));
+                this.deadBytes += this.recordSize[id];
+                this.recordSize[id] = size;
+                return;
+            case 3:
+                markDeleted(id);
+                this.deadBytes += size;
+                return;
+            case 4:
+                this.deadBytes += size;
+                this.head = id;
+                if (!this.recovering) {
+                    rebuildPath();
+                    return;
+                }
+                return;
+            default:
+                return;
+        }
+    }
+
+    private void markDeleted(int id) {
+        if (id < 0 || id >= this.messageCount || this.deleted[id]) {
+            return;
+        }
+        int[] iArr = new int[16];
+        iArr[0] = id;
+        int i = 1;
+        while (i > 0) {
+            i--;
+            int i2 = iArr[i];
+            this.deleted[i2] = true;
+            this.deadBytes += this.recordSize[i2];
+            for (int i3 = this.firstChild[i2]; i3 != NO_ID; i3 = this.nextSibling[i3]) {
+                if (!this.deleted[i3]) {
+                    if (i == iArr.length) {
+                        iArr = Arrays.copyOf(iArr, i * 2);
+                    }
+                    iArr[i] = i3;
+                    i++;
+                }
+            }
+        }
+    }
+
+    private void pushPath(int id) {
+        int i = this.pathLength;
+        int[] iArr = this.path;
+        if (i == iArr.length) {
+            this.path = Arrays.copyOf(iArr, i * 2);
+        }
+        int[] iArr2 = this.path;
+        int i2 = this.pathLength;
+        this.pathLength = i2 + 1;
+        iArr2[i2] = id;
+        this.head = id;
+    }
+
+    private void rebuildPath() {
+        int i = 0;
+        int i2 = this.head;
+        while (i2 != NO_ID && i2 < this.messageCount) {
+            i++;
+            i2 = this.parent[i2];
+        }
+        if (this.path.length < i) {
+            this.path = new int[Math.max(i * 2, 16)];
+        }
+        this.pathLength = i;
+        int i3 = this.head;
+        while (i3 != NO_ID && i3 < this.messageCount) {
+            i--;
+            this.path[i] = i3;
+            i3 = this.parent[i3];
+        }
+    }
+
+    private String readPayload(int id) throws IOException {
+        Long l = this.edits.get(Integer.valueOf(id));
+        long locate = l != null ? l.longValue() : locate(id);
+        if (locate == NO_LOCATION) {
+            throw new IOException("Message " + id + " is missing from " + this.dir);
+        }
+        MappedByteBuffer mappedByteBuffer = this.segments.get((int) (locate >>> 32));
+        int i = (int) locate;
+        byte[] bArr = new byte[mappedByteBuffer.getInt(i) - HEADER_SIZE];
+        ByteBuffer duplicate = mappedByteBuffer.duplicate();
+        duplicate.position(i + HEADER_SIZE);
+        duplicate.get(bArr);
+        return new String(bArr, StandardCharsets.UTF_8);
+    }
+
+    private long locate(int id) {
+        int i = id / INDEX_INTERVAL;
+        long[] jArr = this.sparse;
+        if (i >= jArr.length || jArr[i] == NO_LOCATION) {
+            return NO_LOCATION;
+        }
+        long j = jArr[i];
+        int i2 = (int) (j >>> 32);
+        int i3 = (int) j;
+        while (i2 < this.segments.size()) {
+            MappedByteBuffer mappedByteBuffer = this.segments.get(i2);
+            while (i3 < this.segmentEnd[i2]) {
+                int i5 = mappedByteBuffer.getInt(i3);
+                if (mappedByteBuffer.get(i3 + 8) == 1) {
+                    int i6 = mappedByteBuffer.getInt(i3 + 12);
+                    if (i6 == id) {
+                        return location(i2, i3);
+                    }
+                    if (i6 > id) {
+                        return NO_LOCATION;
+                    }
+                }
+                i3 += i5;
+            }
+            i2++;
+            i3 = 0;
+        }
+        return NO_LOCATION;
+    }
+
+    private boolean isLive(int id) {
+        return id >= 0 && id < this.messageCount && !this.deleted[id];
+    }
+
+    private int nextLiveSibling(int id) {
+        int i = this.nextSibling[id];
+        while (i != NO_ID && this.deleted[i]) {
+            i = this.nextSibling[i];
+        }
+        return i;
+    }
+
+    private int previousLiveSibling(int id) {
+        int i = this.parent[id];
+        int i2 = NO_ID;
+        for (int i3 = i == NO_ID ? this.rootFirst : this.firstChild[i]; i3 != NO_ID && i3 != id; i3 = this.nextSibling[i3]) {
+            if (!this.deleted[i3]) {
+                i2 = i3;
+            }
+        }
+        return i2;
+    }
+
+    private int lastLiveChild(int id) {
+        int i = NO_ID;
+        for (int i2 = this.firstChild[id]; i2 != NO_ID; i2 = this.nextSibling[i2]) {
+            if (!this.deleted[i2]) {
+                i = i2;
+            }
+        }
+        return i;
+    }
+
+    private int lastLiveRoot() {
+        int i = NO_ID;
+        for (int i2 = this.rootFirst; i2 != NO_ID; i2 = this.nextSibling[i2]) {
+            if (!this.deleted[i2]) {
+                i = i2;
+            }
+        }
+        return i;
+    }
+
+    private int deepestLeaf(int id) {
+        if (id == NO_ID) {
+            return NO_ID;
+        }
+        int i = id;
+        while (true) {
+            int lastLiveChild = lastLiveChild(i);
+            if (lastLiveChild == NO_ID) {
+                return i;
+            }
+            i = lastLiveChild;
+        }
+    }
+
+    private void grow(int id) {
+        int[] iArr = this.parent;
+        if (id < iArr.length) {
+            return;
+        }
+        int length = iArr.length;
+        int max = Math.max(length * 2, id + 1);
+        this.parent = Arrays.copyOf(this.parent, max);
+        this.firstChild = Arrays.copyOf(this.firstChild, max);
+        this.lastChild = Arrays.copyOf(this.lastChild, max);
+        this.nextSibling = Arrays.copyOf(this.nextSibling, max);
+        this.recordSize = Arrays.copyOf(this.recordSize, max);
+        this.deleted = Arrays.copyOf(this.deleted, max);
+        Arrays.fill(this.parent, length, max, NO_ID);
+        Arrays.fill(this.firstChild, length, max, NO_ID);
+        Arrays.fill(this.lastChild, length, max, NO_ID);
+        Arrays.fill(this.nextSibling, length, max, NO_ID);
+        Arrays.fill(this.deleted, length, max, true);
+    }
+
+    private int checksum(byte kind, int id, int parentId, byte[] payload, int length) {
+        this.crc.reset();
+        this.crc.update(kind);
+        this.crc.update(id >>> 24);
+        this.crc.update(id >>> 16);
+        this.crc.update(id >>> 8);
+        this.crc.update(id);
+        this.crc.update(parentId >>> 24);
+        this.crc.update(parentId >>> 16);
+        this.crc.update(parentId >>> 8);
+        this.crc.update(parentId);
+        if (length > 0) {
+            this.crc.update(payload, 0, length);
+        }
+        return (int) this.crc.getValue();
+    }
+
+    private void mapSegment(File file, int size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        if (randomAccessFile.length() < size) {
+            randomAccessFile.setLength(size);
+        }
+        FileChannel channel = randomAccessFile.getChannel();
+        this.segmentChannels.add(channel);
+        this.segments.add(channel.map(FileChannel.MapMode.READ_WRITE, 0L, channel.size()));
+        int size2 = this.segments.size();
+        int[] iArr = this.segmentEnd;
+        if (iArr.length < size2) {
+            this.segmentEnd = Arrays.copyOf(iArr, size2 * 2);
+        }
+    }
+
+    private void closeSegments() throws IOException {
+        for (int i = 0; i < this.segmentChannels.size(); i++) {
+            this.segmentChannels.get(i).close();
+        }
+        this.segmentChannels.clear();
+        this.segments.clear();
+    }
+
+    private void resetState() {
+        this.messageCount = 0;
+        this.parent = new int[0];
+        this.firstChild = new int[0];
+        this.lastChild = new int[0];
+        this.nextSibling = new int[0];
+        this.recordSize = new int[0];
+        this.deleted = new boolean[0];
+        grow(63);
+        this.sparse = new long[16];
+        Arrays.fill(this.sparse, NO_LOCATION);
+        this.segmentEnd = new int[4];
+        this.edits.clear();
+        this.head = NO_ID;
+        this.path = new int[64];
+        this.pathLength = 0;
+        this.rootFirst = NO_ID;
+        this.rootLast = NO_ID;
+        this.totalBytes = 0L;
+        this.deadBytes = 0L;
+    }
+
+    private File segmentFile(int segment) {
+        return new File(this.segmentDir, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+    private static long location(int segment, int position) {
+        return (((long) segment) << 32) | (position & 4294967295L);
+    }
+
+    private static int segmentNumber(File file) {
+        String name = file.getName();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Points the log at the generation named by {@code CURRENT}, or at the top level if there is none. */
+    private void selectGeneration() throws IOException {
+        File file = new File(this.dir, CURRENT_FILE);
+        if (!file.exists()) {
+            this.generation = 0;
+            this.segmentDir = this.dir;
+        } else {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                byte[] bArr = new byte[(int) randomAccessFile.length()];
+                randomAccessFile.readFully(bArr);
+                String trim = new String(bArr, StandardCharsets.UTF_8).trim();
+                int generationNumber = generationNumber(trim);
+                File file2 = new File(this.dir, trim);
+                if (generationNumber <= 0 || !file2.isDirectory()) {
+                    throw new IOException("Invalid " + CURRENT_FILE + " in " + this.dir + ": " + trim);
+                }
+                this.generation = generationNumber;
+                this.segmentDir = file2;
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+        deleteStale();
+    }
+
+    /** Atomically makes {@code name} the current generation. */
+    private void writeCurrent(String name) throws IOException {
+        File file = new File(this.dir, CURRENT_TEMP_FILE);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(0L);
+            randomAccessFile.write(name.getBytes(StandardCharsets.UTF_8));
+            randomAccessFile.getFD().sync();
+            randomAccessFile.close();
+            if (!file.renameTo(new File(this.dir, CURRENT_FILE))) {
+                throw new IOException("Unable to commit compaction of " + this.dir);
+            }
+        } catch (Throwable th) {
+            randomAccessFile.close();
+            file.delete();
+            throw th;
+        }
+    }
+
+    /** Deletes everything in the chat directory that does not belong to the current generation. */
+    private void deleteStale() {
+        File[] listFiles = this.dir.listFiles();
+        if (listFiles == null) {
+            return;
+        }
+        for (File file : listFiles) {
+            String name = file.getName();
+            if (this.generation > 0) {
+                if (!name.equals(CURRENT_FILE) && !file.equals(this.segmentDir)) {
+                    deleteRecursively(file);
+                }
+            } else if (!name.startsWith(SEGMENT_PREFIX)) {
+                deleteRecursively(file);
+            }
+        }
+    }
+
+    private static int generationNumber(String name) {
+        if (!name.startsWith(GENERATION_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(GENERATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] listFiles = file.listFiles();
+        if (listFiles != null) {
+            for (File file2 : listFiles) {
+                deleteRecursively(file2);
+            }
+        }
+        file.delete();
+    }
+}
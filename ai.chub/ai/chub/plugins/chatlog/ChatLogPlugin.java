@@ -0,0 +1,253 @@
+package ai.chub.plugins.chatlog;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+@CapacitorPlugin(name = "ChatLog")
+public class ChatLogPlugin extends Plugin {
+    private ChatLogStore implementation;
+
+    @Override // com.getcapacitor.Plugin
+    public void load() {
+        this.implementation = new ChatLogStore(new File(getContext().getFilesDir(), "chatlogs"));
+    }
+
+    @PluginMethod
+    public void append(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        String string = pluginCall.getString("data");
+        if (string == null) {
+            pluginCall.reject("NO_DATA");
+            return;
+        }
+        try {
+            Integer num = pluginCall.getInt("parentId");
+            ChatLog.Message append = num == null ? chatLog.append(string) : chatLog.append(string, num.intValue());
+            pluginCall.resolve(toJSObject(append, false));
+        } catch (IOException e) {
+            pluginCall.reject("Unable to append message", e);
+        } catch (IllegalArgumentException e2) {
+            pluginCall.reject(e2.getMessage(), "UNKNOWN_MESSAGE");
+        }
+    }
+
+    @PluginMethod
+    public void edit(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        Integer num = pluginCall.getInt("id");
+        String string = pluginCall.getString("data");
+        if (num == null) {
+            pluginCall.reject("NO_ID");
+        } else if (string == null) {
+            pluginCall.reject("NO_DATA");
+        } else {
+            try {
+                chatLog.edit(num.intValue(), string);
+                this.implementation.compactIfNeeded(pluginCall.getString("chatId"), chatLog);
+                pluginCall.resolve();
+            } catch (IOException e) {
+                pluginCall.reject("Unable to edit message", e);
+            } catch (IllegalArgumentException e2) {
+                pluginCall.reject(e2.getMessage(), "UNKNOWN_MESSAGE");
+            }
+        }
+    }
+
+    @PluginMethod
+    public void remove(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        Integer num = pluginCall.getInt("id");
+        if (num == null) {
+            pluginCall.reject("NO_ID");
+            return;
+        }
+        try {
+            chatLog.delete(num.intValue());
+            this.implementation.compactIfNeeded(pluginCall.getString("chatId"), chatLog);
+            pluginCall.resolve(lengthResult(chatLog));
+        } catch (IOException e) {
+            pluginCall.reject("Unable to delete message", e);
+        } catch (IllegalArgumentException e2) {
+            pluginCall.reject(e2.getMessage(), "UNKNOWN_MESSAGE");
+        }
+    }
+
+    @PluginMethod
+    public void setHead(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        Integer num = pluginCall.getInt("id");
+        if (num == null) {
+            pluginCall.reject("NO_ID");
+            return;
+        }
+        try {
+            chatLog.setHead(num.intValue());
+            pluginCall.resolve(lengthResult(chatLog));
+        } catch (IOException e) {
+            pluginCall.reject("Unable to move head", e);
+        } catch (IllegalArgumentException e2) {
+            pluginCall.reject(e2.getMessage(), "UNKNOWN_MESSAGE");
+        }
+    }
+
+    @PluginMethod
+    public void swipe(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        Integer num = pluginCall.getInt("index");
+        if (num == null) {
+            pluginCall.reject("NO_INDEX");
+            return;
+        }
+        try {
+            int swipe = chatLog.swipe(num.intValue(), pluginCall.getInt("direction", 1).intValue());
+            JSObject lengthResult = lengthResult(chatLog);
+            lengthResult.put("id", swipe);
+            pluginCall.resolve(lengthResult);
+        } catch (IOException e) {
+            pluginCall.reject("Unable to swipe", e);
+        } catch (IndexOutOfBoundsException e2) {
+            pluginCall.reject(e2.getMessage(), "OUT_OF_RANGE");
+        }
+    }
+
+    @PluginMethod
+    public void read(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        try {
+            int size = chatLog.size();
+            int intValue = pluginCall.getInt("count", 50).intValue();
+            Integer num = pluginCall.getInt("start");
+            int max = num != null ? num.intValue() : Math.max(size - intValue, 0);
+            JSArray jSArray = new JSArray();
+            Iterator<ChatLog.Message> it = chatLog.readPage(max, intValue).iterator();
+            while (it.hasNext()) {
+                jSArray.put(toJSObject(it.next(), true));
+            }
+            JSObject jSObject = new JSObject();
+            jSObject.put("messages", (Object) jSArray);
+            jSObject.put("start", max);
+            jSObject.put("length", size);
+            pluginCall.resolve(jSObject);
+        } catch (IOException e) {
+            pluginCall.reject("Unable to read messages", e);
+        }
+    }
+
+    @PluginMethod
+    public void length(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        pluginCall.resolve(lengthResult(chatLog));
+    }
+
+    @PluginMethod
+    public void compact(PluginCall pluginCall) {
+        ChatLog chatLog = getChatLog(pluginCall);
+        if (chatLog == null) {
+            return;
+        }
+        try {
+            this.implementation.compact(pluginCall.getString("chatId"));
+            JSObject lengthResult = lengthResult(chatLog);
+            lengthResult.put("bytes", chatLog.getTotalBytes());
+            pluginCall.resolve(lengthResult);
+        } catch (IOException e) {
+            pluginCall.reject("Unable to compact chat log", e);
+        }
+    }
+
+    @PluginMethod
+    public void deleteChat(PluginCall pluginCall) {
+        String string = pluginCall.getString("chatId");
+        if (string == null) {
+            pluginCall.reject("NO_CHAT_ID");
+            return;
+        }
+        try {
+            this.implementation.delete(string);
+            pluginCall.resolve();
+        } catch (IOException e) {
+            pluginCall.reject("Unable to delete chat log", e);
+        }
+    }
+
+    @PluginMethod
+    public void flush(PluginCall pluginCall) {
+        this.implementation.flushAll();
+        pluginCall.resolve();
+    }
+
+    /* JADX INFO: Access modifiers changed from: protected */
+    @Override // com.getcapacitor.Plugin
+    public void handleOnPause() {
+        super.handleOnPause();
+        this.implementation.flushAll();
+    }
+
+    /* JADX INFO: Access modifiers changed from: protected */
+    @Override // com.getcapacitor.Plugin
+    public void handleOnDestroy() {
+        super.handleOnDestroy();
+        this.implementation.closeAll();
+    }
+
+    private ChatLog getChatLog(PluginCall pluginCall) {
+        String string = pluginCall.getString("chatId");
+        if (string == null) {
+            pluginCall.reject("NO_CHAT_ID");
+            return null;
+        }
+        try {
+            return this.implementation.get(string);
+        } catch (IOException e) {
+            pluginCall.reject("Unable to open chat log", e);
+            return null;
+        }
+    }
+
+    private static JSObject lengthResult(ChatLog chatLog) {
+        JSObject jSObject = new JSObject();
+        jSObject.put("length", chatLog.size());
+        jSObject.put("head", chatLog.getHead());
+        return jSObject;
+    }
+
+    private static JSObject toJSObject(ChatLog.Message message, boolean withData) {
+        JSObject jSObject = new JSObject();
+        jSObject.put("id", message.id);
+        jSObject.put("index", message.index);
+        jSObject.put("parentId", message.parentId);
+        jSObject.put("swipeIndex", message.swipeIndex);
+        jSObject.put("swipeCount", message.swipeCount);
+        if (withData) {
+            jSObject.put("data", message.data);
+        }
+        return jSObject;
+    }
+}
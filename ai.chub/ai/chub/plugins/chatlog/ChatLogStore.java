@@ -0,0 +1,171 @@
+package ai.chub.plugins.chatlog;
+
+import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps at most {@link #MAX_OPEN_LOGS} chat logs open, evicting the least recently used. A log is
+ * pinned while it is being compacted so eviction never closes it underneath the compactor, and
+ * every log is opened through {@link #get}, so each chat directory has at most one open
+ * {@link ChatLog}.
+ */
+public class ChatLogStore {
+    private static final int MAX_OPEN_LOGS = 8;
+    private static final String TAG = "ChatLogStore";
+    private final File baseDir;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor();
+    private final LinkedHashMap<String, ChatLog> logs = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<String, Integer> pinned = new HashMap<>();
+
+    public ChatLogStore(File baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    public synchronized ChatLog get(String chatId) throws IOException {
+        ChatLog chatLog = this.logs.get(chatId);
+        if (chatLog != null) {
+            return chatLog;
+        }
+        ChatLog chatLog2 = new ChatLog(new File(this.baseDir, fileName(chatId)));
+        this.logs.put(chatId, chatLog2);
+        trim();
+        return chatLog2;
+    }
+
+    /** Closes the least recently used logs that are not pinned until at most {@link #MAX_OPEN_LOGS} remain. */
+    private void trim() {
+        Iterator<Map.Entry<String, ChatLog>> it = this.logs.entrySet().iterator();
+        while (this.logs.size() > MAX_OPEN_LOGS && it.hasNext()) {
+            Map.Entry<String, ChatLog> next = it.next();
+            if (!this.pinned.containsKey(next.getKey())) {
+                it.remove();
+                closeQuietly(next.getValue());
+            }
+        }
+    }
+
+    /** Returns the open log of {@code chatId} pinned against eviction, or null if it is not open. */
+    private synchronized ChatLog pin(String chatId) {
+        ChatLog chatLog = this.logs.get(chatId);
+        if (chatLog != null) {
+            Integer num = this.pinned.get(chatId);
+            this.pinned.put(chatId, Integer.valueOf(num == null ? 1 : num.intValue() + 1));
+        }
+        return chatLog;
+    }
+
+    private synchronized void unpin(String chatId) {
+        Integer num = this.pinned.get(chatId);
+        if (num == null) {
+            return;
+        }
+        if (num.intValue() > 1) {
+            this.pinned.put(chatId, Integer.valueOf(num.intValue() - 1));
+            return;
+        }
+        this.pinned.remove(chatId);
+        trim();
+    }
+
+    /** Compacts the log of {@code chatId} now and returns it. */
+    public ChatLog compact(String chatId) throws IOException {
+        ChatLog pin;
+        synchronized (this) {
+            get(chatId);
+            pin = pin(chatId);
+        }
+        try {
+            pin.compact();
+            return pin;
+        } finally {
+            unpin(chatId);
+        }
+    }
+
+    /** Compacts the log of {@code chatId} in the background if it is worth it and the log is still open then. */
+    public void compactIfNeeded(final String chatId, ChatLog log) {
+        if (log.shouldCompact()) {
+            this.compactor.execute(new Runnable() { // from class: ai.chub.plugins.chatlog.ChatLogStore.1
+                @Override // java.lang.Runnable
+                public void run() {
+                    ChatLog pin = ChatLogStore.this.pin(chatId);
+                    if (pin == null) {
+                        return;
+                    }
+                    try {
+                        if (pin.shouldCompact()) {
+                            pin.compact();
+                        }
+                    } catch (IOException e) {
+                        Log.e(ChatLogStore.TAG, "Compaction failed", e);
+                    } finally {
+                        ChatLogStore.this.unpin(chatId);
+                    }
+                }
+            });
+        }
+    }
+
+    public synchronized void delete(String chatId) throws IOException {
+        ChatLog remove = this.logs.remove(chatId);
+        if (remove != null) {
+            remove.close();
+        }
+        deleteRecursively(new File(this.baseDir, fileName(chatId)));
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] listFiles = file.listFiles();
+        if (listFiles != null) {
+            for (File file2 : listFiles) {
+                deleteRecursively(file2);
+            }
+        }
+        file.delete();
+    }
+
+    public synchronized void flushAll() {
+        Iterator<ChatLog> it = this.logs.values().iterator();
+        while (it.hasNext()) {
+            it.next().flush();
+        }
+    }
+
+    public synchronized void closeAll() {
+        ArrayList arrayList = new ArrayList(this.logs.values());
+        this.logs.clear();
+        Iterator it = arrayList.iterator();
+        while (it.hasNext()) {
+            closeQuietly((ChatLog) it.next());
+        }
+    }
+
+    private static void closeQuietly(ChatLog log) {
+        try {
+            log.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to close chat log", e);
+        }
+    }
+
+    static String fileName(String chatId) {
+        StringBuilder sb = new StringBuilder(chatId.length());
+        for (int i = 0; i < chatId.length(); i++) {
+            char charAt = chatId.charAt(i);
+            if ((charAt >= 'a' && charAt <= 'z') || ((charAt >= 'A' && charAt <= 'Z') || ((charAt >= '0' && charAt <= '9') || charAt == '-' || charAt == '_'))) {
+                sb.append(charAt);
+            } else {
+                sb.append('%').append(String.format("%04x", Integer.valueOf(charAt)));
+            }
+        }
+        return sb.toString();
+    }
+}
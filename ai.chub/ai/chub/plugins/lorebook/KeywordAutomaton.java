@@ -0,0 +1,193 @@
+package ai.chub.plugins.lorebook;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Aho-Corasick automaton over UTF-16 code units. The trie is flattened into sorted edge arrays so
+ * that scanning a message does not allocate; each key carries the index of the entry it activates.
+ */
+final class KeywordAutomaton {
+    private final int[] dictLink;
+    private final int[] edgeStart;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] fail;
+    private final boolean ignoreCase;
+    private final int[] keyEntry;
+    private final int[] keyLength;
+    private final int[] outKeys;
+    private final int[] outStart;
+
+    interface MatchSink {
+        void onMatch(int entry);
+    }
+
+    KeywordAutomaton(String[] keys, int[] keyEntry, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.keyEntry = keyEntry;
+        int length = keys.length;
+        this.keyLength = new int[length];
+        int[] iArr = new int[length];
+        HashMap<Long, Integer> hashMap = new HashMap<>();
+        int[] iArr2 = new int[16];
+        char[] cArr = new char[16];
+        int i = 1;
+        for (int i2 = 0; i2 < length; i2++) {
+            String str = keys[i2];
+            int i3 = 0;
+            for (int i4 = 0; i4 < str.length(); i4++) {
+                char fold = fold(str.charAt(i4));
+                Long valueOf = Long.valueOf((((long) i3) << 16) | fold);
+                Integer num = hashMap.get(valueOf);
+                if (num == null) {
+                    if (i == iArr2.length) {
+                        iArr2 = Arrays.copyOf(iArr2, i * 2);
+                        cArr = Arrays.copyOf(cArr, i * 2);
+                    }
+                    iArr2[i] = i3;
+                    cArr[i] = fold;
+                    num = Integer.valueOf(i);
+                    hashMap.put(valueOf, num);
+                    i++;
+                }
+                i3 = num.intValue();
+            }
+            iArr[i2] = i3;
+            this.keyLength[i2] = str.length();
+        }
+        this.edgeStart = new int[i + 1];
+        for (int i5 = 1; i5 < i; i5++) {
+            int[] iArr3 = this.edgeStart;
+            int i6 = iArr2[i5] + 1;
+            iArr3[i6] = iArr3[i6] + 1;
+        }
+        for (int i7 = 0; i7 < i; i7++) {
+            int[] iArr4 = this.edgeStart;
+            int i8 = i7 + 1;
+            iArr4[i8] = iArr4[i8] + iArr4[i7];
+        }
+        this.edgeLabel = new char[i - 1];
+        this.edgeTarget = new int[i - 1];
+        int[] copyOf2 = Arrays.copyOf(this.edgeStart, i);
+        for (int i9 = 1; i9 < i; i9++) {
+            int i10 = iArr2[i9];
+            int i11 = copyOf2[i10];
+            int i12 = i11;
+            while (i12 > this.edgeStart[i10] && this.edgeLabel[i12 - 1] > cArr[i9]) {
+                this.edgeLabel[i12] = this.edgeLabel[i12 - 1];
+                this.edgeTarget[i12] = this.edgeTarget[i12 - 1];
+                i12--;
+            }
+            this.edgeLabel[i12] = cArr[i9];
+            this.edgeTarget[i12] = i9;
+            copyOf2[i10] = i11 + 1;
+        }
+        this.outStart = new int[i + 1];
+        for (int i11 : iArr) {
+            int[] iArr4 = this.outStart;
+            int i12 = i11 + 1;
+            iArr4[i12] = iArr4[i12] + 1;
+        }
+        for (int i13 = 0; i13 < i; i13++) {
+            int[] iArr5 = this.outStart;
+            int i14 = i13 + 1;
+            iArr5[i14] = iArr5[i14] + iArr5[i13];
+        }
+        this.outKeys = new int[length];
+        int[] copyOf = Arrays.copyOf(this.outStart, i);
+        for (int i15 = 0; i15 < length; i15++) {
+            int i16 = iArr[i15];
+            int i17 = copyOf[i16];
+            copyOf[i16] = i17 + 1;
+            this.outKeys[i17] = i15;
+        }
+        this.fail = new int[i];
+        this.dictLink = new int[i];
+        Arrays.fill(this.dictLink, -1);
+        ArrayDeque<Integer> arrayDeque = new ArrayDeque<>();
+        for (int i18 = this.edgeStart[0]; i18 < this.edgeStart[1]; i18++) {
+            arrayDeque.add(Integer.valueOf(this.edgeTarget[i18]));
+        }
+        while (!arrayDeque.isEmpty()) {
+            int intValue = arrayDeque.poll().intValue();
+            for (int i19 = this.edgeStart[intValue]; i19 < this.edgeStart[intValue + 1]; i19++) {
+                char c = this.edgeLabel[i19];
+                int i20 = this.edgeTarget[i19];
+                int i21 = this.fail[intValue];
+                int transition = transition(i21, c);
+                while (transition < 0 && i21 != 0) {
+                    i21 = this.fail[i21];
+                    transition = transition(i21, c);
+                }
+                int i22 = transition < 0 ? 0 : transition;
+                this.fail[i20] = i22;
+                this.dictLink[i20] = hasOutput(i22) ? i22 : this.dictLink[i22];
+                arrayDeque.add(Integer.valueOf(i20));
+            }
+        }
+    }
+
+    int keyCount() {
+        return this.keyEntry.length;
+    }
+
+    int nodeCount() {
+        return this.fail.length;
+    }
+
+    void scan(CharSequence text, boolean matchWholeWords, MatchSink sink) {
+        int length = text.length();
+        int i = 0;
+        for (int i2 = 0; i2 < length; i2++) {
+            char fold = fold(text.charAt(i2));
+            int transition = transition(i, fold);
+            while (transition < 0 && i != 0) {
+                i = this.fail[i];
+                transition = transition(i, fold);
+            }
+            i = transition < 0 ? 0 : transition;
+            for (int i3 = hasOutput(i) ? i : this.dictLink[i]; i3 >= 0; i3 = this.dictLink[i3]) {
+                for (int i4 = this.outStart[i3]; i4 < this.outStart[i3 + 1]; i4++) {
+                    int i5 = this.outKeys[i4];
+                    if (!matchWholeWords || isWordBoundary(text, (i2 - this.keyLength[i5]) + 1, i2 + 1)) {
+                        sink.onMatch(this.keyEntry[i5]);
+                    }
+                }
+            }
+        }
+    }
+
+    private int transition(int node, char c) {
+        int i = this.edgeStart[node];
+        int i2 = this.edgeStart[node + 1] - 1;
+        while (i <= i2) {
+            int i3 = (i + i2) >>> 1;
+            char c2 = this.edgeLabel[i3];
+            if (c2 < c) {
+                i = i3 + 1;
+            } else if (c2 > c) {
+                i2 = i3 - 1;
+            } else {
+                return this.edgeTarget[i3];
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasOutput(int node) {
+        return this.outStart[node + 1] > this.outStart[node];
+    }
+
+    private char fold(char c) {
+        return this.ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private static boolean isWordBoundary(CharSequence text, int start, int end) {
+        if (start <= 0 || !Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return end >= text.length() || !Character.isLetterOrDigit(text.charAt(end));
+        }
+        return false;
+    }
+}
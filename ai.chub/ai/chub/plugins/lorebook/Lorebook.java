@@ -0,0 +1,145 @@
+package ai.chub.plugins.lorebook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A lorebook compiled into keyword automata. Case-sensitive and case-insensitive keys are kept in
+ * separate automata so that the case-insensitive one can fold text one code unit at a time.
+ */
+public class Lorebook {
+    private final boolean[] constant;
+    private final int[] depth;
+    private final Object[] entryIds;
+    private final KeywordAutomaton insensitive;
+    private final boolean matchWholeWords;
+    private final int maxDepth;
+    private final int[] order;
+    private final int[] ranked;
+    private final KeywordAutomaton sensitive;
+
+    public static class Entry {
+        public boolean caseSensitive;
+        public boolean constant;
+        public int depth;
+        public boolean enabled = true;
+        public Object id;
+        public int insertionOrder;
+        public List<String> keys = new ArrayList();
+        public int priority;
+    }
+
+    public Lorebook(List<Entry> entries, int scanDepth, boolean matchWholeWords) {
+        this.matchWholeWords = matchWholeWords;
+        int size = entries.size();
+        this.entryIds = new Object[size];
+        this.depth = new int[size];
+        this.constant = new boolean[size];
+        ArrayList arrayList = new ArrayList();
+        ArrayList arrayList2 = new ArrayList();
+        ArrayList arrayList3 = new ArrayList();
+        ArrayList arrayList4 = new ArrayList();
+        int i = Math.max(scanDepth, 1);
+        for (int i2 = 0; i2 < size; i2++) {
+            Entry entry = entries.get(i2);
+            this.entryIds[i2] = entry.id;
+            this.depth[i2] = entry.depth > 0 ? entry.depth : Math.max(scanDepth, 1);
+            this.constant[i2] = entry.enabled && entry.constant;
+            i = Math.max(i, this.depth[i2]);
+            if (entry.enabled) {
+                for (String str : entry.keys) {
+                    String trim = str == null ? null : str.trim();
+                    if (trim != null && !trim.isEmpty()) {
+                        if (entry.caseSensitive) {
+                            arrayList.add(trim);
+                            arrayList2.add(Integer.valueOf(i2));
+                        } else {
+                            arrayList3.add(trim);
+                            arrayList4.add(Integer.valueOf(i2));
+                        }
+                    }
+                }
+            }
+        }
+        this.maxDepth = i;
+        this.sensitive = arrayList.isEmpty() ? null : new KeywordAutomaton((String[]) arrayList.toArray(new String[0]), toIntArray(arrayList2), false);
+        this.insensitive = arrayList3.isEmpty() ? null : new KeywordAutomaton((String[]) arrayList3.toArray(new String[0]), toIntArray(arrayList4), true);
+        Integer[] numArr = new Integer[size];
+        for (int i3 = 0; i3 < size; i3++) {
+            numArr[i3] = Integer.valueOf(i3);
+        }
+        Arrays.sort(numArr, (num, num2) -> {
+            Entry entry2 = entries.get(num.intValue());
+            Entry entry3 = entries.get(num2.intValue());
+            if (entry2.priority != entry3.priority) {
+                return Integer.compare(entry3.priority, entry2.priority);
+            }
+            if (entry2.insertionOrder != entry3.insertionOrder) {
+                return Integer.compare(entry2.insertionOrder, entry3.insertionOrder);
+            }
+            return Integer.compare(num.intValue(), num2.intValue());
+        });
+        this.order = new int[size];
+        this.ranked = new int[size];
+        for (int i4 = 0; i4 < size; i4++) {
+            int intValue = numArr[i4].intValue();
+            this.order[intValue] = i4;
+            this.ranked[i4] = intValue;
+        }
+    }
+
+    public int getEntryCount() {
+        return this.entryIds.length;
+    }
+
+    public int getKeyCount() {
+        KeywordAutomaton keywordAutomaton = this.sensitive;
+        int keyCount = keywordAutomaton == null ? 0 : keywordAutomaton.keyCount();
+        KeywordAutomaton keywordAutomaton2 = this.insensitive;
+        return keyCount + (keywordAutomaton2 != null ? keywordAutomaton2.keyCount() : 0);
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    Object getEntryId(int entry) {
+        return this.entryIds[entry];
+    }
+
+    int getDepth(int entry) {
+        return this.depth[entry];
+    }
+
+    boolean isConstant(int entry) {
+        return this.constant[entry];
+    }
+
+    int getOrder(int entry) {
+        return this.order[entry];
+    }
+
+    int getEntryAtRank(int rank) {
+        return this.ranked[rank];
+    }
+
+    void scan(CharSequence text, KeywordAutomaton.MatchSink sink) {
+        KeywordAutomaton keywordAutomaton = this.sensitive;
+        if (keywordAutomaton != null) {
+            keywordAutomaton.scan(text, this.matchWholeWords, sink);
+        }
+        KeywordAutomaton keywordAutomaton2 = this.insensitive;
+        if (keywordAutomaton2 != null) {
+            keywordAutomaton2.scan(text, this.matchWholeWords, sink);
+        }
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] iArr = new int[list.size()];
+        for (int i = 0; i < iArr.length; i++) {
+            iArr[i] = list.get(i).intValue();
+        }
+        return iArr;
+    }
+}
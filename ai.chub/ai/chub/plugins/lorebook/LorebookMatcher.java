@@ -0,0 +1,88 @@
+package ai.chub.plugins.lorebook;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class LorebookMatcher {
+    private final HashMap<String, Lorebook> books = new HashMap<>();
+    private final HashMap<String, ScanWindow> windows = new HashMap<>();
+
+    public static class Message {
+        public int index;
+        public String text;
+
+        public Message(int index, String text) {
+            this.index = index;
+            this.text = text;
+        }
+    }
+
+    public synchronized Lorebook compile(String bookId, List<Lorebook.Entry> entries, int scanDepth, boolean matchWholeWords) {
+        Lorebook lorebook = new Lorebook(entries, scanDepth, matchWholeWords);
+        this.books.put(bookId, lorebook);
+        return lorebook;
+    }
+
+    public synchronized Object[] scan(String bookId, String chatId, List<Message> messages) {
+        Lorebook lorebook = this.books.get(bookId);
+        if (lorebook == null) {
+            return null;
+        }
+        String windowKey = windowKey(bookId, chatId);
+        ScanWindow scanWindow = this.windows.get(windowKey);
+        if (scanWindow == null) {
+            scanWindow = new ScanWindow(lorebook);
+            this.windows.put(windowKey, scanWindow);
+        } else {
+            scanWindow.rebind(lorebook);
+        }
+        int size = messages.size();
+        int horizon = size == 0 ? 0 : messages.get(size - 1).index - lorebook.getMaxDepth();
+        for (Message message : messages) {
+            if (message.index > horizon) {
+                scanWindow.append(message.index, message.text);
+            }
+        }
+        int[] activated = scanWindow.activated();
+        Object[] objArr = new Object[activated.length];
+        for (int i = 0; i < activated.length; i++) {
+            objArr[i] = lorebook.getEntryId(activated[i]);
+        }
+        return objArr;
+    }
+
+    public synchronized int lastScannedIndex(String bookId, String chatId) {
+        ScanWindow scanWindow = this.windows.get(windowKey(bookId, chatId));
+        if (scanWindow == null || scanWindow.getBook() != this.books.get(bookId)) {
+            return -1;
+        }
+        return scanWindow.getNewest();
+    }
+
+    public synchronized void resetChat(String chatId) {
+        String str = "\u0000" + chatId;
+        Iterator<Map.Entry<String, ScanWindow>> it = this.windows.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey().endsWith(str)) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void release(String bookId) {
+        this.books.remove(bookId);
+        String str = bookId + "\u0000";
+        Iterator<Map.Entry<String, ScanWindow>> it = this.windows.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey().startsWith(str)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String windowKey(String bookId, String chatId) {
+        return bookId + "\u0000" + chatId;
+    }
+}
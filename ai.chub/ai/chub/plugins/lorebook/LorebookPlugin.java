@@ -0,0 +1,131 @@
+package ai.chub.plugins.lorebook;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+@CapacitorPlugin(name = "Lorebook")
+public class LorebookPlugin extends Plugin {
+    private static final int DEFAULT_SCAN_DEPTH = 2;
+    private LorebookMatcher implementation;
+
+    @Override // com.getcapacitor.Plugin
+    public void load() {
+        this.implementation = new LorebookMatcher();
+    }
+
+    @PluginMethod
+    public void compile(PluginCall pluginCall) {
+        String string = pluginCall.getString("bookId");
+        JSArray array = pluginCall.getArray("entries");
+        if (string == null) {
+            pluginCall.reject("NO_BOOK_ID");
+        } else if (array == null) {
+            pluginCall.reject("NO_ENTRIES");
+        } else {
+            try {
+                ArrayList arrayList = new ArrayList();
+                for (int i = 0; i < array.length(); i++) {
+                    arrayList.add(parseEntry(array.getJSONObject(i), i));
+                }
+                Lorebook compile = this.implementation.compile(string, arrayList, pluginCall.getInt("scanDepth", Integer.valueOf(DEFAULT_SCAN_DEPTH)).intValue(), pluginCall.getBoolean("matchWholeWords", false).booleanValue());
+                JSObject jSObject = new JSObject();
+                jSObject.put("entryCount", compile.getEntryCount());
+                jSObject.put("keyCount", compile.getKeyCount());
+                jSObject.put("maxDepth", compile.getMaxDepth());
+                pluginCall.resolve(jSObject);
+            } catch (JSONException e) {
+                pluginCall.reject("Invalid lorebook entry", e);
+            }
+        }
+    }
+
+    @PluginMethod
+    public void scan(PluginCall pluginCall) {
+        String string = pluginCall.getString("bookId");
+        String string2 = pluginCall.getString("chatId");
+        JSArray array = pluginCall.getArray("messages", new JSArray());
+        if (string == null) {
+            pluginCall.reject("NO_BOOK_ID");
+        } else if (string2 == null) {
+            pluginCall.reject("NO_CHAT_ID");
+        } else {
+            try {
+                int lastScannedIndex = this.implementation.lastScannedIndex(string, string2);
+                ArrayList arrayList = new ArrayList();
+                for (int i = 0; i < array.length(); i++) {
+                    Object obj = array.get(i);
+                    if (obj instanceof JSONObject) {
+                        JSONObject jSONObject = (JSONObject) obj;
+                        arrayList.add(new LorebookMatcher.Message(jSONObject.optInt("index", lastScannedIndex + 1 + i), jSONObject.optString("text", null)));
+                    } else {
+                        arrayList.add(new LorebookMatcher.Message(lastScannedIndex + 1 + i, String.valueOf(obj)));
+                    }
+                }
+                Object[] scan = this.implementation.scan(string, string2, arrayList);
+                if (scan == null) {
+                    pluginCall.reject("Lorebook " + string + " has not been compiled", "BOOK_NOT_COMPILED");
+                    return;
+                }
+                JSArray jSArray = new JSArray();
+                for (Object obj2 : scan) {
+                    jSArray.put(obj2);
+                }
+                JSObject jSObject = new JSObject();
+                jSObject.put("activated", (Object) jSArray);
+                jSObject.put("lastIndex", this.implementation.lastScannedIndex(string, string2));
+                pluginCall.resolve(jSObject);
+            } catch (JSONException e) {
+                pluginCall.reject("Invalid message list", e);
+            }
+        }
+    }
+
+    @PluginMethod
+    public void resetChat(PluginCall pluginCall) {
+        String string = pluginCall.getString("chatId");
+        if (string == null) {
+            pluginCall.reject("NO_CHAT_ID");
+            return;
+        }
+        this.implementation.resetChat(string);
+        pluginCall.resolve();
+    }
+
+    @PluginMethod
+    public void release(PluginCall pluginCall) {
+        String string = pluginCall.getString("bookId");
+        if (string == null) {
+            pluginCall.reject("NO_BOOK_ID");
+            return;
+        }
+        this.implementation.release(string);
+        pluginCall.resolve();
+    }
+
+    private static Lorebook.Entry parseEntry(JSONObject jSONObject, int i) throws JSONException {
+        Lorebook.Entry entry = new Lorebook.Entry();
+        entry.id = jSONObject.has("id") ? jSONObject.get("id") : Integer.valueOf(i);
+        entry.caseSensitive = jSONObject.optBoolean("case_sensitive", false);
+        entry.constant = jSONObject.optBoolean("constant", false);
+        entry.enabled = jSONObject.optBoolean("enabled", true);
+        entry.insertionOrder = jSONObject.optInt("insertion_order", i);
+        entry.priority = jSONObject.optInt("priority", 0);
+        entry.depth = jSONObject.optInt("depth", 0);
+        JSONArray optJSONArray = jSONObject.optJSONArray("keys");
+        List<String> list = entry.keys;
+        if (optJSONArray != null) {
+            for (int i2 = 0; i2 < optJSONArray.length(); i2++) {
+                list.add(optJSONArray.optString(i2, null));
+            }
+        }
+        return entry;
+    }
+}
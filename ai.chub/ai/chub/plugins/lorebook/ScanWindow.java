@@ -0,0 +1,135 @@
+package ai.chub.plugins.lorebook;
+
+import java.util.Arrays;
+
+/**
+ * Per-chat scan state for one lorebook. Keeps the match set of the last {@code maxDepth} messages
+ * in a ring indexed by message position, so appending a message only scans that message.
+ */
+final class ScanWindow implements KeywordAutomaton.MatchSink {
+    private static final int[] EMPTY = new int[0];
+    private Lorebook book;
+    private int[] indices;
+    private int[][] matches;
+    private int newest = -1;
+    private int[] scratch = new int[16];
+    private int scratchSize;
+    private int[] stamp;
+    private int stampValue;
+    private String[] texts;
+
+    ScanWindow(Lorebook book) {
+        bind(book);
+    }
+
+    Lorebook getBook() {
+        return this.book;
+    }
+
+    void rebind(Lorebook lorebook) {
+        if (this.book == lorebook) {
+            return;
+        }
+        int[] iArr = this.indices;
+        String[] strArr = this.texts;
+        int i = this.newest;
+        bind(lorebook);
+        if (i < 0) {
+            return;
+        }
+        int max = Math.max(0, (i - this.indices.length) + 1);
+        for (int i2 = max; i2 <= i; i2++) {
+            int length = i2 % iArr.length;
+            if (iArr[length] == i2) {
+                append(i2, strArr[length]);
+            }
+        }
+        this.newest = i;
+    }
+
+    int getNewest() {
+        return this.newest;
+    }
+
+    void append(int index, String text) {
+        if (index < 0 || index <= this.newest - this.indices.length) {
+            return;
+        }
+        int length = index % this.indices.length;
+        this.indices[length] = index;
+        this.texts[length] = text;
+        this.scratchSize = 0;
+        this.stampValue++;
+        if (text != null) {
+            this.book.scan(text, this);
+        }
+        this.matches[length] = this.scratchSize == 0 ? EMPTY : Arrays.copyOf(this.scratch, this.scratchSize);
+        this.newest = index;
+    }
+
+    int[] activated() {
+        this.stampValue++;
+        this.scratchSize = 0;
+        int length = this.indices.length;
+        for (int i = 0; i < length; i++) {
+            int i2 = this.newest - i;
+            if (i2 < 0) {
+                break;
+            }
+            int i3 = i2 % length;
+            if (this.indices[i3] == i2) {
+                for (int i4 : this.matches[i3]) {
+                    if (i < this.book.getDepth(i4)) {
+                        onMatch(i4);
+                    }
+                }
+            }
+        }
+        int entryCount = this.book.getEntryCount();
+        for (int i5 = 0; i5 < entryCount; i5++) {
+            if (this.book.isConstant(i5)) {
+                onMatch(i5);
+            }
+        }
+        int[] iArr = new int[this.scratchSize];
+        for (int i6 = 0; i6 < iArr.length; i6++) {
+            iArr[i6] = this.book.getOrder(this.scratch[i6]);
+        }
+        Arrays.sort(iArr);
+        for (int i7 = 0; i7 < iArr.length; i7++) {
+            iArr[i7] = this.book.getEntryAtRank(iArr[i7]);
+        }
+        return iArr;
+    }
+
+    @Override // ai.chub.plugins.lorebook.KeywordAutomaton.MatchSink
+    public void onMatch(int entry) {
+        int[] iArr = this.stamp;
+        int i = this.stampValue;
+        if (iArr[entry] == i) {
+            return;
+        }
+        iArr[entry] = i;
+        int i2 = this.scratchSize;
+        int[] iArr2 = this.scratch;
+        if (i2 == iArr2.length) {
+            this.scratch = Arrays.copyOf(iArr2, i2 * 2);
+        }
+        int[] iArr3 = this.scratch;
+        int i3 = this.scratchSize;
+        this.scratchSize = i3 + 1;
+        iArr3[i3] = entry;
+    }
+
+    private void bind(Lorebook lorebook) {
+        this.book = lorebook;
+        int maxDepth = lorebook.getMaxDepth();
+        this.indices = new int[maxDepth];
+        Arrays.fill(this.indices, -1);
+        this.texts = new String[maxDepth];
+        this.matches = new int[maxDepth][];
+        this.stamp = new int[lorebook.getEntryCount()];
+        this.stampValue = 0;
+        this.newest = -1;
+    }
+}
@@ -0,0 +1,43 @@
+package ai.chub.plugins.search;
+
+/**
+ * Splits text into lower-cased terms made of letters and digits. Offsets refer to the original
+ * text so that matches can be highlighted.
+ */
+final class Analyzer {
+    static final int MAX_TERM_LENGTH = 64;
+
+    interface TermSink {
+        void onTerm(String term, int start, int end);
+    }
+
+    private Analyzer() {
+    }
+
+    static void analyze(CharSequence text, TermSink sink) {
+        int length = text.length();
+        StringBuilder sb = new StringBuilder(16);
+        int i = 0;
+        while (i < length) {
+            while (i < length && !isTermChar(text.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                return;
+            }
+            int i2 = i;
+            sb.setLength(0);
+            while (i < length && isTermChar(text.charAt(i))) {
+                if (sb.length() < MAX_TERM_LENGTH) {
+                    sb.append(Character.toLowerCase(text.charAt(i)));
+                }
+                i++;
+            }
+            sink.onTerm(sb.toString(), i2, i);
+        }
+    }
+
+    private static boolean isTermChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+}
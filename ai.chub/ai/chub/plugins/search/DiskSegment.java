@@ -0,0 +1,509 @@
+package ai.chub.plugins.search;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable segment backed by a memory-mapped file written by {@link SegmentWriter}. Only every
+ * {@link SegmentWriter#SPARSE_INTERVAL}th term, the group names and the deletions are held on the
+ * heap; postings are varint encoded and decoded straight from the mapping.
+ */
+final class DiskSegment implements Segment {
+    static final Comparator<String> TERM_ORDER = new Comparator<String>() { // from class: ai.chub.plugins.search.DiskSegment.1
+        @Override // java.util.Comparator
+        public int compare(String a, String b) {
+            int min = Math.min(a.length(), b.length());
+            for (int i = 0; i < min; i++) {
+                char charAt = a.charAt(i);
+                char charAt2 = b.charAt(i);
+                if (charAt != charAt2) {
+                    return codeUnitOrder(charAt) - codeUnitOrder(charAt2);
+                }
+            }
+            return a.length() - b.length();
+        }
+    };
+    private final MappedByteBuffer buffer;
+    private final BitSet deleted;
+    private volatile boolean deletionsDirty;
+    private final int docCount;
+    private final int docTableOffset;
+    private final File file;
+    private final long generation;
+    private final String[] groupNames;
+    private final int idTableOffset;
+    private final int idTableSize;
+    private final int postingsOffset;
+    private final int[] sparseOffsets;
+    private final byte[][] sparseTerms;
+    private final int termCount;
+    private final int termsEnd;
+    private final int termsOffset;
+    private final long totalLength;
+
+    /** Sequential reader over the mapping; each caller owns its own position. */
+    final class Reader {
+        int position;
+
+        Reader(int position) {
+            this.position = position;
+        }
+
+        int readVarInt() {
+            MappedByteBuffer mappedByteBuffer = DiskSegment.this.buffer;
+            int i = this.position;
+            this.position = i + 1;
+            byte b = mappedByteBuffer.get(i);
+            if (b >= 0) {
+                return b;
+            }
+            int i2 = b & Byte.MAX_VALUE;
+            int i3 = 7;
+            while (true) {
+                MappedByteBuffer mappedByteBuffer2 = DiskSegment.this.buffer;
+                int i4 = this.position;
+                this.position = i4 + 1;
+                byte b2 = mappedByteBuffer2.get(i4);
+                i2 |= (b2 & Byte.MAX_VALUE) << i3;
+                if (b2 >= 0) {
+                    return i2;
+                }
+                i3 += 7;
+            }
+        }
+
+        long readVarLong() {
+            long j = 0;
+            int i = 0;
+            while (true) {
+                MappedByteBuffer mappedByteBuffer = DiskSegment.this.buffer;
+                int i2 = this.position;
+                this.position = i2 + 1;
+                byte b = mappedByteBuffer.get(i2);
+                j |= (b & 127L) << i;
+                if (b >= 0) {
+                    return j;
+                }
+                i += 7;
+            }
+        }
+
+        String readString() {
+            int readVarInt = readVarInt();
+            byte[] bArr = new byte[readVarInt];
+            for (int i = 0; i < readVarInt; i++) {
+                bArr[i] = DiskSegment.this.buffer.get(this.position + i);
+            }
+            this.position += readVarInt;
+            return new String(bArr, StandardCharsets.UTF_8);
+        }
+
+        void skipString() {
+            int readVarInt = readVarInt();
+            this.position += readVarInt;
+        }
+
+        /* JADX INFO: Access modifiers changed from: package-private */
+        public int compareTerm(byte[] term, int termLength, int length) {
+            int min = Math.min(length, termLength);
+            for (int i = 0; i < min; i++) {
+                int i2 = (DiskSegment.this.buffer.get(this.position + i) & 255) - (term[i] & 255);
+                if (i2 != 0) {
+                    return i2;
+                }
+            }
+            return length - termLength;
+        }
+    }
+
+    /** Walks the term dictionary in order; used when merging segments. */
+    final class TermIterator {
+        private int df;
+        private int index;
+        private long postings;
+        private final Reader reader;
+        byte[] term = new byte[32];
+        int termLength;
+
+        TermIterator() {
+            this.reader = new Reader(DiskSegment.this.termsOffset);
+        }
+
+        boolean next() {
+            if (this.index >= DiskSegment.this.termCount) {
+                return false;
+            }
+            this.index++;
+            int readVarInt = this.reader.readVarInt();
+            if (readVarInt > this.term.length) {
+                this.term = new byte[Math.max(readVarInt, this.term.length * 2)];
+            }
+            for (int i = 0; i < readVarInt; i++) {
+                this.term[i] = DiskSegment.this.buffer.get(this.reader.position + i);
+            }
+            this.reader.position += readVarInt;
+            this.termLength = readVarInt;
+            this.df = this.reader.readVarInt();
+            this.postings = this.reader.readVarLong();
+            return true;
+        }
+
+        Segment.Postings postings() {
+            return new DiskPostings(DiskSegment.this.postingsOffset + ((int) this.postings), this.df);
+        }
+    }
+
+    private final class DiskPostings implements Segment.Postings {
+        private int doc;
+        private int freq;
+        private final Reader reader;
+        private int remaining;
+
+        DiskPostings(int position, int df) {
+            this.reader = new Reader(position);
+            this.remaining = df;
+        }
+
+        @Override // ai.chub.plugins.search.Segment.Postings
+        public int doc() {
+            return this.doc;
+        }
+
+        @Override // ai.chub.plugins.search.Segment.Postings
+        public int freq() {
+            return this.freq;
+        }
+
+        @Override // ai.chub.plugins.search.Segment.Postings
+        public boolean next() {
+            int i = this.remaining;
+            if (i == 0) {
+                return false;
+            }
+            this.remaining = i - 1;
+            this.doc += this.reader.readVarInt();
+            this.freq = this.reader.readVarInt();
+            return true;
+        }
+    }
+
+    DiskSegment(File file, File deletions, long generation) throws IOException {
+        this.file = file;
+        this.generation = generation;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            long length = randomAccessFile.length();
+            if (length < 80 || length > 2147483647L) {
+                throw new IOException("Invalid segment size " + length + ": " + file);
+            }
+            this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, length);
+            randomAccessFile.close();
+            if (this.buffer.getInt(0) != SegmentWriter.MAGIC || this.buffer.getInt(4) != SegmentWriter.VERSION) {
+                throw new IOException("Not a search segment: " + file);
+            }
+            this.docCount = this.buffer.getInt(8);
+            this.termCount = this.buffer.getInt(12);
+            this.totalLength = this.buffer.getLong(16);
+            this.docTableOffset = (int) this.buffer.getLong(24);
+            this.postingsOffset = (int) this.buffer.getLong(32);
+            this.termsOffset = (int) this.buffer.getLong(40);
+            int i = (int) this.buffer.getLong(48);
+            this.termsEnd = i;
+            int i2 = (int) this.buffer.getLong(56);
+            int i3 = (int) this.buffer.getLong(64);
+            Reader reader = new Reader(i);
+            int readVarInt = reader.readVarInt();
+            this.sparseTerms = new byte[readVarInt][];
+            this.sparseOffsets = new int[readVarInt];
+            for (int i4 = 0; i4 < readVarInt; i4++) {
+                int readVarInt2 = reader.readVarInt();
+                byte[] bArr = new byte[readVarInt2];
+                for (int i5 = 0; i5 < readVarInt2; i5++) {
+                    bArr[i5] = this.buffer.get(reader.position + i5);
+                }
+                reader.position += readVarInt2;
+                this.sparseTerms[i4] = bArr;
+                this.sparseOffsets[i4] = this.termsOffset + this.buffer.getInt(reader.position);
+                reader.position += 4;
+            }
+            Reader reader2 = new Reader(i2);
+            int readVarInt3 = reader2.readVarInt();
+            this.groupNames = new String[readVarInt3];
+            for (int i6 = 0; i6 < readVarInt3; i6++) {
+                this.groupNames[i6] = reader2.readString();
+            }
+            this.idTableSize = this.buffer.getInt(i3);
+            this.idTableOffset = i3 + 4;
+            this.deleted = readDeletions(deletions);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    static int codeUnitOrder(char c) {
+        if (c >= 55296 && c <= 57343) {
+            return c + 8192;
+        }
+        return c >= 57344 ? c - 2048 : c;
+    }
+
+    static int idHash(String extId) {
+        int hashCode = extId.hashCode() * (-1640531527);
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    private static BitSet readDeletions(File deletions) throws IOException {
+        if (!deletions.exists()) {
+            return new BitSet();
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(deletions, "r");
+        try {
+            byte[] bArr = new byte[(int) randomAccessFile.length()];
+            randomAccessFile.readFully(bArr);
+            return BitSet.valueOf(bArr);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    void writeDeletions(File deletions) throws IOException {
+        if (this.deletionsDirty) {
+            this.deletionsDirty = false;
+            byte[] byteArray = ((BitSet) this.deleted.clone()).toByteArray();
+            File file = new File(deletions.getPath() + ".tmp");
+            FileOutputStream fileOutputStream = new FileOutputStream(file);
+            try {
+                fileOutputStream.write(byteArray);
+                fileOutputStream.getFD().sync();
+                fileOutputStream.close();
+                if (!file.renameTo(deletions)) {
+                    this.deletionsDirty = true;
+                    throw new IOException("Unable to write " + deletions);
+                }
+            } catch (Throwable th) {
+                fileOutputStream.close();
+                this.deletionsDirty = true;
+                throw th;
+            }
+        }
+    }
+
+    BitSet deletedDocs() {
+        return this.deleted;
+    }
+
+    int liveDocCount() {
+        return this.docCount - this.deleted.cardinality();
+    }
+
+    long sizeInBytes() {
+        return this.buffer.capacity();
+    }
+
+    File getFile() {
+        return this.file;
+    }
+
+    long getGeneration() {
+        return this.generation;
+    }
+
+    TermIterator termIterator() {
+        return new TermIterator();
+    }
+
+    /** Positions a reader just after the term's bytes, or returns {@code null} if it is absent. */
+    private Reader seek(byte[] term, int termLength, boolean floor) {
+        int i = 0;
+        int length = this.sparseTerms.length - 1;
+        int i2 = -1;
+        while (i <= length) {
+            int i3 = (i + length) >>> 1;
+            if (compare(this.sparseTerms[i3], term, termLength) <= 0) {
+                i2 = i3;
+                i = i3 + 1;
+            } else {
+                length = i3 - 1;
+            }
+        }
+        if (i2 < 0) {
+            if (floor && this.sparseTerms.length > 0) {
+                return new Reader(this.sparseOffsets[0]);
+            }
+            return null;
+        }
+        return new Reader(this.sparseOffsets[i2]);
+    }
+
+    private long lookup(String term) {
+        byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        Reader seek = seek(bytes, length, false);
+        if (seek == null) {
+            return -1L;
+        }
+        while (seek.position < this.termsEnd) {
+            int readVarInt = seek.readVarInt();
+            int compareTerm = seek.compareTerm(bytes, length, readVarInt);
+            seek.position += readVarInt;
+            int readVarInt2 = seek.readVarInt();
+            long readVarLong = seek.readVarLong();
+            if (compareTerm == 0) {
+                return (readVarLong << 32) | readVarInt2;
+            }
+            if (compareTerm > 0) {
+                return -1L;
+            }
+        }
+        return -1L;
+    }
+
+    private static int compare(byte[] a, byte[] b, int bLength) {
+        int min = Math.min(a.length, bLength);
+        for (int i = 0; i < min; i++) {
+            int i2 = (a[i] & 255) - (b[i] & 255);
+            if (i2 != 0) {
+                return i2;
+            }
+        }
+        return a.length - bLength;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public boolean delete(int doc) {
+        if (this.deleted.get(doc)) {
+            return false;
+        }
+        this.deleted.set(doc);
+        this.deletionsDirty = true;
+        return true;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docCount() {
+        return this.docCount;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docFreq(String term) {
+        long lookup = lookup(term);
+        if (lookup < 0) {
+            return 0;
+        }
+        return (int) lookup;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docGroup(int doc) {
+        return this.buffer.getInt(this.docTableOffset + (doc * 16) + 12);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docLength(int doc) {
+        return this.buffer.getInt(this.docTableOffset + (doc * 16) + 8);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public String extId(int doc) {
+        return new Reader((int) this.buffer.getLong(this.docTableOffset + (doc * 16))).readString();
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int find(String extId) {
+        int i = this.idTableSize - 1;
+        int idHash = idHash(extId) & i;
+        while (true) {
+            int i2 = this.buffer.getInt(this.idTableOffset + (idHash * 4));
+            if (i2 == 0) {
+                return -1;
+            }
+            int i3 = i2 - 1;
+            if (!this.deleted.get(i3) && extId.equals(extId(i3))) {
+                return i3;
+            }
+            idHash = (idHash + 1) & i;
+        }
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int groupCode(String group) {
+        int i = 0;
+        while (true) {
+            String[] strArr = this.groupNames;
+            if (i >= strArr.length) {
+                return -1;
+            }
+            if (strArr[i].equals(group)) {
+                return i;
+            }
+            i++;
+        }
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public String groupName(int code) {
+        return this.groupNames[code];
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public boolean isDeleted(int doc) {
+        return this.deleted.get(doc);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public Segment.Postings postings(String term) {
+        long lookup = lookup(term);
+        if (lookup < 0) {
+            return null;
+        }
+        return new DiskPostings(this.postingsOffset + ((int) (lookup >>> 32)), (int) lookup);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public void prefixTerms(String prefix, int limit, List<String> out) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        Reader seek = seek(bytes, length, true);
+        if (seek == null) {
+            return;
+        }
+        int i = 0;
+        while (seek.position < this.termsEnd && i < limit) {
+            int i2 = seek.position;
+            int readVarInt = seek.readVarInt();
+            int compareTerm = seek.compareTerm(bytes, length, Math.min(readVarInt, length));
+            if (compareTerm > 0) {
+                return;
+            }
+            if (compareTerm == 0) {
+                seek.position = i2;
+                out.add(seek.readString());
+                i++;
+            } else {
+                seek.position += readVarInt;
+            }
+            seek.readVarInt();
+            seek.readVarLong();
+        }
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public String text(int doc) {
+        Reader reader = new Reader((int) this.buffer.getLong(this.docTableOffset + (doc * 16)));
+        reader.skipString();
+        return reader.readString();
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public long totalLength() {
+        return this.totalLength;
+    }
+}
@@ -0,0 +1,236 @@
+package ai.chub.plugins.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write buffer of the index. Postings are kept per term as interleaved {@code doc, freq} pairs in
+ * growable int arrays until the buffer is flushed into a {@link DiskSegment}.
+ */
+final class MemorySegment implements Segment, Analyzer.TermSink {
+    private long bytes;
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int[] docGroups = new int[64];
+    private int[] docLengths = new int[64];
+    private final ArrayList<String> extIds = new ArrayList<>();
+    private final HashMap<String, Integer> docsByExtId = new HashMap<>();
+    private final HashMap<String, Integer> groupCodes = new HashMap<>();
+    private final ArrayList<String> groupNames = new ArrayList<>();
+    private final HashMap<String, PostingList> postings = new HashMap<>();
+    private final HashMap<String, int[]> termCounts = new HashMap<>();
+    private final ArrayList<String> texts = new ArrayList<>();
+    private long totalLength;
+
+    static final class PostingList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            int i = this.size;
+            int[] iArr = this.data;
+            if (i + 2 > iArr.length) {
+                this.data = Arrays.copyOf(iArr, iArr.length * 2);
+            }
+            int[] iArr2 = this.data;
+            int i2 = this.size;
+            iArr2[i2] = doc;
+            iArr2[i2 + 1] = freq;
+            this.size = i2 + 2;
+        }
+    }
+
+    int add(String extId, String group, String text) {
+        int i = this.docCount;
+        this.termCounts.clear();
+        Analyzer.analyze(text, this);
+        int i2 = 0;
+        for (Map.Entry<String, int[]> entry : this.termCounts.entrySet()) {
+            PostingList postingList = this.postings.get(entry.getKey());
+            if (postingList == null) {
+                postingList = new PostingList();
+                this.postings.put(entry.getKey(), postingList);
+                this.bytes += (entry.getKey().length() * 2) + 64;
+            }
+            int i3 = entry.getValue()[0];
+            postingList.add(i, i3);
+            i2 += i3;
+            this.bytes += 8;
+        }
+        if (i == this.docLengths.length) {
+            this.docLengths = Arrays.copyOf(this.docLengths, i * 2);
+            this.docGroups = Arrays.copyOf(this.docGroups, i * 2);
+        }
+        this.docLengths[i] = i2;
+        this.docGroups[i] = internGroup(group);
+        this.extIds.add(extId);
+        this.texts.add(text);
+        this.docsByExtId.put(extId, Integer.valueOf(i));
+        this.totalLength += i2;
+        this.bytes += ((text.length() + extId.length()) * 2) + 48;
+        this.docCount = i + 1;
+        return i;
+    }
+
+    @Override // ai.chub.plugins.search.Analyzer.TermSink
+    public void onTerm(String term, int start, int end) {
+        int[] iArr = this.termCounts.get(term);
+        if (iArr == null) {
+            this.termCounts.put(term, new int[]{1});
+        } else {
+            iArr[0] = iArr[0] + 1;
+        }
+    }
+
+    long estimatedBytes() {
+        return this.bytes;
+    }
+
+    BitSet deletedDocs() {
+        return this.deleted;
+    }
+
+    List<String> groupNames() {
+        return this.groupNames;
+    }
+
+    List<String> sortedTerms() {
+        ArrayList arrayList = new ArrayList(this.postings.keySet());
+        Collections.sort(arrayList, DiskSegment.TERM_ORDER);
+        return arrayList;
+    }
+
+    PostingList postingList(String term) {
+        return this.postings.get(term);
+    }
+
+    private int internGroup(String group) {
+        String str = group == null ? "" : group;
+        Integer num = this.groupCodes.get(str);
+        if (num == null) {
+            num = Integer.valueOf(this.groupNames.size());
+            this.groupCodes.put(str, num);
+            this.groupNames.add(str);
+        }
+        return num.intValue();
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public boolean delete(int doc) {
+        if (this.deleted.get(doc)) {
+            return false;
+        }
+        this.deleted.set(doc);
+        return true;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docCount() {
+        return this.docCount;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docFreq(String term) {
+        PostingList postingList = this.postings.get(term);
+        if (postingList == null) {
+            return 0;
+        }
+        return postingList.size / 2;
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docGroup(int doc) {
+        return this.docGroups[doc];
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int docLength(int doc) {
+        return this.docLengths[doc];
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public String extId(int doc) {
+        return this.extIds.get(doc);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int find(String extId) {
+        Integer num = this.docsByExtId.get(extId);
+        if (num == null || this.deleted.get(num.intValue())) {
+            return -1;
+        }
+        return num.intValue();
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public int groupCode(String group) {
+        Integer num = this.groupCodes.get(group);
+        if (num == null) {
+            return -1;
+        }
+        return num.intValue();
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public String groupName(int code) {
+        return this.groupNames.get(code);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public boolean isDeleted(int doc) {
+        return this.deleted.get(doc);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public Segment.Postings postings(String term) {
+        final PostingList postingList = this.postings.get(term);
+        if (postingList == null) {
+            return null;
+        }
+        final int i = postingList.size;
+        return new Segment.Postings() { // from class: ai.chub.plugins.search.MemorySegment.1
+            private int position = -2;
+
+            @Override // ai.chub.plugins.search.Segment.Postings
+            public int doc() {
+                return postingList.data[this.position];
+            }
+
+            @Override // ai.chub.plugins.search.Segment.Postings
+            public int freq() {
+                return postingList.data[this.position + 1];
+            }
+
+            @Override // ai.chub.plugins.search.Segment.Postings
+            public boolean next() {
+                int i2 = this.position + 2;
+                this.position = i2;
+                return i2 < i;
+            }
+        };
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public void prefixTerms(String prefix, int limit, List<String> out) {
+        for (String str : this.postings.keySet()) {
+            if (str.startsWith(prefix)) {
+                out.add(str);
+            }
+        }
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public String text(int doc) {
+        return this.texts.get(doc);
+    }
+
+    @Override // ai.chub.plugins.search.Segment
+    public long totalLength() {
+        return this.totalLength;
+    }
+}
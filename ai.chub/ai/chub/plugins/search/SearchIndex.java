@@ -0,0 +1,866 @@
+package ai.chub.plugins.search;
+
+import android.util.Log;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Incremental inverted index. New documents go to an in-memory {@link MemorySegment} which is
+ * flushed to a {@link DiskSegment} once it grows past a threshold; small segments are merged on a
+ * background thread. Updates delete the previous version of a document wherever it lives.
+ */
+public class SearchIndex implements Closeable {
+    private static final float B = 0.75f;
+    private static final float K1 = 1.2f;
+    private static final String MANIFEST = "segments";
+    private static final long MAX_BUFFER_BYTES = 8388608;
+    private static final int MAX_BUFFER_DOCS = 10000;
+    private static final long MAX_MERGED_BYTES = 1073741824;
+    private static final int MAX_PENDING_FLUSHES = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_SEGMENTS = 8;
+    private static final int MERGE_FACTOR = 4;
+    private static final float MAX_DELETED_RATIO = 0.3f;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final String TAG = "SearchIndex";
+    private boolean closed;
+    private final File dir;
+    private final ArrayList<MemorySegment> failedFlushes = new ArrayList<>();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor();
+    private final ArrayList<MemorySegment> flushing = new ArrayList<>();
+    private final ExecutorService merger = Executors.newSingleThreadExecutor();
+    private final HashSet<DiskSegment> merging = new HashSet<>();
+    private long nextGeneration;
+    private float[] scores = new float[1024];
+    private final ArrayList<DiskSegment> segments = new ArrayList<>();
+    private int[] touched = new int[1024];
+    private MemorySegment buffer = new MemorySegment();
+
+    public static final class Hit {
+        public final String group;
+        public final String id;
+        public final float score;
+        public final String snippet;
+
+        Hit(String id, String group, float score, String snippet) {
+            this.id = id;
+            this.group = group;
+            this.score = score;
+            this.snippet = snippet;
+        }
+    }
+
+    /** Bounded min-heap keeping the best {@code limit} hits across segments. */
+    private static final class TopHits {
+        private final int[] docs;
+        private final float[] scores;
+        private final Segment[] segments;
+        private int size;
+
+        TopHits(int limit) {
+            this.docs = new int[limit];
+            this.scores = new float[limit];
+            this.segments = new Segment[limit];
+        }
+
+        void offer(Segment segment, int doc, float score) {
+            int i = this.size;
+            if (i < this.scores.length) {
+                this.size = i + 1;
+                set(i, segment, doc, score);
+                while (i > 0) {
+                    int i2 = (i - 1) >>> 1;
+                    if (this.scores[i2] <= this.scores[i]) {
+                        return;
+                    }
+                    swap(i, i2);
+                    i = i2;
+                }
+            } else if (score > this.scores[0]) {
+                set(0, segment, doc, score);
+                int i3 = 0;
+                while (true) {
+                    int i4 = (i3 * 2) + 1;
+                    if (i4 >= this.size) {
+                        return;
+                    }
+                    int i5 = i4 + 1;
+                    if (i5 < this.size && this.scores[i5] < this.scores[i4]) {
+                        i4 = i5;
+                    }
+                    if (this.scores[i3] <= this.scores[i4]) {
+                        return;
+                    }
+                    swap(i3, i4);
+                    i3 = i4;
+                }
+            }
+        }
+
+        private void set(int i, Segment segment, int doc, float score) {
+            this.segments[i] = segment;
+            this.docs[i] = doc;
+            this.scores[i] = score;
+        }
+
+        private void swap(int i, int j) {
+            Segment segment = this.segments[i];
+            int i2 = this.docs[i];
+            float f = this.scores[i];
+            set(i, this.segments[j], this.docs[j], this.scores[j]);
+            set(j, segment, i2, f);
+        }
+
+        Integer[] sortedSlots() {
+            Integer[] numArr = new Integer[this.size];
+            for (int i = 0; i < this.size; i++) {
+                numArr[i] = Integer.valueOf(i);
+            }
+            Arrays.sort(numArr, new Comparator<Integer>() { // from class: ai.chub.plugins.search.SearchIndex.TopHits.1
+                @Override // java.util.Comparator
+                public int compare(Integer a, Integer b) {
+                    return Float.compare(TopHits.this.scores[b.intValue()], TopHits.this.scores[a.intValue()]);
+                }
+            });
+            return numArr;
+        }
+    }
+
+    public SearchIndex(File dir) throws IOException {
+        this.dir = dir;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+        List<Long> readManifest = readManifest();
+        HashSet hashSet = new HashSet(readManifest);
+        long j = -1;
+        File[] listFiles = dir.listFiles();
+        if (listFiles != null) {
+            for (File file : listFiles) {
+                long generation = generation(file.getName());
+                j = Math.max(j, generation);
+                if (!file.getName().equals(MANIFEST) && (generation < 0 || !hashSet.contains(Long.valueOf(generation)) || file.getName().endsWith(".tmp"))) {
+                    file.delete();
+                }
+            }
+        }
+        this.nextGeneration = j + 1;
+        boolean z = false;
+        for (Long l : readManifest) {
+            long longValue = l.longValue();
+            try {
+                this.segments.add(new DiskSegment(segmentFile(longValue), deletionsFile(longValue), longValue));
+            } catch (IOException e) {
+                Log.w(TAG, "Dropping unreadable segment " + longValue, e);
+                z = true;
+            }
+        }
+        if (z) {
+            writeManifest();
+        }
+    }
+
+    public synchronized void add(String id, String group, String text) {
+        deleteExisting(id);
+        this.buffer.add(id, group == null ? "" : group, text);
+        if (this.buffer.docCount() >= MAX_BUFFER_DOCS || this.buffer.estimatedBytes() >= MAX_BUFFER_BYTES) {
+            while (this.flushing.size() - this.failedFlushes.size() >= MAX_PENDING_FLUSHES) {
+                try {
+                    wait();
+                } catch (InterruptedException unused) {
+                    Thread.currentThread().interrupt();
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+            freezeBuffer();
+        }
+    }
+
+    public synchronized boolean remove(String id) {
+        return deleteExisting(id);
+    }
+
+    private boolean deleteExisting(String id) {
+        int find = this.buffer.find(id);
+        if (find >= 0) {
+            return this.buffer.delete(find);
+        }
+        for (int size = this.flushing.size() - 1; size >= 0; size--) {
+            MemorySegment memorySegment = this.flushing.get(size);
+            int find2 = memorySegment.find(id);
+            if (find2 >= 0) {
+                return memorySegment.delete(find2);
+            }
+        }
+        for (int size2 = this.segments.size() - 1; size2 >= 0; size2--) {
+            DiskSegment diskSegment = this.segments.get(size2);
+            int find3 = diskSegment.find(id);
+            if (find3 >= 0) {
+                return diskSegment.delete(find3);
+            }
+        }
+        return false;
+    }
+
+    public synchronized List<Hit> search(String query, String group, int limit, final boolean prefix) {
+        final LinkedHashMap<String, Boolean> linkedHashMap = new LinkedHashMap<>();
+        final String str = query == null ? "" : query;
+        Analyzer.analyze(str, new Analyzer.TermSink() { // from class: ai.chub.plugins.search.SearchIndex.1
+            @Override // ai.chub.plugins.search.Analyzer.TermSink
+            public void onTerm(String term, int start, int end) {
+                boolean z = (end < str.length() && str.charAt(end) == '*') || (prefix && end == str.length());
+                Boolean bool = linkedHashMap.get(term);
+                linkedHashMap.put(term, Boolean.valueOf(z || (bool != null && bool.booleanValue())));
+            }
+        });
+        ArrayList arrayList = new ArrayList();
+        if (linkedHashMap.isEmpty() || limit <= 0) {
+            return arrayList;
+        }
+        ArrayList<Segment> arrayList2 = new ArrayList<>(this.segments);
+        arrayList2.addAll(this.flushing);
+        arrayList2.add(this.buffer);
+        LinkedHashSet linkedHashSet = new LinkedHashSet();
+        for (Map.Entry<String, Boolean> entry : linkedHashMap.entrySet()) {
+            String str2 = entry.getKey();
+            if (entry.getValue().booleanValue()) {
+                linkedHashSet.addAll(expand(arrayList2, str2));
+            } else {
+                linkedHashSet.add(str2);
+            }
+        }
+        long j = 0;
+        long j2 = 0;
+        for (Segment segment : arrayList2) {
+            j += segment.docCount();
+            j2 += segment.totalLength();
+        }
+        if (j == 0) {
+            return arrayList;
+        }
+        float f = j2 == 0 ? 1.0f : ((float) j2) / ((float) j);
+        String[] strArr = new String[linkedHashSet.size()];
+        float[] fArr = new float[linkedHashSet.size()];
+        Iterator it = linkedHashSet.iterator();
+        int i = 0;
+        while (it.hasNext()) {
+            String str3 = (String) it.next();
+            int i2 = 0;
+            for (Segment segment2 : arrayList2) {
+                i2 += segment2.docFreq(str3);
+            }
+            if (i2 != 0) {
+                strArr[i] = str3;
+                fArr[i] = (float) Math.log(1.0d + ((j - i2) + 0.5d) / (i2 + 0.5d));
+                i++;
+            }
+        }
+        TopHits topHits = new TopHits(limit);
+        for (Segment segment3 : arrayList2) {
+            score(segment3, group, strArr, fArr, i, f, topHits);
+        }
+        for (Integer num : topHits.sortedSlots()) {
+            int intValue = num.intValue();
+            Segment segment4 = topHits.segments[intValue];
+            int i3 = topHits.docs[intValue];
+            arrayList.add(new Hit(segment4.extId(i3), segment4.groupName(segment4.docGroup(i3)), topHits.scores[intValue], snippet(segment4.text(i3), linkedHashSet, SNIPPET_LENGTH)));
+        }
+        return arrayList;
+    }
+
+    private static List<String> expand(List<Segment> segments, String prefix) {
+        TreeSet treeSet = new TreeSet(DiskSegment.TERM_ORDER);
+        ArrayList arrayList = new ArrayList();
+        for (Segment segment : segments) {
+            arrayList.clear();
+            segment.prefixTerms(prefix, MAX_PREFIX_EXPANSIONS, arrayList);
+            treeSet.addAll(arrayList);
+        }
+        ArrayList arrayList2 = new ArrayList(Math.min(treeSet.size(), MAX_PREFIX_EXPANSIONS));
+        Iterator it = treeSet.iterator();
+        while (it.hasNext() && arrayList2.size() < MAX_PREFIX_EXPANSIONS) {
+            arrayList2.add((String) it.next());
+        }
+        return arrayList2;
+    }
+
+    /** Accumulates BM25 scores for one segment in the shared scratch arrays. */
+    private void score(Segment segment, String group, String[] terms, float[] idfs, int termCount, float avgLength, TopHits topHits) {
+        int i;
+        if (group != null) {
+            i = segment.groupCode(group);
+            if (i < 0) {
+                return;
+            }
+        } else {
+            i = -1;
+        }
+        int docCount = segment.docCount();
+        if (this.scores.length < docCount) {
+            this.scores = new float[Math.max(docCount, this.scores.length * 2)];
+        }
+        float[] fArr = this.scores;
+        int i2 = 0;
+        for (int i3 = 0; i3 < termCount; i3++) {
+            Segment.Postings postings = segment.postings(terms[i3]);
+            if (postings != null) {
+                float f = idfs[i3];
+                while (postings.next()) {
+                    int doc = postings.doc();
+                    if (!segment.isDeleted(doc) && (i < 0 || segment.docGroup(doc) == i)) {
+                        float freq = postings.freq();
+                        float f2 = (((K1 + 1.0f) * freq) * f) / (((((segment.docLength(doc) * B) / avgLength) + 0.25f) * K1) + freq);
+                        if (fArr[doc] == 0.0f) {
+                            int[] iArr = this.touched;
+                            if (i2 == iArr.length) {
+                                this.touched = Arrays.copyOf(iArr, i2 * 2);
+                            }
+                            this.touched[i2] = doc;
+                            i2++;
+                        }
+                        fArr[doc] = fArr[doc] + f2;
+                    }
+                }
+            }
+        }
+        for (int i4 = 0; i4 < i2; i4++) {
+            int i5 = this.touched[i4];
+            topHits.offer(segment, i5, fArr[i5]);
+            fArr[i5] = 0.0f;
+        }
+    }
+
+    /** Returns an HTML-escaped window of {@code text} around the first match with matches wrapped in {@code <mark>}. */
+    static String snippet(String text, final Set<String> terms, int maxChars) {
+        final int[][] iArr = {new int[16]};
+        final int[] iArr2 = new int[1];
+        Analyzer.analyze(text, new Analyzer.TermSink() { // from class: ai.chub.plugins.search.SearchIndex.2
+            @Override // ai.chub.plugins.search.Analyzer.TermSink
+            public void onTerm(String term, int start, int end) {
+                if (terms.contains(term)) {
+                    int i = iArr2[0];
+                    int[][] iArr3 = iArr;
+                    int[] iArr4 = iArr3[0];
+                    if (i + 2 > iArr4.length) {
+                        iArr3[0] = Arrays.copyOf(iArr4, iArr4.length * 2);
+                    }
+                    int[] iArr5 = iArr[0];
+                    iArr5[i] = start;
+                    iArr5[i + 1] = end;
+                    iArr2[0] = i + 2;
+                }
+            }
+        });
+        int length = text.length();
+        int[] iArr3 = iArr[0];
+        int i = iArr2[0];
+        int i2 = 0;
+        if (i > 0) {
+            int i3 = iArr3[0];
+            i2 = Math.max(0, i3 - (maxChars / 4));
+            while (i2 > 0 && i2 < i3 && !Character.isWhitespace(text.charAt(i2 - 1))) {
+                i2++;
+            }
+        }
+        int min = Math.min(length, i2 + maxChars);
+        if (min < length) {
+            int i4 = min;
+            while (i4 > (maxChars / 2) + i2 && !Character.isWhitespace(text.charAt(i4))) {
+                i4--;
+            }
+            if (i4 > (maxChars / 2) + i2) {
+                min = i4;
+            }
+        }
+        StringBuilder sb = new StringBuilder((min - i2) + 32);
+        if (i2 > 0) {
+            sb.append((char) 8230);
+        }
+        int i5 = i2;
+        for (int i6 = 0; i6 < i; i6 += 2) {
+            int i7 = iArr3[i6];
+            int i8 = iArr3[i6 + 1];
+            if (i7 >= i2) {
+                if (i8 > min) {
+                    break;
+                }
+                escape(text, i5, i7, sb);
+                sb.append("<mark>");
+                escape(text, i7, i8, sb);
+                sb.append("</mark>");
+                i5 = i8;
+            }
+        }
+        escape(text, i5, min, sb);
+        if (min < length) {
+            sb.append((char) 8230);
+        }
+        return sb.toString();
+    }
+
+    private static void escape(String text, int start, int end, StringBuilder sb) {
+        while (start < end) {
+            char charAt = text.charAt(start);
+            if (charAt == '\"') {
+                sb.append("&quot;");
+            } else if (charAt == '&') {
+                sb.append("&amp;");
+            } else if (charAt == '<') {
+                sb.append("&lt;");
+            } else if (charAt == '>') {
+                sb.append("&gt;");
+            } else {
+                sb.append(charAt);
+            }
+            start++;
+        }
+    }
+
+    public synchronized int docCount() {
+        int docCount = this.buffer.docCount() - this.buffer.deletedDocs().cardinality();
+        Iterator<MemorySegment> it = this.flushing.iterator();
+        while (it.hasNext()) {
+            MemorySegment next = it.next();
+            docCount += next.docCount() - next.deletedDocs().cardinality();
+        }
+        Iterator<DiskSegment> it2 = this.segments.iterator();
+        while (it2.hasNext()) {
+            docCount += it2.next().liveDocCount();
+        }
+        return docCount;
+    }
+
+    public synchronized int segmentCount() {
+        return this.segments.size();
+    }
+
+    public synchronized int bufferedDocCount() {
+        return this.buffer.docCount();
+    }
+
+    /** Flushes buffered documents and persists deletions so that the index survives a restart. */
+    public void commit() throws IOException {
+        Future<?> submit;
+        synchronized (this) {
+            Iterator<MemorySegment> it = this.failedFlushes.iterator();
+            while (it.hasNext()) {
+                scheduleFlush(it.next());
+            }
+            this.failedFlushes.clear();
+            freezeBuffer();
+            submit = this.flusher.submit(new Runnable() { // from class: ai.chub.plugins.search.SearchIndex.3
+                @Override // java.lang.Runnable
+                public void run() {
+                }
+            });
+        }
+        try {
+            submit.get();
+            synchronized (this) {
+                if (!this.failedFlushes.isEmpty()) {
+                    throw new IOException("Unable to flush search index");
+                }
+                writeDeletionsAndManifest();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while committing", e);
+        } catch (ExecutionException e2) {
+            throw new IOException(e2.getCause());
+        }
+    }
+
+    public void commitAsync() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            freezeBuffer();
+            this.flusher.execute(new Runnable() { // from class: ai.chub.plugins.search.SearchIndex.4
+                @Override // java.lang.Runnable
+                public void run() {
+                    synchronized (SearchIndex.this) {
+                        try {
+                            SearchIndex.this.writeDeletionsAndManifest();
+                        } catch (IOException e) {
+                            Log.e(SearchIndex.TAG, "Unable to commit search index", e);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    @Override // java.io.Closeable, java.lang.AutoCloseable
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            synchronized (this) {
+                this.closed = true;
+            }
+            this.flusher.shutdown();
+            this.merger.shutdown();
+        }
+    }
+
+    private void freezeBuffer() {
+        if (this.buffer.docCount() == 0) {
+            return;
+        }
+        MemorySegment memorySegment = this.buffer;
+        this.buffer = new MemorySegment();
+        this.flushing.add(memorySegment);
+        scheduleFlush(memorySegment);
+    }
+
+    private void scheduleFlush(final MemorySegment segment) {
+        final long j = this.nextGeneration;
+        this.nextGeneration = 1 + j;
+        this.flusher.execute(new Runnable() { // from class: ai.chub.plugins.search.SearchIndex.5
+            @Override // java.lang.Runnable
+            public void run() {
+                SearchIndex.this.flush(segment, j);
+            }
+        });
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public void flush(MemorySegment segment, long generation) {
+        File segmentFile = segmentFile(generation);
+        try {
+            writeSegment(segment, segmentFile);
+            DiskSegment diskSegment = new DiskSegment(segmentFile, deletionsFile(generation), generation);
+            synchronized (this) {
+                BitSet deletedDocs = segment.deletedDocs();
+                for (int nextSetBit = deletedDocs.nextSetBit(0); nextSetBit >= 0; nextSetBit = deletedDocs.nextSetBit(nextSetBit + 1)) {
+                    diskSegment.delete(nextSetBit);
+                }
+                this.flushing.remove(segment);
+                this.segments.add(diskSegment);
+                writeDeletionsAndManifest();
+                notifyAll();
+                maybeMerge();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to flush search segment", e);
+            segmentFile.delete();
+            synchronized (this) {
+                if (this.flushing.contains(segment)) {
+                    this.failedFlushes.add(segment);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private static void writeSegment(MemorySegment segment, File file) throws IOException {
+        SegmentWriter segmentWriter = new SegmentWriter(file);
+        try {
+            int docCount = segment.docCount();
+            for (int i = 0; i < docCount; i++) {
+                segmentWriter.addDoc(segment.extId(i), segment.groupName(segment.docGroup(i)), segment.docLength(i), segment.text(i));
+            }
+            int[] iArr = new int[64];
+            int[] iArr2 = new int[64];
+            for (String str : segment.sortedTerms()) {
+                MemorySegment.PostingList postingList = segment.postingList(str);
+                int i2 = postingList.size / 2;
+                if (iArr.length < i2) {
+                    iArr = new int[i2];
+                    iArr2 = new int[i2];
+                }
+                for (int i3 = 0; i3 < i2; i3++) {
+                    int[] iArr3 = postingList.data;
+                    iArr[i3] = iArr3[i3 * 2];
+                    iArr2[i3] = iArr3[(i3 * 2) + 1];
+                }
+                byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                segmentWriter.addTerm(bytes, bytes.length, iArr, iArr2, i2);
+            }
+            segmentWriter.finish();
+        } finally {
+            segmentWriter.close();
+        }
+    }
+
+    /** Picks the smallest segments, or a single segment with many deletions, for a background merge. */
+    private void maybeMerge() {
+        if (this.closed || !this.merging.isEmpty()) {
+            return;
+        }
+        ArrayList arrayList = new ArrayList(this.segments);
+        Collections.sort(arrayList, new Comparator<DiskSegment>() { // from class: ai.chub.plugins.search.SearchIndex.6
+            @Override // java.util.Comparator
+            public int compare(DiskSegment a, DiskSegment b) {
+                return Long.compare(a.sizeInBytes(), b.sizeInBytes());
+            }
+        });
+        ArrayList arrayList2 = new ArrayList();
+        if (arrayList.size() > MAX_SEGMENTS) {
+            long j = 0;
+            Iterator it = arrayList.iterator();
+            while (it.hasNext()) {
+                DiskSegment diskSegment = (DiskSegment) it.next();
+                if (arrayList2.size() >= MERGE_FACTOR || diskSegment.sizeInBytes() + j > MAX_MERGED_BYTES) {
+                    break;
+                }
+                arrayList2.add(diskSegment);
+                j += diskSegment.sizeInBytes();
+            }
+            if (arrayList2.size() < 2) {
+                arrayList2.clear();
+            }
+        }
+        if (arrayList2.isEmpty()) {
+            Iterator it2 = arrayList.iterator();
+            while (true) {
+                if (!it2.hasNext()) {
+                    break;
+                }
+                DiskSegment diskSegment2 = (DiskSegment) it2.next();
+                if (diskSegment2.deletedDocs().cardinality() > diskSegment2.docCount() * MAX_DELETED_RATIO) {
+                    arrayList2.add(diskSegment2);
+                    break;
+                }
+            }
+        }
+        if (arrayList2.isEmpty()) {
+            return;
+        }
+        final DiskSegment[] diskSegmentArr = (DiskSegment[]) arrayList2.toArray(new DiskSegment[0]);
+        final BitSet[] bitSetArr = new BitSet[diskSegmentArr.length];
+        for (int i = 0; i < diskSegmentArr.length; i++) {
+            bitSetArr[i] = (BitSet) diskSegmentArr[i].deletedDocs().clone();
+        }
+        this.merging.addAll(arrayList2);
+        final long j2 = this.nextGeneration;
+        this.nextGeneration = 1 + j2;
+        this.merger.execute(new Runnable() { // from class: ai.chub.plugins.search.SearchIndex.7
+            @Override // java.lang.Runnable
+            public void run() {
+                SearchIndex.this.merge(diskSegmentArr, bitSetArr, j2);
+            }
+        });
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public void merge(DiskSegment[] sources, BitSet[] deleted, long generation) {
+        File segmentFile = segmentFile(generation);
+        try {
+            int[][] writeMerged = writeMerged(sources, deleted, segmentFile);
+            DiskSegment diskSegment = new DiskSegment(segmentFile, deletionsFile(generation), generation);
+            synchronized (this) {
+                for (int i = 0; i < sources.length; i++) {
+                    BitSet bitSet = (BitSet) sources[i].deletedDocs().clone();
+                    bitSet.andNot(deleted[i]);
+                    for (int nextSetBit = bitSet.nextSetBit(0); nextSetBit >= 0; nextSetBit = bitSet.nextSetBit(nextSetBit + 1)) {
+                        int i2 = writeMerged[i][nextSetBit];
+                        if (i2 >= 0) {
+                            diskSegment.delete(i2);
+                        }
+                    }
+                }
+                this.segments.removeAll(Arrays.asList(sources));
+                this.segments.add(diskSegment);
+                this.merging.clear();
+                writeDeletionsAndManifest();
+                for (DiskSegment diskSegment2 : sources) {
+                    diskSegment2.getFile().delete();
+                    deletionsFile(diskSegment2.getGeneration()).delete();
+                }
+                maybeMerge();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to merge search segments", e);
+            segmentFile.delete();
+            synchronized (this) {
+                this.merging.clear();
+            }
+        }
+    }
+
+    /** Writes the live documents of {@code sources} into one segment and returns the old-to-new doc maps. */
+    private static int[][] writeMerged(DiskSegment[] sources, BitSet[] deleted, File file) throws IOException {
+        int[][] iArr = new int[sources.length][];
+        SegmentWriter segmentWriter = new SegmentWriter(file);
+        try {
+            int i = 0;
+            for (int i2 = 0; i2 < sources.length; i2++) {
+                DiskSegment diskSegment = sources[i2];
+                int docCount = diskSegment.docCount();
+                int[] iArr2 = new int[docCount];
+                for (int i3 = 0; i3 < docCount; i3++) {
+                    if (deleted[i2].get(i3)) {
+                        iArr2[i3] = -1;
+                    } else {
+                        segmentWriter.addDoc(diskSegment.extId(i3), diskSegment.groupName(diskSegment.docGroup(i3)), diskSegment.docLength(i3), diskSegment.text(i3));
+                        iArr2[i3] = i;
+                        i++;
+                    }
+                }
+                iArr[i2] = iArr2;
+            }
+            DiskSegment.TermIterator[] termIteratorArr = new DiskSegment.TermIterator[sources.length];
+            boolean[] zArr = new boolean[sources.length];
+            for (int i4 = 0; i4 < sources.length; i4++) {
+                termIteratorArr[i4] = sources[i4].termIterator();
+                zArr[i4] = termIteratorArr[i4].next();
+            }
+            byte[] bArr = new byte[64];
+            int[] iArr3 = new int[Math.max(i, 1)];
+            int[] iArr4 = new int[Math.max(i, 1)];
+            while (true) {
+                int i5 = -1;
+                for (int i6 = 0; i6 < sources.length; i6++) {
+                    if (zArr[i6] && (i5 < 0 || compare(termIteratorArr[i6], termIteratorArr[i5].term, termIteratorArr[i5].termLength) < 0)) {
+                        i5 = i6;
+                    }
+                }
+                if (i5 < 0) {
+                    segmentWriter.finish();
+                    return iArr;
+                }
+                int i7 = termIteratorArr[i5].termLength;
+                if (bArr.length < i7) {
+                    bArr = new byte[i7];
+                }
+                System.arraycopy(termIteratorArr[i5].term, 0, bArr, 0, i7);
+                int i8 = 0;
+                for (int i9 = 0; i9 < sources.length; i9++) {
+                    if (zArr[i9] && compare(termIteratorArr[i9], bArr, i7) == 0) {
+                        Segment.Postings postings = termIteratorArr[i9].postings();
+                        int[] iArr5 = iArr[i9];
+                        while (postings.next()) {
+                            int i10 = iArr5[postings.doc()];
+                            if (i10 >= 0) {
+                                iArr3[i8] = i10;
+                                iArr4[i8] = postings.freq();
+                                i8++;
+                            }
+                        }
+                        zArr[i9] = termIteratorArr[i9].next();
+                    }
+                }
+                segmentWriter.addTerm(bArr, i7, iArr3, iArr4, i8);
+            }
+        } finally {
+            segmentWriter.close();
+        }
+    }
+
+    private static int compare(DiskSegment.TermIterator iterator, byte[] term, int termLength) {
+        int min = Math.min(iterator.termLength, termLength);
+        for (int i = 0; i < min; i++) {
+            int i2 = (iterator.term[i] & 255) - (term[i] & 255);
+            if (i2 != 0) {
+                return i2;
+            }
+        }
+        return iterator.termLength - termLength;
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public void writeDeletionsAndManifest() throws IOException {
+        Iterator<DiskSegment> it = this.segments.iterator();
+        while (it.hasNext()) {
+            DiskSegment next = it.next();
+            next.writeDeletions(deletionsFile(next.getGeneration()));
+        }
+        writeManifest();
+    }
+
+    private void writeManifest() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        Iterator<DiskSegment> it = this.segments.iterator();
+        while (it.hasNext()) {
+            sb.append(it.next().getGeneration()).append('\n');
+        }
+        File file = new File(this.dir, "segments.tmp");
+        FileOutputStream fileOutputStream = new FileOutputStream(file);
+        try {
+            fileOutputStream.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+            fileOutputStream.getFD().sync();
+            fileOutputStream.close();
+            if (!file.renameTo(new File(this.dir, MANIFEST))) {
+                throw new IOException("Unable to write search manifest");
+            }
+        } catch (Throwable th) {
+            fileOutputStream.close();
+            throw th;
+        }
+    }
+
+    private List<Long> readManifest() throws IOException {
+        ArrayList arrayList = new ArrayList();
+        File file = new File(this.dir, MANIFEST);
+        if (!file.exists()) {
+            return arrayList;
+        }
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        try {
+            while (true) {
+                String readLine = bufferedReader.readLine();
+                if (readLine == null) {
+                    return arrayList;
+                }
+                String trim = readLine.trim();
+                if (!trim.isEmpty()) {
+                    arrayList.add(Long.valueOf(Long.parseLong(trim)));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt search manifest", e);
+        } finally {
+            bufferedReader.close();
+        }
+    }
+
+    private static long generation(String name) {
+        if (!name.startsWith("seg_")) {
+            return -1L;
+        }
+        int indexOf = name.indexOf(46);
+        if (indexOf < 0) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(name.substring(4, indexOf));
+        } catch (NumberFormatException unused) {
+            return -1L;
+        }
+    }
+
+    private File segmentFile(long generation) {
+        return new File(this.dir, "seg_" + generation + ".idx");
+    }
+
+    private File deletionsFile(long generation) {
+        return new File(this.dir, "seg_" + generation + ".del");
+    }
+}
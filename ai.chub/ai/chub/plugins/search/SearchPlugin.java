@@ -0,0 +1,185 @@
+package ai.chub.plugins.search;
+
+import android.util.Log;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import org.json.JSONException;
+import org.json.JSONObject;
+@CapacitorPlugin(name = "Search")
+public class SearchPlugin extends Plugin {
+    private static final int MAX_LIMIT = 1000;
+    private static final String TAG = "SearchPlugin";
+    private SearchIndex implementation;
+    private IOException openError;
+
+    @Override // com.getcapacitor.Plugin
+    public void load() {
+        try {
+            this.implementation = new SearchIndex(new File(getContext().getFilesDir(), "search"));
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to open search index", e);
+            this.openError = e;
+        }
+    }
+
+    @PluginMethod
+    public void index(PluginCall pluginCall) {
+        SearchIndex index = getIndex(pluginCall);
+        if (index == null) {
+            return;
+        }
+        String string = pluginCall.getString("id");
+        String string2 = pluginCall.getString("text");
+        if (string == null) {
+            pluginCall.reject("NO_ID");
+        } else if (string2 == null) {
+            pluginCall.reject("NO_TEXT");
+        } else {
+            index.add(string, pluginCall.getString("group"), string2);
+            pluginCall.resolve();
+        }
+    }
+
+    @PluginMethod
+    public void indexBatch(PluginCall pluginCall) {
+        SearchIndex index = getIndex(pluginCall);
+        if (index == null) {
+            return;
+        }
+        JSArray array = pluginCall.getArray("documents");
+        if (array == null) {
+            pluginCall.reject("NO_DOCUMENTS");
+            return;
+        }
+        try {
+            long nanoTime = System.nanoTime();
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject jSONObject = array.getJSONObject(i);
+                index.add(jSONObject.getString("id"), jSONObject.optString("group", null), jSONObject.getString("text"));
+            }
+            JSObject jSObject = new JSObject();
+            jSObject.put("count", array.length());
+            jSObject.put("indexMs", (System.nanoTime() - nanoTime) / 1000000);
+            pluginCall.resolve(jSObject);
+        } catch (JSONException e) {
+            pluginCall.reject("Malformed document", e);
+        }
+    }
+
+    @PluginMethod
+    public void remove(PluginCall pluginCall) {
+        SearchIndex index = getIndex(pluginCall);
+        if (index == null) {
+            return;
+        }
+        String string = pluginCall.getString("id");
+        if (string == null) {
+            pluginCall.reject("NO_ID");
+            return;
+        }
+        JSObject jSObject = new JSObject();
+        jSObject.put("removed", index.remove(string));
+        pluginCall.resolve(jSObject);
+    }
+
+    @PluginMethod
+    public void search(PluginCall pluginCall) {
+        SearchIndex index = getIndex(pluginCall);
+        if (index == null) {
+            return;
+        }
+        String string = pluginCall.getString("query");
+        if (string == null) {
+            pluginCall.reject("NO_QUERY");
+            return;
+        }
+        int intValue = pluginCall.getInt("limit", 20).intValue();
+        if (intValue < 1 || intValue > MAX_LIMIT) {
+            pluginCall.reject("limit must be between 1 and 1000", "INVALID_LIMIT");
+            return;
+        }
+        long nanoTime = System.nanoTime();
+        JSArray jSArray = new JSArray();
+        for (SearchIndex.Hit hit : index.search(string, pluginCall.getString("group"), intValue, pluginCall.getBoolean("prefix", false).booleanValue())) {
+            JSObject jSObject = new JSObject();
+            jSObject.put("id", hit.id);
+            jSObject.put("group", hit.group);
+            jSObject.put("score", hit.score);
+            jSObject.put("snippet", hit.snippet);
+            jSArray.put(jSObject);
+        }
+        JSObject jSObject2 = new JSObject();
+        jSObject2.put("hits", (Object) jSArray);
+        jSObject2.put("tookMs", (System.nanoTime() - nanoTime) / 1000000.0d);
+        pluginCall.resolve(jSObject2);
+    }
+
+    @PluginMethod
+    public void commit(PluginCall pluginCall) {
+        SearchIndex index = getIndex(pluginCall);
+        if (index == null) {
+            return;
+        }
+        try {
+            index.commit();
+            pluginCall.resolve(stats(index));
+        } catch (IOException e) {
+            pluginCall.reject("Unable to commit search index", e);
+        }
+    }
+
+    @PluginMethod
+    public void stats(PluginCall pluginCall) {
+        SearchIndex index = getIndex(pluginCall);
+        if (index == null) {
+            return;
+        }
+        pluginCall.resolve(stats(index));
+    }
+
+    /* JADX INFO: Access modifiers changed from: protected */
+    @Override // com.getcapacitor.Plugin
+    public void handleOnPause() {
+        super.handleOnPause();
+        SearchIndex searchIndex = this.implementation;
+        if (searchIndex != null) {
+            searchIndex.commitAsync();
+        }
+    }
+
+    /* JADX INFO: Access modifiers changed from: protected */
+    @Override // com.getcapacitor.Plugin
+    public void handleOnDestroy() {
+        super.handleOnDestroy();
+        SearchIndex searchIndex = this.implementation;
+        if (searchIndex != null) {
+            try {
+                searchIndex.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Unable to close search index", e);
+            }
+        }
+    }
+
+    private SearchIndex getIndex(PluginCall pluginCall) {
+        SearchIndex searchIndex = this.implementation;
+        if (searchIndex == null) {
+            pluginCall.reject("Search index is unavailable", this.openError);
+        }
+        return searchIndex;
+    }
+
+    private static JSObject stats(SearchIndex index) {
+        JSObject jSObject = new JSObject();
+        jSObject.put("documents", index.docCount());
+        jSObject.put("segments", index.segmentCount());
+        jSObject.put("buffered", index.bufferedDocCount());
+        return jSObject;
+    }
+}
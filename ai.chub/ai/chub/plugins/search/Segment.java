@@ -0,0 +1,42 @@
+package ai.chub.plugins.search;
+
+import java.util.List;
+
+interface Segment {
+
+    interface Postings {
+        int doc();
+
+        int freq();
+
+        boolean next();
+    }
+
+    boolean delete(int doc);
+
+    int docCount();
+
+    int docFreq(String term);
+
+    int docGroup(int doc);
+
+    int docLength(int doc);
+
+    String extId(int doc);
+
+    int find(String extId);
+
+    int groupCode(String group);
+
+    String groupName(int code);
+
+    boolean isDeleted(int doc);
+
+    Postings postings(String term);
+
+    void prefixTerms(String prefix, int limit, List<String> out);
+
+    String text(int doc);
+
+    long totalLength();
+}
@@ -0,0 +1,271 @@
+package ai.chub.plugins.search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Streams a segment file. Documents are written first, then the postings of each term in
+ * {@link DiskSegment#TERM_ORDER}; the term dictionary, group names and id table follow and the
+ * header is filled in last.
+ */
+final class SegmentWriter implements Closeable {
+    static final int DOC_ENTRY_SIZE = 16;
+    static final int HEADER_SIZE = 80;
+    static final int MAGIC = 1128813385;
+    static final int SPARSE_INTERVAL = 32;
+    static final int VERSION = 1;
+    private final FileOutputStream out;
+    private long position;
+    private int docCount;
+    private long docTableOffset = -1;
+    private long[] docOffsets = new long[256];
+    private int[] docLengths = new int[256];
+    private int[] docGroups = new int[256];
+    private int[] idHashes = new int[256];
+    private final HashMap<String, Integer> groupCodes = new HashMap<>();
+    private final ByteArrayOutputStream groups = new ByteArrayOutputStream();
+    private long postingsOffset;
+    private final ByteArrayOutputStream sparse = new ByteArrayOutputStream();
+    private int sparseCount;
+    private int termCount;
+    private final ByteArrayOutputStream terms = new ByteArrayOutputStream();
+    private long totalLength;
+    private final byte[] buffer = new byte[65536];
+    private int buffered;
+
+    SegmentWriter(File file) throws IOException {
+        this.out = new FileOutputStream(file);
+        writeBytes(new byte[HEADER_SIZE], 0, HEADER_SIZE);
+    }
+
+    int addDoc(String extId, String group, int length, String text) throws IOException {
+        if (this.docTableOffset >= 0) {
+            throw new IllegalStateException("Documents must be added before postings");
+        }
+        int i = this.docCount;
+        if (i == this.docOffsets.length) {
+            int i2 = i * 2;
+            this.docOffsets = Arrays.copyOf(this.docOffsets, i2);
+            this.docLengths = Arrays.copyOf(this.docLengths, i2);
+            this.docGroups = Arrays.copyOf(this.docGroups, i2);
+            this.idHashes = Arrays.copyOf(this.idHashes, i2);
+        }
+        this.docOffsets[i] = this.position;
+        this.docLengths[i] = length;
+        this.docGroups[i] = internGroup(group);
+        this.idHashes[i] = DiskSegment.idHash(extId);
+        byte[] bytes = extId.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+        byte[] bytes2 = text.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes2.length);
+        writeBytes(bytes2, 0, bytes2.length);
+        this.totalLength += length;
+        this.docCount = i + 1;
+        return i;
+    }
+
+    void addTerm(byte[] term, int termLength, int[] docs, int[] freqs, int count) throws IOException {
+        if (this.docTableOffset < 0) {
+            writeDocTable();
+        }
+        if (count == 0) {
+            return;
+        }
+        if (this.termCount % SPARSE_INTERVAL == 0) {
+            writeVarInt(this.sparse, termLength);
+            this.sparse.write(term, 0, termLength);
+            writeInt(this.sparse, this.terms.size());
+            this.sparseCount++;
+        }
+        writeVarInt(this.terms, termLength);
+        this.terms.write(term, 0, termLength);
+        writeVarInt(this.terms, count);
+        writeVarLong(this.terms, this.position - this.postingsOffset);
+        int i = 0;
+        for (int i2 = 0; i2 < count; i2++) {
+            int i3 = docs[i2];
+            writeVarInt(i3 - i);
+            writeVarInt(freqs[i2]);
+            i = i3;
+        }
+        this.termCount++;
+    }
+
+    void finish() throws IOException {
+        if (this.docTableOffset < 0) {
+            writeDocTable();
+        }
+        long j = this.position;
+        byte[] byteArray = this.terms.toByteArray();
+        writeBytes(byteArray, 0, byteArray.length);
+        long j2 = this.position;
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        writeVarInt(byteArrayOutputStream, this.sparseCount);
+        this.sparse.writeTo(byteArrayOutputStream);
+        byte[] byteArray2 = byteArrayOutputStream.toByteArray();
+        writeBytes(byteArray2, 0, byteArray2.length);
+        long j3 = this.position;
+        ByteArrayOutputStream byteArrayOutputStream2 = new ByteArrayOutputStream();
+        writeVarInt(byteArrayOutputStream2, this.groupCodes.size());
+        this.groups.writeTo(byteArrayOutputStream2);
+        byte[] byteArray3 = byteArrayOutputStream2.toByteArray();
+        writeBytes(byteArray3, 0, byteArray3.length);
+        long j4 = this.position;
+        writeIdTable();
+        flushBuffer();
+        ByteBuffer allocate = ByteBuffer.allocate(HEADER_SIZE);
+        allocate.putInt(MAGIC);
+        allocate.putInt(VERSION);
+        allocate.putInt(this.docCount);
+        allocate.putInt(this.termCount);
+        allocate.putLong(this.totalLength);
+        allocate.putLong(this.docTableOffset);
+        allocate.putLong(this.postingsOffset);
+        allocate.putLong(j);
+        allocate.putLong(j2);
+        allocate.putLong(j3);
+        allocate.putLong(j4);
+        allocate.flip();
+        while (allocate.hasRemaining()) {
+            this.out.getChannel().write(allocate, allocate.position());
+        }
+        this.out.getFD().sync();
+    }
+
+    @Override // java.io.Closeable, java.lang.AutoCloseable
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    private int internGroup(String group) throws IOException {
+        Integer num = this.groupCodes.get(group);
+        if (num == null) {
+            num = Integer.valueOf(this.groupCodes.size());
+            this.groupCodes.put(group, num);
+            byte[] bytes = group.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(this.groups, bytes.length);
+            this.groups.write(bytes);
+        }
+        return num.intValue();
+    }
+
+    private void writeDocTable() throws IOException {
+        this.docTableOffset = this.position;
+        byte[] bArr = new byte[DOC_ENTRY_SIZE];
+        ByteBuffer wrap = ByteBuffer.wrap(bArr);
+        for (int i = 0; i < this.docCount; i++) {
+            wrap.clear();
+            wrap.putLong(this.docOffsets[i]);
+            wrap.putInt(this.docLengths[i]);
+            wrap.putInt(this.docGroups[i]);
+            writeBytes(bArr, 0, DOC_ENTRY_SIZE);
+        }
+        this.postingsOffset = this.position;
+    }
+
+    private void writeIdTable() throws IOException {
+        int i = 1;
+        while (i < this.docCount * 2) {
+            i <<= 1;
+        }
+        int[] iArr = new int[i];
+        int i2 = i - 1;
+        for (int i3 = 0; i3 < this.docCount; i3++) {
+            int i4 = this.idHashes[i3] & i2;
+            while (iArr[i4] != 0) {
+                i4 = (i4 + 1) & i2;
+            }
+            iArr[i4] = i3 + 1;
+        }
+        writeInt(i);
+        for (int i5 : iArr) {
+            writeInt(i5);
+        }
+    }
+
+    private void writeInt(int v) throws IOException {
+        if (this.buffered + 4 > this.buffer.length) {
+            flushBuffer();
+        }
+        byte[] bArr = this.buffer;
+        int i = this.buffered;
+        bArr[i] = (byte) (v >>> 24);
+        bArr[i + 1] = (byte) (v >>> 16);
+        bArr[i + 2] = (byte) (v >>> 8);
+        bArr[i + 3] = (byte) v;
+        this.buffered = i + 4;
+        this.position += 4;
+    }
+
+    private void writeVarInt(int v) throws IOException {
+        if (this.buffered + 5 > this.buffer.length) {
+            flushBuffer();
+        }
+        while ((v & (-128)) != 0) {
+            byte[] bArr = this.buffer;
+            int i = this.buffered;
+            this.buffered = i + 1;
+            bArr[i] = (byte) ((v & 127) | 128);
+            v >>>= 7;
+            this.position++;
+        }
+        byte[] bArr2 = this.buffer;
+        int i2 = this.buffered;
+        this.buffered = i2 + 1;
+        bArr2[i2] = (byte) v;
+        this.position++;
+    }
+
+    private void writeBytes(byte[] b, int off, int len) throws IOException {
+        if (len > this.buffer.length - this.buffered) {
+            flushBuffer();
+            if (len > this.buffer.length) {
+                this.out.write(b, off, len);
+                this.position += len;
+                return;
+            }
+        }
+        System.arraycopy(b, off, this.buffer, this.buffered, len);
+        this.buffered += len;
+        this.position += len;
+    }
+
+    private void flushBuffer() throws IOException {
+        int i = this.buffered;
+        if (i > 0) {
+            this.out.write(this.buffer, 0, i);
+            this.buffered = 0;
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int v) {
+        out.write(v >>> 24);
+        out.write(v >>> 16);
+        out.write(v >>> 8);
+        out.write(v);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int v) {
+        while ((v & (-128)) != 0) {
+            out.write((v & 127) | 128);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long v) {
+        while (((-128) & v) != 0) {
+            out.write((int) ((127 & v) | 128));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+}
@@ -0,0 +1,345 @@
+package ai.chub.plugins.tokenizer;
+
+import java.util.Arrays;
+
+/**
+ * Byte-level BPE tokenizer over a ranked vocabulary (tiktoken layout: the rank of a token is also
+ * its merge priority). The vocabulary is held in a byte trie made of primitive arrays, and all
+ * scratch buffers are reused, so {@link #count(CharSequence)} does not allocate once warmed up.
+ * Pre-tokenization follows the cl100k split rules closely enough for budgeting, without regex.
+ */
+public final class BpeTokenizer {
+    private static final int NO_RANK = Integer.MAX_VALUE;
+    private final int[] edgeStart;
+    private final byte[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] nodeRank;
+    private final int[] rootChild = new int[256];
+    private final int vocabSize;
+    private byte[] bytes = new byte[256];
+    private int[] ids = new int[256];
+    private int idCount;
+    private int[] pairRank = new int[256];
+    private int[] parts = new int[257];
+
+    public BpeTokenizer(byte[][] tokens, int[] ranks) {
+        int length = tokens.length;
+        this.vocabSize = length;
+        Integer[] numArr = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            numArr[i] = Integer.valueOf(i);
+        }
+        Arrays.sort(numArr, (num, num2) -> compareBytes(tokens[num.intValue()], tokens[num2.intValue()]));
+        int i2 = 1;
+        for (byte[] bArr : tokens) {
+            i2 += bArr.length;
+        }
+        int[] iArr = new int[i2];
+        byte[] bArr2 = new byte[i2];
+        int[] iArr2 = new int[i2];
+        Arrays.fill(iArr2, NO_RANK);
+        int[] iArr3 = new int[64];
+        int i3 = 1;
+        byte[] bArr3 = null;
+        for (Integer num3 : numArr) {
+            byte[] bArr4 = tokens[num3.intValue()];
+            if (bArr4.length != 0) {
+                int commonPrefix = bArr3 == null ? 0 : commonPrefix(bArr3, bArr4);
+                if (bArr4.length >= iArr3.length) {
+                    iArr3 = Arrays.copyOf(iArr3, bArr4.length * 2);
+                }
+                for (int i4 = commonPrefix; i4 < bArr4.length; i4++) {
+                    iArr[i3] = iArr3[i4];
+                    bArr2[i3] = bArr4[i4];
+                    iArr3[i4 + 1] = i3;
+                    i3++;
+                }
+                int i5 = iArr3[bArr4.length];
+                iArr2[i5] = Math.min(iArr2[i5], ranks[num3.intValue()]);
+                bArr3 = bArr4;
+            }
+        }
+        this.nodeRank = Arrays.copyOf(iArr2, i3);
+        this.edgeStart = new int[i3 + 1];
+        for (int i6 = 1; i6 < i3; i6++) {
+            int[] iArr4 = this.edgeStart;
+            int i7 = iArr[i6] + 1;
+            iArr4[i7] = iArr4[i7] + 1;
+        }
+        for (int i8 = 0; i8 < i3; i8++) {
+            int[] iArr5 = this.edgeStart;
+            int i9 = i8 + 1;
+            iArr5[i9] = iArr5[i9] + iArr5[i8];
+        }
+        this.edgeLabel = new byte[Math.max(i3 - 1, 0)];
+        this.edgeTarget = new int[Math.max(i3 - 1, 0)];
+        int[] copyOf = Arrays.copyOf(this.edgeStart, i3);
+        for (int i10 = 1; i10 < i3; i10++) {
+            int i11 = iArr[i10];
+            int i12 = copyOf[i11];
+            copyOf[i11] = i12 + 1;
+            this.edgeLabel[i12] = bArr2[i10];
+            this.edgeTarget[i12] = i10;
+        }
+        Arrays.fill(this.rootChild, -1);
+        for (int i13 = this.edgeStart[0]; i13 < this.edgeStart[1]; i13++) {
+            this.rootChild[this.edgeLabel[i13] & 255] = this.edgeTarget[i13];
+        }
+    }
+
+    public int getVocabSize() {
+        return this.vocabSize;
+    }
+
+    public synchronized int count(CharSequence text) {
+        this.idCount = 0;
+        return tokenize(text, false);
+    }
+
+    public synchronized int[] encode(CharSequence text) {
+        this.idCount = 0;
+        tokenize(text, true);
+        return Arrays.copyOf(this.ids, this.idCount);
+    }
+
+    private int tokenize(CharSequence text, boolean emit) {
+        int length = text.length();
+        int i = 0;
+        int i2 = 0;
+        while (i < length) {
+            int pieceEnd = pieceEnd(text, i, length);
+            i2 += encodePiece(text, i, pieceEnd, emit);
+            i = pieceEnd;
+        }
+        return i2;
+    }
+
+    private static int pieceEnd(CharSequence text, int start, int end) {
+        char charAt = text.charAt(start);
+        int i = start + 1;
+        if (charAt == '\'' && i < end) {
+            int contraction = contraction(text, i, end);
+            if (contraction > 0) {
+                return i + contraction;
+            }
+        }
+        if (Character.isLetter(charAt) || (i < end && Character.isLetter(text.charAt(i)) && !Character.isDigit(charAt) && charAt != '\r' && charAt != '\n')) {
+            while (i < end && Character.isLetter(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        } else if (Character.isDigit(charAt)) {
+            int min = Math.min(start + 3, end);
+            while (i < min && Character.isDigit(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        } else if (!Character.isWhitespace(charAt) || (charAt == ' ' && i < end && isSymbol(text.charAt(i)))) {
+            while (i < end && isSymbol(text.charAt(i))) {
+                i++;
+            }
+            while (i < end && (text.charAt(i) == '\r' || text.charAt(i) == '\n')) {
+                i++;
+            }
+            return i;
+        } else {
+            int i2 = -1;
+            if (charAt == '\r' || charAt == '\n') {
+                i2 = i;
+            }
+            while (i < end && Character.isWhitespace(text.charAt(i))) {
+                char charAt2 = text.charAt(i);
+                i++;
+                if (charAt2 == '\r' || charAt2 == '\n') {
+                    i2 = i;
+                }
+            }
+            if (i2 > 0) {
+                return i2;
+            }
+            return (i >= end || i - start <= 1) ? i : i - 1;
+        }
+    }
+
+    private static boolean isSymbol(char c) {
+        return (Character.isWhitespace(c) || Character.isLetter(c) || Character.isDigit(c)) ? false : true;
+    }
+
+    private static int contraction(CharSequence text, int start, int end) {
+        char lowerCase = Character.toLowerCase(text.charAt(start));
+        if (lowerCase == 's' || lowerCase == 't' || lowerCase == 'm' || lowerCase == 'd') {
+            return 1;
+        }
+        if (start + 1 >= end) {
+            return 0;
+        }
+        char lowerCase2 = Character.toLowerCase(text.charAt(start + 1));
+        if ((lowerCase == 'r' && lowerCase2 == 'e') || ((lowerCase == 'v' && lowerCase2 == 'e') || (lowerCase == 'l' && lowerCase2 == 'l'))) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private int encodePiece(CharSequence text, int start, int end, boolean emit) {
+        int utf8 = utf8(text, start, end);
+        int rank = rank(0, utf8);
+        if (rank != NO_RANK) {
+            if (emit) {
+                emit(rank);
+            }
+            return 1;
+        }
+        if (utf8 + 1 > this.parts.length) {
+            this.parts = new int[(utf8 * 2) + 1];
+            this.pairRank = new int[utf8 * 2];
+        }
+        int[] iArr = this.parts;
+        int[] iArr2 = this.pairRank;
+        for (int i = 0; i <= utf8; i++) {
+            iArr[i] = i;
+        }
+        int i2 = utf8;
+        for (int i3 = 0; i3 < i2 - 1; i3++) {
+            iArr2[i3] = rank(iArr[i3], iArr[i3 + 2]);
+        }
+        while (i2 > 1) {
+            int i4 = NO_RANK;
+            int i5 = -1;
+            for (int i6 = 0; i6 < i2 - 1; i6++) {
+                if (iArr2[i6] < i4) {
+                    i4 = iArr2[i6];
+                    i5 = i6;
+                }
+            }
+            if (i5 < 0) {
+                break;
+            }
+            System.arraycopy(iArr, i5 + 2, iArr, i5 + 1, i2 - i5 - 1);
+            System.arraycopy(iArr2, i5 + 1, iArr2, i5, (i2 - i5) - 2);
+            i2--;
+            iArr2[i5] = i5 + 1 < i2 ? rank(iArr[i5], iArr[i5 + 2]) : NO_RANK;
+            if (i5 > 0) {
+                iArr2[i5 - 1] = rank(iArr[i5 - 1], iArr[i5 + 1]);
+            }
+        }
+        if (emit) {
+            for (int i7 = 0; i7 < i2; i7++) {
+                int rank2 = rank(iArr[i7], iArr[i7 + 1]);
+                if (rank2 != NO_RANK) {
+                    emit(rank2);
+                } else {
+                    for (int i8 = iArr[i7]; i8 < iArr[i7 + 1]; i8++) {
+                        emit(rank(i8, i8 + 1));
+                    }
+                }
+            }
+        }
+        return i2;
+    }
+
+    private int rank(int start, int end) {
+        if (start >= end) {
+            return NO_RANK;
+        }
+        int i = this.rootChild[this.bytes[start] & 255];
+        if (i < 0) {
+            return NO_RANK;
+        }
+        for (int i3 = start + 1; i3 < end; i3++) {
+            i = child(i, this.bytes[i3]);
+            if (i < 0) {
+                return NO_RANK;
+            }
+        }
+        return this.nodeRank[i];
+    }
+
+    private int child(int node, byte b) {
+        int i = b & 255;
+        int i2 = this.edgeStart[node];
+        int i3 = this.edgeStart[node + 1] - 1;
+        while (i2 <= i3) {
+            int i4 = (i2 + i3) >>> 1;
+            int i5 = this.edgeLabel[i4] & 255;
+            if (i5 < i) {
+                i2 = i4 + 1;
+            } else if (i5 > i) {
+                i3 = i4 - 1;
+            } else {
+                return this.edgeTarget[i4];
+            }
+        }
+        return -1;
+    }
+
+    private int utf8(CharSequence text, int start, int end) {
+        int i = (end - start) * 3;
+        if (i > this.bytes.length) {
+            this.bytes = new byte[i * 2];
+        }
+        byte[] bArr = this.bytes;
+        int i2 = 0;
+        int i3 = start;
+        while (i3 < end) {
+            char charAt = text.charAt(i3);
+            if (charAt < 128) {
+                bArr[i2] = (byte) charAt;
+                i2++;
+            } else if (charAt < 2048) {
+                int i4 = i2 + 1;
+                bArr[i2] = (byte) ((charAt >> 6) | 192);
+                i2 = i4 + 1;
+                bArr[i4] = (byte) ((charAt & 63) | 128);
+            } else if (Character.isHighSurrogate(charAt) && i3 + 1 < end && Character.isLowSurrogate(text.charAt(i3 + 1))) {
+                i3++;
+                int codePoint = Character.toCodePoint(charAt, text.charAt(i3));
+                bArr[i2] = (byte) ((codePoint >> 18) | 240);
+                bArr[i2 + 1] = (byte) (((codePoint >> 12) & 63) | 128);
+                bArr[i2 + 2] = (byte) (((codePoint >> 6) & 63) | 128);
+                bArr[i2 + 3] = (byte) ((codePoint & 63) | 128);
+                i2 += 4;
+            } else {
+                char c = Character.isSurrogate(charAt) ? (char) 65533 : charAt;
+                bArr[i2] = (byte) ((c >> 12) | 224);
+                bArr[i2 + 1] = (byte) (((c >> 6) & 63) | 128);
+                bArr[i2 + 2] = (byte) ((c & 63) | 128);
+                i2 += 3;
+            }
+            i3++;
+        }
+        return i2;
+    }
+
+    private void emit(int id) {
+        int i = this.idCount;
+        int[] iArr = this.ids;
+        if (i == iArr.length) {
+            this.ids = Arrays.copyOf(iArr, i * 2);
+        }
+        int[] iArr2 = this.ids;
+        int i2 = this.idCount;
+        this.idCount = i2 + 1;
+        iArr2[i2] = id;
+    }
+
+    private static int commonPrefix(byte[] a, byte[] b) {
+        int min = Math.min(a.length, b.length);
+        for (int i = 0; i < min; i++) {
+            if (a[i] != b[i]) {
+                return i;
+            }
+        }
+        return min;
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int min = Math.min(a.length, b.length);
+        for (int i = 0; i < min; i++) {
+            int i2 = (a[i] & 255) - (b[i] & 255);
+            if (i2 != 0) {
+                return i2;
+            }
+        }
+        return a.length - b.length;
+    }
+}
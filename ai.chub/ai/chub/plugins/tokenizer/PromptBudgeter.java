@@ -0,0 +1,89 @@
+package ai.chub.plugins.tokenizer;
+
+import androidx.collection.ConcurrentLruCache;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fits chat history into a model's context window. Token counts are cached per message hash, so a
+ * budget pass only tokenizes messages that are new or were edited since the previous pass.
+ */
+public class PromptBudgeter {
+    private static final int DEFAULT_CACHE_ENTRIES = 16384;
+    private final ConcurrentLruCache<String, Integer> counts;
+    private final BpeTokenizer tokenizer;
+
+    public static class Message {
+        public final String hash;
+        public final String text;
+
+        public Message(String hash, String text) {
+            this.hash = hash;
+            this.text = text;
+        }
+    }
+
+    public static class Result {
+        public int firstIncluded;
+        public int fixedTokens;
+        public int historyTokens;
+        public List<String> missing = new ArrayList();
+        public int tokenized;
+    }
+
+    public PromptBudgeter(BpeTokenizer tokenizer) {
+        this(tokenizer, DEFAULT_CACHE_ENTRIES);
+    }
+
+    public PromptBudgeter(BpeTokenizer tokenizer, int cacheEntries) {
+        this.tokenizer = tokenizer;
+        this.counts = new ConcurrentLruCache<>(cacheEntries);
+    }
+
+    public BpeTokenizer getTokenizer() {
+        return this.tokenizer;
+    }
+
+    public Result budget(int contextSize, int reserved, List<String> fixed, List<Message> history, int messageOverhead) {
+        Result result = new Result();
+        int i = 0;
+        for (String str : fixed) {
+            if (str != null) {
+                i += this.tokenizer.count(str) + messageOverhead;
+            }
+        }
+        result.fixedTokens = i;
+        int i2 = (contextSize - reserved) - i;
+        int size = history.size();
+        result.firstIncluded = size;
+        int i3 = 0;
+        for (int i4 = size - 1; i4 >= 0; i4--) {
+            Message message = history.get(i4);
+            Integer num = message.hash != null ? this.counts.get(message.hash) : null;
+            if (num == null) {
+                if (message.text == null) {
+                    result.missing.add(message.hash);
+                    continue;
+                } else {
+                    num = Integer.valueOf(this.tokenizer.count(message.text));
+                    result.tokenized++;
+                    if (message.hash != null) {
+                        this.counts.put(message.hash, num);
+                    }
+                }
+            }
+            int intValue = num.intValue() + messageOverhead;
+            if (i3 + intValue > i2) {
+                break;
+            }
+            i3 += intValue;
+            result.firstIncluded = i4;
+        }
+        result.historyTokens = i3;
+        return result;
+    }
+
+    public void clear() {
+        this.counts.evictAll();
+    }
+}
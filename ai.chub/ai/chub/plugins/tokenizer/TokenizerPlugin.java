@@ -0,0 +1,173 @@
+package ai.chub.plugins.tokenizer;
+
+import android.util.Base64;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.json.JSONException;
+import org.json.JSONObject;
+@CapacitorPlugin(name = "Tokenizer")
+public class TokenizerPlugin extends Plugin {
+    private final HashMap<String, PromptBudgeter> budgeters = new HashMap<>();
+
+    @PluginMethod
+    public void load(PluginCall pluginCall) {
+        String string = pluginCall.getString("name");
+        String string2 = pluginCall.getString("path");
+        if (string == null) {
+            pluginCall.reject("NO_NAME");
+        } else if (string2 == null) {
+            pluginCall.reject("NO_PATH");
+        } else {
+            try {
+                long nanoTime = System.nanoTime();
+                InputStream open = getContext().getAssets().open(string2);
+                try {
+                    BpeTokenizer readRanks = readRanks(open);
+                    open.close();
+                    synchronized (this.budgeters) {
+                        this.budgeters.put(string, new PromptBudgeter(readRanks));
+                    }
+                    JSObject jSObject = new JSObject();
+                    jSObject.put("vocabSize", readRanks.getVocabSize());
+                    jSObject.put("loadMs", (System.nanoTime() - nanoTime) / 1000000);
+                    pluginCall.resolve(jSObject);
+                } catch (Throwable th) {
+                    open.close();
+                    throw th;
+                }
+            } catch (IOException e) {
+                pluginCall.reject("Unable to read vocabulary " + string2, e);
+            } catch (IllegalArgumentException e2) {
+                pluginCall.reject("Malformed vocabulary " + string2, e2);
+            }
+        }
+    }
+
+    @PluginMethod
+    public void count(PluginCall pluginCall) {
+        PromptBudgeter budgeter = getBudgeter(pluginCall);
+        if (budgeter == null) {
+            return;
+        }
+        JSObject jSObject = new JSObject();
+        jSObject.put("count", budgeter.getTokenizer().count(pluginCall.getString("text", "")));
+        pluginCall.resolve(jSObject);
+    }
+
+    @PluginMethod
+    public void encode(PluginCall pluginCall) {
+        PromptBudgeter budgeter = getBudgeter(pluginCall);
+        if (budgeter == null) {
+            return;
+        }
+        int[] encode = budgeter.getTokenizer().encode(pluginCall.getString("text", ""));
+        JSArray jSArray = new JSArray();
+        for (int i : encode) {
+            jSArray.put(i);
+        }
+        JSObject jSObject = new JSObject();
+        jSObject.put("tokens", (Object) jSArray);
+        pluginCall.resolve(jSObject);
+    }
+
+    @PluginMethod
+    public void budget(PluginCall pluginCall) {
+        PromptBudgeter budgeter = getBudgeter(pluginCall);
+        if (budgeter == null) {
+            return;
+        }
+        Integer num = pluginCall.getInt("contextSize");
+        if (num == null) {
+            pluginCall.reject("NO_CONTEXT_SIZE");
+            return;
+        }
+        try {
+            ArrayList arrayList = new ArrayList();
+            JSArray array = pluginCall.getArray("fixed", new JSArray());
+            for (int i = 0; i < array.length(); i++) {
+                arrayList.add(array.optString(i, null));
+            }
+            ArrayList arrayList2 = new ArrayList();
+            JSArray array2 = pluginCall.getArray("messages", new JSArray());
+            for (int i2 = 0; i2 < array2.length(); i2++) {
+                JSONObject jSONObject = array2.getJSONObject(i2);
+                arrayList2.add(new PromptBudgeter.Message(jSONObject.optString("hash", null), jSONObject.optString("text", null)));
+            }
+            PromptBudgeter.Result budget = budgeter.budget(num.intValue(), pluginCall.getInt("reserved", 0).intValue(), arrayList, arrayList2, pluginCall.getInt("messageOverhead", 0).intValue());
+            JSObject jSObject = new JSObject();
+            if (!budget.missing.isEmpty()) {
+                jSObject.put("missing", (Object) new JSArray(budget.missing));
+            } else {
+                jSObject.put("firstIncluded", budget.firstIncluded);
+                jSObject.put("fixedTokens", budget.fixedTokens);
+                jSObject.put("historyTokens", budget.historyTokens);
+                jSObject.put("totalTokens", budget.fixedTokens + budget.historyTokens);
+            }
+            jSObject.put("tokenized", budget.tokenized);
+            pluginCall.resolve(jSObject);
+        } catch (JSONException e) {
+            pluginCall.reject("Invalid message list", e);
+        }
+    }
+
+    @PluginMethod
+    public void clearCache(PluginCall pluginCall) {
+        PromptBudgeter budgeter = getBudgeter(pluginCall);
+        if (budgeter == null) {
+            return;
+        }
+        budgeter.clear();
+        pluginCall.resolve();
+    }
+
+    private PromptBudgeter getBudgeter(PluginCall pluginCall) {
+        PromptBudgeter promptBudgeter;
+        String string = pluginCall.getString("name");
+        if (string == null) {
+            pluginCall.reject("NO_NAME");
+            return null;
+        }
+        synchronized (this.budgeters) {
+            promptBudgeter = this.budgeters.get(string);
+        }
+        if (promptBudgeter == null) {
+            pluginCall.reject("Tokenizer " + string + " has not been loaded", "NOT_LOADED");
+        }
+        return promptBudgeter;
+    }
+
+    private static BpeTokenizer readRanks(InputStream inputStream) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII), 65536);
+        byte[][] bArr = new byte[131072][];
+        int[] iArr = new int[131072];
+        int i = 0;
+        while (true) {
+            String readLine = bufferedReader.readLine();
+            if (readLine == null) {
+                return new BpeTokenizer((byte[][]) Arrays.copyOf(bArr, i), Arrays.copyOf(iArr, i));
+            }
+            int indexOf = readLine.indexOf(32);
+            if (indexOf > 0) {
+                if (i == bArr.length) {
+                    bArr = (byte[][]) Arrays.copyOf(bArr, i * 2);
+                    iArr = Arrays.copyOf(iArr, i * 2);
+                }
+                bArr[i] = Base64.decode(readLine.substring(0, indexOf), 2);
+                iArr[i] = Integer.parseInt(readLine.substring(indexOf + 1).trim());
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package androidx.collection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe counterpart of {@link LruCache} with the same API. Keys are hashed onto independently locked
+ * segments, so threads working on different keys rarely contend. The segments share one {@code maxSize}
+ * budget: a write evicts least recently used entries from its own segment until the cache fits again, and
+ * only takes from the other segments, one entry each in turn, once its own segment is empty.
+ *
+ * <p>With admission enabled, each segment runs W-TinyLFU: new entries land in a small LRU window, and an
+ * entry leaving the window only displaces the main LRU victim of its segment if a frequency sketch has seen
+ * it more often.
+ * This keeps one-off scans from flushing popular entries. Entries may expire after write; the default comes
+ * from the constructor and {@link #expireAfterWrite} can override it per entry. Expired entries are dropped
+ * when they are next read, or by {@link #cleanUp()}.
+ */
+public class ConcurrentLruCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 32;
+    private final boolean admission;
+    private final AtomicLong weight = new AtomicLong();
+    private final long expireAfterWriteMillis;
+    private volatile int maxSize;
+    private final int segmentMask;
+    private final Segment<K, V>[] segments;
+
+    static final class Node<V> {
+        final long expiresAt;
+        final V value;
+        final int weight;
+
+        Node(V v, int i, long j) {
+            this.value = v;
+            this.weight = i;
+            this.expiresAt = j;
+        }
+    }
+
+    static final class Segment<K, V> {
+        long createCount;
+        long evictionCount;
+        long expirationCount;
+        long hitCount;
+        final LinkedHashMap<K, Node<V>> main = new LinkedHashMap<>(0, 0.75f, true);
+        int mainSize;
+        long missCount;
+        long putCount;
+        long rejectionCount;
+        final FrequencySketch sketch;
+        final AtomicLong weight;
+        final LinkedHashMap<K, Node<V>> window;
+        int windowMaxSize;
+        int windowSize;
+
+        /** {@code i} is this segment's share of {@code maxSize}, which sizes the window and the sketch. */
+        Segment(int i, boolean z, AtomicLong atomicLong) {
+            this.window = z ? new LinkedHashMap<>(0, 0.75f, true) : null;
+            this.sketch = z ? new FrequencySketch(i) : null;
+            this.weight = atomicLong;
+            setShare(i);
+        }
+
+        void setShare(int i) {
+            this.windowMaxSize = this.window != null ? Math.max(1, i / 100) : 0;
+        }
+
+        Node<V> get(K k) {
+            Node<V> node;
+            LinkedHashMap<K, Node<V>> linkedHashMap = this.window;
+            if (linkedHashMap != null && (node = linkedHashMap.get(k)) != null) {
+                return node;
+            }
+            return this.main.get(k);
+        }
+
+        Node<V> remove(K k) {
+            Node<V> remove;
+            LinkedHashMap<K, Node<V>> linkedHashMap = this.window;
+            if (linkedHashMap != null && (remove = linkedHashMap.remove(k)) != null) {
+                this.windowSize -= remove.weight;
+                this.weight.addAndGet(-remove.weight);
+                return remove;
+            }
+            Node<V> remove2 = this.main.remove(k);
+            if (remove2 != null) {
+                this.mainSize -= remove2.weight;
+                this.weight.addAndGet(-remove2.weight);
+            }
+            return remove2;
+        }
+
+        void add(K k, Node<V> node) {
+            LinkedHashMap<K, Node<V>> linkedHashMap = this.window;
+            this.weight.addAndGet(node.weight);
+            if (linkedHashMap != null) {
+                linkedHashMap.put(k, node);
+                this.windowSize += node.weight;
+                return;
+            }
+            this.main.put(k, node);
+            this.mainSize += node.weight;
+        }
+
+        /**
+         * Evicts from this segment until the whole cache weighs at most {@code j} or the segment is down to
+         * {@code i}, the weight of the entry just written, adding the removed keys and nodes to {@code list}.
+         * Window overflow goes through admission first.
+         */
+        void evict(long j, int i, ArrayList<Object> arrayList) {
+            if (this.window != null) {
+                while (this.windowSize > this.windowMaxSize) {
+                    Map.Entry<K, Node<V>> next = this.window.entrySet().iterator().next();
+                    K key = next.getKey();
+                    Node<V> value = next.getValue();
+                    this.window.remove(key);
+                    this.windowSize -= value.weight;
+                    admit(key, value, j, arrayList);
+                }
+            }
+            while (this.weight.get() > j && this.mainSize + this.windowSize > i && evictOne(arrayList)) {
+            }
+        }
+
+        /** Evicts the least recently used entry of main, or of the window once main is empty. */
+        boolean evictOne(ArrayList<Object> arrayList) {
+            LinkedHashMap<K, Node<V>> linkedHashMap = this.main.isEmpty() ? this.window : this.main;
+            if (linkedHashMap == null || linkedHashMap.isEmpty()) {
+                return false;
+            }
+            Map.Entry<K, Node<V>> next = linkedHashMap.entrySet().iterator().next();
+            Node<V> value = next.getValue();
+            linkedHashMap.remove(next.getKey());
+            if (linkedHashMap == this.main) {
+                this.mainSize -= value.weight;
+            } else {
+                this.windowSize -= value.weight;
+            }
+            this.weight.addAndGet(-value.weight);
+            this.evictionCount++;
+            arrayList.add(next.getKey());
+            arrayList.add(value);
+            return true;
+        }
+
+        /** Moves {@code k} from the window to main, unless the cache is over {@code j} and main's victim is used more often. */
+        private void admit(K k, Node<V> node, long j, ArrayList<Object> arrayList) {
+            if (this.weight.get() > j) {
+                if (node.weight > j || this.main.isEmpty() || this.sketch.frequency(FrequencySketch.spread(k.hashCode())) <= this.sketch.frequency(FrequencySketch.spread(this.main.keySet().iterator().next().hashCode()))) {
+                    this.weight.addAndGet(-node.weight);
+                    this.evictionCount++;
+                    this.rejectionCount++;
+                    arrayList.add(k);
+                    arrayList.add(node);
+                    return;
+                }
+                Iterator<Map.Entry<K, Node<V>>> it = this.main.entrySet().iterator();
+                while (this.weight.get() > j && it.hasNext()) {
+                    Map.Entry<K, Node<V>> next = it.next();
+                    it.remove();
+                    this.mainSize -= next.getValue().weight;
+                    this.weight.addAndGet(-next.getValue().weight);
+                    this.evictionCount++;
+                    arrayList.add(next.getKey());
+                    arrayList.add(next.getValue());
+                }
+            }
+            this.main.put(k, node);
+            this.mainSize += node.weight;
+        }
+
+        void expire(long j, ArrayList<Object> arrayList) {
+            int i = 0;
+            LinkedHashMap<K, Node<V>> linkedHashMap = this.window;
+            if (linkedHashMap != null) {
+                i = expire(linkedHashMap, j, arrayList);
+                this.windowSize -= i;
+            }
+            int expire = expire(this.main, j, arrayList);
+            this.mainSize -= expire;
+            this.weight.addAndGet(-(i + expire));
+        }
+
+        private int expire(LinkedHashMap<K, Node<V>> linkedHashMap, long j, ArrayList<Object> arrayList) {
+            int i = 0;
+            Iterator<Map.Entry<K, Node<V>>> it = linkedHashMap.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Node<V>> next = it.next();
+                Node<V> value = next.getValue();
+                if (value.expiresAt != Long.MAX_VALUE && value.expiresAt - j <= 0) {
+                    it.remove();
+                    i += value.weight;
+                    this.expirationCount++;
+                    arrayList.add(next.getKey());
+                    arrayList.add(value);
+                }
+            }
+            return i;
+        }
+    }
+
+    public ConcurrentLruCache(int i) {
+        this(i, defaultConcurrencyLevel(i), false, 0L);
+    }
+
+    /**
+     * @param i the maximum total {@link #sizeOf} over all entries
+     * @param i2 the number of segments, rounded down to a power of two and capped at 16
+     * @param z whether to gate insertions with the W-TinyLFU admission filter
+     * @param j the default time-to-live after write in milliseconds, or 0 for none
+     */
+    public ConcurrentLruCache(int i, int i2, boolean z, long j) {
+        if (i <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        if (i2 <= 0) {
+            throw new IllegalArgumentException("concurrencyLevel <= 0");
+        }
+        if (j < 0) {
+            throw new IllegalArgumentException("expireAfterWriteMillis < 0");
+        }
+        int highestOneBit = Integer.highestOneBit(Math.min(Math.min(i2, i), MAX_SEGMENTS));
+        this.maxSize = i;
+        this.admission = z;
+        this.expireAfterWriteMillis = j;
+        this.segmentMask = highestOneBit - 1;
+        this.segments = new Segment[highestOneBit];
+        for (int i3 = 0; i3 < highestOneBit; i3++) {
+            this.segments[i3] = new Segment<>(segmentShare(i), z, this.weight);
+        }
+    }
+
+    private static int defaultConcurrencyLevel(int i) {
+        int min = Math.min(Runtime.getRuntime().availableProcessors() * 2, MAX_SEGMENTS);
+        while (min > 1 && i / min < MIN_SEGMENT_SIZE) {
+            min >>= 1;
+        }
+        return min;
+    }
+
+    private int segmentShare(int i) {
+        return Math.max(1, i / this.segments.length);
+    }
+
+    /**
+     * Evicts until the cache weighs at most {@code j}, taking one entry from each segment in turn starting at
+     * segment {@code i}, so that no segment is drained ahead of the others.
+     */
+    private void evictOverflow(long j, int i, ArrayList<Object> arrayList) {
+        boolean evictOne;
+        int i2 = 0;
+        while (this.weight.get() > j && i2 < this.segments.length) {
+            Segment<K, V> segment = this.segments[i & this.segmentMask];
+            synchronized (segment) {
+                evictOne = segment.evictOne(arrayList);
+            }
+            i2 = evictOne ? 0 : i2 + 1;
+            i++;
+        }
+    }
+
+    private Segment<K, V> segmentFor(int i) {
+        return this.segments[(i >>> 16) & this.segmentMask];
+    }
+
+    protected V create(K k) {
+        return null;
+    }
+
+    /**
+     * Called outside any lock for entries that were evicted or expired ({@code z} is true), replaced by
+     * {@link #put} or removed by {@link #remove}.
+     */
+    /* JADX INFO: Access modifiers changed from: protected */
+    public void entryRemoved(boolean z, K k, V v, V v2) {
+    }
+
+    protected int sizeOf(K k, V v) {
+        return 1;
+    }
+
+    /** Returns how long {@code k} stays valid after it was written, in milliseconds; 0 means forever. */
+    protected long expireAfterWrite(K k, V v) {
+        return this.expireAfterWriteMillis;
+    }
+
+    public void resize(int i) {
+        if (i <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        ArrayList<Object> arrayList = new ArrayList<>();
+        synchronized (this) {
+            this.maxSize = i;
+            int segmentShare = segmentShare(i);
+            for (Segment<K, V> segment : this.segments) {
+                synchronized (segment) {
+                    segment.setShare(segmentShare);
+                }
+            }
+            evictOverflow(i, 0, arrayList);
+        }
+        notifyRemoved(arrayList, true);
+    }
+
+    public final V get(K k) {
+        Node<V> node;
+        V v;
+        if (k == null) {
+            throw new NullPointerException("key == null");
+        }
+        int spread = FrequencySketch.spread(k.hashCode());
+        Segment<K, V> segmentFor = segmentFor(spread);
+        Node<V> node2 = null;
+        synchronized (segmentFor) {
+            FrequencySketch frequencySketch = segmentFor.sketch;
+            if (frequencySketch != null) {
+                frequencySketch.increment(spread);
+            }
+            node = segmentFor.get(k);
+            if (node != null && node.expiresAt != Long.MAX_VALUE && node.expiresAt - System.nanoTime() <= 0) {
+                segmentFor.remove(k);
+                segmentFor.expirationCount++;
+                node2 = node;
+                node = null;
+            }
+            if (node != null) {
+                segmentFor.hitCount++;
+                return node.value;
+            }
+            segmentFor.missCount++;
+        }
+        if (node2 != null) {
+            entryRemoved(true, k, node2.value, null);
+        }
+        V create = create(k);
+        if (create == null) {
+            return null;
+        }
+        Node<V> newNode = newNode(k, create);
+        ArrayList<Object> arrayList = new ArrayList<>();
+        synchronized (segmentFor) {
+            segmentFor.createCount++;
+            Node<V> node3 = segmentFor.get(k);
+            if (node3 != null) {
+                v = node3.value;
+            } else {
+                segmentFor.add(k, newNode);
+                segmentFor.evict(this.maxSize, newNode.weight, arrayList);
+                v = null;
+            }
+        }
+        if (v != null) {
+            entryRemoved(false, k, create, v);
+            return v;
+        }
+        evictOverflow(this.maxSize, (spread >>> 16) + 1, arrayList);
+        notifyRemoved(arrayList, true);
+        return create;
+    }
+
+    public final V put(K k, V v) {
+        Node<V> remove;
+        if (k == null || v == null) {
+            throw new NullPointerException("key == null || value == null");
+        }
+        int spread = FrequencySketch.spread(k.hashCode());
+        Segment<K, V> segmentFor = segmentFor(spread);
+        Node<V> newNode = newNode(k, v);
+        ArrayList<Object> arrayList = new ArrayList<>();
+        synchronized (segmentFor) {
+            segmentFor.putCount++;
+            FrequencySketch frequencySketch = segmentFor.sketch;
+            if (frequencySketch != null) {
+                frequencySketch.increment(spread);
+            }
+            remove = segmentFor.remove(k);
+            segmentFor.add(k, newNode);
+            segmentFor.evict(this.maxSize, newNode.weight, arrayList);
+        }
+        evictOverflow(this.maxSize, (spread >>> 16) + 1, arrayList);
+        V v2 = remove != null ? remove.value : null;
+        if (v2 != null) {
+            entryRemoved(false, k, v2, v);
+        }
+        notifyRemoved(arrayList, true);
+        return v2;
+    }
+
+    private Node<V> newNode(K k, V v) {
+        int sizeOf = sizeOf(k, v);
+        if (sizeOf < 0) {
+            throw new IllegalStateException("Negative size: " + k + "=" + v);
+        }
+        long expireAfterWrite = expireAfterWrite(k, v);
+        if (expireAfterWrite < 0) {
+            throw new IllegalStateException("Negative expiry: " + k + "=" + v);
+        }
+        return new Node<>(v, sizeOf, expireAfterWrite == 0 ? Long.MAX_VALUE : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(expireAfterWrite));
+    }
+
+    public final V remove(K k) {
+        Node<V> remove;
+        if (k == null) {
+            throw new NullPointerException("key == null");
+        }
+        Segment<K, V> segmentFor = segmentFor(FrequencySketch.spread(k.hashCode()));
+        synchronized (segmentFor) {
+            remove = segmentFor.remove(k);
+        }
+        if (remove == null) {
+            return null;
+        }
+        entryRemoved(false, k, remove.value, null);
+        return remove.value;
+    }
+
+    public void trimToSize(int i) {
+        ArrayList<Object> arrayList = new ArrayList<>();
+        evictOverflow(i, 0, arrayList);
+        notifyRemoved(arrayList, true);
+    }
+
+    public final void evictAll() {
+        trimToSize(-1);
+    }
+
+    /** Drops every expired entry now instead of waiting for it to be read. */
+    public void cleanUp() {
+        ArrayList<Object> arrayList = new ArrayList<>();
+        long nanoTime = System.nanoTime();
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                segment.expire(nanoTime, arrayList);
+            }
+        }
+        notifyRemoved(arrayList, true);
+    }
+
+    private void notifyRemoved(ArrayList<Object> arrayList, boolean z) {
+        for (int i = 0; i < arrayList.size(); i += 2) {
+            entryRemoved(z, (K) arrayList.get(i), ((Node<V>) arrayList.get(i + 1)).value, null);
+        }
+    }
+
+    public final int size() {
+        return (int) this.weight.get();
+    }
+
+    public final int maxSize() {
+        return this.maxSize;
+    }
+
+    public final boolean isAdmissionEnabled() {
+        return this.admission;
+    }
+
+    public final int segmentCount() {
+        return this.segments.length;
+    }
+
+    public final int hitCount() {
+        return (int) stat(0);
+    }
+
+    public final int missCount() {
+        return (int) stat(1);
+    }
+
+    public final int createCount() {
+        return (int) stat(2);
+    }
+
+    public final int putCount() {
+        return (int) stat(3);
+    }
+
+    /** Entries removed to respect {@link #maxSize()}, including new entries the admission filter turned away. */
+    public final int evictionCount() {
+        return (int) stat(4);
+    }
+
+    public final int expirationCount() {
+        return (int) stat(5);
+    }
+
+    /** New entries the admission filter dropped in favour of more frequently used ones. */
+    public final int rejectionCount() {
+        return (int) stat(6);
+    }
+
+    public final double hitRate() {
+        long stat = stat(0);
+        long stat2 = stat(1) + stat;
+        if (stat2 == 0) {
+            return 1.0d;
+        }
+        return ((double) stat) / stat2;
+    }
+
+    private long stat(int i) {
+        long j;
+        long j2 = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                switch (i) {
+                    case 0:
+                        j = segment.hitCount;
+                        break;
+                    case 1:
+                        j = segment.missCount;
+                        break;
+                    case 2:
+                        j = segment.createCount;
+                        break;
+                    case 3:
+                        j = segment.putCount;
+                        break;
+                    case 4:
+                        j = segment.evictionCount;
+                        break;
+                    case 5:
+                        j = segment.expirationCount;
+                        break;
+                    default:
+                        j = segment.rejectionCount;
+                        break;
+                }
+                j2 += j;
+            }
+        }
+        return j2;
+    }
+
+    /** Returns a copy of the live entries, each segment ordered from least to most recently used. */
+    public final Map<K, V> snapshot() {
+        LinkedHashMap linkedHashMap = new LinkedHashMap();
+        long nanoTime = System.nanoTime();
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                copyLive(segment.main, nanoTime, linkedHashMap);
+                LinkedHashMap<K, Node<V>> linkedHashMap2 = segment.window;
+                if (linkedHashMap2 != null) {
+                    copyLive(linkedHashMap2, nanoTime, linkedHashMap);
+                }
+            }
+        }
+        return linkedHashMap;
+    }
+
+    private static <K, V> void copyLive(LinkedHashMap<K, Node<V>> linkedHashMap, long j, Map<K, V> map) {
+        for (Map.Entry<K, Node<V>> entry : linkedHashMap.entrySet()) {
+            Node<V> value = entry.getValue();
+            if (value.expiresAt == Long.MAX_VALUE || value.expiresAt - j > 0) {
+                map.put(entry.getKey(), value.value);
+            }
+        }
+    }
+
+    public final String toString() {
+        long stat = stat(0);
+        long stat2 = stat(1);
+        long j = stat + stat2;
+        return String.format(Locale.US, "ConcurrentLruCache[maxSize=%d,segments=%d,hits=%d,misses=%d,hitRate=%d%%,evictions=%d,expirations=%d]", Integer.valueOf(this.maxSize), Integer.valueOf(this.segments.length), Long.valueOf(stat), Long.valueOf(stat2), Long.valueOf(j != 0 ? (stat * 100) / j : 0L), Long.valueOf(stat(4)), Long.valueOf(stat(5)));
+    }
+}
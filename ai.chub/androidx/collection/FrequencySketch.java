@@ -0,0 +1,86 @@
+package androidx.collection;
+
+/**
+ * A 4-bit count-min sketch with periodic aging, used by {@link ConcurrentLruCache} to estimate how often a
+ * key was seen recently. Every {@code 10 * capacity} increments all counters are halved, so the estimate
+ * follows changes in popularity. Not thread-safe; each cache segment owns one and guards it with its lock.
+ */
+final class FrequencySketch {
+    private static final long RESET_MASK = 8608480567731124087L;
+    private static final long[] SEEDS = {-4348849565147123417L, -5435081209227447693L, -7286425919675154353L, -3750763034362895579L};
+    private int sampleSize;
+    private int size;
+    private final long[] table;
+    private final int tableMask;
+
+    FrequencySketch(int i) {
+        int max = Math.max(16, Math.min(i, 1073741824));
+        int highestOneBit = Integer.highestOneBit(max - 1) << 1;
+        this.table = new long[highestOneBit];
+        this.tableMask = highestOneBit - 1;
+        this.sampleSize = max * 10;
+    }
+
+    static int spread(int i) {
+        int i2 = ((i >>> 16) ^ i) * 73244475;
+        int i3 = ((i2 >>> 16) ^ i2) * 73244475;
+        return (i3 >>> 16) ^ i3;
+    }
+
+    private int indexOf(int i, int i2) {
+        long j = (i + SEEDS[i2]) * SEEDS[i2];
+        return ((int) (j + (j >>> 32))) & this.tableMask;
+    }
+
+    public int frequency(int i) {
+        int i2 = (i & 3) << 2;
+        int i3 = 15;
+        for (int i4 = 0; i4 < 4; i4++) {
+            i3 = Math.min(i3, (int) ((this.table[indexOf(i, i4)] >>> ((i2 + i4) << 2)) & 15));
+        }
+        return i3;
+    }
+
+    public void increment(int i) {
+        int i2 = (i & 3) << 2;
+        boolean z = false;
+        for (int i3 = 0; i3 < 4; i3++) {
+            z |= incrementAt(indexOf(i, i3), i2 + i3);
+        }
+        if (z) {
+            int i4 = this.size + 1;
+            this.size = i4;
+            if (i4 == this.sampleSize) {
+                reset();
+            }
+        }
+    }
+
+    private boolean incrementAt(int i, int i2) {
+        int i3 = i2 << 2;
+        long j = 15L << i3;
+        long[] jArr = this.table;
+        if ((jArr[i] & j) == j) {
+            return false;
+        }
+        jArr[i] = jArr[i] + (1L << i3);
+        return true;
+    }
+
+    private void reset() {
+        int i = 0;
+        int i2 = 0;
+        while (true) {
+            long[] jArr = this.table;
+            if (i2 < jArr.length) {
+                i += Long.bitCount(jArr[i2] & 1229782938247303441L);
+                long[] jArr2 = this.table;
+                jArr2[i2] = (jArr2[i2] >>> 1) & RESET_MASK;
+                i2++;
+            } else {
+                this.size = (this.size - (i >>> 2)) >>> 1;
+                return;
+            }
+        }
+    }
+}
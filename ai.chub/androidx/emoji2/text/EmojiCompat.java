@@ -5,6 +5,7 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.Editable;
+import android.text.Spannable;
 import android.view.KeyEvent;
 import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputConnection;
@@ -34,6 +35,7 @@ public class EmojiCompat {
     public static final int LOAD_STATE_LOADING = 0;
     public static final int LOAD_STATE_SUCCEEDED = 1;
     public static final int LOAD_STRATEGY_DEFAULT = 0;
+    public static final int LOAD_STRATEGY_LAZY = 2;
     public static final int LOAD_STRATEGY_MANUAL = 1;
     private static final String NOT_INITIALIZED_ERROR_TEXT = "EmojiCompat is not initialized.\n\nYou must initialize EmojiCompat prior to referencing the EmojiCompat instance.\n\nThe most likely cause of this error is disabling the EmojiCompatInitializer\neither explicitly in AndroidManifest.xml, or by including\nandroidx.emoji2:emoji2-bundled.\n\nAutomatic initialization is typically performed by EmojiCompatInitializer. If\nyou are not expecting to initialize EmojiCompat manually in your application,\nplease check to ensure it has not been removed from your APK's manifest. You can\ndo this in Android Studio using Build > Analyze APK.\n\nIn the APK Analyzer, ensure that the startup entry for\nEmojiCompatInitializer and InitializationProvider is present in\n AndroidManifest.xml. If it is missing or contains tools:node=\"remove\", and you\nintend to use automatic configuration, verify:\n\n  1. Your application does not include emoji2-bundled\n  2. All modules do not contain an exclusion manifest rule for\n     EmojiCompatInitializer or InitializationProvider. For more information\n     about manifest exclusions see the documentation for the androidx startup\n     library.\n\nIf you intend to use emoji2-bundled, please call EmojiCompat.init. You can\nlearn more in the documentation for BundledEmojiCompatConfig.\n\nIf you intended to perform manual configuration, it is recommended that you call\nEmojiCompat.init immediately on application startup.\n\nIf you still cannot resolve this issue, please open a bug with your specific\nconfiguration to help improve error message.";
     public static final int REPLACE_STRATEGY_ALL = 1;
@@ -48,6 +50,7 @@ public class EmojiCompat {
     private final CompatInternal mHelper;
     private final Set<InitCallback> mInitCallbacks;
     private final ReadWriteLock mInitLock = new ReentrantReadWriteLock();
+    private volatile boolean mLazyLoadStarted;
     private volatile int mLoadState = 3;
     private final Handler mMainHandler = new Handler(Looper.getMainLooper());
     private final int mMetadataLoadStrategy;
@@ -193,7 +196,7 @@ public class EmojiCompat {
     }
 
     public void load() {
-        Preconditions.checkState(this.mMetadataLoadStrategy == 1, "Set metadataLoadStrategy to LOAD_STRATEGY_MANUAL to execute manual loading");
+        Preconditions.checkState(this.mMetadataLoadStrategy == 1 || this.mMetadataLoadStrategy == 2, "Set metadataLoadStrategy to LOAD_STRATEGY_MANUAL or LOAD_STRATEGY_LAZY to execute manual loading");
         if (isInitialized()) {
             return;
         }
@@ -217,7 +220,7 @@ public class EmojiCompat {
                 this.mLoadState = 0;
             }
             this.mInitLock.writeLock().unlock();
-            if (getLoadState() == 0) {
+            if (this.mLoadState == 0) {
                 this.mHelper.loadMetadata();
             }
         } catch (Throwable th) {
@@ -258,6 +261,7 @@ public class EmojiCompat {
 
     public void registerInitCallback(InitCallback initCallback) {
         Preconditions.checkNotNull(initCallback, "initCallback cannot be null");
+        loadOnFirstUse();
         this.mInitLock.writeLock().lock();
         try {
             if (this.mLoadState != 1 && this.mLoadState != 2) {
@@ -280,6 +284,7 @@ public class EmojiCompat {
     }
 
     public int getLoadState() {
+        loadOnFirstUse();
         this.mInitLock.readLock().lock();
         try {
             return this.mLoadState;
@@ -288,6 +293,14 @@ public class EmojiCompat {
         }
     }
 
+    /** With {@link #LOAD_STRATEGY_LAZY}, starts loading the first time a caller asks for the load state. */
+    private void loadOnFirstUse() {
+        if (this.mMetadataLoadStrategy == 2 && !this.mLazyLoadStarted && this.mLoadState == 3) {
+            this.mLazyLoadStarted = true;
+            load();
+        }
+    }
+
     private boolean isInitialized() {
         return getLoadState() == 1;
     }
@@ -363,6 +376,22 @@ public class EmojiCompat {
         return this.mHelper.process(charSequence, i, i2, i3, z);
     }
 
+    public IncrementalEmojiProcessor newIncrementalProcessor(Spannable spannable) {
+        return newIncrementalProcessor(spannable, 0);
+    }
+
+    public IncrementalEmojiProcessor newIncrementalProcessor(Spannable spannable, int i) {
+        boolean z;
+        Preconditions.checkState(isInitialized(), "Not initialized yet");
+        Preconditions.checkNotNull(spannable, "spannable cannot be null");
+        if (i != 1) {
+            z = i != 2 ? this.mReplaceAll : false;
+        } else {
+            z = true;
+        }
+        return this.mHelper.newIncrementalProcessor(spannable, z);
+    }
+
     public String getAssetSignature() {
         Preconditions.checkState(isInitialized(), "Not initialized yet");
         return this.mHelper.getAssetSignature();
@@ -543,6 +572,10 @@ public class EmojiCompat {
             return charSequence;
         }
 
+        IncrementalEmojiProcessor newIncrementalProcessor(Spannable spannable, boolean z) {
+            return new IncrementalEmojiProcessor(null, spannable, z);
+        }
+
         void updateEditorInfoAttrs(EditorInfo editorInfo) {
         }
 
@@ -613,6 +646,11 @@ public class EmojiCompat {
             return this.mProcessor.process(charSequence, i, i2, i3, z);
         }
 
+        @Override // androidx.emoji2.text.EmojiCompat.CompatInternal
+        IncrementalEmojiProcessor newIncrementalProcessor(Spannable spannable, boolean z) {
+            return new IncrementalEmojiProcessor(this.mProcessor, spannable, z);
+        }
+
         @Override // androidx.emoji2.text.EmojiCompat.CompatInternal
         void updateEditorInfoAttrs(EditorInfo editorInfo) {
             editorInfo.extras.putInt(EmojiCompat.EDITOR_INFO_METAVERSION_KEY, this.mMetadataRepo.getMetadataVersion());
@@ -1,94 +1,26 @@
 package androidx.emoji2.text;
 
 import android.content.Context;
-import androidx.core.os.TraceCompat;
 import androidx.emoji2.text.EmojiCompat;
 import androidx.emoji2.text.EmojiCompatInitializer;
-import androidx.lifecycle.DefaultLifecycleObserver;
-import androidx.lifecycle.Lifecycle;
-import androidx.lifecycle.LifecycleOwner;
-import androidx.lifecycle.ProcessLifecycleInitializer;
-import androidx.startup.AppInitializer;
 import androidx.startup.Initializer;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
-import kotlin.jvm.internal.Intrinsics;
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public class EmojiCompatInitializer implements Initializer<Boolean> {
-    private static final long STARTUP_THREAD_CREATION_DELAY_MS = 500;
     private static final String S_INITIALIZER_THREAD_NAME = "EmojiCompatInitializer";
 
     /* JADX WARN: Can't rename method to resolve collision */
     @Override // androidx.startup.Initializer
     public Boolean create(Context context) {
         EmojiCompat.init(new BackgroundDefaultConfig(context));
-        delayUntilFirstResume(context);
         return true;
     }
 
-    void delayUntilFirstResume(Context context) {
-        final Lifecycle lifecycle = ((LifecycleOwner) AppInitializer.getInstance(context).initializeComponent(ProcessLifecycleInitializer.class)).getLifecycle();
-        lifecycle.addObserver(new DefaultLifecycleObserver() { // from class: androidx.emoji2.text.EmojiCompatInitializer.1
-            @Override // androidx.lifecycle.DefaultLifecycleObserver
-            public /* synthetic */ void onCreate(LifecycleOwner lifecycleOwner) {
-                Intrinsics.checkNotNullParameter(lifecycleOwner, "owner");
-            }
-
-            @Override // androidx.lifecycle.DefaultLifecycleObserver
-            public /* synthetic */ void onDestroy(LifecycleOwner lifecycleOwner) {
-                Intrinsics.checkNotNullParameter(lifecycleOwner, "owner");
-            }
-
-            @Override // androidx.lifecycle.DefaultLifecycleObserver
-            public /* synthetic */ void onPause(LifecycleOwner lifecycleOwner) {
-                Intrinsics.checkNotNullParameter(lifecycleOwner, "owner");
-            }
-
-            @Override // androidx.lifecycle.DefaultLifecycleObserver
-            public /* synthetic */ void onStart(LifecycleOwner lifecycleOwner) {
-                Intrinsics.checkNotNullParameter(lifecycleOwner, "owner");
-            }
-
-            @Override // androidx.lifecycle.DefaultLifecycleObserver
-            public /* synthetic */ void onStop(LifecycleOwner lifecycleOwner) {
-                Intrinsics.checkNotNullParameter(lifecycleOwner, "owner");
-            }
-
-            @Override // androidx.lifecycle.DefaultLifecycleObserver
-            public void onResume(LifecycleOwner lifecycleOwner) {
-                EmojiCompatInitializer.this.loadEmojiCompatAfterDelay();
-                lifecycle.removeObserver(this);
-            }
-        });
-    }
-
-    void loadEmojiCompatAfterDelay() {
-        ConcurrencyHelpers.mainHandlerAsync().postDelayed(new LoadEmojiCompatRunnable(), STARTUP_THREAD_CREATION_DELAY_MS);
-    }
-
     @Override // androidx.startup.Initializer
     public List<Class<? extends Initializer<?>>> dependencies() {
-        return Collections.singletonList(ProcessLifecycleInitializer.class);
-    }
-
-    /* JADX INFO: Access modifiers changed from: package-private */
-    /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
-    public static class LoadEmojiCompatRunnable implements Runnable {
-        LoadEmojiCompatRunnable() {
-        }
-
-        @Override // java.lang.Runnable
-        public void run() {
-            try {
-                TraceCompat.beginSection("EmojiCompat.EmojiCompatInitializer.run");
-                if (EmojiCompat.isConfigured()) {
-                    EmojiCompat.get().load();
-                }
-            } finally {
-                TraceCompat.endSection();
-            }
-        }
+        return Collections.emptyList();
     }
 
     /* JADX INFO: Access modifiers changed from: package-private */
@@ -96,7 +28,7 @@ public class EmojiCompatInitializer implements Initializer<Boolean> {
     public static class BackgroundDefaultConfig extends EmojiCompat.Config {
         protected BackgroundDefaultConfig(Context context) {
             super(new BackgroundDefaultLoader(context));
-            setMetadataLoadStrategy(1);
+            setMetadataLoadStrategy(2);
         }
     }
 
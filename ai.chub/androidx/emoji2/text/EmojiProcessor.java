@@ -43,7 +43,7 @@ public final class EmojiProcessor {
 
     /* JADX INFO: Access modifiers changed from: package-private */
     public int getEmojiMatch(CharSequence charSequence, int i) {
-        ProcessorSm processorSm = new ProcessorSm(this.mMetadataRepo.getRootNode(), this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions);
+        ProcessorSm processorSm = new ProcessorSm(this.mMetadataRepo, this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions);
         int length = charSequence.length();
         int i2 = 0;
         int i3 = 0;
@@ -120,7 +120,7 @@ public final class EmojiProcessor {
                         if (i3 != Integer.MAX_VALUE && unprecomputeTextOnModificationSpannable != null) {
                             i3 -= ((EmojiSpan[]) unprecomputeTextOnModificationSpannable.getSpans(0, unprecomputeTextOnModificationSpannable.length(), EmojiSpan.class)).length;
                         }
-                        processorSm = new ProcessorSm(this.mMetadataRepo.getRootNode(), this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions);
+                        processorSm = new ProcessorSm(this.mMetadataRepo, this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions);
                         unprecomputeTextOnModificationSpannable2 = unprecomputeTextOnModificationSpannable;
                         codePointAt = Character.codePointAt(charSequence, i);
                         int i5 = 0;
@@ -181,7 +181,7 @@ public final class EmojiProcessor {
             if (i3 != Integer.MAX_VALUE) {
                 i3 -= ((EmojiSpan[]) unprecomputeTextOnModificationSpannable.getSpans(0, unprecomputeTextOnModificationSpannable.length(), EmojiSpan.class)).length;
             }
-            processorSm = new ProcessorSm(this.mMetadataRepo.getRootNode(), this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions);
+            processorSm = new ProcessorSm(this.mMetadataRepo, this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions);
             unprecomputeTextOnModificationSpannable2 = unprecomputeTextOnModificationSpannable;
             codePointAt = Character.codePointAt(charSequence, i);
             int i52 = 0;
@@ -204,6 +204,78 @@ public final class EmojiProcessor {
         return charSequence;
     }
 
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public AppendState newAppendState() {
+        return new AppendState(new ProcessorSm(this.mMetadataRepo, this.mUseEmojiAsDefaultStyle, this.mEmojiAsDefaultStyleExceptions));
+    }
+
+    /**
+     * Adds spans for the text appended to {@code spannable} since the last call with {@code appendState}. The
+     * state machine resumes where it stopped, so only the new suffix is scanned plus any sequence that was
+     * still open at the old end. A span over an open sequence at the end is provisional and is replaced once
+     * more text arrives, and a trailing high surrogate is held back until its pair is appended.
+     */
+    boolean processAppended(Spannable spannable, AppendState appendState, boolean z) {
+        int length = spannable.length();
+        if (length < appendState.mEnd) {
+            throw new IllegalStateException("text is shorter than the processed prefix, it must only be appended to");
+        }
+        if (length > appendState.mEnd && Character.isHighSurrogate(spannable.charAt(length - 1))) {
+            length--;
+        }
+        if (length <= appendState.mEnd) {
+            return false;
+        }
+        boolean z2 = false;
+        if (appendState.mTailSpan != null) {
+            spannable.removeSpan(appendState.mTailSpan);
+            appendState.mTailSpan = null;
+            z2 = true;
+        }
+        EmojiSpan[] emojiSpanArr = (EmojiSpan[]) spannable.getSpans(appendState.mEnd, length, EmojiSpan.class);
+        if (emojiSpanArr != null) {
+            for (EmojiSpan emojiSpan : emojiSpanArr) {
+                if (spannable.getSpanStart(emojiSpan) >= appendState.mEnd) {
+                    spannable.removeSpan(emojiSpan);
+                    z2 = true;
+                }
+            }
+        }
+        ProcessorSm processorSm = appendState.mProcessorSm;
+        int i = appendState.mStart;
+        int i2 = appendState.mEnd;
+        int codePointAt = Character.codePointAt(spannable, i2);
+        while (i2 < length) {
+            int check = processorSm.check(codePointAt);
+            if (check == 1) {
+                i += Character.charCount(Character.codePointAt(spannable, i));
+                if (i < length) {
+                    codePointAt = Character.codePointAt(spannable, i);
+                }
+                i2 = i;
+            } else if (check == 2) {
+                i2 += Character.charCount(codePointAt);
+                if (i2 < length) {
+                    codePointAt = Character.codePointAt(spannable, i2);
+                }
+            } else if (check == 3) {
+                if (z || !hasGlyph(spannable, i, i2, processorSm.getFlushMetadata())) {
+                    addEmoji(spannable, processorSm.getFlushMetadata(), i, i2);
+                    z2 = true;
+                }
+                i = i2;
+            }
+        }
+        appendState.mStart = i;
+        appendState.mEnd = i2;
+        if (processorSm.isInFlushableState() && (z || !hasGlyph(spannable, i, i2, processorSm.getCurrentMetadata()))) {
+            appendState.mTailSpan = this.mSpanFactory.createSpan(processorSm.getCurrentMetadata());
+            spannable.setSpan(appendState.mTailSpan, i, i2, 33);
+            z2 = true;
+        }
+        return z2;
+    }
+
     /* JADX INFO: Access modifiers changed from: package-private */
     public static boolean handleOnKeyDown(Editable editable, int i, KeyEvent keyEvent) {
         boolean delete;
@@ -293,18 +365,31 @@ public final class EmojiProcessor {
         return emojiMetadata.getHasGlyph() == 2;
     }
 
+    /** Where {@link #processAppended} stopped: the walk position, the start of the open sequence and its span. */
+    static final class AppendState {
+        int mEnd;
+        final ProcessorSm mProcessorSm;
+        int mStart;
+        EmojiSpan mTailSpan;
+
+        AppendState(ProcessorSm processorSm) {
+            this.mProcessorSm = processorSm;
+        }
+    }
+
     /* JADX INFO: Access modifiers changed from: package-private */
     /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
     public static final class ProcessorSm {
         private static final int STATE_DEFAULT = 1;
         private static final int STATE_WALKING = 2;
         private int mCurrentDepth;
-        private MetadataRepo.Node mCurrentNode;
+        private int mCurrentState = 0;
         private final int[] mEmojiAsDefaultStyleExceptions;
-        private MetadataRepo.Node mFlushNode;
+        private int mFlushState = -1;
         private int mLastCodepoint;
-        private final MetadataRepo.Node mRootNode;
+        private final MetadataRepo mMetadataRepo;
         private int mState = 1;
+        private final EmojiTrie mTrie;
         private final boolean mUseEmojiAsDefaultStyle;
 
         private static boolean isEmojiStyle(int i) {
@@ -315,41 +400,41 @@ public final class EmojiProcessor {
             return i == 65038;
         }
 
-        ProcessorSm(MetadataRepo.Node node, boolean z, int[] iArr) {
-            this.mRootNode = node;
-            this.mCurrentNode = node;
+        ProcessorSm(MetadataRepo metadataRepo, boolean z, int[] iArr) {
+            this.mMetadataRepo = metadataRepo;
+            this.mTrie = metadataRepo.getTrie();
             this.mUseEmojiAsDefaultStyle = z;
             this.mEmojiAsDefaultStyleExceptions = iArr;
         }
 
         int check(int i) {
-            MetadataRepo.Node node = this.mCurrentNode.get(i);
+            int next = this.mTrie.next(this.mCurrentState, i);
             int i2 = 2;
             if (this.mState != 2) {
-                if (node == null) {
+                if (next == -1) {
                     i2 = reset();
                 } else {
                     this.mState = 2;
-                    this.mCurrentNode = node;
+                    this.mCurrentState = next;
                     this.mCurrentDepth = 1;
                 }
-            } else if (node != null) {
-                this.mCurrentNode = node;
+            } else if (next != -1) {
+                this.mCurrentState = next;
                 this.mCurrentDepth++;
             } else if (isTextStyle(i)) {
                 i2 = reset();
             } else if (!isEmojiStyle(i)) {
-                if (this.mCurrentNode.getData() != null) {
+                if (this.mTrie.dataAt(this.mCurrentState) >= 0) {
                     i2 = 3;
                     if (this.mCurrentDepth == 1) {
                         if (shouldUseEmojiPresentationStyleForSingleCodepoint()) {
-                            this.mFlushNode = this.mCurrentNode;
+                            this.mFlushState = this.mCurrentState;
                             reset();
                         } else {
                             i2 = reset();
                         }
                     } else {
-                        this.mFlushNode = this.mCurrentNode;
+                        this.mFlushState = this.mCurrentState;
                         reset();
                     }
                 } else {
@@ -362,32 +447,32 @@ public final class EmojiProcessor {
 
         private int reset() {
             this.mState = 1;
-            this.mCurrentNode = this.mRootNode;
+            this.mCurrentState = 0;
             this.mCurrentDepth = 0;
             return 1;
         }
 
         EmojiMetadata getFlushMetadata() {
-            return this.mFlushNode.getData();
+            return this.mMetadataRepo.getMetadata(this.mTrie.dataAt(this.mFlushState));
         }
 
         EmojiMetadata getCurrentMetadata() {
-            return this.mCurrentNode.getData();
+            return this.mMetadataRepo.getMetadata(this.mTrie.dataAt(this.mCurrentState));
         }
 
         boolean isInFlushableState() {
-            return this.mState == 2 && this.mCurrentNode.getData() != null && (this.mCurrentDepth > 1 || shouldUseEmojiPresentationStyleForSingleCodepoint());
+            return this.mState == 2 && this.mTrie.dataAt(this.mCurrentState) >= 0 && (this.mCurrentDepth > 1 || shouldUseEmojiPresentationStyleForSingleCodepoint());
         }
 
         private boolean shouldUseEmojiPresentationStyleForSingleCodepoint() {
-            if (this.mCurrentNode.getData().isDefaultEmoji() || isEmojiStyle(this.mLastCodepoint)) {
+            if (this.mMetadataRepo.isDefaultEmoji(this.mTrie.dataAt(this.mCurrentState)) || isEmojiStyle(this.mLastCodepoint)) {
                 return true;
             }
             if (this.mUseEmojiAsDefaultStyle) {
                 if (this.mEmojiAsDefaultStyleExceptions == null) {
                     return true;
                 }
-                if (Arrays.binarySearch(this.mEmojiAsDefaultStyleExceptions, this.mCurrentNode.getData().getCodepointAt(0)) < 0) {
+                if (Arrays.binarySearch(this.mEmojiAsDefaultStyleExceptions, getCurrentMetadata().getCodepointAt(0)) < 0) {
                     return true;
                 }
             }
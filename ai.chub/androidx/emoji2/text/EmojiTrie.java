@@ -0,0 +1,263 @@
+package androidx.emoji2.text;
+
+import androidx.emoji2.text.flatbuffer.MetadataIndex;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The emoji sequences of a {@link MetadataRepo} compiled into a double-array trie. State {@code s} moves on
+ * code point {@code c} to {@code t = base[s] + label(c)} when {@code check[t] == s}; {@code data[t]} holds the
+ * metadata index of the sequence ending at {@code t}, or -1. Code points are mapped to dense labels through a
+ * two-level page table, so a transition is a handful of array reads with no search and no allocation. The
+ * tables are buffers so that a trie mapped from a {@link MetadataIndex} is read in place.
+ */
+final class EmojiTrie {
+    static final int NO_STATE = -1;
+    static final int ROOT = 0;
+    private static final int PAGE_COUNT = 4352;
+    private static final int PAGE_SIZE = 256;
+    private final IntBuffer base;
+    private final IntBuffer check;
+    private final IntBuffer data;
+    private final CharBuffer labels;
+    private final IntBuffer pages;
+    private final int size;
+
+    EmojiTrie(IntBuffer intBuffer, IntBuffer intBuffer2, IntBuffer intBuffer3, IntBuffer intBuffer4, CharBuffer charBuffer) {
+        this.base = intBuffer;
+        this.check = intBuffer2;
+        this.data = intBuffer3;
+        this.pages = intBuffer4;
+        this.labels = charBuffer;
+        this.size = intBuffer2.limit();
+    }
+
+    /** Returns a trie reading the tables of {@code metadataIndex} in place. */
+    static EmojiTrie from(MetadataIndex metadataIndex) {
+        if (metadataIndex.baseLength() != metadataIndex.checkLength() || metadataIndex.dataLength() != metadataIndex.checkLength() || metadataIndex.pagesLength() != PAGE_COUNT || metadataIndex.labelsLength() % PAGE_SIZE != 0) {
+            throw new IllegalArgumentException("malformed metadata index");
+        }
+        return new EmojiTrie(asLittleEndian(metadataIndex.baseAsByteBuffer()).asIntBuffer(), asLittleEndian(metadataIndex.checkAsByteBuffer()).asIntBuffer(), asLittleEndian(metadataIndex.dataAsByteBuffer()).asIntBuffer(), asLittleEndian(metadataIndex.pagesAsByteBuffer()).asIntBuffer(), asLittleEndian(metadataIndex.labelsAsByteBuffer()).asCharBuffer());
+    }
+
+    private static ByteBuffer asLittleEndian(ByteBuffer byteBuffer) {
+        return byteBuffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Returns the state reached from {@code i} on code point {@code i2}, or {@link #NO_STATE}. */
+    int next(int i, int i2) {
+        int i3 = i2 >>> 8;
+        if (i3 >= PAGE_COUNT) {
+            return -1;
+        }
+        char c = this.labels.get(this.pages.get(i3) + (i2 & 255));
+        if (c == 0) {
+            return -1;
+        }
+        int i4 = this.base.get(i) + c;
+        if (i4 >= this.size || this.check.get(i4) != i) {
+            return -1;
+        }
+        return i4;
+    }
+
+    /** Returns the metadata index of the sequence ending in state {@code i}, or -1. */
+    int dataAt(int i) {
+        return this.data.get(i);
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    IntBuffer getBase() {
+        return this.base.duplicate();
+    }
+
+    IntBuffer getCheck() {
+        return this.check.duplicate();
+    }
+
+    IntBuffer getData() {
+        return this.data.duplicate();
+    }
+
+    IntBuffer getPages() {
+        return this.pages.duplicate();
+    }
+
+    CharBuffer getLabels() {
+        return this.labels.duplicate();
+    }
+
+    /**
+     * Compiles {@code iArr[i]}, the code points of metadata entry {@code i}, into a trie. When two entries
+     * share a sequence the later one wins, as with the node trie this replaces.
+     */
+    static EmojiTrie build(int[][] iArr) {
+        int[] iArr2 = new int[PAGE_COUNT];
+        int i = 0;
+        for (int[] iArr3 : iArr) {
+            for (int i2 : iArr3) {
+                int i3 = i2 >>> 8;
+                if (iArr2[i3] == 0) {
+                    i++;
+                    iArr2[i3] = i;
+                }
+            }
+        }
+        char[] cArr = new char[(i + 1) * PAGE_SIZE];
+        for (int i4 = 0; i4 < PAGE_COUNT; i4++) {
+            iArr2[i4] = iArr2[i4] * PAGE_SIZE;
+        }
+        int i5 = 0;
+        int[][] iArr4 = new int[iArr.length][];
+        for (int i6 = 0; i6 < iArr.length; i6++) {
+            int[] iArr5 = iArr[i6];
+            int[] iArr6 = new int[iArr5.length];
+            for (int i7 = 0; i7 < iArr5.length; i7++) {
+                int i8 = iArr2[iArr5[i7] >>> 8] + (iArr5[i7] & 255);
+                if (cArr[i8] == 0) {
+                    i5++;
+                    if (i5 > 65535) {
+                        throw new IllegalArgumentException("too many distinct emoji codepoints");
+                    }
+                    cArr[i8] = (char) i5;
+                }
+                iArr6[i7] = cArr[i8];
+            }
+            iArr4[i6] = iArr6;
+        }
+        Builder builder = new Builder(iArr4, i5);
+        builder.insert(ROOT, 0, builder.order.length, 0);
+        return new EmojiTrie(IntBuffer.wrap(Arrays.copyOf(builder.base, builder.size)), IntBuffer.wrap(Arrays.copyOf(builder.check, builder.size)), IntBuffer.wrap(Arrays.copyOf(builder.data, builder.size)), IntBuffer.wrap(iArr2), CharBuffer.wrap(cArr));
+    }
+
+    private static final class Builder {
+        int[] base;
+        int[] check;
+        int[] data;
+        private int firstFree = 1;
+        private final int[][] keys;
+        final Integer[] order;
+        int size = 1;
+
+        Builder(final int[][] iArr, int i) {
+            this.keys = iArr;
+            int max = Math.max(64, (i + 1) * 2);
+            this.base = new int[max];
+            this.check = new int[max];
+            this.data = new int[max];
+            Arrays.fill(this.check, -1);
+            Arrays.fill(this.data, -1);
+            this.check[0] = -2;
+            this.order = new Integer[iArr.length];
+            for (int i2 = 0; i2 < iArr.length; i2++) {
+                this.order[i2] = Integer.valueOf(i2);
+            }
+            Arrays.sort(this.order, new Comparator<Integer>() { // from class: androidx.emoji2.text.EmojiTrie.Builder.1
+                @Override // java.util.Comparator
+                public int compare(Integer num, Integer num2) {
+                    int[] iArr2 = iArr[num.intValue()];
+                    int[] iArr3 = iArr[num2.intValue()];
+                    int min = Math.min(iArr2.length, iArr3.length);
+                    for (int i3 = 0; i3 < min; i3++) {
+                        if (iArr2[i3] != iArr3[i3]) {
+                            return iArr2[i3] - iArr3[i3];
+                        }
+                    }
+                    return iArr2.length != iArr3.length ? iArr2.length - iArr3.length : num.intValue() - num2.intValue();
+                }
+            });
+        }
+
+        /** Adds the keys {@code order[i2..i3)}, which share their first {@code i4} labels, below state {@code i}. */
+        void insert(int i, int i2, int i3, int i4) {
+            while (i2 < i3 && this.keys[this.order[i2].intValue()].length == i4) {
+                this.data[i] = this.order[i2].intValue();
+                i2++;
+            }
+            if (i2 >= i3) {
+                return;
+            }
+            int i5 = 0;
+            int i6 = -1;
+            for (int i7 = i2; i7 < i3; i7++) {
+                int i8 = this.keys[this.order[i7].intValue()][i4];
+                if (i8 != i6) {
+                    i5++;
+                    i6 = i8;
+                }
+            }
+            int[] iArr = new int[i5];
+            int[] iArr2 = new int[i5 + 1];
+            int i9 = -1;
+            int i10 = 0;
+            for (int i11 = i2; i11 < i3; i11++) {
+                int i12 = this.keys[this.order[i11].intValue()][i4];
+                if (i12 != i9) {
+                    iArr[i10] = i12;
+                    iArr2[i10] = i11;
+                    i10++;
+                    i9 = i12;
+                }
+            }
+            iArr2[i5] = i3;
+            int findBase = findBase(iArr);
+            this.base[i] = findBase;
+            for (int i13 : iArr) {
+                this.check[findBase + i13] = i;
+            }
+            for (int i14 = 0; i14 < i5; i14++) {
+                insert(findBase + iArr[i14], iArr2[i14], iArr2[i14 + 1], i4 + 1);
+            }
+        }
+
+        private int findBase(int[] iArr) {
+            int i = iArr[0];
+            while (this.firstFree < this.check.length && this.check[this.firstFree] != -1) {
+                this.firstFree++;
+            }
+            int max = Math.max(0, this.firstFree - i);
+            while (true) {
+                ensureCapacity(iArr[iArr.length - 1] + max + 1);
+                boolean z = true;
+                int length = iArr.length;
+                int i2 = 0;
+                while (true) {
+                    if (i2 >= length) {
+                        break;
+                    } else if (this.check[iArr[i2] + max] != -1) {
+                        z = false;
+                        break;
+                    } else {
+                        i2++;
+                    }
+                }
+                if (z) {
+                    this.size = Math.max(this.size, iArr[iArr.length - 1] + max + 1);
+                    return max;
+                }
+                max++;
+            }
+        }
+
+        private void ensureCapacity(int i) {
+            int[] iArr = this.check;
+            if (i <= iArr.length) {
+                return;
+            }
+            int length = iArr.length;
+            int max = Math.max(i, length + (length >> 1));
+            this.base = Arrays.copyOf(this.base, max);
+            this.check = Arrays.copyOf(this.check, max);
+            this.data = Arrays.copyOf(this.data, max);
+            Arrays.fill(this.check, length, max, -1);
+            Arrays.fill(this.data, length, max, -1);
+        }
+    }
+}
@@ -238,7 +238,7 @@ public class FontRequestEmojiCompatConfig extends EmojiCompat.Config {
                     if (mmap == null || buildTypeface == null) {
                         throw new RuntimeException("Unable to open file.");
                     }
-                    MetadataRepo create = MetadataRepo.create(buildTypeface, mmap);
+                    MetadataRepo create = MetadataIndexCache.create(buildTypeface, mmap, MetadataIndexCache.getCacheFile(this.mContext));
                     TraceCompat.endSection();
                     synchronized (this.mLock) {
                         EmojiCompat.MetadataRepoLoaderCallback metadataRepoLoaderCallback = this.mCallback;
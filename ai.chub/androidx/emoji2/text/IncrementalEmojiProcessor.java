@@ -0,0 +1,52 @@
+package androidx.emoji2.text;
+
+import android.text.Spannable;
+import androidx.core.util.Preconditions;
+
+/**
+ * Adds emoji spans to a {@link Spannable} that only ever grows at its end, such as a message being streamed
+ * in token by token. Each {@link #processAppended()} call scans the text appended since the previous call
+ * instead of the whole text, so the total cost stays linear in the final length. Obtain one from
+ * {@link EmojiCompat#newIncrementalProcessor(Spannable)}; it is not thread-safe and must be used from the
+ * thread that appends to the text.
+ */
+public final class IncrementalEmojiProcessor {
+    private final EmojiProcessor.AppendState mAppendState;
+    private final EmojiProcessor mProcessor;
+    private final boolean mReplaceAll;
+    private final Spannable mSpannable;
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public IncrementalEmojiProcessor(EmojiProcessor emojiProcessor, Spannable spannable, boolean z) {
+        this.mProcessor = emojiProcessor;
+        this.mSpannable = (Spannable) Preconditions.checkNotNull(spannable, "spannable cannot be null");
+        this.mReplaceAll = z;
+        this.mAppendState = emojiProcessor == null ? null : emojiProcessor.newAppendState();
+    }
+
+    public Spannable getSpannable() {
+        return this.mSpannable;
+    }
+
+    /** Returns the offset up to which spans are final; text after it may still change its spans. */
+    public int getStableEnd() {
+        EmojiProcessor.AppendState appendState = this.mAppendState;
+        if (appendState == null) {
+            return this.mSpannable.length();
+        }
+        return appendState.mStart;
+    }
+
+    /**
+     * Processes the text appended since the last call. Returns true if any emoji span was added or removed.
+     *
+     * @throws IllegalStateException if the text became shorter than what was already processed
+     */
+    public boolean processAppended() {
+        EmojiProcessor emojiProcessor = this.mProcessor;
+        if (emojiProcessor == null) {
+            return false;
+        }
+        return emojiProcessor.processAppended(this.mSpannable, this.mAppendState, this.mReplaceAll);
+    }
+}
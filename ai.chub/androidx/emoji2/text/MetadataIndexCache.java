@@ -0,0 +1,106 @@
+package androidx.emoji2.text;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.util.Log;
+import androidx.core.os.TraceCompat;
+import androidx.emoji2.text.flatbuffer.FlatBufferBuilder;
+import androidx.emoji2.text.flatbuffer.MetadataIndex;
+import androidx.emoji2.text.flatbuffer.MetadataList;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Persists the lookup index of a {@link MetadataRepo} next to the app's compiled code, so that later launches
+ * map it read-only instead of walking every metadata entry of the font again. The file lives in the code cache
+ * directory, which the system clears when the app is updated, and is keyed by {@link MetadataRepo#matches}; a
+ * stale or unreadable file is simply rebuilt.
+ */
+final class MetadataIndexCache {
+    static final String CACHE_FILE_NAME = "emoji2_metadata.idx";
+    private static final int INITIAL_BUFFER_SIZE = 65536;
+    private static final String S_TRACE_WRITE = "EmojiCompat.MetadataIndexCache.write";
+    private static final String TAG = "MetadataIndexCache";
+
+    private MetadataIndexCache() {
+    }
+
+    static File getCacheFile(Context context) {
+        return new File(context.getCodeCacheDir(), CACHE_FILE_NAME);
+    }
+
+    /** Creates the repo for the font mapped in {@code byteBuffer}, reusing or refreshing the index in {@code file}. */
+    static MetadataRepo create(Typeface typeface, ByteBuffer byteBuffer, File file) throws IOException {
+        MetadataList read = MetadataListReader.read(byteBuffer);
+        int capacity = byteBuffer.capacity();
+        MetadataIndex map = map(file);
+        if (map != null) {
+            try {
+                if (MetadataRepo.matches(map, read, capacity)) {
+                    return MetadataRepo.create(typeface, read, map);
+                }
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Discarding unreadable metadata index", e);
+            }
+        }
+        MetadataRepo create = MetadataRepo.create(typeface, read, null);
+        write(create, capacity, file);
+        return create;
+    }
+
+    private static MetadataIndex map(File file) {
+        if (!file.isFile() || file.length() < 8) {
+            return null;
+        }
+        try {
+            FileInputStream fileInputStream = new FileInputStream(file);
+            try {
+                FileChannel channel = fileInputStream.getChannel();
+                ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+                if (!MetadataIndex.MetadataIndexBufferHasIdentifier(map)) {
+                    return null;
+                }
+                return MetadataIndex.getRootAsMetadataIndex(map);
+            } finally {
+                fileInputStream.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Unable to map metadata index", e);
+            return null;
+        }
+    }
+
+    private static void write(MetadataRepo metadataRepo, int i, File file) {
+        File file2 = new File(file.getPath() + ".tmp");
+        try {
+            TraceCompat.beginSection(S_TRACE_WRITE);
+            FlatBufferBuilder flatBufferBuilder = new FlatBufferBuilder(INITIAL_BUFFER_SIZE);
+            metadataRepo.writeIndex(flatBufferBuilder, i);
+            ByteBuffer dataBuffer = flatBufferBuilder.dataBuffer();
+            FileOutputStream fileOutputStream = new FileOutputStream(file2);
+            try {
+                FileChannel channel = fileOutputStream.getChannel();
+                while (dataBuffer.hasRemaining()) {
+                    channel.write(dataBuffer);
+                }
+                fileOutputStream.getFD().sync();
+                fileOutputStream.close();
+                if (!file2.renameTo(file)) {
+                    file2.delete();
+                }
+            } catch (Throwable th) {
+                fileOutputStream.close();
+                file2.delete();
+                throw th;
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Unable to write metadata index", e);
+        } finally {
+            TraceCompat.endSection();
+        }
+    }
+}
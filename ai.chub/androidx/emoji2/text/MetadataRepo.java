@@ -2,29 +2,54 @@ package androidx.emoji2.text;
 
 import android.content.res.AssetManager;
 import android.graphics.Typeface;
-import android.util.SparseArray;
 import androidx.core.os.TraceCompat;
 import androidx.core.util.Preconditions;
+import androidx.emoji2.text.flatbuffer.FlatBufferBuilder;
+import androidx.emoji2.text.flatbuffer.MetadataIndex;
 import androidx.emoji2.text.flatbuffer.MetadataList;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public final class MetadataRepo {
-    private static final int DEFAULT_ROOT_SIZE = 1024;
     private static final String S_TRACE_CREATE_REPO = "EmojiCompat.MetadataRepo.create";
+    private static final int INDEX_FORMAT_VERSION = 1;
+    private static final String S_TRACE_MAP_INDEX = "EmojiCompat.MetadataRepo.mapIndex";
+    private ByteBuffer mDefaultEmoji;
     private final char[] mEmojiCharArray;
+    private final EmojiMetadata[] mEmojiMetadata;
     private final MetadataList mMetadataList;
-    private final Node mRootNode = new Node(1024);
+    private EmojiTrie mTrie;
     private final Typeface mTypeface;
 
     private MetadataRepo(Typeface typeface, MetadataList metadataList) {
         this.mTypeface = typeface;
         this.mMetadataList = metadataList;
         this.mEmojiCharArray = new char[metadataList.listLength() * 2];
+        this.mEmojiMetadata = new EmojiMetadata[metadataList.listLength()];
         constructIndex(metadataList);
     }
 
+    private MetadataRepo(Typeface typeface, MetadataList metadataList, MetadataIndex metadataIndex) {
+        this.mTypeface = typeface;
+        this.mMetadataList = metadataList;
+        int listLength = metadataList.listLength();
+        if (metadataIndex.emojiCharsLength() != listLength * 2 || metadataIndex.defaultEmojiLength() != listLength) {
+            throw new IllegalArgumentException("metadata index does not match the metadata list");
+        }
+        this.mEmojiCharArray = new char[listLength * 2];
+        this.mEmojiMetadata = new EmojiMetadata[listLength];
+        for (int i = 0; i < listLength; i++) {
+            this.mEmojiMetadata[i] = new EmojiMetadata(this, i);
+        }
+        metadataIndex.emojiCharsAsByteBuffer().slice().order(ByteOrder.LITTLE_ENDIAN).asCharBuffer().get(this.mEmojiCharArray);
+        this.mDefaultEmoji = metadataIndex.defaultEmojiAsByteBuffer().slice();
+        this.mTrie = EmojiTrie.from(metadataIndex);
+    }
+
     public static MetadataRepo create(Typeface typeface) {
         try {
             TraceCompat.beginSection(S_TRACE_CREATE_REPO);
@@ -61,13 +86,83 @@ public final class MetadataRepo {
         }
     }
 
+    /**
+     * Creates a repo over {@code metadataList} that reads its lookup index from {@code metadataIndex}, as written
+     * by {@link #writeIndex}, or builds the index when it is null. Check the index with {@link #matches} first.
+     */
+    static MetadataRepo create(Typeface typeface, MetadataList metadataList, MetadataIndex metadataIndex) {
+        if (metadataIndex != null) {
+            try {
+                TraceCompat.beginSection(S_TRACE_MAP_INDEX);
+                return new MetadataRepo(typeface, metadataList, metadataIndex);
+            } finally {
+                TraceCompat.endSection();
+            }
+        }
+        try {
+            TraceCompat.beginSection(S_TRACE_CREATE_REPO);
+            return new MetadataRepo(typeface, metadataList);
+        } finally {
+            TraceCompat.endSection();
+        }
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public static boolean matches(MetadataIndex metadataIndex, MetadataList metadataList, int i) {
+        if (metadataIndex.formatVersion() != INDEX_FORMAT_VERSION || metadataIndex.metadataVersion() != metadataList.version() || metadataIndex.listLength() != metadataList.listLength() || metadataIndex.fontLength() != i) {
+            return false;
+        }
+        String sourceSha = metadataList.sourceSha();
+        String sourceSha2 = metadataIndex.sourceSha();
+        return sourceSha == null ? sourceSha2 == null : sourceSha.equals(sourceSha2);
+    }
+
+    /** Serializes the lookup index of this repo, built from a font of {@code i} bytes, into {@code flatBufferBuilder}. */
+    void writeIndex(FlatBufferBuilder flatBufferBuilder, int i) {
+        String sourceSha = this.mMetadataList.sourceSha();
+        int createString = sourceSha == null ? 0 : flatBufferBuilder.createString(sourceSha);
+        int createIntVector = MetadataIndex.createIntVector(flatBufferBuilder, toArray(this.mTrie.getBase()));
+        int createIntVector2 = MetadataIndex.createIntVector(flatBufferBuilder, toArray(this.mTrie.getCheck()));
+        int createIntVector3 = MetadataIndex.createIntVector(flatBufferBuilder, toArray(this.mTrie.getData()));
+        int createIntVector4 = MetadataIndex.createIntVector(flatBufferBuilder, toArray(this.mTrie.getPages()));
+        CharBuffer labels = this.mTrie.getLabels();
+        char[] cArr = new char[labels.remaining()];
+        labels.get(cArr);
+        int createCharVector = MetadataIndex.createCharVector(flatBufferBuilder, cArr);
+        boolean[] zArr = new boolean[this.mEmojiMetadata.length];
+        for (int i2 = 0; i2 < zArr.length; i2++) {
+            zArr[i2] = isDefaultEmoji(i2);
+        }
+        int createBooleanVector = MetadataIndex.createBooleanVector(flatBufferBuilder, zArr);
+        int createCharVector2 = MetadataIndex.createCharVector(flatBufferBuilder, this.mEmojiCharArray);
+        MetadataIndex.finishMetadataIndexBuffer(flatBufferBuilder, MetadataIndex.createMetadataIndex(flatBufferBuilder, INDEX_FORMAT_VERSION, this.mMetadataList.version(), createString, this.mMetadataList.listLength(), i, createIntVector, createIntVector2, createIntVector3, createIntVector4, createCharVector, createBooleanVector, createCharVector2));
+    }
+
+    private static int[] toArray(IntBuffer intBuffer) {
+        int[] iArr = new int[intBuffer.remaining()];
+        intBuffer.get(iArr);
+        return iArr;
+    }
+
     private void constructIndex(MetadataList metadataList) {
         int listLength = metadataList.listLength();
+        int[][] iArr = new int[listLength][];
+        byte[] bArr = new byte[listLength];
         for (int i = 0; i < listLength; i++) {
             EmojiMetadata emojiMetadata = new EmojiMetadata(this, i);
             Character.toChars(emojiMetadata.getId(), this.mEmojiCharArray, i * 2);
-            put(emojiMetadata);
+            int codepointsLength = emojiMetadata.getCodepointsLength();
+            Preconditions.checkArgument(codepointsLength > 0, "invalid metadata codepoint length");
+            int[] iArr2 = new int[codepointsLength];
+            for (int i2 = 0; i2 < codepointsLength; i2++) {
+                iArr2[i2] = emojiMetadata.getCodepointAt(i2);
+            }
+            iArr[i] = iArr2;
+            this.mEmojiMetadata[i] = emojiMetadata;
+            bArr[i] = emojiMetadata.isDefaultEmoji() ? (byte) 1 : (byte) 0;
         }
+        this.mDefaultEmoji = ByteBuffer.wrap(bArr);
+        this.mTrie = EmojiTrie.build(iArr);
     }
 
     /* JADX INFO: Access modifiers changed from: package-private */
@@ -81,63 +176,28 @@ public final class MetadataRepo {
     }
 
     /* JADX INFO: Access modifiers changed from: package-private */
-    public Node getRootNode() {
-        return this.mRootNode;
+    public EmojiTrie getTrie() {
+        return this.mTrie;
     }
 
-    public char[] getEmojiCharArray() {
-        return this.mEmojiCharArray;
+    /** Returns the metadata at index {@code i} as stored by {@link EmojiTrie#dataAt}, or null for -1. */
+    EmojiMetadata getMetadata(int i) {
+        if (i < 0) {
+            return null;
+        }
+        return this.mEmojiMetadata[i];
     }
 
-    public MetadataList getMetadataList() {
-        return this.mMetadataList;
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public boolean isDefaultEmoji(int i) {
+        return this.mDefaultEmoji.get(i) != 0;
     }
 
-    void put(EmojiMetadata emojiMetadata) {
-        Preconditions.checkNotNull(emojiMetadata, "emoji metadata cannot be null");
-        Preconditions.checkArgument(emojiMetadata.getCodepointsLength() > 0, "invalid metadata codepoint length");
-        this.mRootNode.put(emojiMetadata, 0, emojiMetadata.getCodepointsLength() - 1);
+    public char[] getEmojiCharArray() {
+        return this.mEmojiCharArray;
     }
 
-    /* JADX INFO: Access modifiers changed from: package-private */
-    /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
-    public static class Node {
-        private final SparseArray<Node> mChildren;
-        private EmojiMetadata mData;
-
-        private Node() {
-            this(1);
-        }
-
-        Node(int i) {
-            this.mChildren = new SparseArray<>(i);
-        }
-
-        /* JADX INFO: Access modifiers changed from: package-private */
-        public Node get(int i) {
-            SparseArray<Node> sparseArray = this.mChildren;
-            if (sparseArray == null) {
-                return null;
-            }
-            return sparseArray.get(i);
-        }
-
-        /* JADX INFO: Access modifiers changed from: package-private */
-        public final EmojiMetadata getData() {
-            return this.mData;
-        }
-
-        void put(EmojiMetadata emojiMetadata, int i, int i2) {
-            Node node = get(emojiMetadata.getCodepointAt(i));
-            if (node == null) {
-                node = new Node();
-                this.mChildren.put(emojiMetadata.getCodepointAt(i), node);
-            }
-            if (i2 > i) {
-                node.put(emojiMetadata, i + 1, i2);
-            } else {
-                node.mData = emojiMetadata;
-            }
-        }
+    public MetadataList getMetadataList() {
+        return this.mMetadataList;
     }
 }
@@ -0,0 +1,259 @@
+package androidx.emoji2.text.flatbuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The lookup index compiled from a {@link MetadataList}, persisted so that later launches can map it instead
+ * of rebuilding it. Keyed by the metadata version, source sha, entry count and font length it was built from.
+ */
+public final class MetadataIndex extends Table {
+    public static final String FILE_IDENTIFIER = "EIDX";
+
+    public static void ValidateVersion() {
+        Constants.FLATBUFFERS_1_12_0();
+    }
+
+    public static MetadataIndex getRootAsMetadataIndex(ByteBuffer byteBuffer) {
+        return getRootAsMetadataIndex(byteBuffer, new MetadataIndex());
+    }
+
+    public static MetadataIndex getRootAsMetadataIndex(ByteBuffer byteBuffer, MetadataIndex metadataIndex) {
+        byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        return metadataIndex.__assign(byteBuffer.getInt(byteBuffer.position()) + byteBuffer.position(), byteBuffer);
+    }
+
+    public static boolean MetadataIndexBufferHasIdentifier(ByteBuffer byteBuffer) {
+        return __has_identifier(byteBuffer, FILE_IDENTIFIER);
+    }
+
+    public void __init(int i, ByteBuffer byteBuffer) {
+        __reset(i, byteBuffer);
+    }
+
+    public MetadataIndex __assign(int i, ByteBuffer byteBuffer) {
+        __init(i, byteBuffer);
+        return this;
+    }
+
+    public int formatVersion() {
+        int __offset = __offset(4);
+        if (__offset != 0) {
+            return this.bb.getInt(__offset + this.bb_pos);
+        }
+        return 0;
+    }
+
+    public int metadataVersion() {
+        int __offset = __offset(6);
+        if (__offset != 0) {
+            return this.bb.getInt(__offset + this.bb_pos);
+        }
+        return 0;
+    }
+
+    public String sourceSha() {
+        int __offset = __offset(8);
+        if (__offset != 0) {
+            return __string(__offset + this.bb_pos);
+        }
+        return null;
+    }
+
+    public int listLength() {
+        int __offset = __offset(10);
+        if (__offset != 0) {
+            return this.bb.getInt(__offset + this.bb_pos);
+        }
+        return 0;
+    }
+
+    public int fontLength() {
+        int __offset = __offset(12);
+        if (__offset != 0) {
+            return this.bb.getInt(__offset + this.bb_pos);
+        }
+        return 0;
+    }
+
+    public int baseLength() {
+        int __offset = __offset(14);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer baseAsByteBuffer() {
+        return __vector_as_bytebuffer(14, 4);
+    }
+
+    public int checkLength() {
+        int __offset = __offset(16);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer checkAsByteBuffer() {
+        return __vector_as_bytebuffer(16, 4);
+    }
+
+    public int dataLength() {
+        int __offset = __offset(18);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer dataAsByteBuffer() {
+        return __vector_as_bytebuffer(18, 4);
+    }
+
+    public int pagesLength() {
+        int __offset = __offset(20);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer pagesAsByteBuffer() {
+        return __vector_as_bytebuffer(20, 4);
+    }
+
+    public int labelsLength() {
+        int __offset = __offset(22);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer labelsAsByteBuffer() {
+        return __vector_as_bytebuffer(22, 2);
+    }
+
+    public int defaultEmojiLength() {
+        int __offset = __offset(24);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer defaultEmojiAsByteBuffer() {
+        return __vector_as_bytebuffer(24, 1);
+    }
+
+    public int emojiCharsLength() {
+        int __offset = __offset(26);
+        if (__offset != 0) {
+            return __vector_len(__offset);
+        }
+        return 0;
+    }
+
+    public ByteBuffer emojiCharsAsByteBuffer() {
+        return __vector_as_bytebuffer(26, 2);
+    }
+
+    public static int createMetadataIndex(FlatBufferBuilder flatBufferBuilder, int i, int i2, int i3, int i4, int i5, int i6, int i7, int i8, int i9, int i10, int i11, int i12) {
+        flatBufferBuilder.startTable(12);
+        addEmojiChars(flatBufferBuilder, i12);
+        addDefaultEmoji(flatBufferBuilder, i11);
+        addLabels(flatBufferBuilder, i10);
+        addPages(flatBufferBuilder, i9);
+        addData(flatBufferBuilder, i8);
+        addCheck(flatBufferBuilder, i7);
+        addBase(flatBufferBuilder, i6);
+        addFontLength(flatBufferBuilder, i5);
+        addListLength(flatBufferBuilder, i4);
+        addSourceSha(flatBufferBuilder, i3);
+        addMetadataVersion(flatBufferBuilder, i2);
+        addFormatVersion(flatBufferBuilder, i);
+        return endMetadataIndex(flatBufferBuilder);
+    }
+
+    public static void addFormatVersion(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addInt(0, i, 0);
+    }
+
+    public static void addMetadataVersion(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addInt(1, i, 0);
+    }
+
+    public static void addSourceSha(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(2, i, 0);
+    }
+
+    public static void addListLength(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addInt(3, i, 0);
+    }
+
+    public static void addFontLength(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addInt(4, i, 0);
+    }
+
+    public static void addBase(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(5, i, 0);
+    }
+
+    public static void addCheck(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(6, i, 0);
+    }
+
+    public static void addData(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(7, i, 0);
+    }
+
+    public static void addPages(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(8, i, 0);
+    }
+
+    public static void addLabels(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(9, i, 0);
+    }
+
+    public static void addDefaultEmoji(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(10, i, 0);
+    }
+
+    public static void addEmojiChars(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.addOffset(11, i, 0);
+    }
+
+    public static int createIntVector(FlatBufferBuilder flatBufferBuilder, int[] iArr) {
+        flatBufferBuilder.startVector(4, iArr.length, 4);
+        for (int length = iArr.length - 1; length >= 0; length--) {
+            flatBufferBuilder.addInt(iArr[length]);
+        }
+        return flatBufferBuilder.endVector();
+    }
+
+    public static int createCharVector(FlatBufferBuilder flatBufferBuilder, char[] cArr) {
+        flatBufferBuilder.startVector(2, cArr.length, 2);
+        for (int length = cArr.length - 1; length >= 0; length--) {
+            flatBufferBuilder.addShort((short) cArr[length]);
+        }
+        return flatBufferBuilder.endVector();
+    }
+
+    public static int createBooleanVector(FlatBufferBuilder flatBufferBuilder, boolean[] zArr) {
+        flatBufferBuilder.startVector(1, zArr.length, 1);
+        for (int length = zArr.length - 1; length >= 0; length--) {
+            flatBufferBuilder.addBoolean(zArr[length]);
+        }
+        return flatBufferBuilder.endVector();
+    }
+
+    public static int endMetadataIndex(FlatBufferBuilder flatBufferBuilder) {
+        return flatBufferBuilder.endTable();
+    }
+
+    public static void finishMetadataIndexBuffer(FlatBufferBuilder flatBufferBuilder, int i) {
+        flatBufferBuilder.finish(i, FILE_IDENTIFIER);
+    }
+}
@@ -14,6 +14,7 @@ import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.ActivityCallback;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import java.util.Map;
+import net.openid.appauth.AppAuthConfiguration;
 import net.openid.appauth.AuthState;
 import net.openid.appauth.AuthorizationException;
 import net.openid.appauth.AuthorizationRequest;
@@ -25,6 +26,7 @@ import net.openid.appauth.EndSessionResponse;
 import net.openid.appauth.GrantTypeValues;
 import net.openid.appauth.TokenRequest;
 import net.openid.appauth.TokenResponse;
+import net.openid.appauth.connectivity.OkHttpConnectionBuilder;
 import okhttp3.HttpUrl;
 import org.json.JSONException;
 @CapacitorPlugin(name = "OAuth2Client")
@@ -84,7 +86,7 @@ public class OAuth2ClientPlugin extends Plugin {
         } else if (buildRefreshTokenOptions.getRefreshToken() == null) {
             pluginCall.reject(ERR_PARAM_NO_REFRESH_TOKEN);
         } else {
-            this.authService = new AuthorizationService(getContext());
+            this.authService = createAuthorizationService();
             AuthorizationServiceConfiguration authorizationServiceConfiguration = new AuthorizationServiceConfiguration(Uri.parse(HttpUrl.FRAGMENT_ENCODE_SET), Uri.parse(buildRefreshTokenOptions.getAccessTokenEndpoint()));
             if (this.authState == null) {
                 this.authState = new AuthState(authorizationServiceConfiguration);
@@ -202,7 +204,7 @@ public class OAuth2ClientPlugin extends Plugin {
                 }
             }
             AuthorizationRequest build = builder.build();
-            AuthorizationService authorizationService = new AuthorizationService(getContext());
+            AuthorizationService authorizationService = createAuthorizationService();
             this.authService = authorizationService;
             try {
                 Intent authorizationRequestIntent = authorizationService.getAuthorizationRequestIntent(build);
@@ -256,7 +258,7 @@ public class OAuth2ClientPlugin extends Plugin {
         this.oauth2Options = buildAuthenticateOptions;
         Uri parse = Uri.parse(buildAuthenticateOptions.getAuthorizationBaseUrl());
         EndSessionRequest build = new EndSessionRequest.Builder(new AuthorizationServiceConfiguration(parse, this.oauth2Options.getAccessTokenEndpoint() != null ? Uri.parse(this.oauth2Options.getAccessTokenEndpoint()) : parse)).setIdTokenHint(str2).setPostLogoutRedirectUri(Uri.parse(this.oauth2Options.getLogoutUrl())).build();
-        AuthorizationService authorizationService = new AuthorizationService(getContext());
+        AuthorizationService authorizationService = createAuthorizationService();
         this.authService = authorizationService;
         try {
             Intent endSessionRequestIntent = authorizationService.getEndSessionRequestIntent(build);
@@ -342,7 +344,7 @@ public class OAuth2ClientPlugin extends Plugin {
                         Log.i(logTag3, "Authorization response:\n" + fromIntent.jsonSerializeString());
                     }
                     if (this.oauth2Options.getAccessTokenEndpoint() != null) {
-                        this.authService = new AuthorizationService(getContext());
+                        this.authService = createAuthorizationService();
                         try {
                             this.authService.performTokenRequest(fromIntent.createTokenExchangeRequest(), new AuthorizationService.TokenResponseCallback() { // from class: com.byteowls.capacitor.oauth2.OAuth2ClientPlugin$$ExternalSyntheticLambda0
                                 @Override // net.openid.appauth.AuthorizationService.TokenResponseCallback
@@ -469,6 +471,10 @@ public class OAuth2ClientPlugin extends Plugin {
         disposeAuthService();
     }
 
+    private AuthorizationService createAuthorizationService() {
+        return new AuthorizationService(getContext(), new AppAuthConfiguration.Builder().setConnectionBuilder(OkHttpConnectionBuilder.getInstance(getContext())).build());
+    }
+
     private void disposeAuthService() {
         AuthorizationService authorizationService = this.authService;
         if (authorizationService != null) {
@@ -30,6 +30,7 @@ import com.getcapacitor.cordova.MockCordovaInterfaceImpl;
 import com.getcapacitor.cordova.MockCordovaWebViewImpl;
 import com.getcapacitor.plugin.CapacitorCookies;
 import com.getcapacitor.plugin.CapacitorHttp;
+import com.getcapacitor.plugin.StartupMetrics;
 import com.getcapacitor.util.HostMask;
 import com.getcapacitor.util.InternalUtils;
 import com.getcapacitor.util.PermissionHelper;
@@ -101,6 +102,7 @@ public class Bridge {
     private Map<String, PluginCall> savedCalls;
     private Map<String, LinkedList<String>> savedPermissionCallIds;
     private ServerPath serverPath;
+    private final StartupTrace startupTrace;
     private Handler taskHandler;
     private final WebView webView;
     private BridgeWebViewClient webViewClient;
@@ -120,36 +122,48 @@ public class Bridge {
     }
 
     private Bridge(AppCompatActivity appCompatActivity, ServerPath serverPath, Fragment fragment, WebView webView, List<Class<? extends Plugin>> list, List<Plugin> list2, MockCordovaInterfaceImpl mockCordovaInterfaceImpl, org.apache.cordova.PluginManager pluginManager, CordovaPreferences cordovaPreferences, CapConfig capConfig) {
-        this.allowedOriginRules = new HashSet();
-        this.authorities = new ArrayList<>();
-        HandlerThread handlerThread = new HandlerThread("CapacitorPlugins");
-        this.handlerThread = handlerThread;
-        this.taskHandler = null;
-        this.plugins = new HashMap();
-        this.savedCalls = new HashMap();
-        this.savedPermissionCallIds = new HashMap();
-        this.webViewListeners = new ArrayList();
-        this.app = new App();
-        this.serverPath = serverPath;
-        this.context = appCompatActivity;
-        this.fragment = fragment;
-        this.webView = webView;
-        this.webViewClient = new BridgeWebViewClient(this);
-        this.initialPlugins = list;
-        this.pluginInstances = list2;
-        this.cordovaInterface = mockCordovaInterfaceImpl;
-        this.preferences = cordovaPreferences;
-        handlerThread.start();
-        this.taskHandler = new Handler(handlerThread.getLooper());
-        capConfig = capConfig == null ? CapConfig.loadDefault(getActivity()) : capConfig;
-        this.config = capConfig;
-        Logger.init(capConfig);
-        initWebView();
-        setAllowedOriginRules();
-        this.msgHandler = new MessageHandler(this, webView, pluginManager);
-        this.intentUri = appCompatActivity.getIntent().getData();
-        registerAllPlugins();
-        loadWebView();
+        StartupTrace startupTrace = new StartupTrace();
+        this.startupTrace = startupTrace;
+        long begin = startupTrace.begin(StartupTrace.PHASE_BRIDGE_INIT);
+        try {
+            this.allowedOriginRules = new HashSet();
+            this.authorities = new ArrayList<>();
+            HandlerThread handlerThread = new HandlerThread("CapacitorPlugins");
+            this.handlerThread = handlerThread;
+            this.taskHandler = null;
+            this.plugins = new HashMap();
+            this.savedCalls = new HashMap();
+            this.savedPermissionCallIds = new HashMap();
+            this.webViewListeners = new ArrayList();
+            this.app = new App();
+            this.serverPath = serverPath;
+            this.context = appCompatActivity;
+            this.fragment = fragment;
+            this.webView = webView;
+            this.webViewClient = new BridgeWebViewClient(this);
+            this.initialPlugins = list;
+            this.pluginInstances = list2;
+            this.cordovaInterface = mockCordovaInterfaceImpl;
+            this.preferences = cordovaPreferences;
+            handlerThread.start();
+            this.taskHandler = new Handler(handlerThread.getLooper());
+            capConfig = capConfig == null ? CapConfig.loadDefault(getActivity()) : capConfig;
+            this.config = capConfig;
+            Logger.init(capConfig);
+            initWebView();
+            setAllowedOriginRules();
+            this.msgHandler = new MessageHandler(this, webView, pluginManager);
+            this.intentUri = appCompatActivity.getIntent().getData();
+            long begin2 = startupTrace.begin(StartupTrace.PHASE_REGISTER_PLUGINS);
+            try {
+                registerAllPlugins();
+            } finally {
+                startupTrace.end(StartupTrace.PHASE_REGISTER_PLUGINS, begin2);
+            }
+            loadWebView();
+        } finally {
+            startupTrace.end(StartupTrace.PHASE_BRIDGE_INIT, begin);
+        }
     }
 
     private void setAllowedOriginRules() {
@@ -178,10 +192,23 @@ public class Bridge {
     }
 
     private void loadWebView() {
+        JSInjector jSInjector;
         String string;
-        WebViewLocalServer webViewLocalServer = new WebViewLocalServer(this.context, this, getJSInjector(), this.authorities, this.config.isHTML5Mode());
-        this.localServer = webViewLocalServer;
-        webViewLocalServer.hostAssets("public");
+        long begin = this.startupTrace.begin(StartupTrace.PHASE_JS_EXPORT);
+        try {
+            jSInjector = getJSInjector();
+        } finally {
+            this.startupTrace.end(StartupTrace.PHASE_JS_EXPORT, begin);
+        }
+        long begin2 = this.startupTrace.begin(StartupTrace.PHASE_LOCAL_SERVER);
+        try {
+            WebViewLocalServer webViewLocalServer = new WebViewLocalServer(this.context, this, jSInjector, this.authorities, this.config.isHTML5Mode());
+            this.localServer = webViewLocalServer;
+            webViewLocalServer.hostAssets("public");
+        } finally {
+            this.startupTrace.end(StartupTrace.PHASE_LOCAL_SERVER, begin2);
+        }
+        this.startupTrace.beginFirstPage();
         Logger.debug("Loading app at " + this.appUrl);
         this.webView.setWebChromeClient(new BridgeWebChromeClient(this));
         this.webView.setWebViewClient(this.webViewClient);
@@ -444,6 +471,7 @@ public class Bridge {
         registerPlugin(CapacitorCookies.class);
         registerPlugin(com.getcapacitor.plugin.WebView.class);
         registerPlugin(CapacitorHttp.class);
+        registerPlugin(StartupMetrics.class);
         for (Class<? extends Plugin> cls : this.initialPlugins) {
             registerPlugin(cls);
         }
@@ -742,7 +770,9 @@ public class Bridge {
             String cordovaJS = JSExport.getCordovaJS(this.context);
             String cordovaPluginJS = JSExport.getCordovaPluginJS(this.context);
             String cordovaPluginsFileJS = JSExport.getCordovaPluginsFileJS(this.context);
-            return new JSInjector(globalJS, bridgeJS, pluginJS, cordovaJS, cordovaPluginJS, cordovaPluginsFileJS, "window.WEBVIEW_SERVER_URL = '" + this.localUrl + "';");
+            JSInjector jSInjector = new JSInjector(globalJS, bridgeJS, pluginJS, cordovaJS, cordovaPluginJS, cordovaPluginsFileJS, "window.WEBVIEW_SERVER_URL = '" + this.localUrl + "';");
+            jSInjector.setStartupTrace(this.startupTrace);
+            return jSInjector;
         } catch (Exception e) {
             Logger.error("Unable to export Capacitor JS. App will not function!", e);
             return null;
@@ -959,6 +989,7 @@ public class Bridge {
 
     public void onDestroy() {
         for (PluginHandle pluginHandle : this.plugins.values()) {
+            pluginHandle.getInstance().closeEventBatchers();
             pluginHandle.getInstance().handleOnDestroy();
         }
         this.handlerThread.quitSafely();
@@ -1025,6 +1056,10 @@ public class Bridge {
         return this.localUrl;
     }
 
+    public StartupTrace getStartupTrace() {
+        return this.startupTrace;
+    }
+
     public WebViewLocalServer getLocalServer() {
         return this.localServer;
     }
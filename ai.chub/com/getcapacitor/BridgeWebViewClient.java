@@ -35,6 +35,9 @@ public class BridgeWebViewClient extends WebViewClient {
     @Override // android.webkit.WebViewClient
     public void onPageFinished(WebView webView, String str) {
         super.onPageFinished(webView, str);
+        if (webView.getProgress() == 100) {
+            this.bridge.getStartupTrace().endFirstPage();
+        }
         if (this.bridge.getWebViewListeners() == null || webView.getProgress() != 100) {
             return;
         }
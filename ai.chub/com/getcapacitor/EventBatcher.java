@@ -0,0 +1,47 @@
+package com.getcapacitor;
+
+import java.util.List;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlin.jvm.functions.Function2;
+import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.channels.Channel;
+import kotlinx.coroutines.channels.ChannelKt;
+import kotlinx.coroutines.channels.ChannelResult;
+import kotlinx.coroutines.flow.FlowKt;
+
+/**
+ * Collects the events a {@link Plugin} posts through {@link Plugin#notifyListenersBatched} and hands them to
+ * the listeners as one {@code {events: [...]}} object per chunk, so a burst crosses into the WebView once
+ * instead of once per event.
+ */
+class EventBatcher implements Function2<List<JSObject>, Continuation<? super Unit>, Object> {
+    public static final String EVENTS_KEY = "events";
+    private final String eventName;
+    private final Channel<JSObject> events = ChannelKt.Channel$default(Integer.MAX_VALUE, null, null, 6, null);
+    private final Plugin plugin;
+
+    EventBatcher(Plugin plugin, String str, int i, long j, CoroutineScope coroutineScope) {
+        this.plugin = plugin;
+        this.eventName = str;
+        FlowKt.launchIn(FlowKt.onEach(FlowKt.chunked(FlowKt.receiveAsFlow(this.events), i, j), this), coroutineScope);
+    }
+
+    /** Returns false once {@link #close()} was called; the caller should then deliver the event itself. */
+    public boolean offer(JSObject jSObject) {
+        return ChannelResult.m1638isSuccessimpl(this.events.mo1623trySendJP2dKIU(jSObject));
+    }
+
+    /** Stops accepting events. Events already offered go out in a final chunk unless the collecting scope is cancelled first. */
+    public void close() {
+        this.events.close(null);
+    }
+
+    @Override // kotlin.jvm.functions.Function2
+    public Object invoke(List<JSObject> list, Continuation<? super Unit> continuation) {
+        JSObject jSObject = new JSObject();
+        jSObject.put(EVENTS_KEY, (Object) new JSArray(list));
+        this.plugin.notifyListeners(this.eventName, jSObject);
+        return Unit.INSTANCE;
+    }
+}
@@ -14,6 +14,7 @@ class JSInjector {
     private String globalJS;
     private String localUrlJS;
     private String pluginJS;
+    private StartupTrace startupTrace;
 
     public JSInjector(String str, String str2, String str3, String str4, String str5, String str6, String str7) {
         this.globalJS = str;
@@ -25,11 +26,28 @@ class JSInjector {
         this.localUrlJS = str7;
     }
 
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public void setStartupTrace(StartupTrace startupTrace) {
+        this.startupTrace = startupTrace;
+    }
+
     public String getScriptString() {
         return this.globalJS + "\n\n" + this.localUrlJS + "\n\n" + this.bridgeJS + "\n\n" + this.pluginJS + "\n\n" + this.cordovaJS + "\n\n" + this.cordovaPluginsFileJS + "\n\n" + this.cordovaPluginsJS;
     }
 
     public InputStream getInjectedStream(InputStream inputStream) {
+        StartupTrace startupTrace = this.startupTrace;
+        long beginOnce = startupTrace == null ? -1L : startupTrace.beginOnce(StartupTrace.PHASE_JS_INJECTION);
+        try {
+            return injectScript(inputStream);
+        } finally {
+            if (beginOnce >= 0) {
+                startupTrace.end(StartupTrace.PHASE_JS_INJECTION, beginOnce);
+            }
+        }
+    }
+
+    private InputStream injectScript(InputStream inputStream) {
         String str = "<script type=\"text/javascript\">" + getScriptString() + "</script>";
         String readAssetStream = readAssetStream(inputStream);
         StringBuilder sb = new StringBuilder(readAssetStream);
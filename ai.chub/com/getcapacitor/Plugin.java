@@ -27,6 +27,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.CoroutineScopeKt;
+import kotlinx.coroutines.Dispatchers;
+import kotlinx.coroutines.SupervisorKt;
 import org.json.JSONException;
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public class Plugin {
@@ -40,6 +44,9 @@ public class Plugin {
     private final Map<String, ActivityResultLauncher<String[]>> permissionLaunchers = new HashMap();
     private final Map<String, List<PluginCall>> eventListeners = new HashMap();
     private final Map<String, List<JSObject>> retainedEventArguments = new HashMap();
+    private final Map<String, EventBatcher> eventBatchers = new HashMap();
+    private CoroutineScope eventBatcherScope;
+    private boolean eventBatchersClosed;
 
     /* JADX INFO: Access modifiers changed from: protected */
     @Deprecated
@@ -426,6 +433,55 @@ public class Plugin {
         notifyListeners(str, jSObject, false);
     }
 
+    /**
+     * Like {@link #notifyListeners(String, JSObject)}, but groups the events for {@code str} into chunks of
+     * at most {@code i} that are flushed at the latest {@code j} ms after their first event. Listeners
+     * receive {@code {events: [...]}} instead of the single objects, also when the event is delivered
+     * on its own after the bridge was destroyed. The first call for an event name fixes its chunk size and delay.
+     */
+    /* JADX INFO: Access modifiers changed from: protected */
+    public void notifyListenersBatched(String str, JSObject jSObject, int i, long j) {
+        EventBatcher eventBatcher;
+        synchronized (this.eventBatchers) {
+            eventBatcher = this.eventBatchers.get(str);
+            if (eventBatcher == null && !this.eventBatchersClosed) {
+                if (this.eventBatcherScope == null) {
+                    this.eventBatcherScope = CoroutineScopeKt.CoroutineScope(SupervisorKt.SupervisorJob$default(null, 1, null).plus(Dispatchers.getDefault()));
+                }
+                eventBatcher = new EventBatcher(this, str, i, j, this.eventBatcherScope);
+                this.eventBatchers.put(str, eventBatcher);
+            }
+        }
+        if (eventBatcher != null && eventBatcher.offer(jSObject)) {
+            return;
+        }
+        JSArray jSArray = new JSArray();
+        jSArray.put(jSObject);
+        JSObject jSObject2 = new JSObject();
+        jSObject2.put(EventBatcher.EVENTS_KEY, (Object) jSArray);
+        notifyListeners(str, jSObject2);
+    }
+
+    /**
+     * Closes the batchers created by {@link #notifyListenersBatched} and cancels the scope they collect in, so
+     * no collector outlives the bridge. Called by {@link Bridge#onDestroy()} right before {@link #handleOnDestroy()};
+     * chunks still pending at that point are dropped together with the WebView.
+     */
+    void closeEventBatchers() {
+        synchronized (this.eventBatchers) {
+            this.eventBatchersClosed = true;
+            for (EventBatcher eventBatcher : this.eventBatchers.values()) {
+                eventBatcher.close();
+            }
+            this.eventBatchers.clear();
+            CoroutineScope coroutineScope = this.eventBatcherScope;
+            if (coroutineScope != null) {
+                CoroutineScopeKt.cancel$default(coroutineScope, null, 1, null);
+                this.eventBatcherScope = null;
+            }
+        }
+    }
+
     /* JADX INFO: Access modifiers changed from: protected */
     public boolean hasListeners(String str) {
         List<PluginCall> list = this.eventListeners.get(str);
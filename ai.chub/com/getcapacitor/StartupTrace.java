@@ -0,0 +1,145 @@
+package com.getcapacitor;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import androidx.tracing.Trace;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records the cold start phases of a {@link Bridge} as trace sections and as monotonic timestamps, so they show up
+ * in system traces and can also be reported to the web app through the StartupMetrics plugin. Offsets are taken
+ * from process start where the platform exposes it, otherwise from the creation of this object. Phases run on the
+ * main thread, except {@link #PHASE_JS_INJECTION} which runs on the WebView's IO thread.
+ */
+public final class StartupTrace {
+    public static final String PHASE_BRIDGE_INIT = "bridgeInit";
+    public static final String PHASE_FIRST_PAGE = "firstPageLoad";
+    public static final String PHASE_JS_EXPORT = "jsExport";
+    public static final String PHASE_JS_INJECTION = "jsInjection";
+    public static final String PHASE_LOCAL_SERVER = "localServerSetup";
+    public static final String PHASE_REGISTER_PLUGINS = "registerPlugins";
+    public static final String TIME_ORIGIN_BRIDGE = "bridgeCreated";
+    public static final String TIME_ORIGIN_PROCESS = "processStart";
+    private static final String SECTION_PREFIX = "Capacitor.";
+    private final long originNanos;
+    private final String timeOrigin;
+    private final List<Phase> phases = new ArrayList();
+    private final Set<String> started = new HashSet();
+    private long asyncStartNanos = -1;
+
+    private static final class Phase {
+        final long endNanos;
+        final String name;
+        final long startNanos;
+        final String thread;
+
+        Phase(String str, long j, long j2, String str2) {
+            this.name = str;
+            this.startNanos = j;
+            this.endNanos = j2;
+            this.thread = str2;
+        }
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public StartupTrace() {
+        if (Build.VERSION.SDK_INT >= 24) {
+            this.originNanos = Process.getStartElapsedRealtime() * 1000000;
+            this.timeOrigin = TIME_ORIGIN_PROCESS;
+            return;
+        }
+        this.originNanos = SystemClock.elapsedRealtimeNanos();
+        this.timeOrigin = TIME_ORIGIN_BRIDGE;
+    }
+
+    /** Opens the trace section of {@code str} on the calling thread and returns its start, to be passed to {@link #end}. */
+    public long begin(String str) {
+        Trace.beginSection(SECTION_PREFIX + str);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    /** Like {@link #begin}, but returns -1 without opening a section if {@code str} was already started. */
+    public long beginOnce(String str) {
+        synchronized (this) {
+            if (!this.started.add(str)) {
+                return -1L;
+            }
+        }
+        Trace.beginSection(SECTION_PREFIX + str);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    /** Closes the section opened by {@link #begin} on this thread and records the phase. */
+    public void end(String str, long j) {
+        long elapsedRealtimeNanos = SystemClock.elapsedRealtimeNanos();
+        Trace.endSection();
+        record(str, j, elapsedRealtimeNanos);
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public void beginFirstPage() {
+        synchronized (this) {
+            if (!this.started.add(PHASE_FIRST_PAGE)) {
+                return;
+            }
+            this.asyncStartNanos = SystemClock.elapsedRealtimeNanos();
+        }
+        Trace.beginAsyncSection(SECTION_PREFIX + PHASE_FIRST_PAGE, 0);
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public void endFirstPage() {
+        long elapsedRealtimeNanos = SystemClock.elapsedRealtimeNanos();
+        synchronized (this) {
+            long j = this.asyncStartNanos;
+            if (j < 0) {
+                return;
+            }
+            this.asyncStartNanos = -1L;
+            Trace.endAsyncSection(SECTION_PREFIX + PHASE_FIRST_PAGE, 0);
+            record(PHASE_FIRST_PAGE, j, elapsedRealtimeNanos);
+        }
+    }
+
+    private synchronized void record(String str, long j, long j2) {
+        this.phases.add(new Phase(str, j, j2, Thread.currentThread().getName()));
+    }
+
+    public synchronized boolean isComplete() {
+        for (Phase phase : this.phases) {
+            if (PHASE_FIRST_PAGE.equals(phase.name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the recorded phases in the order they finished, each with its start offset and duration in
+     * milliseconds relative to {@code timeOrigin}.
+     */
+    public synchronized JSObject toJSObject() {
+        JSArray jSArray = new JSArray();
+        for (Phase phase : this.phases) {
+            JSObject jSObject = new JSObject();
+            jSObject.put("name", phase.name);
+            jSObject.put("startMs", toMillis(phase.startNanos - this.originNanos));
+            jSObject.put("durationMs", toMillis(phase.endNanos - phase.startNanos));
+            jSObject.put("thread", phase.thread);
+            jSArray.put(jSObject);
+        }
+        JSObject jSObject2 = new JSObject();
+        jSObject2.put("timeOrigin", this.timeOrigin);
+        jSObject2.put("complete", isComplete());
+        jSObject2.put("phases", (Object) jSArray);
+        return jSObject2;
+    }
+
+    private static double toMillis(long j) {
+        return j / 1000000.0d;
+    }
+}
@@ -2,6 +2,7 @@ package com.getcapacitor.plugin;
 
 import android.webkit.JavascriptInterface;
 import androidx.browser.trusted.sharing.ShareTarget;
+import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
@@ -9,6 +10,7 @@ import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
 import com.getcapacitor.plugin.util.CapacitorHttpUrlConnection;
 import com.getcapacitor.plugin.util.HttpRequestHandler;
+import com.google.android.gms.common.internal.ImagesContract;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -16,6 +18,8 @@ import java.util.concurrent.Executors;
 @CapacitorPlugin(permissions = {@Permission(alias = "HttpWrite", strings = {"android.permission.WRITE_EXTERNAL_STORAGE"}), @Permission(alias = "HttpRead", strings = {"android.permission.READ_EXTERNAL_STORAGE"})})
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public class CapacitorHttp extends Plugin {
+    private static final int UPLOAD_PROGRESS_BATCH_SIZE = 16;
+    private static final long UPLOAD_PROGRESS_BATCH_DELAY_MS = 100;
     private final Map<Runnable, PluginCall> activeRequests = new HashMap();
     private final ExecutorService executor = Executors.newCachedThreadPool();
 
@@ -51,7 +55,7 @@ public class CapacitorHttp extends Plugin {
             public void run() {
                 try {
                     try {
-                        pluginCall.resolve(HttpRequestHandler.request(pluginCall, str, CapacitorHttp.this.getBridge()));
+                        pluginCall.resolve(HttpRequestHandler.request(pluginCall, str, CapacitorHttp.this.getBridge(), CapacitorHttp.this.uploadProgressListener(pluginCall)));
                     } catch (Exception e) {
                         pluginCall.reject(e.getLocalizedMessage(), e.getClass().getSimpleName(), e);
                     }
@@ -68,6 +72,25 @@ public class CapacitorHttp extends Plugin {
         pluginCall.reject("Failed to execute request - Http Plugin was shutdown");
     }
 
+    /**
+     * Forwards upload progress for {@code pluginCall} to JS as {@code uploadProgress} events, batched as
+     * {@code {events: [...]}} so fast uploads don't cross into the WebView every 64 KiB.
+     */
+    private CapacitorHttpUrlConnection.ProgressListener uploadProgressListener(final PluginCall pluginCall) {
+        return new CapacitorHttpUrlConnection.ProgressListener() { // from class: com.getcapacitor.plugin.CapacitorHttp.2
+            @Override // com.getcapacitor.plugin.util.CapacitorHttpUrlConnection.ProgressListener
+            public void onProgress(long j, long j2) {
+                if (CapacitorHttp.this.hasListeners("uploadProgress")) {
+                    JSObject jSObject = new JSObject();
+                    jSObject.put(ImagesContract.URL, pluginCall.getString(ImagesContract.URL));
+                    jSObject.put("bytesSent", j);
+                    jSObject.put("totalBytes", j2);
+                    CapacitorHttp.this.notifyListenersBatched("uploadProgress", jSObject, CapacitorHttp.UPLOAD_PROGRESS_BATCH_SIZE, CapacitorHttp.UPLOAD_PROGRESS_BATCH_DELAY_MS);
+                }
+            }
+        };
+    }
+
     @JavascriptInterface
     public boolean isEnabled() {
         return getBridge().getConfig().getPluginConfiguration("CapacitorHttp").getBoolean("enabled", false);
@@ -0,0 +1,52 @@
+package com.getcapacitor.plugin;
+
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import androidx.core.content.pm.PackageInfoCompat;
+import androidx.profileinstaller.ProfileVerifier;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Logger;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import com.getcapacitor.util.InternalUtils;
+
+/**
+ * Reports the startup phases recorded by {@link com.getcapacitor.StartupTrace} together with the app version and
+ * the baseline profile compilation status, so that cold start regressions can be tracked per release.
+ */
+@CapacitorPlugin
+public class StartupMetrics extends Plugin {
+
+    /** Resolves with {@code timeOrigin}, {@code complete}, {@code phases}, {@code app} and {@code profile}. */
+    @PluginMethod
+    public void getStartupMetrics(PluginCall pluginCall) {
+        JSObject jSObject = this.bridge.getStartupTrace().toJSObject();
+        jSObject.put("app", (Object) getAppVersion());
+        jSObject.put("profile", (Object) getProfileStatus());
+        pluginCall.resolve(jSObject);
+    }
+
+    private JSObject getAppVersion() {
+        JSObject jSObject = new JSObject();
+        try {
+            PackageInfo packageInfo = InternalUtils.getPackageInfo(getContext().getPackageManager(), getContext().getPackageName());
+            jSObject.put("versionName", packageInfo.versionName);
+            jSObject.put("versionCode", PackageInfoCompat.getLongVersionCode(packageInfo));
+        } catch (PackageManager.NameNotFoundException e) {
+            Logger.error("Unable to get package info", e);
+        }
+        return jSObject;
+    }
+
+    /** Runs on the plugin thread, as {@link ProfileVerifier#writeProfileVerification} reads and writes files. */
+    private JSObject getProfileStatus() {
+        ProfileVerifier.CompilationStatus writeProfileVerification = ProfileVerifier.writeProfileVerification(getContext());
+        JSObject jSObject = new JSObject();
+        jSObject.put("resultCode", writeProfileVerification.getProfileInstallResultCode());
+        jSObject.put("compiledWithProfile", writeProfileVerification.isCompiledWithProfile());
+        jSObject.put("profileEnqueuedForCompilation", writeProfileVerification.hasProfileEnqueuedForCompilation());
+        return jSObject;
+    }
+}
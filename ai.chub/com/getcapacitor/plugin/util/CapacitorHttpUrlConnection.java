@@ -1,5 +1,8 @@
 package com.getcapacitor.plugin.util;
 
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
 import android.os.Build;
 import android.os.LocaleList;
 import android.text.TextUtils;
@@ -10,13 +13,17 @@ import com.getcapacitor.JSObject;
 import com.getcapacitor.JSValue;
 import com.getcapacitor.PluginCall;
 import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.ProtocolException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Iterator;
 import java.util.List;
@@ -29,7 +36,16 @@ import org.json.JSONException;
 import org.json.JSONObject;
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public class CapacitorHttpUrlConnection implements ICapacitorHttpUrlConnection {
+    private static final int UPLOAD_BUFFER_SIZE = 8192;
+    private static final long UPLOAD_PROGRESS_STEP = 65536;
     private final HttpURLConnection connection;
+    private Context context;
+    private ProgressListener progressListener;
+
+    /** Receives upload progress: {@code j} bytes sent of {@code j2}, or of -1 when the length isn't known up front. */
+    public interface ProgressListener {
+        void onProgress(long j, long j2);
+    }
 
     public CapacitorHttpUrlConnection(HttpURLConnection httpURLConnection) {
         this.connection = httpURLConnection;
@@ -82,6 +98,14 @@ public class CapacitorHttpUrlConnection implements ICapacitorHttpUrlConnection {
         this.connection.setDoOutput(z);
     }
 
+    public void setContext(Context context) {
+        this.context = context;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
     public void setRequestBody(PluginCall pluginCall, JSValue jSValue) throws JSONException, IOException {
         setRequestBody(pluginCall, jSValue, null);
     }
@@ -111,21 +135,16 @@ public class CapacitorHttpUrlConnection implements ICapacitorHttpUrlConnection {
             }
             writeRequestBody(str3);
         } else if (str != null && str.equals("file")) {
-            DataOutputStream dataOutputStream = new DataOutputStream(this.connection.getOutputStream());
-            try {
-                if (Build.VERSION.SDK_INT >= 26) {
-                    dataOutputStream.write(Base64.getDecoder().decode(jSValue.toString()));
-                }
-                dataOutputStream.flush();
-                dataOutputStream.close();
-            } catch (Throwable th) {
-                try {
-                    dataOutputStream.close();
-                } catch (Throwable th2) {
-                    th.addSuppressed(th2);
-                }
-                throw th;
+            String jSValue2 = jSValue.toString();
+            if (isFileReference(jSValue2)) {
+                writeFileRequestBody(jSValue2, pluginCall.getLong("uploadOffset", 0L).longValue());
+                return;
+            }
+            ArrayList arrayList = new ArrayList();
+            if (Build.VERSION.SDK_INT >= 26) {
+                arrayList.add(Base64.getDecoder().decode(jSValue2));
             }
+            writeStreamingBody(arrayList);
         } else if (requestProperty.contains(ShareTarget.ENCODING_TYPE_URL_ENCODED)) {
             try {
                 writeObjectRequestBody(jSValue.toJSObject());
@@ -182,49 +201,225 @@ public class CapacitorHttpUrlConnection implements ICapacitorHttpUrlConnection {
     }
 
     private void writeFormDataRequestBody(String str, JSArray jSArray) throws IOException, JSONException {
-        DataOutputStream dataOutputStream = new DataOutputStream(this.connection.getOutputStream());
+        String str2 = str.split(";")[1].split("=")[1];
+        ArrayList arrayList = new ArrayList();
+        for (Object obj : jSArray.toList()) {
+            if (obj instanceof JSONObject) {
+                JSONObject jSONObject = (JSONObject) obj;
+                String string = jSONObject.getString("type");
+                String string2 = jSONObject.getString("key");
+                String string3 = jSONObject.getString("value");
+                if (string.equals("string")) {
+                    arrayList.add(asciiBytes("--" + str2 + "\r\n"));
+                    arrayList.add(asciiBytes("Content-Disposition: form-data; name=\"" + string2 + "\"\r\n\r\n"));
+                    arrayList.add(asciiBytes(string3));
+                    arrayList.add(asciiBytes("\r\n"));
+                } else if (string.equals("base64File") || string.equals("file")) {
+                    String string4 = jSONObject.getString("fileName");
+                    String string5 = jSONObject.getString("contentType");
+                    arrayList.add(asciiBytes("--" + str2 + "\r\n"));
+                    arrayList.add(asciiBytes("Content-Disposition: form-data; name=\"" + string2 + "\"; filename=\"" + string4 + "\"\r\n"));
+                    arrayList.add(asciiBytes("Content-Type: " + string5 + "\r\n"));
+                    arrayList.add(asciiBytes("Content-Transfer-Encoding: binary\r\n"));
+                    arrayList.add(asciiBytes("\r\n"));
+                    if (string.equals("file")) {
+                        checkFileReference(string3);
+                        arrayList.add(string3);
+                    } else if (Build.VERSION.SDK_INT >= 26) {
+                        arrayList.add(Base64.getDecoder().decode(string3));
+                    }
+                    arrayList.add(asciiBytes("\r\n"));
+                }
+            }
+        }
+        arrayList.add(asciiBytes("--" + str2 + "--\r\n"));
+        writeStreamingBody(arrayList);
+    }
+
+    /**
+     * Sends a file body starting at {@code j}. A non-zero offset resumes an earlier upload and is
+     * announced with a {@code Content-Range} header; the server must accept partial bodies.
+     */
+    private void writeFileRequestBody(String str, long j) throws IOException {
+        checkFileReference(str);
+        long fileLength = fileLength(str);
+        if (j > 0) {
+            if (fileLength < 0 || j >= fileLength) {
+                throw new IOException("Cannot resume upload of " + str + " at offset " + j);
+            }
+            this.connection.setRequestProperty("Content-Range", "bytes " + j + "-" + (fileLength - 1) + "/" + fileLength);
+        }
+        ArrayList arrayList = new ArrayList();
+        arrayList.add(str);
+        writeStreamingBody(arrayList, j);
+    }
+
+    private void writeStreamingBody(List<Object> list) throws IOException {
+        writeStreamingBody(list, 0L);
+    }
+
+    /**
+     * Streams {@code list} as the request body. Each element is either a {@code byte[]} or a file
+     * reference that is copied from disk in small chunks. When every length is known the body is sent
+     * in fixed-length mode, otherwise chunked, so {@link HttpURLConnection} never buffers it whole.
+     */
+    private void writeStreamingBody(List<Object> list, long j) throws IOException {
+        long j2 = -j;
+        for (Object obj : list) {
+            if (obj instanceof byte[]) {
+                j2 += ((byte[]) obj).length;
+            } else {
+                long fileLength = fileLength((String) obj);
+                if (fileLength < 0) {
+                    j2 = -1;
+                    break;
+                }
+                j2 += fileLength;
+            }
+        }
+        if (j2 >= 0) {
+            this.connection.setFixedLengthStreamingMode(j2);
+        } else {
+            this.connection.setChunkedStreamingMode(0);
+        }
+        byte[] bArr = new byte[UPLOAD_BUFFER_SIZE];
+        long j3 = 0;
+        long j4 = 0;
+        OutputStream outputStream = this.connection.getOutputStream();
         try {
-            String str2 = str.split(";")[1].split("=")[1];
-            for (Object obj : jSArray.toList()) {
-                if (obj instanceof JSONObject) {
-                    JSONObject jSONObject = (JSONObject) obj;
-                    String string = jSONObject.getString("type");
-                    String string2 = jSONObject.getString("key");
-                    String string3 = jSONObject.getString("value");
-                    if (string.equals("string")) {
-                        dataOutputStream.writeBytes("--" + str2 + "\r\n");
-                        dataOutputStream.writeBytes("Content-Disposition: form-data; name=\"" + string2 + "\"\r\n\r\n");
-                        dataOutputStream.writeBytes(string3);
-                        dataOutputStream.writeBytes("\r\n");
-                    } else if (string.equals("base64File")) {
-                        String string4 = jSONObject.getString("fileName");
-                        String string5 = jSONObject.getString("contentType");
-                        dataOutputStream.writeBytes("--" + str2 + "\r\n");
-                        dataOutputStream.writeBytes("Content-Disposition: form-data; name=\"" + string2 + "\"; filename=\"" + string4 + "\"\r\n");
-                        StringBuilder sb = new StringBuilder();
-                        sb.append("Content-Type: ");
-                        sb.append(string5);
-                        sb.append("\r\n");
-                        dataOutputStream.writeBytes(sb.toString());
-                        dataOutputStream.writeBytes("Content-Transfer-Encoding: binary\r\n");
-                        dataOutputStream.writeBytes("\r\n");
-                        if (Build.VERSION.SDK_INT >= 26) {
-                            dataOutputStream.write(Base64.getDecoder().decode(string3));
+            for (Object obj2 : list) {
+                if (obj2 instanceof byte[]) {
+                    byte[] bArr2 = (byte[]) obj2;
+                    outputStream.write(bArr2);
+                    j3 += bArr2.length;
+                } else {
+                    InputStream openFile = openFile((String) obj2);
+                    try {
+                        long j5 = j;
+                        while (j5 > 0) {
+                            long skip = openFile.skip(j5);
+                            if (skip <= 0) {
+                                throw new IOException("Cannot skip to offset " + j + " of " + obj2);
+                            }
+                            j5 -= skip;
                         }
-                        dataOutputStream.writeBytes("\r\n");
+                        while (true) {
+                            int read = openFile.read(bArr);
+                            if (read == -1) {
+                                break;
+                            }
+                            outputStream.write(bArr, 0, read);
+                            j3 += read;
+                            if (this.progressListener != null && j3 - j4 >= UPLOAD_PROGRESS_STEP) {
+                                this.progressListener.onProgress(j3, j2);
+                                j4 = j3;
+                            }
+                        }
+                        openFile.close();
+                    } catch (Throwable th) {
+                        try {
+                            openFile.close();
+                        } catch (Throwable th2) {
+                            th.addSuppressed(th2);
+                        }
+                        throw th;
                     }
                 }
+                if (this.progressListener != null && j3 - j4 >= UPLOAD_PROGRESS_STEP) {
+                    this.progressListener.onProgress(j3, j2);
+                    j4 = j3;
+                }
             }
-            dataOutputStream.writeBytes("--" + str2 + "--\r\n");
-            dataOutputStream.flush();
-            dataOutputStream.close();
-        } catch (Throwable th) {
+            outputStream.flush();
+            outputStream.close();
+            if (this.progressListener != null) {
+                this.progressListener.onProgress(j3, j2);
+            }
+        } catch (Throwable th3) {
             try {
-                dataOutputStream.close();
-            } catch (Throwable th2) {
-                th.addSuppressed(th2);
+                outputStream.close();
+            } catch (Throwable th4) {
+                th3.addSuppressed(th4);
             }
-            throw th;
+            throw th3;
+        }
+    }
+
+    private static byte[] asciiBytes(String str) {
+        return str.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Base64 never contains ':', so a scheme marks the value as a file rather than inline data. */
+    private static boolean isFileReference(String str) {
+        return str.startsWith("file://") || str.startsWith("content://");
+    }
+
+    /**
+     * Rejects file references the web content must not upload. Pages loaded in the WebView can reach this
+     * plugin, so only {@code content://} URIs and files inside the app's cache or external files directories
+     * are accepted; anything else, such as shared preferences or databases, fails the call.
+     */
+    private void checkFileReference(String str) throws IOException {
+        if (!isFileReference(str)) {
+            throw new IOException("File parts must be a file:// or content:// reference");
+        }
+        if ("file".equals(Uri.parse(str).getScheme())) {
+            resolveFile(str);
+        }
+    }
+
+    /** Returns the canonical file behind the {@code file://} reference {@code str} if it may be uploaded. */
+    private File resolveFile(String str) throws IOException {
+        String path = Uri.parse(str).getPath();
+        if (path == null || this.context == null) {
+            throw new IOException("Unable to open " + str);
+        }
+        File canonicalFile = new File(path).getCanonicalFile();
+        String path2 = canonicalFile.getPath();
+        for (File file : new File[]{this.context.getCacheDir(), this.context.getExternalCacheDir(), this.context.getExternalFilesDir(null)}) {
+            if (file != null && path2.startsWith(file.getCanonicalPath() + File.separator)) {
+                return canonicalFile;
+            }
+        }
+        throw new IOException("Uploads are limited to content:// URIs and the app's cache and external files directories: " + str);
+    }
+
+    private InputStream openFile(String str) throws IOException {
+        Uri parse = Uri.parse(str);
+        if ("file".equals(parse.getScheme())) {
+            return new FileInputStream(resolveFile(str));
+        }
+        if (!"content".equals(parse.getScheme()) || this.context == null) {
+            throw new IOException("Unable to open " + str);
+        }
+        InputStream openInputStream = this.context.getContentResolver().openInputStream(parse);
+        if (openInputStream == null) {
+            throw new IOException("Unable to open " + str);
+        }
+        return openInputStream;
+    }
+
+    /** Returns the length of the file behind {@code str}, or -1 if the provider doesn't report one. */
+    private long fileLength(String str) throws IOException {
+        Uri parse = Uri.parse(str);
+        if ("file".equals(parse.getScheme())) {
+            File file = resolveFile(str);
+            if (file.isFile()) {
+                return file.length();
+            }
+            throw new IOException("File not found: " + str);
+        }
+        if (this.context == null) {
+            return -1L;
+        }
+        AssetFileDescriptor openAssetFileDescriptor = this.context.getContentResolver().openAssetFileDescriptor(parse, "r");
+        if (openAssetFileDescriptor == null) {
+            return -1L;
+        }
+        try {
+            return openAssetFileDescriptor.getLength();
+        } finally {
+            openAssetFileDescriptor.close();
         }
     }
 
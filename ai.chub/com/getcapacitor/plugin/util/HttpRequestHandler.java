@@ -380,6 +380,10 @@ public class HttpRequestHandler {
     }
 
     public static JSObject request(PluginCall pluginCall, String str, Bridge bridge) throws IOException, URISyntaxException, JSONException {
+        return request(pluginCall, str, bridge, null);
+    }
+
+    public static JSObject request(PluginCall pluginCall, String str, Bridge bridge, CapacitorHttpUrlConnection.ProgressListener progressListener) throws IOException, URISyntaxException, JSONException {
         String string = pluginCall.getString(ImagesContract.URL, HttpUrl.FRAGMENT_ENCODE_SET);
         JSObject object = pluginCall.getObject("headers", new JSObject());
         JSObject object2 = pluginCall.getObject("params", new JSObject());
@@ -399,6 +403,10 @@ public class HttpRequestHandler {
         if (bridge != null && !isDomainExcludedFromSSL(bridge, url).booleanValue()) {
             build.setSSLSocketFactory(bridge);
         }
+        if (bridge != null) {
+            build.setContext(bridge.getContext());
+        }
+        build.setProgressListener(progressListener);
         if (z) {
             JSValue jSValue = new JSValue(pluginCall, "data");
             if (jSValue.getValue() != null) {
@@ -0,0 +1,47 @@
+package kotlinx.coroutines.debug.internal;
+
+/**
+ * One state change of a sampled coroutine, kept in the bounded ring that {@link DebugProbesImpl}
+ * fills while sampling. {@code index} orders transitions across all coroutines.
+ */
+public final class CoroutineStateTransition {
+    public static final String COMPLETED = "COMPLETED";
+    private final long index;
+    private final long sequenceNumber;
+    private final String state;
+    private final String threadName;
+    private final long timeNanos;
+
+    public CoroutineStateTransition(long j, long j2, String str, String str2, long j3) {
+        this.index = j;
+        this.sequenceNumber = j2;
+        this.state = str;
+        this.threadName = str2;
+        this.timeNanos = j3;
+    }
+
+    public final long getIndex() {
+        return this.index;
+    }
+
+    public final long getSequenceNumber() {
+        return this.sequenceNumber;
+    }
+
+    public final String getState() {
+        return this.state;
+    }
+
+    public final String getThreadName() {
+        return this.threadName;
+    }
+
+    /** The {@link System#nanoTime()} of the transition. */
+    public final long getTimeNanos() {
+        return this.timeNanos;
+    }
+
+    public String toString() {
+        return "CoroutineStateTransition(index=" + this.index + ", sequenceNumber=" + this.sequenceNumber + ", state=" + this.state + ", thread=" + this.threadName + ", timeNanos=" + this.timeNanos + ')';
+    }
+}
@@ -10,7 +10,10 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import kotlin.KotlinVersion;
 import kotlin.Metadata;
@@ -61,8 +64,12 @@ public final class DebugProbesImpl {
     private static final Function1<Boolean, Unit> dynamicAttach;
     private static boolean enableCreationStackTraces;
     private static volatile int installations;
+    private static boolean sampledCreationStackTraces;
+    private static volatile int samplingRate;
     private static boolean sanitizeStackTraces;
     private static final /* synthetic */ AtomicLongFieldUpdater sequenceNumber$FU;
+    private static final AtomicLong transitionCount;
+    private static volatile AtomicReferenceArray<CoroutineStateTransition> transitions;
     private static Thread weakRefCleanerThread;
 
     private static /* synthetic */ void getDebugString$annotations(Job job) {
@@ -89,6 +96,7 @@ public final class DebugProbesImpl {
         enableCreationStackTraces = true;
         dynamicAttach = debugProbesImpl.getDynamicAttach();
         callerInfoCache = new ConcurrentWeakMap<>(true);
+        transitionCount = new AtomicLong();
         sequenceNumber$FU = AtomicLongFieldUpdater.newUpdater(SequenceNumberRefVolatile.class, "sequenceNumber");
     }
 
@@ -116,6 +124,42 @@ public final class DebugProbesImpl {
         enableCreationStackTraces = z;
     }
 
+    /** Returns the rate given to {@link #enableSampling}, or 0 when every coroutine is probed. */
+    public final int getSamplingRate() {
+        return samplingRate;
+    }
+
+    public final boolean getSampledCreationStackTraces() {
+        return sampledCreationStackTraces;
+    }
+
+    public final void setSampledCreationStackTraces(boolean z) {
+        sampledCreationStackTraces = z;
+    }
+
+    /**
+     * Probes one coroutine in {@code i}, picked at creation, and keeps the last {@code i2} state changes of
+     * the sampled ones (rounded up to a power of two) for {@link #recentTransitions()}. A coroutine that is
+     * not picked costs a random draw when created and a walk up its frames when resumed, with no lock and
+     * no map. Sampled coroutines only capture a creation stack trace when
+     * {@link #getSampledCreationStackTraces()} is set. Coroutines probed before the call stay tracked.
+     */
+    public final void enableSampling(int i, int i2) {
+        if (!(i >= 1)) {
+            throw new IllegalArgumentException(("Sampling rate should be positive, but was " + i).toString());
+        }
+        if (!(i2 >= 1 && i2 <= 1073741824)) {
+            throw new IllegalArgumentException(("Transition buffer size should be in [1, 2^30], but was " + i2).toString());
+        }
+        transitions = new AtomicReferenceArray<>(i2 == 1 ? 1 : Integer.highestOneBit(i2 - 1) << 1);
+        samplingRate = i;
+    }
+
+    public final void disableSampling() {
+        samplingRate = 0;
+        transitions = null;
+    }
+
     private final Function1<Boolean, Unit> getDynamicAttach() {
         Object m115constructorimpl;
         Object newInstance;
@@ -612,6 +656,14 @@ public final class DebugProbesImpl {
 
     private final void updateState(Continuation<?> continuation, String str) {
         if (isInstalled$kotlinx_coroutines_core()) {
+            if (samplingRate != 0) {
+                CoroutineOwner<?> owner = owner(continuation);
+                if (owner == null) {
+                    return;
+                }
+                updateSampledState(owner, continuation, str);
+                return;
+            }
             if (Intrinsics.areEqual(str, DebugCoroutineInfoImplKt.RUNNING) && KotlinVersion.CURRENT.isAtLeast(1, 3, 30)) {
                 CoroutineStackFrame coroutineStackFrame = continuation instanceof CoroutineStackFrame ? (CoroutineStackFrame) continuation : null;
                 if (coroutineStackFrame == null) {
@@ -683,6 +735,82 @@ public final class DebugProbesImpl {
         }
     }
 
+    private final void updateSampledState(CoroutineOwner<?> coroutineOwner, Continuation<?> continuation, String str) {
+        ReentrantReadWriteLock.ReadLock readLock = coroutineStateLock.readLock();
+        readLock.lock();
+        try {
+            DebugProbesImpl debugProbesImpl = INSTANCE;
+            if (debugProbesImpl.isInstalled$kotlinx_coroutines_core()) {
+                DebugCoroutineInfoImpl debugCoroutineInfoImpl = coroutineOwner.info;
+                String state = debugCoroutineInfoImpl.getState();
+                debugCoroutineInfoImpl.updateState$kotlinx_coroutines_core(str, continuation);
+                if (!Intrinsics.areEqual(state, str)) {
+                    debugProbesImpl.recordTransition(debugCoroutineInfoImpl, str);
+                }
+                Unit unit = Unit.INSTANCE;
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private final void recordTransition(DebugCoroutineInfoImpl debugCoroutineInfoImpl, String str) {
+        AtomicReferenceArray<CoroutineStateTransition> atomicReferenceArray = transitions;
+        if (atomicReferenceArray == null) {
+            return;
+        }
+        long andIncrement = transitionCount.getAndIncrement();
+        atomicReferenceArray.lazySet(((int) andIncrement) & (atomicReferenceArray.length() - 1), new CoroutineStateTransition(andIncrement, debugCoroutineInfoImpl.sequenceNumber, str, Thread.currentThread().getName(), System.nanoTime()));
+    }
+
+    /** Returns the state changes kept since {@link #enableSampling} was called, oldest first. */
+    public final List<CoroutineStateTransition> recentTransitions() {
+        AtomicReferenceArray<CoroutineStateTransition> atomicReferenceArray = transitions;
+        if (atomicReferenceArray == null) {
+            return CollectionsKt.emptyList();
+        }
+        int length = atomicReferenceArray.length();
+        ArrayList arrayList = new ArrayList(length);
+        for (int i = 0; i < length; i++) {
+            CoroutineStateTransition coroutineStateTransition = atomicReferenceArray.get(i);
+            if (coroutineStateTransition != null) {
+                arrayList.add(coroutineStateTransition);
+            }
+        }
+        return CollectionsKt.sortedWith(arrayList, new Comparator() { // from class: kotlinx.coroutines.debug.internal.DebugProbesImpl$recentTransitions$$inlined$sortedBy$1
+            @Override // java.util.Comparator
+            public final int compare(Object obj, Object obj2) {
+                return ComparisonsKt.compareValues(Long.valueOf(((CoroutineStateTransition) obj).getIndex()), Long.valueOf(((CoroutineStateTransition) obj2).getIndex()));
+            }
+        });
+    }
+
+    /**
+     * Like {@link #dumpCoroutinesInfo()}, but holds only the read lock, so running coroutines are not held
+     * up while it copies the tracked set, and leaves the result unsorted. Meant for the small set kept while
+     * sampling.
+     */
+    public final List<DebugCoroutineInfo> dumpSampledCoroutinesInfo() {
+        ReentrantReadWriteLock.ReadLock readLock = coroutineStateLock.readLock();
+        readLock.lock();
+        try {
+            DebugProbesImpl debugProbesImpl = INSTANCE;
+            if (!debugProbesImpl.isInstalled$kotlinx_coroutines_core()) {
+                throw new IllegalStateException("Debug probes are not installed".toString());
+            }
+            ArrayList arrayList = new ArrayList();
+            for (CoroutineOwner<?> coroutineOwner : CollectionsKt.toList(debugProbesImpl.getCapturedCoroutines())) {
+                CoroutineContext context = coroutineOwner.info.getContext();
+                if (!debugProbesImpl.isFinished(coroutineOwner) && context != null) {
+                    arrayList.add(new DebugCoroutineInfo(coroutineOwner.info, context));
+                }
+            }
+            return arrayList;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     private final CoroutineOwner<?> owner(Continuation<?> continuation) {
         CoroutineStackFrame coroutineStackFrame = continuation instanceof CoroutineStackFrame ? (CoroutineStackFrame) continuation : null;
         if (coroutineStackFrame != null) {
@@ -703,8 +831,15 @@ public final class DebugProbesImpl {
 
     /* JADX WARN: Multi-variable type inference failed */
     public final <T> Continuation<T> probeCoroutineCreated$kotlinx_coroutines_core(Continuation<? super T> continuation) {
-        if (isInstalled$kotlinx_coroutines_core() && owner(continuation) == null) {
-            return createOwner(continuation, enableCreationStackTraces ? toStackTraceFrame(sanitizeStackTrace(new Exception())) : null);
+        if (isInstalled$kotlinx_coroutines_core()) {
+            int i = samplingRate;
+            if (i == 0) {
+                if (owner(continuation) == null) {
+                    return createOwner(continuation, enableCreationStackTraces ? toStackTraceFrame(sanitizeStackTrace(new Exception())) : null);
+                }
+            } else if ((i == 1 || ThreadLocalRandom.current().nextInt(i) == 0) && owner(continuation) == null) {
+                return createOwner(continuation, sampledCreationStackTraces ? toStackTraceFrame(sanitizeStackTrace(new Exception())) : null);
+            }
         }
         return continuation;
     }
@@ -718,6 +853,9 @@ public final class DebugProbesImpl {
             if (!isInstalled$kotlinx_coroutines_core()) {
                 concurrentWeakMap.clear();
             }
+            if (samplingRate != 0) {
+                recordTransition(coroutineOwner.info, DebugCoroutineInfoImplKt.CREATED);
+            }
             return coroutineOwner;
         }
         return continuation;
@@ -727,6 +865,9 @@ public final class DebugProbesImpl {
     public final void probeCoroutineCompleted(CoroutineOwner<?> coroutineOwner) {
         CoroutineStackFrame realCaller;
         capturedCoroutinesMap.remove(coroutineOwner);
+        if (samplingRate != 0) {
+            recordTransition(coroutineOwner.info, CoroutineStateTransition.COMPLETED);
+        }
         CoroutineStackFrame lastObservedFrame$kotlinx_coroutines_core = coroutineOwner.info.getLastObservedFrame$kotlinx_coroutines_core();
         if (lastObservedFrame$kotlinx_coroutines_core == null || (realCaller = realCaller(lastObservedFrame$kotlinx_coroutines_core)) == null) {
             return;
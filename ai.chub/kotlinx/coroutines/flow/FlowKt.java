@@ -118,6 +118,10 @@ public final class FlowKt {
         return FlowKt__BuildersKt.channelFlow(function2);
     }
 
+    public static final <T> Flow<List<T>> chunked(Flow<? extends T> flow, int i, long j) {
+        return FlowKt__DelayKt.chunked(flow, i, j);
+    }
+
     public static final Object collect(Flow<?> flow, Continuation<? super Unit> continuation) {
         return FlowKt__CollectKt.collect(flow, continuation);
     }
@@ -1,5 +1,6 @@
 package kotlinx.coroutines.flow;
 
+import java.util.List;
 import kotlin.Metadata;
 import kotlin.Unit;
 import kotlin.jvm.functions.Function1;
@@ -8,6 +9,7 @@ import kotlinx.coroutines.CoroutineScope;
 import kotlinx.coroutines.DelayKt;
 import kotlinx.coroutines.channels.ProduceKt;
 import kotlinx.coroutines.channels.ReceiveChannel;
+import kotlinx.coroutines.flow.internal.ChannelFlowChunked;
 import kotlinx.coroutines.flow.internal.FlowCoroutineKt;
 import okhttp3.HttpUrl;
 /* compiled from: Delay.kt */
@@ -84,6 +86,23 @@ public final /* synthetic */ class FlowKt__DelayKt {
         return FlowCoroutineKt.scopedFlow(new FlowKt__DelayKt$sample$2(j, flow, null));
     }
 
+    /**
+     * Groups upstream values into lists of at most {@code i} elements, emitting a list once it is full or
+     * {@code j} milliseconds after its first element arrived, whichever comes first. A trailing partial
+     * list is emitted when upstream completes. Upstream runs ahead in a buffer of {@code i} elements; the
+     * lists themselves go through a channel that {@code buffer}, {@code conflate} and {@code flowOn}
+     * applied downstream fuse into.
+     */
+    public static final <T> Flow<List<T>> chunked(Flow<? extends T> flow, int i, long j) {
+        if (!(i > 0)) {
+            throw new IllegalArgumentException(("Expected positive chunk size, but got " + i).toString());
+        }
+        if (!(j > 0)) {
+            throw new IllegalArgumentException(("Expected positive max delay, but got " + j + " ms").toString());
+        }
+        return new ChannelFlowChunked(flow, i, j, null, 0, null, 56, null);
+    }
+
     public static /* synthetic */ ReceiveChannel fixedPeriodTicker$default(CoroutineScope coroutineScope, long j, long j2, int i, Object obj) {
         if ((i & 2) != 0) {
             j2 = j;
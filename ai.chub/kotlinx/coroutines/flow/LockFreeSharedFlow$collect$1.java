@@ -0,0 +1,29 @@
+package kotlinx.coroutines.flow;
+
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.jvm.internal.ContinuationImpl;
+/* JADX INFO: Access modifiers changed from: package-private */
+/* compiled from: LockFreeSharedFlow.kt */
+public final class LockFreeSharedFlow$collect$1 extends ContinuationImpl {
+    Object L$0;
+    Object L$1;
+    Object L$2;
+    Object L$3;
+    int label;
+    /* synthetic */ Object result;
+    final /* synthetic */ LockFreeSharedFlow<T> this$0;
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    /* JADX WARN: 'super' call moved to the top of the method (can break code semantics) */
+    public LockFreeSharedFlow$collect$1(LockFreeSharedFlow<T> lockFreeSharedFlow, Continuation<? super LockFreeSharedFlow$collect$1> continuation) {
+        super(continuation);
+        this.this$0 = lockFreeSharedFlow;
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Object invokeSuspend(Object obj) {
+        this.result = obj;
+        this.label |= Integer.MIN_VALUE;
+        return LockFreeSharedFlow.collect$suspendImpl(this.this$0, null, this);
+    }
+}
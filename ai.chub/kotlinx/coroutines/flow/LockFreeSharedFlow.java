@@ -0,0 +1,555 @@
+package kotlinx.coroutines.flow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import kotlin.Result;
+import kotlin.ResultKt;
+import kotlin.Unit;
+import kotlin.collections.CollectionsKt;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.CoroutineContext;
+import kotlin.coroutines.intrinsics.IntrinsicsKt;
+import kotlin.coroutines.jvm.internal.DebugProbesKt;
+import kotlinx.coroutines.CancellableContinuationImpl;
+import kotlinx.coroutines.CancellableContinuationKt;
+import kotlinx.coroutines.DisposableHandle;
+import kotlinx.coroutines.Job;
+import kotlinx.coroutines.JobKt;
+import kotlinx.coroutines.channels.BufferOverflow;
+import kotlinx.coroutines.flow.internal.FusibleFlow;
+
+/**
+ * A {@link MutableSharedFlow} that takes no lock to emit or collect. Values live in a power-of-two
+ * ring of immutable {@link Node}s tagged with their emission index: emitters claim an index on
+ * {@link #emitted} and every collector follows its own {@link Slot#index} through the ring, so a node
+ * tagged below a collector's index has not been written yet and one tagged above has been overwritten.
+ * A write that finds collectors parked resumes all that can proceed in one pass.
+ *
+ * <p>Replay and {@link BufferOverflow} work as in {@link SharedFlowImpl}. With {@code SUSPEND} an emit
+ * returns once its value is within {@code bufferCapacity} of the slowest collector, and a value is only
+ * written once that overwrites no cell a collector or the replay cache still needs. Values of emitters
+ * still queued behind the slowest collector are past the end of the buffer, so a new collector does not
+ * replay them but receives them once they enter it.
+ */
+public class LockFreeSharedFlow<T> implements MutableSharedFlow<T>, CancellableFlow<T>, FusibleFlow<T> {
+    public static final int MAX_BUFFER_CAPACITY = 65536;
+    private static final Slot[] EMPTY_SLOTS = new Slot[0];
+    private static final /* synthetic */ AtomicLongFieldUpdater emitted$FU = AtomicLongFieldUpdater.newUpdater(LockFreeSharedFlow.class, "emitted");
+    private static final /* synthetic */ AtomicIntegerFieldUpdater parkedCollectors$FU = AtomicIntegerFieldUpdater.newUpdater(LockFreeSharedFlow.class, "parkedCollectors");
+    private static final /* synthetic */ AtomicLongFieldUpdater minCollectorIndex$FU = AtomicLongFieldUpdater.newUpdater(LockFreeSharedFlow.class, "minCollectorIndex");
+    private static final /* synthetic */ AtomicLongFieldUpdater replayFloor$FU = AtomicLongFieldUpdater.newUpdater(LockFreeSharedFlow.class, "replayFloor");
+    private static final /* synthetic */ AtomicReferenceFieldUpdater slots$FU = AtomicReferenceFieldUpdater.newUpdater(LockFreeSharedFlow.class, Slot[].class, "slots");
+    private final int bufferCapacity;
+    private final AtomicReferenceArray<Node> cells;
+    private final ConcurrentLinkedQueue<Emitter> emitters = new ConcurrentLinkedQueue<>();
+    private final int mask;
+    private final BufferOverflow onBufferOverflow;
+    private final int replay;
+    private final MutableStateFlow<Integer> subscriptionCount = StateFlowKt.MutableStateFlow(0);
+    private volatile /* synthetic */ long emitted = 0;
+    private volatile /* synthetic */ long minCollectorIndex = 0;
+    private volatile /* synthetic */ int parkedCollectors = 0;
+    private volatile /* synthetic */ long replayFloor = 0;
+    private volatile /* synthetic */ Slot[] slots = EMPTY_SLOTS;
+
+    /** An emitted value; {@code value} is {@link SharedFlowKt#NO_VALUE} when its emitter was cancelled. */
+    private static final class Node {
+        final long index;
+        final Object value;
+
+        Node(long j, Object obj) {
+            this.index = j;
+            this.value = obj;
+        }
+    }
+
+    /** A collector's cursor: the index of the next value it takes, and its continuation while parked. */
+    private static final class Slot {
+        private static final /* synthetic */ AtomicReferenceFieldUpdater cont$FU = AtomicReferenceFieldUpdater.newUpdater(Slot.class, Object.class, "cont");
+        volatile /* synthetic */ Object cont = null;
+        volatile long index;
+
+        Slot(long j) {
+            this.index = j;
+        }
+    }
+
+    /**
+     * A suspended emit. {@code state} is 0 until its value is written, 1 while it waits to return,
+     * 2 once resumed and 3 when cancelled.
+     */
+    private static final class Emitter implements DisposableHandle {
+        private static final /* synthetic */ AtomicIntegerFieldUpdater state$FU = AtomicIntegerFieldUpdater.newUpdater(Emitter.class, "state");
+        final CancellableContinuationImpl<Unit> cont;
+        final LockFreeSharedFlow<?> flow;
+        final Node node;
+        volatile /* synthetic */ int state;
+
+        Emitter(LockFreeSharedFlow<?> lockFreeSharedFlow, Node node, CancellableContinuationImpl<Unit> cancellableContinuationImpl, int i) {
+            this.flow = lockFreeSharedFlow;
+            this.node = node;
+            this.cont = cancellableContinuationImpl;
+            this.state = i;
+        }
+
+        @Override // kotlinx.coroutines.DisposableHandle
+        public void dispose() {
+            this.flow.cancelEmitter(this);
+        }
+    }
+
+    public LockFreeSharedFlow(int i, int i2, BufferOverflow bufferOverflow) {
+        if (!(i2 <= MAX_BUFFER_CAPACITY)) {
+            throw new IllegalArgumentException(("LockFreeSharedFlow buffers at most 65536 values, but " + i2 + " were requested").toString());
+        }
+        this.replay = i;
+        this.bufferCapacity = i2;
+        this.onBufferOverflow = bufferOverflow;
+        int highestOneBit = Integer.highestOneBit(Math.max(2, i2 * 2) - 1) << 1;
+        this.cells = new AtomicReferenceArray<>(highestOneBit);
+        this.mask = highestOneBit - 1;
+    }
+
+    @Override // kotlinx.coroutines.flow.SharedFlow, kotlinx.coroutines.flow.Flow
+    public Object collect(FlowCollector<? super T> flowCollector, Continuation<?> continuation) {
+        return collect$suspendImpl(this, flowCollector, continuation);
+    }
+
+    @Override // kotlinx.coroutines.flow.MutableSharedFlow, kotlinx.coroutines.flow.FlowCollector
+    public Object emit(T t, Continuation<? super Unit> continuation) {
+        return emit$suspendImpl(this, t, continuation);
+    }
+
+    public static /* synthetic */ Object collect$suspendImpl(LockFreeSharedFlow lockFreeSharedFlow, FlowCollector flowCollector, Continuation continuation) {
+        LockFreeSharedFlow$collect$1 lockFreeSharedFlow$collect$1;
+        Slot slot;
+        Job job;
+        if (continuation instanceof LockFreeSharedFlow$collect$1) {
+            lockFreeSharedFlow$collect$1 = (LockFreeSharedFlow$collect$1) continuation;
+            if ((lockFreeSharedFlow$collect$1.label & Integer.MIN_VALUE) != 0) {
+                lockFreeSharedFlow$collect$1.label -= Integer.MIN_VALUE;
+            } else {
+                lockFreeSharedFlow$collect$1 = new LockFreeSharedFlow$collect$1(lockFreeSharedFlow, continuation);
+            }
+        } else {
+            lockFreeSharedFlow$collect$1 = new LockFreeSharedFlow$collect$1(lockFreeSharedFlow, continuation);
+        }
+        Object obj = lockFreeSharedFlow$collect$1.result;
+        Object coroutine_suspended = IntrinsicsKt.getCOROUTINE_SUSPENDED();
+        int i = lockFreeSharedFlow$collect$1.label;
+        if (i == 0) {
+            ResultKt.throwOnFailure(obj);
+            slot = lockFreeSharedFlow.allocateSlot();
+            job = null;
+        } else if (i == 1 || i == 2 || i == 3) {
+            job = (Job) lockFreeSharedFlow$collect$1.L$3;
+            slot = (Slot) lockFreeSharedFlow$collect$1.L$2;
+            flowCollector = (FlowCollector) lockFreeSharedFlow$collect$1.L$1;
+            lockFreeSharedFlow = (LockFreeSharedFlow) lockFreeSharedFlow$collect$1.L$0;
+        } else {
+            throw new IllegalStateException("call to 'resume' before 'invoke' with coroutine");
+        }
+        try {
+            if (i == 0) {
+                if (flowCollector instanceof SubscribedFlowCollector) {
+                    lockFreeSharedFlow$collect$1.L$0 = lockFreeSharedFlow;
+                    lockFreeSharedFlow$collect$1.L$1 = flowCollector;
+                    lockFreeSharedFlow$collect$1.L$2 = slot;
+                    lockFreeSharedFlow$collect$1.L$3 = null;
+                    lockFreeSharedFlow$collect$1.label = 1;
+                    if (((SubscribedFlowCollector) flowCollector).onSubscription(lockFreeSharedFlow$collect$1) == coroutine_suspended) {
+                        return coroutine_suspended;
+                    }
+                }
+            } else {
+                ResultKt.throwOnFailure(obj);
+            }
+            if (i <= 1) {
+                job = (Job) lockFreeSharedFlow$collect$1.getContext().get(Job.Key);
+            }
+            while (true) {
+                Object tryTakeValue = lockFreeSharedFlow.tryTakeValue(slot);
+                lockFreeSharedFlow$collect$1.L$0 = lockFreeSharedFlow;
+                lockFreeSharedFlow$collect$1.L$1 = flowCollector;
+                lockFreeSharedFlow$collect$1.L$2 = slot;
+                lockFreeSharedFlow$collect$1.L$3 = job;
+                if (tryTakeValue == SharedFlowKt.NO_VALUE) {
+                    lockFreeSharedFlow$collect$1.label = 2;
+                    if (lockFreeSharedFlow.awaitValue(slot, lockFreeSharedFlow$collect$1) == coroutine_suspended) {
+                        return coroutine_suspended;
+                    }
+                } else {
+                    if (job != null) {
+                        JobKt.ensureActive(job);
+                    }
+                    lockFreeSharedFlow$collect$1.label = 3;
+                    if (flowCollector.emit(tryTakeValue, lockFreeSharedFlow$collect$1) == coroutine_suspended) {
+                        return coroutine_suspended;
+                    }
+                }
+            }
+        } catch (Throwable th) {
+            lockFreeSharedFlow.freeSlot(slot);
+            throw th;
+        }
+    }
+
+    static /* synthetic */ Object emit$suspendImpl(LockFreeSharedFlow lockFreeSharedFlow, Object obj, Continuation continuation) {
+        Object emitSuspend;
+        return (!lockFreeSharedFlow.tryEmit(obj) && (emitSuspend = lockFreeSharedFlow.emitSuspend(obj, continuation)) == IntrinsicsKt.getCOROUTINE_SUSPENDED()) ? emitSuspend : Unit.INSTANCE;
+    }
+
+    @Override // kotlinx.coroutines.flow.MutableSharedFlow
+    public boolean tryEmit(T t) {
+        long j;
+        if (this.onBufferOverflow == BufferOverflow.DROP_OLDEST) {
+            j = emitted$FU.getAndIncrement(this);
+        } else {
+            do {
+                j = this.emitted;
+                if (this.slots.length != 0 && j >= this.minCollectorIndex + this.bufferCapacity && j >= scanMinCollectorIndex() + this.bufferCapacity) {
+                    return this.onBufferOverflow == BufferOverflow.DROP_LATEST;
+                }
+            } while (!emitted$FU.compareAndSet(this, j, 1 + j));
+        }
+        place(new Node(j, t));
+        resumeCollectors();
+        return true;
+    }
+
+    /** Claims the next index for a {@code SUSPEND} emit that didn't fit and waits until it does. */
+    private final Object emitSuspend(T t, Continuation<? super Unit> continuation) {
+        int i;
+        Node node = new Node(emitted$FU.getAndIncrement(this), t);
+        long scanMinCollectorIndex = scanMinCollectorIndex();
+        if (node.index < (this.cells.length() + scanMinCollectorIndex) - this.replay) {
+            place(node);
+            resumeCollectors();
+            if (node.index < this.bufferCapacity + scanMinCollectorIndex) {
+                return Unit.INSTANCE;
+            }
+            i = 1;
+        } else {
+            i = 0;
+        }
+        CancellableContinuationImpl cancellableContinuationImpl = new CancellableContinuationImpl(IntrinsicsKt.intercepted(continuation), 1);
+        cancellableContinuationImpl.initCancellability();
+        Emitter emitter = new Emitter(this, node, cancellableContinuationImpl, i);
+        this.emitters.add(emitter);
+        CancellableContinuationKt.disposeOnCancellation(cancellableContinuationImpl, emitter);
+        resumeEmitters();
+        Object result = cancellableContinuationImpl.getResult();
+        if (result == IntrinsicsKt.getCOROUTINE_SUSPENDED()) {
+            DebugProbesKt.probeCoroutineSuspended(continuation);
+        }
+        return result == IntrinsicsKt.getCOROUTINE_SUSPENDED() ? result : Unit.INSTANCE;
+    }
+
+    /** Writes {@code node} to its cell unless a node with the same or a later index is already there. */
+    private final boolean place(Node node) {
+        int i = (int) (node.index & this.mask);
+        Node node2;
+        do {
+            node2 = this.cells.get(i);
+            if (node2 != null && node2.index >= node.index) {
+                return false;
+            }
+        } while (!this.cells.compareAndSet(i, node2, node));
+        return true;
+    }
+
+    /**
+     * Returns the smallest collector index, or the emitted count if that is smaller, and caches it. The
+     * scan repeats until the cached value is confirmed, so some collector still sits at the cached index
+     * and moves on through {@link #tryTakeValue} later.
+     */
+    private final long scanMinCollectorIndex() {
+        long j = -1;
+        while (true) {
+            long j2 = this.emitted;
+            for (Slot slot : this.slots) {
+                long j3 = slot.index;
+                if (j3 < j2) {
+                    j2 = j3;
+                }
+            }
+            if (j2 == j) {
+                return j;
+            }
+            this.minCollectorIndex = j2;
+            j = j2;
+        }
+    }
+
+    /**
+     * Returns the index past the newest buffered value: with {@code SUSPEND} and collectors present this
+     * leaves out the emitters queued behind the slowest collector, like {@code bufferEnd} in
+     * {@link SharedFlowImpl}.
+     */
+    private final long bufferEnd() {
+        long j = this.emitted;
+        if (this.onBufferOverflow != BufferOverflow.SUSPEND || this.slots.length == 0) {
+            return j;
+        }
+        return Math.min(j, scanMinCollectorIndex() + this.bufferCapacity);
+    }
+
+    /** Returns the index a new collector starts at: {@code replay} values before the end of the buffer. */
+    private final long replayIndex() {
+        return Math.max(bufferEnd() - this.replay, this.replayFloor);
+    }
+
+    /**
+     * Writes and resumes the suspended emitters that the collectors' progress allows: a value may be
+     * written once the cell it reuses is behind every collector and the replay cache, and its emitter
+     * returns once it is within {@code bufferCapacity} of the slowest collector.
+     */
+    private final void resumeEmitters() {
+        if (this.emitters.isEmpty()) {
+            return;
+        }
+        long scanMinCollectorIndex = scanMinCollectorIndex();
+        long length = (this.cells.length() + scanMinCollectorIndex) - this.replay;
+        boolean z = false;
+        Iterator<Emitter> it = this.emitters.iterator();
+        while (it.hasNext()) {
+            Emitter next = it.next();
+            long j = next.node.index;
+            int i = next.state;
+            if (i == 0) {
+                if (j < length) {
+                    place(next.node);
+                    z = true;
+                    i = Emitter.state$FU.compareAndSet(next, 0, 1) ? 1 : next.state;
+                }
+            }
+            if (i == 1) {
+                if (j < this.bufferCapacity + scanMinCollectorIndex && Emitter.state$FU.compareAndSet(next, 1, 2)) {
+                    it.remove();
+                    Object tryResume = next.cont.tryResume(Unit.INSTANCE, null);
+                    if (tryResume != null) {
+                        next.cont.completeResume(tryResume);
+                    }
+                }
+            } else if (i == 3) {
+                if (j < length) {
+                    Node node = new Node(j, SharedFlowKt.NO_VALUE);
+                    if (!place(node)) {
+                        this.cells.compareAndSet((int) (j & this.mask), next.node, node);
+                    }
+                    it.remove();
+                    z = true;
+                }
+            } else if (i == 2) {
+                it.remove();
+            }
+        }
+        if (z) {
+            resumeCollectors();
+        }
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public final void cancelEmitter(Emitter emitter) {
+        while (true) {
+            int i = emitter.state;
+            if (i == 0) {
+                if (Emitter.state$FU.compareAndSet(emitter, 0, 3)) {
+                    resumeEmitters();
+                    return;
+                }
+            } else if (i != 1) {
+                return;
+            } else {
+                if (Emitter.state$FU.compareAndSet(emitter, 1, 3)) {
+                    this.cells.compareAndSet((int) (emitter.node.index & this.mask), emitter.node, new Node(emitter.node.index, SharedFlowKt.NO_VALUE));
+                    this.emitters.remove(emitter);
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Whether the collector at {@code slot} would find a value or a gap to skip instead of waiting. */
+    private final boolean isReady(Slot slot) {
+        long j = slot.index;
+        if (this.onBufferOverflow == BufferOverflow.DROP_OLDEST && j < this.emitted - this.bufferCapacity) {
+            return true;
+        }
+        Node node = this.cells.get((int) (j & this.mask));
+        return node != null && node.index >= j;
+    }
+
+    private final Object tryTakeValue(Slot slot) {
+        while (true) {
+            long j = slot.index;
+            if (this.onBufferOverflow == BufferOverflow.DROP_OLDEST) {
+                long j2 = this.emitted - this.bufferCapacity;
+                if (j < j2) {
+                    j = j2;
+                }
+            }
+            Node node = this.cells.get((int) (j & this.mask));
+            if (node == null || node.index < j) {
+                slot.index = j;
+                return SharedFlowKt.NO_VALUE;
+            }
+            if (node.index > j) {
+                slot.index = Math.max(1 + j, this.emitted - this.bufferCapacity);
+            } else {
+                slot.index = 1 + j;
+                if (j <= this.minCollectorIndex) {
+                    resumeEmitters();
+                }
+                if (node.value != SharedFlowKt.NO_VALUE) {
+                    return node.value;
+                }
+            }
+        }
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public final Object awaitValue(Slot slot, Continuation<? super Unit> continuation) {
+        CancellableContinuationImpl cancellableContinuationImpl = new CancellableContinuationImpl(IntrinsicsKt.intercepted(continuation), 1);
+        cancellableContinuationImpl.initCancellability();
+        CancellableContinuationImpl cancellableContinuationImpl2 = cancellableContinuationImpl;
+        parkedCollectors$FU.incrementAndGet(this);
+        slot.cont = cancellableContinuationImpl2;
+        if (isReady(slot) && Slot.cont$FU.compareAndSet(slot, cancellableContinuationImpl2, null)) {
+            parkedCollectors$FU.decrementAndGet(this);
+            Result.Companion companion = Result.Companion;
+            cancellableContinuationImpl2.resumeWith(Result.m115constructorimpl(Unit.INSTANCE));
+        }
+        Object result = cancellableContinuationImpl.getResult();
+        if (result == IntrinsicsKt.getCOROUTINE_SUSPENDED()) {
+            DebugProbesKt.probeCoroutineSuspended(continuation);
+        }
+        return result == IntrinsicsKt.getCOROUTINE_SUSPENDED() ? result : Unit.INSTANCE;
+    }
+
+    /** Resumes, in one pass over the slots, every parked collector that has something to take. */
+    private final void resumeCollectors() {
+        if (this.parkedCollectors == 0) {
+            return;
+        }
+        Continuation[] continuationArr = null;
+        int i = 0;
+        for (Slot slot : this.slots) {
+            Object obj = slot.cont;
+            if (obj != null && isReady(slot) && Slot.cont$FU.compareAndSet(slot, obj, null)) {
+                parkedCollectors$FU.decrementAndGet(this);
+                if (continuationArr == null) {
+                    continuationArr = new Continuation[this.slots.length];
+                } else if (i >= continuationArr.length) {
+                    continuationArr = (Continuation[]) Arrays.copyOf(continuationArr, continuationArr.length * 2);
+                }
+                continuationArr[i] = (Continuation) obj;
+                i++;
+            }
+        }
+        for (int i2 = 0; i2 < i; i2++) {
+            Result.Companion companion = Result.Companion;
+            continuationArr[i2].resumeWith(Result.m115constructorimpl(Unit.INSTANCE));
+        }
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public final Slot allocateSlot() {
+        Slot[] slotArr;
+        Slot[] slotArr2;
+        long j;
+        Slot slot = new Slot(replayIndex());
+        do {
+            slotArr = this.slots;
+            slotArr2 = (Slot[]) Arrays.copyOf(slotArr, slotArr.length + 1);
+            slotArr2[slotArr.length] = slot;
+        } while (!slots$FU.compareAndSet(this, slotArr, slotArr2));
+        long max = replayIndex();
+        slot.index = max;
+        do {
+            j = this.minCollectorIndex;
+            if (j <= max) {
+                break;
+            }
+        } while (!minCollectorIndex$FU.compareAndSet(this, j, max));
+        addSubscriptions(1);
+        return slot;
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public final void freeSlot(Slot slot) {
+        Slot[] slotArr;
+        Slot[] slotArr2;
+        do {
+            slotArr = this.slots;
+            int indexOf = Arrays.asList(slotArr).indexOf(slot);
+            if (indexOf < 0) {
+                return;
+            }
+            slotArr2 = new Slot[slotArr.length - 1];
+            System.arraycopy(slotArr, 0, slotArr2, 0, indexOf);
+            System.arraycopy(slotArr, indexOf + 1, slotArr2, indexOf, slotArr2.length - indexOf);
+        } while (!slots$FU.compareAndSet(this, slotArr, slotArr2));
+        Object obj = slot.cont;
+        if (obj != null && Slot.cont$FU.compareAndSet(slot, obj, null)) {
+            parkedCollectors$FU.decrementAndGet(this);
+        }
+        addSubscriptions(-1);
+        resumeEmitters();
+    }
+
+    private final void addSubscriptions(int i) {
+        Integer value;
+        do {
+            value = this.subscriptionCount.getValue();
+        } while (!this.subscriptionCount.compareAndSet(value, Integer.valueOf(value.intValue() + i)));
+    }
+
+    @Override // kotlinx.coroutines.flow.SharedFlow
+    public List<T> getReplayCache() {
+        long j = bufferEnd();
+        long max = Math.max(j - this.replay, this.replayFloor);
+        if (max >= j) {
+            return CollectionsKt.emptyList();
+        }
+        ArrayList arrayList = new ArrayList((int) (j - max));
+        while (max < j) {
+            Node node = this.cells.get((int) (this.mask & max));
+            if (node != null && node.index == max && node.value != SharedFlowKt.NO_VALUE) {
+                arrayList.add(node.value);
+            }
+            max++;
+        }
+        return arrayList;
+    }
+
+    @Override // kotlinx.coroutines.flow.MutableSharedFlow
+    public StateFlow<Integer> getSubscriptionCount() {
+        return FlowKt.asStateFlow(this.subscriptionCount);
+    }
+
+    @Override // kotlinx.coroutines.flow.MutableSharedFlow
+    public void resetReplayCache() {
+        long j;
+        long j2;
+        do {
+            j = this.replayFloor;
+            j2 = bufferEnd();
+            if (j >= j2) {
+                return;
+            }
+        } while (!replayFloor$FU.compareAndSet(this, j, j2));
+    }
+
+    @Override // kotlinx.coroutines.flow.internal.FusibleFlow
+    public Flow<T> fuse(CoroutineContext coroutineContext, int i, BufferOverflow bufferOverflow) {
+        return SharedFlowKt.fuseSharedFlow(this, coroutineContext, i, bufferOverflow);
+    }
+}
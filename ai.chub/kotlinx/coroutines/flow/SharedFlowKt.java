@@ -57,6 +57,41 @@ public final class SharedFlowKt {
         return new SharedFlowImpl(i, i3, bufferOverflow);
     }
 
+    public static /* synthetic */ MutableSharedFlow LockFreeSharedFlow$default(int i, int i2, BufferOverflow bufferOverflow, int i3, Object obj) {
+        if ((i3 & 1) != 0) {
+            i = 0;
+        }
+        if ((i3 & 2) != 0) {
+            i2 = 0;
+        }
+        if ((i3 & 4) != 0) {
+            bufferOverflow = BufferOverflow.SUSPEND;
+        }
+        return LockFreeSharedFlow(i, i2, bufferOverflow);
+    }
+
+    /** Like {@link #MutableSharedFlow} but lock-free; see {@link LockFreeSharedFlow}. */
+    public static final <T> MutableSharedFlow<T> LockFreeSharedFlow(int i, int i2, BufferOverflow bufferOverflow) {
+        boolean z = true;
+        if (!(i >= 0)) {
+            throw new IllegalArgumentException(("replay cannot be negative, but was " + i).toString());
+        }
+        if (!(i2 >= 0)) {
+            throw new IllegalArgumentException(("extraBufferCapacity cannot be negative, but was " + i2).toString());
+        }
+        if (i <= 0 && i2 <= 0 && bufferOverflow != BufferOverflow.SUSPEND) {
+            z = false;
+        }
+        if (!z) {
+            throw new IllegalArgumentException(("replay or extraBufferCapacity must be positive with non-default onBufferOverflow strategy " + bufferOverflow).toString());
+        }
+        int i3 = i2 + i;
+        if (i3 < 0) {
+            i3 = Integer.MAX_VALUE;
+        }
+        return new LockFreeSharedFlow(i, i3, bufferOverflow);
+    }
+
     /* JADX INFO: Access modifiers changed from: private */
     public static final Object getBufferAt(Object[] objArr, long j) {
         return objArr[(objArr.length - 1) & ((int) j)];
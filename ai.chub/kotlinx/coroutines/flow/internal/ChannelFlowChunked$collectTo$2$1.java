@@ -0,0 +1,46 @@
+package kotlinx.coroutines.flow.internal;
+
+import kotlin.ResultKt;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.intrinsics.IntrinsicsKt;
+import kotlin.coroutines.jvm.internal.SuspendLambda;
+import kotlin.jvm.functions.Function2;
+import kotlinx.coroutines.channels.ChannelResult;
+/* compiled from: Chunked.kt */
+final class ChannelFlowChunked$collectTo$2$1<T> extends SuspendLambda implements Function2<ChannelResult<? extends T>, Continuation<? super ChannelResult<? extends T>>, Object> {
+    /* synthetic */ Object L$0;
+    int label;
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public ChannelFlowChunked$collectTo$2$1(Continuation<? super ChannelFlowChunked$collectTo$2$1> continuation) {
+        super(2, continuation);
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Continuation<Unit> create(Object obj, Continuation<?> continuation) {
+        ChannelFlowChunked$collectTo$2$1 channelFlowChunked$collectTo$2$1 = new ChannelFlowChunked$collectTo$2$1(continuation);
+        channelFlowChunked$collectTo$2$1.L$0 = obj;
+        return channelFlowChunked$collectTo$2$1;
+    }
+
+    @Override // kotlin.jvm.functions.Function2
+    public /* bridge */ /* synthetic */ Object invoke(ChannelResult<? extends T> channelResult, Continuation<? super ChannelResult<? extends T>> continuation) {
+        return m1842invokeWpGqRn0(channelResult.m1640unboximpl(), continuation);
+    }
+
+    /* renamed from: invoke-WpGqRn0  reason: not valid java name */
+    public final Object m1842invokeWpGqRn0(Object obj, Continuation<? super ChannelResult<? extends T>> continuation) {
+        return ((ChannelFlowChunked$collectTo$2$1) create(ChannelResult.m1628boximpl(obj), continuation)).invokeSuspend(Unit.INSTANCE);
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Object invokeSuspend(Object obj) {
+        IntrinsicsKt.getCOROUTINE_SUSPENDED();
+        if (this.label != 0) {
+            throw new IllegalStateException("call to 'resume' before 'invoke' with coroutine");
+        }
+        ResultKt.throwOnFailure(obj);
+        return ChannelResult.m1628boximpl(((ChannelResult) this.L$0).m1640unboximpl());
+    }
+}
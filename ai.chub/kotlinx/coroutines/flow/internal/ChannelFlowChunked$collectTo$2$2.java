@@ -0,0 +1,38 @@
+package kotlinx.coroutines.flow.internal;
+
+import kotlin.ResultKt;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.intrinsics.IntrinsicsKt;
+import kotlin.coroutines.jvm.internal.SuspendLambda;
+import kotlin.jvm.functions.Function1;
+import kotlinx.coroutines.channels.ChannelResult;
+/* compiled from: Chunked.kt */
+final class ChannelFlowChunked$collectTo$2$2<T> extends SuspendLambda implements Function1<Continuation<? super ChannelResult<? extends T>>, Object> {
+    int label;
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public ChannelFlowChunked$collectTo$2$2(Continuation<? super ChannelFlowChunked$collectTo$2$2> continuation) {
+        super(1, continuation);
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Continuation<Unit> create(Continuation<?> continuation) {
+        return new ChannelFlowChunked$collectTo$2$2(continuation);
+    }
+
+    @Override // kotlin.jvm.functions.Function1
+    public final Object invoke(Continuation<? super ChannelResult<? extends T>> continuation) {
+        return ((ChannelFlowChunked$collectTo$2$2) create(continuation)).invokeSuspend(Unit.INSTANCE);
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Object invokeSuspend(Object obj) {
+        IntrinsicsKt.getCOROUTINE_SUSPENDED();
+        if (this.label != 0) {
+            throw new IllegalStateException("call to 'resume' before 'invoke' with coroutine");
+        }
+        ResultKt.throwOnFailure(obj);
+        return null;
+    }
+}
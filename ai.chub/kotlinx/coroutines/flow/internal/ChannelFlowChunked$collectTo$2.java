@@ -0,0 +1,176 @@
+package kotlinx.coroutines.flow.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import kotlin.ResultKt;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.intrinsics.IntrinsicsKt;
+import kotlin.coroutines.jvm.internal.DebugProbesKt;
+import kotlin.coroutines.jvm.internal.SuspendLambda;
+import kotlin.jvm.functions.Function2;
+import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.channels.BufferOverflow;
+import kotlinx.coroutines.channels.ChannelResult;
+import kotlinx.coroutines.channels.ProducerScope;
+import kotlinx.coroutines.channels.ReceiveChannel;
+import kotlinx.coroutines.flow.FlowKt;
+import kotlinx.coroutines.selects.SelectBuilderImpl;
+/* compiled from: Chunked.kt */
+final class ChannelFlowChunked$collectTo$2<T> extends SuspendLambda implements Function2<CoroutineScope, Continuation<? super Unit>, Object> {
+    final /* synthetic */ ProducerScope<List<T>> $scope;
+    long J$0;
+    private /* synthetic */ Object L$0;
+    Object L$1;
+    Object L$2;
+    int label;
+    final /* synthetic */ ChannelFlowChunked<T> this$0;
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    /* JADX WARN: 'super' call moved to the top of the method (can break code semantics) */
+    /* JADX WARN: Multi-variable type inference failed */
+    public ChannelFlowChunked$collectTo$2(ChannelFlowChunked<T> channelFlowChunked, ProducerScope<? super List<T>> producerScope, Continuation<? super ChannelFlowChunked$collectTo$2> continuation) {
+        super(2, continuation);
+        this.this$0 = channelFlowChunked;
+        this.$scope = producerScope;
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Continuation<Unit> create(Object obj, Continuation<?> continuation) {
+        ChannelFlowChunked$collectTo$2 channelFlowChunked$collectTo$2 = new ChannelFlowChunked$collectTo$2(this.this$0, this.$scope, continuation);
+        channelFlowChunked$collectTo$2.L$0 = obj;
+        return channelFlowChunked$collectTo$2;
+    }
+
+    @Override // kotlin.jvm.functions.Function2
+    public /* bridge */ /* synthetic */ Object invoke(CoroutineScope coroutineScope, Continuation<? super Unit> continuation) {
+        return invoke2(coroutineScope, continuation);
+    }
+
+    /* renamed from: invoke  reason: avoid collision after fix types in other method */
+    public final Object invoke2(CoroutineScope coroutineScope, Continuation<? super Unit> continuation) {
+        return ((ChannelFlowChunked$collectTo$2) create(coroutineScope, continuation)).invokeSuspend(Unit.INSTANCE);
+    }
+
+    @Override // kotlin.coroutines.jvm.internal.BaseContinuationImpl
+    public final Object invokeSuspend(Object obj) {
+        ReceiveChannel receiveChannel;
+        ArrayList arrayList;
+        long j;
+        Object coroutine_suspended = IntrinsicsKt.getCOROUTINE_SUSPENDED();
+        boolean z = false;
+        boolean z2 = false;
+        int i = this.label;
+        if (i == 0) {
+            ResultKt.throwOnFailure(obj);
+            receiveChannel = FlowKt.produceIn(FlowKt.buffer(this.this$0.flow, this.this$0.maxSize, BufferOverflow.SUSPEND), (CoroutineScope) this.L$0);
+            arrayList = this.this$0.newChunk(0);
+            j = Long.MAX_VALUE;
+        } else if (i == 1 || i == 2) {
+            j = this.J$0;
+            arrayList = (ArrayList) this.L$2;
+            receiveChannel = (ReceiveChannel) this.L$1;
+            ResultKt.throwOnFailure(obj);
+            if (obj == null) {
+                z = true;
+            } else {
+                boolean isEmpty = arrayList.isEmpty();
+                if (!this.this$0.offer(arrayList, ((ChannelResult) obj).m1640unboximpl())) {
+                    z2 = true;
+                } else if (isEmpty && !arrayList.isEmpty()) {
+                    j = this.this$0.deadlineNanos();
+                }
+            }
+        } else if (i == 3) {
+            arrayList = (ArrayList) this.L$2;
+            receiveChannel = (ReceiveChannel) this.L$1;
+            ResultKt.throwOnFailure(obj);
+            arrayList = this.this$0.newChunk(arrayList.size());
+            j = Long.MAX_VALUE;
+        } else if (i != 4) {
+            throw new IllegalStateException("call to 'resume' before 'invoke' with coroutine");
+        } else {
+            ResultKt.throwOnFailure(obj);
+            return Unit.INSTANCE;
+        }
+        while (true) {
+            if (!z && !z2) {
+                boolean isEmpty2 = arrayList.isEmpty();
+                if (!this.this$0.drain(receiveChannel, arrayList)) {
+                    z2 = true;
+                } else {
+                    if (isEmpty2 && !arrayList.isEmpty()) {
+                        j = this.this$0.deadlineNanos();
+                    }
+                    if (arrayList.size() < this.this$0.maxSize) {
+                        if (arrayList.isEmpty()) {
+                            this.L$1 = receiveChannel;
+                            this.L$2 = arrayList;
+                            this.J$0 = j;
+                            this.label = 1;
+                            Object mo1621receiveCatchingJP2dKIU = receiveChannel.mo1621receiveCatchingJP2dKIU(this);
+                            if (mo1621receiveCatchingJP2dKIU == coroutine_suspended) {
+                                return coroutine_suspended;
+                            }
+                            if (!this.this$0.offer(arrayList, mo1621receiveCatchingJP2dKIU)) {
+                                z2 = true;
+                            } else if (!arrayList.isEmpty()) {
+                                j = this.this$0.deadlineNanos();
+                            }
+                            continue;
+                        } else {
+                            long remainingMillis = this.this$0.remainingMillis(j);
+                            if (remainingMillis > 0) {
+                                this.L$1 = receiveChannel;
+                                this.L$2 = arrayList;
+                                this.J$0 = j;
+                                this.label = 2;
+                                SelectBuilderImpl selectBuilderImpl = new SelectBuilderImpl(this);
+                                try {
+                                    selectBuilderImpl.invoke(receiveChannel.getOnReceiveCatching(), new ChannelFlowChunked$collectTo$2$1(null));
+                                    selectBuilderImpl.onTimeout(remainingMillis, new ChannelFlowChunked$collectTo$2$2(null));
+                                } catch (Throwable th) {
+                                    selectBuilderImpl.handleBuilderException(th);
+                                }
+                                Object result = selectBuilderImpl.getResult();
+                                if (result == IntrinsicsKt.getCOROUTINE_SUSPENDED()) {
+                                    DebugProbesKt.probeCoroutineSuspended(this);
+                                }
+                                if (result == coroutine_suspended) {
+                                    return coroutine_suspended;
+                                }
+                                if (result != null) {
+                                    if (!this.this$0.offer(arrayList, ((ChannelResult) result).m1640unboximpl())) {
+                                        z2 = true;
+                                    }
+                                    continue;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            z = false;
+            if (z2) {
+                if (arrayList.isEmpty()) {
+                    return Unit.INSTANCE;
+                }
+                this.L$1 = null;
+                this.L$2 = null;
+                this.label = 4;
+                if (this.$scope.send(arrayList, this) == coroutine_suspended) {
+                    return coroutine_suspended;
+                }
+                return Unit.INSTANCE;
+            }
+            this.L$1 = receiveChannel;
+            this.L$2 = arrayList;
+            this.label = 3;
+            if (this.$scope.send(arrayList, this) == coroutine_suspended) {
+                return coroutine_suspended;
+            }
+            arrayList = this.this$0.newChunk(arrayList.size());
+            j = Long.MAX_VALUE;
+        }
+    }
+}
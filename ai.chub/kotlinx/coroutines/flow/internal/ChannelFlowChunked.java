@@ -0,0 +1,108 @@
+package kotlinx.coroutines.flow.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.CoroutineContext;
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlin.coroutines.intrinsics.IntrinsicsKt;
+import kotlin.jvm.internal.DefaultConstructorMarker;
+import kotlinx.coroutines.CoroutineScopeKt;
+import kotlinx.coroutines.channels.BufferOverflow;
+import kotlinx.coroutines.channels.ChannelResult;
+import kotlinx.coroutines.channels.ProducerScope;
+import kotlinx.coroutines.channels.ReceiveChannel;
+import kotlinx.coroutines.flow.Flow;
+import kotlinx.coroutines.internal.StackTraceRecoveryKt;
+/* compiled from: Chunked.kt */
+public final class ChannelFlowChunked<T> extends ChannelFlow<List<T>> {
+    public final Flow<T> flow;
+    public final long maxDelayMillis;
+    public final int maxSize;
+
+    public /* synthetic */ ChannelFlowChunked(Flow flow, int i, long j, CoroutineContext coroutineContext, int i2, BufferOverflow bufferOverflow, int i3, DefaultConstructorMarker defaultConstructorMarker) {
+        this(flow, i, j, (i3 & 8) != 0 ? EmptyCoroutineContext.INSTANCE : coroutineContext, (i3 & 16) != 0 ? -2 : i2, (i3 & 32) != 0 ? BufferOverflow.SUSPEND : bufferOverflow);
+    }
+
+    /* JADX WARN: Multi-variable type inference failed */
+    public ChannelFlowChunked(Flow<? extends T> flow, int i, long j, CoroutineContext coroutineContext, int i2, BufferOverflow bufferOverflow) {
+        super(coroutineContext, i2, bufferOverflow);
+        this.flow = flow;
+        this.maxSize = i;
+        this.maxDelayMillis = j;
+    }
+
+    @Override // kotlinx.coroutines.flow.internal.ChannelFlow
+    protected ChannelFlow<List<T>> create(CoroutineContext coroutineContext, int i, BufferOverflow bufferOverflow) {
+        return new ChannelFlowChunked(this.flow, this.maxSize, this.maxDelayMillis, coroutineContext, i, bufferOverflow);
+    }
+
+    /* JADX INFO: Access modifiers changed from: protected */
+    @Override // kotlinx.coroutines.flow.internal.ChannelFlow
+    public Object collectTo(ProducerScope<? super List<T>> producerScope, Continuation<? super Unit> continuation) {
+        Object coroutineScope = CoroutineScopeKt.coroutineScope(new ChannelFlowChunked$collectTo$2(this, producerScope, null), continuation);
+        return coroutineScope == IntrinsicsKt.getCOROUTINE_SUSPENDED() ? coroutineScope : Unit.INSTANCE;
+    }
+
+    @Override // kotlinx.coroutines.flow.internal.ChannelFlow
+    protected String additionalToStringProps() {
+        return "maxSize=" + this.maxSize + ", maxDelayMillis=" + this.maxDelayMillis;
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public final long deadlineNanos() {
+        long nanoTime = System.nanoTime();
+        long nanos = TimeUnit.MILLISECONDS.toNanos(this.maxDelayMillis) + nanoTime;
+        if (nanos < nanoTime) {
+            return Long.MAX_VALUE;
+        }
+        return nanos;
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public final long remainingMillis(long j) {
+        if (j == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        long nanoTime = j - System.nanoTime();
+        if (nanoTime <= 0) {
+            return 0L;
+        }
+        return ((nanoTime - 1) / 1000000) + 1;
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public final ArrayList<T> newChunk(int i) {
+        return new ArrayList<>(Math.min(this.maxSize, Math.max(i, 10)));
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public final boolean drain(ReceiveChannel<? extends T> receiveChannel, ArrayList<T> arrayList) {
+        while (arrayList.size() < this.maxSize) {
+            Object mo1622tryReceivePtdJZtk = receiveChannel.mo1622tryReceivePtdJZtk();
+            if (!ChannelResult.m1638isSuccessimpl(mo1622tryReceivePtdJZtk)) {
+                return offer(arrayList, mo1622tryReceivePtdJZtk);
+            }
+            arrayList.add((T) ChannelResult.m1634getOrThrowimpl(mo1622tryReceivePtdJZtk));
+        }
+        return true;
+    }
+
+    /* JADX INFO: Access modifiers changed from: package-private */
+    public final boolean offer(ArrayList<T> arrayList, Object obj) {
+        if (ChannelResult.m1638isSuccessimpl(obj)) {
+            arrayList.add((T) ChannelResult.m1634getOrThrowimpl(obj));
+            return true;
+        }
+        if (!ChannelResult.m1636isClosedimpl(obj)) {
+            return true;
+        }
+        Throwable m1632exceptionOrNullimpl = ChannelResult.m1632exceptionOrNullimpl(obj);
+        if (m1632exceptionOrNullimpl != null) {
+            throw StackTraceRecoveryKt.recoverStackTrace(m1632exceptionOrNullimpl);
+        }
+        return false;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.LockSupport;
 import kotlin.Metadata;
@@ -38,14 +39,23 @@ public final class CoroutineScheduler implements Executor, Closeable {
     private static final long PARKED_VERSION_MASK = -2097152;
     private static final int TERMINATED = 1;
     private volatile /* synthetic */ int _isTerminated;
+    private final String blockingSectionName;
     volatile /* synthetic */ long controlState;
     public final int corePoolSize;
+    private final String cpuSectionName;
     public final GlobalQueue globalBlockingQueue;
     public final GlobalQueue globalCpuQueue;
     public final long idleWorkerKeepAliveNs;
     public final int maxPoolSize;
     private volatile /* synthetic */ long parkedWorkersStack;
     public final String schedulerName;
+    private long retiredBlockingTasksExecuted;
+    private long retiredParks;
+    private final long[] retiredQueueingDelays;
+    private long retiredSteals;
+    private long retiredTasksExecuted;
+    private long retiredUnparks;
+    private volatile SchedulerTracer tracer;
     public final ResizableAtomicArray<Worker> workers;
     public static final Companion Companion = new Companion(null);
     public static final Symbol NOT_IN_STACK = new Symbol("NOT_IN_STACK");
@@ -116,6 +126,9 @@ public final class CoroutineScheduler implements Executor, Closeable {
         this.workers = new ResizableAtomicArray<>(i + 1);
         this.controlState = i << 42;
         this._isTerminated = 0;
+        this.retiredQueueingDelays = new long[48];
+        this.cpuSectionName = str + " task";
+        this.blockingSectionName = str + " blocking task";
     }
 
     public /* synthetic */ CoroutineScheduler(int i, int i2, long j, String str, int i3, DefaultConstructorMarker defaultConstructorMarker) {
@@ -353,6 +366,7 @@ public final class CoroutineScheduler implements Executor, Closeable {
                 return false;
             }
         } while (!Worker.workerCtl$FU.compareAndSet(parkedWorkersStackPop, -1, 0));
+        Worker.unparks$FU.incrementAndGet(parkedWorkersStackPop);
         LockSupport.unpark(parkedWorkersStackPop);
         return true;
     }
@@ -449,6 +463,76 @@ public final class CoroutineScheduler implements Executor, Closeable {
         return this.schedulerName + '@' + DebugStringsKt.getHexAddress(this) + "[Pool Size {core = " + this.corePoolSize + ", max = " + this.maxPoolSize + "}, Worker States {CPU = " + i + ", blocking = " + i2 + ", parked = " + i3 + ", dormant = " + i4 + ", terminated = " + i5 + "}, running workers queues = " + arrayList + ", global CPU queue size = " + this.globalCpuQueue.getSize() + ", global blocking queue size = " + this.globalBlockingQueue.getSize() + ", Control State {created workers= " + ((int) (2097151 & j)) + ", blocking tasks = " + ((int) ((BLOCKING_MASK & j) >> 21)) + ", CPUs acquired = " + (this.corePoolSize - ((int) ((CPU_PERMITS_MASK & j) >> 42))) + "}]";
     }
 
+    public final SchedulerTracer getTracer() {
+        return this.tracer;
+    }
+
+    /** Installs {@code schedulerTracer} to receive a trace section around every task, or removes it when {@code null}. */
+    public final void setTracer(SchedulerTracer schedulerTracer) {
+        this.tracer = schedulerTracer;
+    }
+
+    /**
+     * Takes a {@link SchedulerMetrics} snapshot. Workers update their counters without synchronization,
+     * so the snapshot is not atomic across workers, but no counter is ever seen going backwards.
+     */
+    public final SchedulerMetrics metrics() {
+        ArrayList arrayList;
+        long j;
+        long j2;
+        long j3;
+        long j4;
+        long j5;
+        long[] jArr = new long[24];
+        long[] jArr2 = new long[24];
+        synchronized (this.workers) {
+            int currentLength = this.workers.currentLength();
+            arrayList = new ArrayList(currentLength);
+            j = this.retiredTasksExecuted;
+            j2 = this.retiredBlockingTasksExecuted;
+            j3 = this.retiredSteals;
+            j4 = this.retiredParks;
+            j5 = this.retiredUnparks;
+            for (int i = 0; i < 24; i++) {
+                jArr[i] = this.retiredQueueingDelays[i];
+                jArr2[i] = this.retiredQueueingDelays[i + 24];
+            }
+            for (int i2 = 1; i2 < currentLength; i2++) {
+                Worker worker = this.workers.get(i2);
+                if (worker != null) {
+                    SchedulerMetrics.WorkerMetrics workerMetrics = new SchedulerMetrics.WorkerMetrics(i2, worker.state, worker.localQueue.getSize$kotlinx_coroutines_core(), worker.tasksExecuted, worker.blockingTasksExecuted, worker.steals, worker.parks, worker.unparks);
+                    arrayList.add(workerMetrics);
+                    j += workerMetrics.getTasksExecuted();
+                    j2 += workerMetrics.getBlockingTasksExecuted();
+                    j3 += workerMetrics.getSteals();
+                    j4 += workerMetrics.getParks();
+                    j5 += workerMetrics.getUnparks();
+                    AtomicLongArray atomicLongArray = worker.queueingDelays;
+                    for (int i3 = 0; i3 < 24; i3++) {
+                        jArr[i3] = jArr[i3] + atomicLongArray.get(i3);
+                        jArr2[i3] = jArr2[i3] + atomicLongArray.get(i3 + 24);
+                    }
+                }
+            }
+        }
+        long j6 = this.controlState;
+        return new SchedulerMetrics(this.schedulerName, this.corePoolSize, this.maxPoolSize, (int) (j6 & 2097151), (int) ((j6 & CPU_PERMITS_MASK) >> 42), (int) ((j6 & BLOCKING_MASK) >> 21), this.globalCpuQueue.getSize(), this.globalBlockingQueue.getSize(), TasksKt.QUEUEING_DELAY_SAMPLE_RATE, arrayList, new SchedulerMetrics.WorkerMetrics(0, null, 0, j, j2, j3, j4, j5), jArr, jArr2);
+    }
+
+    /** Folds the counters of a terminating worker into the scheduler's; called with {@link #workers} locked. */
+    public final void retireWorkerMetrics(Worker worker) {
+        this.retiredTasksExecuted += worker.tasksExecuted;
+        this.retiredBlockingTasksExecuted += worker.blockingTasksExecuted;
+        this.retiredSteals += worker.steals;
+        this.retiredParks += worker.parks;
+        this.retiredUnparks += worker.unparks;
+        AtomicLongArray atomicLongArray = worker.queueingDelays;
+        for (int i = 0; i < 48; i++) {
+            long[] jArr = this.retiredQueueingDelays;
+            jArr[i] = jArr[i] + atomicLongArray.get(i);
+        }
+    }
+
     public final void runSafely(Task task) {
         try {
             task.run();
@@ -473,19 +557,31 @@ public final class CoroutineScheduler implements Executor, Closeable {
     /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
     public final class Worker extends Thread {
         static final /* synthetic */ AtomicIntegerFieldUpdater workerCtl$FU = AtomicIntegerFieldUpdater.newUpdater(Worker.class, "workerCtl");
+        private static final /* synthetic */ AtomicLongFieldUpdater tasksExecuted$FU = AtomicLongFieldUpdater.newUpdater(Worker.class, "tasksExecuted");
+        private static final /* synthetic */ AtomicLongFieldUpdater blockingTasksExecuted$FU = AtomicLongFieldUpdater.newUpdater(Worker.class, "blockingTasksExecuted");
+        private static final /* synthetic */ AtomicLongFieldUpdater steals$FU = AtomicLongFieldUpdater.newUpdater(Worker.class, "steals");
+        private static final /* synthetic */ AtomicLongFieldUpdater parks$FU = AtomicLongFieldUpdater.newUpdater(Worker.class, "parks");
+        static final /* synthetic */ AtomicLongFieldUpdater unparks$FU = AtomicLongFieldUpdater.newUpdater(Worker.class, "unparks");
+        volatile /* synthetic */ long blockingTasksExecuted;
         private volatile int indexInArray;
         public final WorkQueue localQueue;
         public boolean mayHaveLocalTasks;
         private long minDelayUntilStealableTaskNs;
         private volatile Object nextParkedWorker;
+        volatile /* synthetic */ long parks;
+        public final AtomicLongArray queueingDelays;
         private int rngState;
         public WorkerState state;
+        volatile /* synthetic */ long steals;
+        volatile /* synthetic */ long tasksExecuted;
         private long terminationDeadline;
+        volatile /* synthetic */ long unparks;
         volatile /* synthetic */ int workerCtl;
 
         private Worker() {
             setDaemon(true);
             this.localQueue = new WorkQueue();
+            this.queueingDelays = new AtomicLongArray(48);
             this.state = WorkerState.DORMANT;
             this.workerCtl = 0;
             this.nextParkedWorker = CoroutineScheduler.NOT_IN_STACK;
@@ -579,6 +675,7 @@ public final class CoroutineScheduler implements Executor, Closeable {
                         } else if (z) {
                             tryReleaseCpu(WorkerState.PARKING);
                             Thread.interrupted();
+                            parks$FU.lazySet(this, this.parks + 1);
                             LockSupport.parkNanos(this.minDelayUntilStealableTaskNs);
                             this.minDelayUntilStealableTaskNs = 0L;
                         } else {
@@ -604,6 +701,7 @@ public final class CoroutineScheduler implements Executor, Closeable {
             while (inStack() && this.workerCtl == -1 && !CoroutineScheduler.this.isTerminated() && this.state != WorkerState.TERMINATED) {
                 tryReleaseCpu(WorkerState.PARKING);
                 Thread.interrupted();
+                parks$FU.lazySet(this, this.parks + 1);
                 park();
             }
         }
@@ -669,6 +767,7 @@ public final class CoroutineScheduler implements Executor, Closeable {
                     int i = this.indexInArray;
                     setIndexInArray(0);
                     coroutineScheduler.parkedWorkersStackTopUpdate(this, i, 0);
+                    coroutineScheduler.retireWorkerMetrics(this);
                     int andDecrement = (int) (CoroutineScheduler.controlState$FU.getAndDecrement(coroutineScheduler) & 2097151);
                     if (andDecrement != i) {
                         Worker worker = coroutineScheduler.workers.get(andDecrement);
@@ -778,6 +877,7 @@ public final class CoroutineScheduler implements Executor, Closeable {
                         tryStealFrom = this.localQueue.tryStealFrom(worker.localQueue);
                     }
                     if (tryStealFrom == -1) {
+                        steals$FU.lazySet(this, this.steals + 1);
                         return this.localQueue.poll();
                     }
                     if (tryStealFrom > 0) {
@@ -796,7 +896,31 @@ public final class CoroutineScheduler implements Executor, Closeable {
             int taskMode = task.taskContext.getTaskMode();
             idleReset(taskMode);
             beforeTask(taskMode);
-            CoroutineScheduler.this.runSafely(task);
+            long j = this.tasksExecuted;
+            tasksExecuted$FU.lazySet(this, 1 + j);
+            if (taskMode != 0) {
+                blockingTasksExecuted$FU.lazySet(this, this.blockingTasksExecuted + 1);
+            }
+            int i = TasksKt.QUEUEING_DELAY_SAMPLE_RATE;
+            if (i != 0 && (j & (i - 1)) == 0) {
+                int bucketOf = SchedulerMetrics.bucketOf(TasksKt.schedulerTimeSource.nanoTime() - task.submissionTime);
+                if (taskMode != 0) {
+                    bucketOf += 24;
+                }
+                AtomicLongArray atomicLongArray = this.queueingDelays;
+                atomicLongArray.lazySet(bucketOf, atomicLongArray.get(bucketOf) + 1);
+            }
+            SchedulerTracer schedulerTracer = CoroutineScheduler.this.tracer;
+            if (schedulerTracer == null) {
+                CoroutineScheduler.this.runSafely(task);
+            } else {
+                schedulerTracer.beginSection(taskMode == 0 ? CoroutineScheduler.this.cpuSectionName : CoroutineScheduler.this.blockingSectionName);
+                try {
+                    CoroutineScheduler.this.runSafely(task);
+                } finally {
+                    schedulerTracer.endSection();
+                }
+            }
             afterTask(taskMode);
         }
     }
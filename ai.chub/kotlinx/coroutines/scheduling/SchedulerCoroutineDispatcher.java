@@ -52,6 +52,16 @@ public class SchedulerCoroutineDispatcher extends ExecutorCoroutineDispatcher {
         CoroutineScheduler.dispatch$default(this.coroutineScheduler, runnable, null, true, 2, null);
     }
 
+    /** Takes a {@link SchedulerMetrics} snapshot of the underlying scheduler; see {@link CoroutineScheduler#metrics()}. */
+    public final SchedulerMetrics getMetrics() {
+        return this.coroutineScheduler.metrics();
+    }
+
+    /** Installs a tracer on the underlying scheduler; see {@link CoroutineScheduler#setTracer(SchedulerTracer)}. */
+    public final void setTracer(SchedulerTracer schedulerTracer) {
+        this.coroutineScheduler.setTracer(schedulerTracer);
+    }
+
     public final void dispatchWithContext$kotlinx_coroutines_core(Runnable runnable, TaskContext taskContext, boolean z) {
         this.coroutineScheduler.dispatch(runnable, taskContext, z);
     }
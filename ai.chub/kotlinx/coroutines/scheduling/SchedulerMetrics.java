@@ -0,0 +1,212 @@
+package kotlinx.coroutines.scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of a {@link CoroutineScheduler}, taken by {@link CoroutineScheduler#metrics()}.
+ * Counters are cumulative since the scheduler started and include workers that have since terminated.
+ *
+ * <p>Queueing delay is the time from dispatch until a worker starts the task, recorded for one task in
+ * {@link #getSampleRate()} per worker into log2 buckets: bucket 0 holds delays under 1024 ns and bucket
+ * {@code k} those below {@link #bucketUpperBoundNs(int)}. CPU and blocking tasks are kept apart, so a
+ * growing blocking delay points at a saturated {@code Dispatchers.IO} and a growing CPU delay at
+ * starved CPU work.
+ */
+public final class SchedulerMetrics {
+    public static final int DELAY_BUCKETS = 24;
+    private final int availableCpuPermits;
+    private final int blockingTasks;
+    private final long[] blockingQueueingDelays;
+    private final int corePoolSize;
+    private final long[] cpuQueueingDelays;
+    private final int createdWorkers;
+    private final int globalBlockingQueueSize;
+    private final int globalCpuQueueSize;
+    private final int maxPoolSize;
+    private final int sampleRate;
+    private final String schedulerName;
+    private final WorkerMetrics totals;
+    private final List<WorkerMetrics> workers;
+
+    /** Counters of one worker, or the totals over all workers when {@code index} is 0. */
+    public static final class WorkerMetrics {
+        private final long blockingTasksExecuted;
+        private final int index;
+        private final int localQueueSize;
+        private final long parks;
+        private final CoroutineScheduler.WorkerState state;
+        private final long steals;
+        private final long tasksExecuted;
+        private final long unparks;
+
+        public WorkerMetrics(int i, CoroutineScheduler.WorkerState workerState, int i2, long j, long j2, long j3, long j4, long j5) {
+            this.index = i;
+            this.state = workerState;
+            this.localQueueSize = i2;
+            this.tasksExecuted = j;
+            this.blockingTasksExecuted = j2;
+            this.steals = j3;
+            this.parks = j4;
+            this.unparks = j5;
+        }
+
+        public final int getIndex() {
+            return this.index;
+        }
+
+        public final CoroutineScheduler.WorkerState getState() {
+            return this.state;
+        }
+
+        public final int getLocalQueueSize() {
+            return this.localQueueSize;
+        }
+
+        public final long getTasksExecuted() {
+            return this.tasksExecuted;
+        }
+
+        public final long getBlockingTasksExecuted() {
+            return this.blockingTasksExecuted;
+        }
+
+        public final long getSteals() {
+            return this.steals;
+        }
+
+        public final long getParks() {
+            return this.parks;
+        }
+
+        public final long getUnparks() {
+            return this.unparks;
+        }
+
+        public String toString() {
+            return "Worker(index=" + this.index + ", state=" + this.state + ", localQueueSize=" + this.localQueueSize + ", tasksExecuted=" + this.tasksExecuted + ", blockingTasksExecuted=" + this.blockingTasksExecuted + ", steals=" + this.steals + ", parks=" + this.parks + ", unparks=" + this.unparks + ')';
+        }
+    }
+
+    public SchedulerMetrics(String str, int i, int i2, int i3, int i4, int i5, int i6, int i7, int i8, List<WorkerMetrics> list, WorkerMetrics workerMetrics, long[] jArr, long[] jArr2) {
+        this.schedulerName = str;
+        this.corePoolSize = i;
+        this.maxPoolSize = i2;
+        this.createdWorkers = i3;
+        this.availableCpuPermits = i4;
+        this.blockingTasks = i5;
+        this.globalCpuQueueSize = i6;
+        this.globalBlockingQueueSize = i7;
+        this.sampleRate = i8;
+        this.workers = Collections.unmodifiableList(list);
+        this.totals = workerMetrics;
+        this.cpuQueueingDelays = jArr;
+        this.blockingQueueingDelays = jArr2;
+    }
+
+    public final String getSchedulerName() {
+        return this.schedulerName;
+    }
+
+    public final int getCorePoolSize() {
+        return this.corePoolSize;
+    }
+
+    public final int getMaxPoolSize() {
+        return this.maxPoolSize;
+    }
+
+    public final int getCreatedWorkers() {
+        return this.createdWorkers;
+    }
+
+    public final int getAvailableCpuPermits() {
+        return this.availableCpuPermits;
+    }
+
+    /** The number of blocking tasks that are queued or running. */
+    public final int getBlockingTasks() {
+        return this.blockingTasks;
+    }
+
+    public final int getGlobalCpuQueueSize() {
+        return this.globalCpuQueueSize;
+    }
+
+    public final int getGlobalBlockingQueueSize() {
+        return this.globalBlockingQueueSize;
+    }
+
+    /** One task in this many has its queueing delay recorded; 0 when recording is off. */
+    public final int getSampleRate() {
+        return this.sampleRate;
+    }
+
+    public final List<WorkerMetrics> getWorkers() {
+        return this.workers;
+    }
+
+    public final WorkerMetrics getTotals() {
+        return this.totals;
+    }
+
+    public final long[] getCpuQueueingDelays() {
+        return (long[]) this.cpuQueueingDelays.clone();
+    }
+
+    public final long[] getBlockingQueueingDelays() {
+        return (long[]) this.blockingQueueingDelays.clone();
+    }
+
+    /** Returns the upper bound of the CPU queueing delay below which {@code d} of the samples fall. */
+    public final long cpuQueueingDelayPercentileNs(double d) {
+        return percentileNs(this.cpuQueueingDelays, d);
+    }
+
+    /** Returns the upper bound of the blocking queueing delay below which {@code d} of the samples fall. */
+    public final long blockingQueueingDelayPercentileNs(double d) {
+        return percentileNs(this.blockingQueueingDelays, d);
+    }
+
+    public static final int bucketOf(long j) {
+        if (j < 1024) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(j >> 10), 23);
+    }
+
+    /** Returns the exclusive upper bound of bucket {@code i} in nanoseconds, or {@link Long#MAX_VALUE} for the last one. */
+    public static final long bucketUpperBoundNs(int i) {
+        if (i >= 23) {
+            return Long.MAX_VALUE;
+        }
+        return 1024L << i;
+    }
+
+    private static final long percentileNs(long[] jArr, double d) {
+        if (!(d >= 0.0d && d <= 1.0d)) {
+            throw new IllegalArgumentException(("Percentile should be in [0, 1], but was " + d).toString());
+        }
+        long j = 0;
+        for (long j2 : jArr) {
+            j += j2;
+        }
+        if (j == 0) {
+            return 0L;
+        }
+        long max = Math.max(1L, (long) Math.ceil(j * d));
+        long j3 = 0;
+        for (int i = 0; i < jArr.length; i++) {
+            j3 += jArr[i];
+            if (j3 >= max) {
+                return bucketUpperBoundNs(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public String toString() {
+        return this.schedulerName + "[Pool Size {core = " + this.corePoolSize + ", max = " + this.maxPoolSize + ", created = " + this.createdWorkers + "}, CPU permits = " + this.availableCpuPermits + ", blocking tasks = " + this.blockingTasks + ", Global Queue {CPU = " + this.globalCpuQueueSize + ", blocking = " + this.globalBlockingQueueSize + "}, totals = " + this.totals + ", CPU queueing delays = " + Arrays.toString(this.cpuQueueingDelays) + ", blocking queueing delays = " + Arrays.toString(this.blockingQueueingDelays) + ", sample rate = " + this.sampleRate + ", workers = " + this.workers + ']';
+    }
+}
@@ -0,0 +1,12 @@
+package kotlinx.coroutines.scheduling;
+
+/**
+ * Receives a trace section around every task a {@link CoroutineScheduler} worker runs. The shape
+ * matches {@code androidx.tracing.Trace}, so {@code Trace::beginSection} and {@code Trace::endSection}
+ * can be plugged in directly. Both calls happen on the worker thread and are always paired.
+ */
+public interface SchedulerTracer {
+    void beginSection(String str);
+
+    void endSection();
+}
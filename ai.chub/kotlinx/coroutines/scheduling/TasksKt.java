@@ -16,6 +16,7 @@ public final class TasksKt {
     public static final long IDLE_WORKER_KEEP_ALIVE_NS;
     public static final int MAX_POOL_SIZE;
     public static final TaskContext NonBlockingContext;
+    public static final int QUEUEING_DELAY_SAMPLE_RATE;
     public static final int TASK_NON_BLOCKING = 0;
     public static final int TASK_PROBABLY_BLOCKING = 1;
     public static final long WORK_STEALING_TIME_RESOLUTION_NS;
@@ -26,6 +27,7 @@ public final class TasksKt {
         int systemProp$default2;
         int systemProp$default3;
         long systemProp$default4;
+        int systemProp;
         systemProp$default = SystemPropsKt__SystemProps_commonKt.systemProp$default("kotlinx.coroutines.scheduler.resolution.ns", 100000L, 0L, 0L, 12, (Object) null);
         WORK_STEALING_TIME_RESOLUTION_NS = systemProp$default;
         systemProp$default2 = SystemPropsKt__SystemProps_commonKt.systemProp$default("kotlinx.coroutines.scheduler.core.pool.size", RangesKt.coerceAtLeast(SystemPropsKt.getAVAILABLE_PROCESSORS(), 2), 1, 0, 8, (Object) null);
@@ -35,6 +37,8 @@ public final class TasksKt {
         TimeUnit timeUnit = TimeUnit.SECONDS;
         systemProp$default4 = SystemPropsKt__SystemProps_commonKt.systemProp$default("kotlinx.coroutines.scheduler.keep.alive.sec", 60L, 0L, 0L, 12, (Object) null);
         IDLE_WORKER_KEEP_ALIVE_NS = timeUnit.toNanos(systemProp$default4);
+        systemProp = SystemPropsKt.systemProp("kotlinx.coroutines.scheduler.delay.sampling", 16, 0, 1073741824);
+        QUEUEING_DELAY_SAMPLE_RATE = systemProp <= 1 ? systemProp : Integer.highestOneBit(systemProp - 1) << 1;
         schedulerTimeSource = NanoTimeSource.INSTANCE;
         NonBlockingContext = new TaskContextImpl(0);
         BlockingContext = new TaskContextImpl(1);
@@ -1,5 +1,6 @@
 package net.openid.appauth;
 
+import android.content.Context;
 import android.net.Uri;
 import android.os.AsyncTask;
 import androidx.browser.trusted.sharing.ShareTarget;
@@ -10,6 +11,7 @@ import net.openid.appauth.AuthorizationException;
 import net.openid.appauth.AuthorizationServiceDiscovery;
 import net.openid.appauth.connectivity.ConnectionBuilder;
 import net.openid.appauth.connectivity.DefaultConnectionBuilder;
+import net.openid.appauth.connectivity.OkHttpConnectionBuilder;
 import net.openid.appauth.internal.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -108,6 +110,10 @@ public class AuthorizationServiceConfiguration {
         fetchFromUrl(buildConfigurationUriFromIssuer(openIdConnectIssuerUri), callback, connectionBuilder);
     }
 
+    public static void fetchFromIssuer(Uri openIdConnectIssuerUri, RetrieveConfigurationCallback callback, Context context) {
+        fetchFromUrl(buildConfigurationUriFromIssuer(openIdConnectIssuerUri), callback, OkHttpConnectionBuilder.getInstance(context));
+    }
+
     static Uri buildConfigurationUriFromIssuer(Uri openIdConnectIssuerUri) {
         return openIdConnectIssuerUri.buildUpon().appendPath(WELL_KNOWN_PATH).appendPath(OPENID_CONFIGURATION_RESOURCE).build();
     }
@@ -0,0 +1,78 @@
+package net.openid.appauth.connectivity;
+
+import android.content.Context;
+import android.net.Uri;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import net.openid.appauth.Preconditions;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * A {@link ConnectionBuilder} that routes token, registration and discovery requests through a
+ * single, process-wide {@link OkHttpClient}. Connections are pooled and negotiated over HTTP/2
+ * where the server supports it, so consecutive requests to the same authorization server reuse
+ * the existing TLS session instead of performing a full handshake each time. Responses are
+ * stored in an on-disk HTTP cache, which lets discovery documents fetched via
+ * {@link net.openid.appauth.AuthorizationServiceConfiguration#fetchFromIssuer} be served locally
+ * for as long as the issuer's cache headers allow.
+ */
+public final class OkHttpConnectionBuilder implements ConnectionBuilder {
+    private static final String CACHE_DIRECTORY = "appauth_http_cache";
+    private static final long CACHE_SIZE_BYTES = 1048576;
+    private static final int CONNECTION_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(15);
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final int READ_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(10);
+    private static volatile OkHttpConnectionBuilder sInstance;
+    private final OkHttpClient mClient;
+
+    private OkHttpConnectionBuilder(OkHttpClient client) {
+        this.mClient = client;
+    }
+
+    public static OkHttpConnectionBuilder getInstance(Context context) {
+        Preconditions.checkNotNull(context, "context cannot be null");
+        OkHttpConnectionBuilder okHttpConnectionBuilder = sInstance;
+        if (okHttpConnectionBuilder == null) {
+            synchronized (OkHttpConnectionBuilder.class) {
+                okHttpConnectionBuilder = sInstance;
+                if (okHttpConnectionBuilder == null) {
+                    okHttpConnectionBuilder = new OkHttpConnectionBuilder(createClient(context.getApplicationContext()));
+                    sInstance = okHttpConnectionBuilder;
+                }
+            }
+        }
+        return okHttpConnectionBuilder;
+    }
+
+    public static OkHttpConnectionBuilder create(OkHttpClient client) {
+        Preconditions.checkNotNull(client, "client cannot be null");
+        return new OkHttpConnectionBuilder(client);
+    }
+
+    private static OkHttpClient createClient(Context context) {
+        return new OkHttpClient.Builder().connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES)).protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)).cache(new Cache(new File(context.getCacheDir(), CACHE_DIRECTORY), CACHE_SIZE_BYTES)).connectTimeout(CONNECTION_TIMEOUT_MS, TimeUnit.MILLISECONDS).readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS).followRedirects(false).followSslRedirects(false).build();
+    }
+
+    public OkHttpClient getClient() {
+        return this.mClient;
+    }
+
+    @Override // net.openid.appauth.connectivity.ConnectionBuilder
+    public HttpURLConnection openConnection(Uri uri) throws IOException {
+        Preconditions.checkNotNull(uri, "url must not be null");
+        Preconditions.checkArgument("https".equals(uri.getScheme()), "only https connections are permitted");
+        OkHttpUrlConnection okHttpUrlConnection = new OkHttpUrlConnection(new URL(uri.toString()), this.mClient);
+        okHttpUrlConnection.setConnectTimeout(CONNECTION_TIMEOUT_MS);
+        okHttpUrlConnection.setReadTimeout(READ_TIMEOUT_MS);
+        okHttpUrlConnection.setInstanceFollowRedirects(false);
+        return okHttpUrlConnection;
+    }
+}
@@ -0,0 +1,228 @@
+package net.openid.appauth.connectivity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import net.openid.appauth.internal.Logger;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Minimal {@link HttpURLConnection} facade over an {@link OkHttpClient} call, covering the subset
+ * of the API used by the AppAuth request tasks. Request bodies are buffered in memory and sent
+ * when the response is first requested.
+ */
+final class OkHttpUrlConnection extends HttpURLConnection {
+    private static final String CONTENT_TYPE = "Content-Type";
+    private final OkHttpClient mClient;
+    private ByteArrayOutputStream mRequestBody;
+    private final Headers.Builder mRequestHeaders;
+    private Response mResponse;
+
+    OkHttpUrlConnection(URL url, OkHttpClient client) {
+        super(url);
+        this.mRequestHeaders = new Headers.Builder();
+        this.mClient = client;
+    }
+
+    @Override // java.net.URLConnection
+    public void connect() throws IOException {
+        if (this.mResponse != null) {
+            return;
+        }
+        OkHttpClient build = this.mClient.newBuilder().connectTimeout(getConnectTimeout(), TimeUnit.MILLISECONDS).readTimeout(getReadTimeout(), TimeUnit.MILLISECONDS).followRedirects(getInstanceFollowRedirects()).followSslRedirects(getInstanceFollowRedirects()).build();
+        Request.Builder builder = new Request.Builder().url(getURL()).headers(this.mRequestHeaders.build());
+        RequestBody requestBody = null;
+        ByteArrayOutputStream byteArrayOutputStream = this.mRequestBody;
+        if (byteArrayOutputStream != null) {
+            String str = this.mRequestHeaders.get(CONTENT_TYPE);
+            requestBody = RequestBody.create(byteArrayOutputStream.toByteArray(), str != null ? MediaType.parse(str) : null);
+        } else if ("POST".equals(this.method) || "PUT".equals(this.method)) {
+            requestBody = RequestBody.create(new byte[0]);
+        }
+        this.mResponse = build.newCall(builder.method(this.method, requestBody).build()).execute();
+        this.connected = true;
+        if (this.mResponse.cacheResponse() != null) {
+            Logger.debug("Served %s from HTTP cache", getURL());
+        }
+    }
+
+    @Override // java.net.HttpURLConnection
+    public void disconnect() {
+        Response response = this.mResponse;
+        if (response != null) {
+            response.close();
+        }
+        this.connected = false;
+    }
+
+    @Override // java.net.HttpURLConnection
+    public boolean usingProxy() {
+        return false;
+    }
+
+    @Override // java.net.URLConnection
+    public void setRequestProperty(String key, String value) {
+        checkNotConnected();
+        if (key == null || value == null) {
+            return;
+        }
+        this.mRequestHeaders.set(key, value);
+    }
+
+    @Override // java.net.URLConnection
+    public void addRequestProperty(String key, String value) {
+        checkNotConnected();
+        if (key == null || value == null) {
+            return;
+        }
+        this.mRequestHeaders.add(key, value);
+    }
+
+    @Override // java.net.URLConnection
+    public String getRequestProperty(String key) {
+        if (key == null) {
+            return null;
+        }
+        return this.mRequestHeaders.get(key);
+    }
+
+    @Override // java.net.URLConnection
+    public Map<String, List<String>> getRequestProperties() {
+        checkNotConnected();
+        return toMultimap(this.mRequestHeaders.build());
+    }
+
+    @Override // java.net.URLConnection
+    public OutputStream getOutputStream() throws IOException {
+        if (this.mResponse != null) {
+            throw new ProtocolException("cannot write request body after response has been read");
+        }
+        if (!getDoOutput()) {
+            throw new ProtocolException("cannot write to a URLConnection if doOutput=false - call setDoOutput(true)");
+        }
+        if ("GET".equals(this.method)) {
+            this.method = "POST";
+        }
+        if (this.mRequestBody == null) {
+            this.mRequestBody = new ByteArrayOutputStream();
+        }
+        return this.mRequestBody;
+    }
+
+    @Override // java.net.URLConnection
+    public InputStream getInputStream() throws IOException {
+        if (!getDoInput()) {
+            throw new ProtocolException("cannot read from a URLConnection if doInput=false");
+        }
+        connect();
+        if (this.mResponse.code() >= 400) {
+            throw new FileNotFoundException(getURL().toString());
+        }
+        return responseBodyStream();
+    }
+
+    @Override // java.net.HttpURLConnection
+    public InputStream getErrorStream() {
+        if (connectQuietly() == null) {
+            return null;
+        }
+        if (this.mResponse.code() >= 400) {
+            return responseBodyStream();
+        }
+        return null;
+    }
+
+    @Override // java.net.HttpURLConnection
+    public int getResponseCode() throws IOException {
+        connect();
+        return this.mResponse.code();
+    }
+
+    @Override // java.net.HttpURLConnection
+    public String getResponseMessage() throws IOException {
+        connect();
+        return this.mResponse.message();
+    }
+
+    @Override // java.net.URLConnection
+    public String getHeaderField(String name) {
+        Response response = connectQuietly();
+        if (response == null || name == null) {
+            return null;
+        }
+        return response.header(name);
+    }
+
+    @Override // java.net.HttpURLConnection, java.net.URLConnection
+    public String getHeaderFieldKey(int n) {
+        Response response = connectQuietly();
+        if (response == null || n < 0 || n >= response.headers().size()) {
+            return null;
+        }
+        return response.headers().name(n);
+    }
+
+    @Override // java.net.HttpURLConnection, java.net.URLConnection
+    public String getHeaderField(int n) {
+        Response response = connectQuietly();
+        if (response == null || n < 0 || n >= response.headers().size()) {
+            return null;
+        }
+        return response.headers().value(n);
+    }
+
+    @Override // java.net.URLConnection
+    public Map<String, List<String>> getHeaderFields() {
+        Response response = connectQuietly();
+        if (response == null) {
+            return Collections.emptyMap();
+        }
+        return toMultimap(response.headers());
+    }
+
+    /** Connects like {@link #getInputStream}, returning null instead of throwing when the request fails. */
+    private Response connectQuietly() {
+        try {
+            connect();
+            return this.mResponse;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private InputStream responseBodyStream() {
+        ResponseBody body = this.mResponse.body();
+        if (body == null) {
+            return null;
+        }
+        return body.byteStream();
+    }
+
+    private void checkNotConnected() {
+        if (this.mResponse != null) {
+            throw new IllegalStateException("Already connected");
+        }
+    }
+
+    private static Map<String, List<String>> toMultimap(Headers headers) {
+        TreeMap treeMap = new TreeMap(String.CASE_INSENSITIVE_ORDER);
+        treeMap.putAll(headers.toMultimap());
+        return Collections.unmodifiableMap(treeMap);
+    }
+}
@@ -13,6 +13,7 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -39,6 +40,7 @@ import okhttp3.internal.Util;
 import okhttp3.internal.cache.CacheRequest;
 import okhttp3.internal.cache.CacheStrategy;
 import okhttp3.internal.cache.DiskLruCache;
+import okhttp3.internal.cache.ShardedDiskLruCache;
 import okhttp3.internal.concurrent.TaskRunner;
 import okhttp3.internal.http.HttpMethod;
 import okhttp3.internal.http.StatusLine;
@@ -62,10 +64,14 @@ public final class Cache implements Closeable, Flushable {
     private static final int ENTRY_COUNT = 2;
     private static final int ENTRY_METADATA = 0;
     private static final int VERSION = 201105;
-    private final DiskLruCache cache;
+    private final ShardedDiskLruCache cache;
     private int hitCount;
     private int networkCount;
+    private volatile boolean offline;
     private int requestCount;
+    private final Set<String> revalidating = new HashSet();
+    private int revalidationCount;
+    private int staleHitCount;
     private int writeAbortCount;
     private int writeSuccessCount;
 
@@ -75,12 +81,17 @@ public final class Cache implements Closeable, Flushable {
     }
 
     public Cache(File directory, long j, FileSystem fileSystem) {
+        this(directory, j, fileSystem, 1);
+    }
+
+    /** Splits the cache into {@code shardCount} independently locked shards under {@code directory}. */
+    public Cache(File directory, long j, FileSystem fileSystem, int i) {
         Intrinsics.checkNotNullParameter(directory, "directory");
         Intrinsics.checkNotNullParameter(fileSystem, "fileSystem");
-        this.cache = new DiskLruCache(fileSystem, directory, VERSION, 2, j, TaskRunner.INSTANCE);
+        this.cache = new ShardedDiskLruCache(fileSystem, directory, VERSION, 2, j, i, TaskRunner.INSTANCE);
     }
 
-    public final DiskLruCache getCache$okhttp() {
+    public final ShardedDiskLruCache getCache$okhttp() {
         return this.cache;
     }
 
@@ -110,6 +121,12 @@ public final class Cache implements Closeable, Flushable {
         Intrinsics.checkNotNullParameter(directory, "directory");
     }
 
+    /* JADX WARN: 'this' call moved to the top of the method (can break code semantics) */
+    public Cache(File directory, long j, int i) {
+        this(directory, j, FileSystem.SYSTEM, i);
+        Intrinsics.checkNotNullParameter(directory, "directory");
+    }
+
     public final Response get$okhttp(Request request) {
         Intrinsics.checkNotNullParameter(request, "request");
         try {
@@ -155,7 +172,7 @@ public final class Cache implements Closeable, Flushable {
             }
             Entry entry = new Entry(response);
             try {
-                editor = DiskLruCache.edit$default(this.cache, companion.key(response.request().url()), 0L, 2, null);
+                editor = this.cache.edit(companion.key(response.request().url()));
                 if (editor == null) {
                     return null;
                 }
@@ -241,6 +258,10 @@ public final class Cache implements Closeable, Flushable {
         return this.cache.getMaxSize();
     }
 
+    public final int shardCount() {
+        return this.cache.getShardCount();
+    }
+
     @Override // java.io.Flushable
     public void flush() throws IOException {
         this.cache.flush();
@@ -275,6 +296,45 @@ public final class Cache implements Closeable, Flushable {
         this.hitCount++;
     }
 
+    public final synchronized void trackStaleHit$okhttp() {
+        this.staleHitCount++;
+    }
+
+    /** Returns false if a revalidation of {@code request}'s URL is already in flight. */
+    public final synchronized boolean startRevalidation$okhttp(Request request) {
+        Intrinsics.checkNotNullParameter(request, "request");
+        if (!this.revalidating.add(Companion.key(request.url()))) {
+            return false;
+        }
+        this.revalidationCount++;
+        return true;
+    }
+
+    public final synchronized void finishRevalidation$okhttp(Request request) {
+        Intrinsics.checkNotNullParameter(request, "request");
+        this.revalidating.remove(Companion.key(request.url()));
+    }
+
+    public final boolean isOffline() {
+        return this.offline;
+    }
+
+    /**
+     * While offline, any stored response is served regardless of its age, and the network is only
+     * tried for requests with nothing cached.
+     */
+    public final void setOffline(boolean z) {
+        this.offline = z;
+    }
+
+    public final synchronized int staleHitCount() {
+        return this.staleHitCount;
+    }
+
+    public final synchronized int revalidationCount() {
+        return this.revalidationCount;
+    }
+
     public final synchronized int networkCount() {
         return this.networkCount;
     }
@@ -0,0 +1,11 @@
+package okhttp3;
+
+/**
+ * Scheduling class for an asynchronous call. Attach one with {@code Request.Builder.tag(CallPriority.class, ...)};
+ * untagged calls are {@link #DEFAULT}. {@link Dispatcher} starts ready calls of a higher class first.
+ */
+public enum CallPriority {
+    INTERACTIVE,
+    DEFAULT,
+    BULK
+}
@@ -1,5 +1,6 @@
 package okhttp3;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import kotlin.Metadata;
 import kotlin.jvm.internal.Intrinsics;
@@ -26,6 +27,13 @@ public final class ConnectionPool {
         Intrinsics.checkNotNullParameter(timeUnit, "timeUnit");
     }
 
+    /** Like {@link #ConnectionPool(int, long, TimeUnit)}, pinging idle HTTP/2 connections every {@code healthCheckInterval}; 0 disables. */
+    public ConnectionPool(int i, long j, TimeUnit timeUnit, long healthCheckInterval, TimeUnit healthCheckUnit) {
+        this(new RealConnectionPool(TaskRunner.INSTANCE, i, j, timeUnit, healthCheckUnit.toNanos(healthCheckInterval)));
+        Intrinsics.checkNotNullParameter(timeUnit, "timeUnit");
+        Intrinsics.checkNotNullParameter(healthCheckUnit, "healthCheckUnit");
+    }
+
     public ConnectionPool() {
         this(5, 5L, TimeUnit.MINUTES);
     }
@@ -41,4 +49,11 @@ public final class ConnectionPool {
     public final void evictAll() {
         this.delegate.evictAll();
     }
+
+    /** Opens connections to the hosts of {@code urls} in the background; see {@link RealConnectionPool#prewarm}. */
+    public final void prewarm(OkHttpClient client, List<HttpUrl> urls) {
+        Intrinsics.checkNotNullParameter(client, "client");
+        Intrinsics.checkNotNullParameter(urls, "urls");
+        this.delegate.prewarm(client, urls);
+    }
 }
@@ -7,11 +7,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import kotlin.Deprecated;
 import kotlin.DeprecationLevel;
 import kotlin.Metadata;
@@ -25,18 +28,75 @@ import okhttp3.internal.connection.RealCall;
 @Metadata(d1 = {"\u0000\\\n\u0002\u0018\u0002\n\u0002\u0010\u0000\n\u0000\n\u0002\u0018\u0002\n\u0002\b\u0005\n\u0002\u0018\u0002\n\u0002\b\u0006\n\u0002\u0010\b\n\u0002\b\b\n\u0002\u0018\u0002\n\u0002\u0018\u0002\n\u0002\u0018\u0002\n\u0002\b\u0003\n\u0002\u0010\u0002\n\u0002\b\b\n\u0002\u0010\u000e\n\u0002\b\u0003\n\u0002\u0018\u0002\n\u0002\b\u0003\n\u0002\u0010\u000b\n\u0000\n\u0002\u0010 \n\u0002\u0018\u0002\n\u0002\b\u0004\u0018\u00002\u00020\u0001B\u000f\b\u0016\u0012\u0006\u0010\u0002\u001a\u00020\u0003¢\u0006\u0002\u0010\u0004B\u0005¢\u0006\u0002\u0010\u0005J\u0006\u0010\u001e\u001a\u00020\u001fJ\u0019\u0010 \u001a\u00020\u001f2\n\u0010!\u001a\u00060\u001aR\u00020\u001bH\u0000¢\u0006\u0002\b\"J\u0015\u0010#\u001a\u00020\u001f2\u0006\u0010!\u001a\u00020\u001bH\u0000¢\u0006\u0002\b$J\r\u0010\u0002\u001a\u00020\u0003H\u0007¢\u0006\u0002\b%J\u0016\u0010&\u001a\b\u0018\u00010\u001aR\u00020\u001b2\u0006\u0010'\u001a\u00020(H\u0002J)\u0010)\u001a\u00020\u001f\"\u0004\b\u0000\u0010*2\f\u0010+\u001a\b\u0012\u0004\u0012\u0002H*0,2\u0006\u0010!\u001a\u0002H*H\u0002¢\u0006\u0002\u0010-J\u0015\u0010)\u001a\u00020\u001f2\u0006\u0010!\u001a\u00020\u001bH\u0000¢\u0006\u0002\b.J\u0019\u0010)\u001a\u00020\u001f2\n\u0010!\u001a\u00060\u001aR\u00020\u001bH\u0000¢\u0006\u0002\b.J\b\u0010/\u001a\u000200H\u0002J\f\u00101\u001a\b\u0012\u0004\u0012\u00020302J\u0006\u00104\u001a\u00020\u0010J\f\u00105\u001a\b\u0012\u0004\u0012\u00020302J\u0006\u00106\u001a\u00020\u0010R\u0011\u0010\u0002\u001a\u00020\u00038G¢\u0006\u0006\u001a\u0004\b\u0002\u0010\u0006R\u0010\u0010\u0007\u001a\u0004\u0018\u00010\u0003X\u0082\u000e¢\u0006\u0002\n\u0000R*\u0010\n\u001a\u0004\u0018\u00010\t2\b\u0010\b\u001a\u0004\u0018\u00010\t8F@FX\u0086\u000e¢\u0006\u000e\n\u0000\u001a\u0004\b\u000b\u0010\f\"\u0004\b\r\u0010\u000eR&\u0010\u000f\u001a\u00020\u00102\u0006\u0010\u000f\u001a\u00020\u00108F@FX\u0086\u000e¢\u0006\u000e\n\u0000\u001a\u0004\b\u0011\u0010\u0012\"\u0004\b\u0013\u0010\u0014R&\u0010\u0015\u001a\u00020\u00102\u0006\u0010\u0015\u001a\u00020\u00108F@FX\u0086\u000e¢\u0006\u000e\n\u0000\u001a\u0004\b\u0016\u0010\u0012\"\u0004\b\u0017\u0010\u0014R\u0018\u0010\u0018\u001a\f\u0012\b\u0012\u00060\u001aR\u00020\u001b0\u0019X\u0082\u0004¢\u0006\u0002\n\u0000R\u0018\u0010\u001c\u001a\f\u0012\b\u0012\u00060\u001aR\u00020\u001b0\u0019X\u0082\u0004¢\u0006\u0002\n\u0000R\u0014\u0010\u001d\u001a\b\u0012\u0004\u0012\u00020\u001b0\u0019X\u0082\u0004¢\u0006\u0002\n\u0000¨\u00067"}, d2 = {"Lokhttp3/Dispatcher;", HttpUrl.FRAGMENT_ENCODE_SET, "executorService", "Ljava/util/concurrent/ExecutorService;", "(Ljava/util/concurrent/ExecutorService;)V", "()V", "()Ljava/util/concurrent/ExecutorService;", "executorServiceOrNull", "<set-?>", "Ljava/lang/Runnable;", "idleCallback", "getIdleCallback", "()Ljava/lang/Runnable;", "setIdleCallback", "(Ljava/lang/Runnable;)V", "maxRequests", HttpUrl.FRAGMENT_ENCODE_SET, "getMaxRequests", "()I", "setMaxRequests", "(I)V", "maxRequestsPerHost", "getMaxRequestsPerHost", "setMaxRequestsPerHost", "readyAsyncCalls", "Ljava/util/ArrayDeque;", "Lokhttp3/internal/connection/RealCall$AsyncCall;", "Lokhttp3/internal/connection/RealCall;", "runningAsyncCalls", "runningSyncCalls", "cancelAll", HttpUrl.FRAGMENT_ENCODE_SET, "enqueue", NotificationCompat.CATEGORY_CALL, "enqueue$okhttp", "executed", "executed$okhttp", "-deprecated_executorService", "findExistingCallWithHost", "host", HttpUrl.FRAGMENT_ENCODE_SET, "finished", "T", "calls", "Ljava/util/Deque;", "(Ljava/util/Deque;Ljava/lang/Object;)V", "finished$okhttp", "promoteAndExecute", HttpUrl.FRAGMENT_ENCODE_SET, "queuedCalls", HttpUrl.FRAGMENT_ENCODE_SET, "Lokhttp3/Call;", "queuedCallsCount", "runningCalls", "runningCallsCount", "okhttp"}, k = 1, mv = {1, 8, 0}, xi = 48)
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public final class Dispatcher {
+    private static final double LATENCY_TOLERANCE = 2.0d;
+    private static final int MAX_IDLE_HOSTS = 64;
+    private static final int PRIORITIES = CallPriority.values().length;
+    private boolean adaptiveConcurrency;
     private ExecutorService executorServiceOrNull;
+    private final LinkedHashMap<String, HostState> hosts;
     private Runnable idleCallback;
     private int maxRequests;
     private int maxRequestsPerHost;
-    private final ArrayDeque<RealCall.AsyncCall> readyAsyncCalls;
+    private int maxRequestsPerHttp1Host;
+    private int maxRequestsPerMultiplexedHost;
+    private int readyAsyncCallsCount;
+    private final ArrayDeque<HostState>[] readyHosts;
     private final ArrayDeque<RealCall.AsyncCall> runningAsyncCalls;
     private final ArrayDeque<RealCall> runningSyncCalls;
 
+    /**
+     * Per-host queues and concurrency limit. A host sits in {@code readyHosts[p]} while it has ready calls
+     * of priority {@code p} that may be able to start; it is parked once its limit is reached and requeued
+     * when one of its calls finishes.
+     */
+    static final class HostState {
+        final ArrayDeque<RealCall.AsyncCall>[] ready;
+        final AtomicInteger callsPerHost = new AtomicInteger(0);
+        final boolean[] enqueued = new boolean[PRIORITIES];
+        boolean congested;
+        long lastBackOffNanos;
+        long latencyNanos;
+        double limit;
+        boolean multiplexed;
+
+        HostState(int limit) {
+            this.limit = limit;
+            this.ready = new ArrayDeque[PRIORITIES];
+            for (int i = 0; i < PRIORITIES; i++) {
+                this.ready[i] = new ArrayDeque<>();
+            }
+        }
+
+        boolean hasReadyCalls() {
+            for (ArrayDeque<RealCall.AsyncCall> arrayDeque : this.ready) {
+                if (!arrayDeque.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isIdle() {
+            return this.callsPerHost.get() == 0 && !hasReadyCalls();
+        }
+    }
+
     public Dispatcher() {
         this.maxRequests = 64;
         this.maxRequestsPerHost = 5;
-        this.readyAsyncCalls = new ArrayDeque<>();
+        this.maxRequestsPerHttp1Host = 8;
+        this.maxRequestsPerMultiplexedHost = 32;
+        this.adaptiveConcurrency = false;
+        this.hosts = new LinkedHashMap<String, HostState>(16, 0.75f, true) { // from class: okhttp3.Dispatcher$hosts$1
+            @Override // java.util.LinkedHashMap
+            protected boolean removeEldestEntry(Map.Entry<String, HostState> eldest) {
+                return size() > Dispatcher.MAX_IDLE_HOSTS && eldest.getValue().isIdle();
+            }
+        };
+        this.readyHosts = new ArrayDeque[PRIORITIES];
+        for (int i = 0; i < PRIORITIES; i++) {
+            this.readyHosts[i] = new ArrayDeque<>();
+        }
         this.runningAsyncCalls = new ArrayDeque<>();
         this.runningSyncCalls = new ArrayDeque<>();
     }
@@ -60,17 +120,78 @@ public final class Dispatcher {
         return this.maxRequestsPerHost;
     }
 
+    /** Sets the starting limit for newly seen hosts; with adaptive concurrency off it is the fixed limit. */
     public final void setMaxRequestsPerHost(int i) {
         if (!(i >= 1)) {
             throw new IllegalArgumentException(("max < 1: " + i).toString());
         }
         synchronized (this) {
             this.maxRequestsPerHost = i;
+            requeueHosts();
+            Unit unit = Unit.INSTANCE;
+        }
+        promoteAndExecute();
+    }
+
+    public final synchronized int getMaxRequestsPerHttp1Host() {
+        return this.maxRequestsPerHttp1Host;
+    }
+
+    /** Sets the ceiling the adaptive limit may grow to for hosts that answered over HTTP/1.x. */
+    public final void setMaxRequestsPerHttp1Host(int i) {
+        if (!(i >= 1)) {
+            throw new IllegalArgumentException(("max < 1: " + i).toString());
+        }
+        synchronized (this) {
+            this.maxRequestsPerHttp1Host = i;
+            requeueHosts();
             Unit unit = Unit.INSTANCE;
         }
         promoteAndExecute();
     }
 
+    public final synchronized int getMaxRequestsPerMultiplexedHost() {
+        return this.maxRequestsPerMultiplexedHost;
+    }
+
+    /** Sets the ceiling the adaptive limit may grow to for hosts that answered over HTTP/2. */
+    public final void setMaxRequestsPerMultiplexedHost(int i) {
+        if (!(i >= 1)) {
+            throw new IllegalArgumentException(("max < 1: " + i).toString());
+        }
+        synchronized (this) {
+            this.maxRequestsPerMultiplexedHost = i;
+            requeueHosts();
+            Unit unit = Unit.INSTANCE;
+        }
+        promoteAndExecute();
+    }
+
+    public final synchronized boolean getAdaptiveConcurrency() {
+        return this.adaptiveConcurrency;
+    }
+
+    /**
+     * Off by default. When enabled each host's limit starts at {@link #getMaxRequestsPerHost()} and is tuned
+     * AIMD-style: it grows while calls complete without latency inflation, and is cut back on failures,
+     * 429/503 responses, or header latency above twice the host's running average.
+     */
+    public final void setAdaptiveConcurrency(boolean z) {
+        synchronized (this) {
+            this.adaptiveConcurrency = z;
+            requeueHosts();
+            Unit unit = Unit.INSTANCE;
+        }
+        promoteAndExecute();
+    }
+
+    /** Returns the number of calls to {@code host} that may currently run concurrently. */
+    public final synchronized int maxRequestsForHost(String host) {
+        Intrinsics.checkNotNullParameter(host, "host");
+        HostState hostState = this.hosts.get(host);
+        return hostState == null ? this.maxRequestsPerHost : limit(hostState);
+    }
+
     public final synchronized Runnable getIdleCallback() {
         return this.idleCallback;
     }
@@ -99,40 +220,112 @@ public final class Dispatcher {
     }
 
     public final void enqueue$okhttp(RealCall.AsyncCall call) {
-        RealCall.AsyncCall findExistingCallWithHost;
         Intrinsics.checkNotNullParameter(call, "call");
         synchronized (this) {
-            this.readyAsyncCalls.add(call);
-            if (!call.getCall().getForWebSocket() && (findExistingCallWithHost = findExistingCallWithHost(call.getHost())) != null) {
-                call.reuseCallsPerHostFrom(findExistingCallWithHost);
+            HostState hostState = hostState(call.getHost());
+            if (!call.getCall().getForWebSocket()) {
+                call.setCallsPerHost$okhttp(hostState.callsPerHost);
+            }
+            int ordinal = call.getPriority().ordinal();
+            hostState.ready[ordinal].add(call);
+            this.readyAsyncCallsCount++;
+            if (!hostState.enqueued[ordinal]) {
+                hostState.enqueued[ordinal] = true;
+                this.readyHosts[ordinal].add(hostState);
             }
             Unit unit = Unit.INSTANCE;
         }
         promoteAndExecute();
     }
 
-    private final RealCall.AsyncCall findExistingCallWithHost(String str) {
-        Iterator<RealCall.AsyncCall> it = this.runningAsyncCalls.iterator();
-        while (it.hasNext()) {
-            RealCall.AsyncCall next = it.next();
-            if (Intrinsics.areEqual(next.getHost(), str)) {
-                return next;
-            }
+    private final HostState hostState(String str) {
+        HostState hostState = this.hosts.get(str);
+        if (hostState != null) {
+            return hostState;
         }
-        Iterator<RealCall.AsyncCall> it2 = this.readyAsyncCalls.iterator();
-        while (it2.hasNext()) {
-            RealCall.AsyncCall next2 = it2.next();
-            if (Intrinsics.areEqual(next2.getHost(), str)) {
-                return next2;
+        HostState hostState2 = new HostState(this.maxRequestsPerHost);
+        this.hosts.put(str, hostState2);
+        return hostState2;
+    }
+
+    private final int limit(HostState hostState) {
+        if (!this.adaptiveConcurrency) {
+            return this.maxRequestsPerHost;
+        }
+        return Math.max(1, Math.min((int) hostState.limit, ceiling(hostState)));
+    }
+
+    private final int ceiling(HostState hostState) {
+        return Math.max(this.maxRequestsPerHost, hostState.multiplexed ? this.maxRequestsPerMultiplexedHost : this.maxRequestsPerHttp1Host);
+    }
+
+    /** Puts every host with ready calls back in line, after a limit may have grown. */
+    private final void requeueHosts() {
+        for (HostState hostState : this.hosts.values()) {
+            requeue(hostState);
+        }
+    }
+
+    private final void requeue(HostState hostState) {
+        for (int i = 0; i < PRIORITIES; i++) {
+            if (!hostState.enqueued[i] && !hostState.ready[i].isEmpty()) {
+                hostState.enqueued[i] = true;
+                this.readyHosts[i].add(hostState);
             }
         }
-        return null;
+    }
+
+    /** Feeds a finished call's outcome into its host's limit. */
+    private final void adapt(HostState hostState, RealCall.AsyncCall asyncCall) {
+        Protocol protocol$okhttp = asyncCall.getProtocol$okhttp();
+        if (protocol$okhttp != null) {
+            hostState.multiplexed = protocol$okhttp == Protocol.HTTP_2 || protocol$okhttp == Protocol.H2_PRIOR_KNOWLEDGE || protocol$okhttp == Protocol.QUIC;
+        }
+        if (!this.adaptiveConcurrency || asyncCall.getCall().getForWebSocket()) {
+            return;
+        }
+        long nanoTime = System.nanoTime();
+        int code$okhttp = asyncCall.getCode$okhttp();
+        if (asyncCall.getFailed$okhttp() || code$okhttp == 429 || code$okhttp == 503) {
+            backOff(hostState, nanoTime, 0.5d);
+            return;
+        }
+        long headersNanos$okhttp = asyncCall.getHeadersNanos$okhttp();
+        if (headersNanos$okhttp < 0) {
+            return;
+        }
+        long j = hostState.latencyNanos;
+        hostState.latencyNanos = j == 0 ? headersNanos$okhttp : j + ((headersNanos$okhttp - j) / 8);
+        boolean z = hostState.callsPerHost.get() >= limit(hostState) || hostState.hasReadyCalls();
+        if (!z) {
+            return;
+        }
+        if (j != 0 && headersNanos$okhttp > j * LATENCY_TOLERANCE) {
+            backOff(hostState, nanoTime, 0.9d);
+            return;
+        }
+        double d = hostState.limit;
+        hostState.limit = Math.min(ceiling(hostState), hostState.congested ? d + (1.0d / d) : d + 1.0d);
+    }
+
+    /** Multiplicative decrease, at most once per average round trip so one burst of failures counts once. */
+    private final void backOff(HostState hostState, long j, double d) {
+        if (hostState.congested && j - hostState.lastBackOffNanos < hostState.latencyNanos) {
+            return;
+        }
+        hostState.congested = true;
+        hostState.lastBackOffNanos = j;
+        hostState.limit = Math.max(1.0d, Math.min(hostState.limit, ceiling(hostState)) * d);
     }
 
     public final synchronized void cancelAll() {
-        Iterator<RealCall.AsyncCall> it = this.readyAsyncCalls.iterator();
-        while (it.hasNext()) {
-            it.next().getCall().cancel();
+        for (HostState hostState : this.hosts.values()) {
+            for (ArrayDeque<RealCall.AsyncCall> arrayDeque : hostState.ready) {
+                Iterator<RealCall.AsyncCall> it = arrayDeque.iterator();
+                while (it.hasNext()) {
+                    it.next().getCall().cancel();
+                }
+            }
         }
         Iterator<RealCall.AsyncCall> it2 = this.runningAsyncCalls.iterator();
         while (it2.hasNext()) {
@@ -150,9 +343,23 @@ public final class Dispatcher {
     }
 
     public final void finished$okhttp(RealCall.AsyncCall call) {
+        Runnable runnable;
         Intrinsics.checkNotNullParameter(call, "call");
-        call.getCallsPerHost().decrementAndGet();
-        finished(this.runningAsyncCalls, call);
+        synchronized (this) {
+            if (!this.runningAsyncCalls.remove(call)) {
+                throw new AssertionError("Call wasn't in-flight!");
+            }
+            HostState hostState = hostState(call.getHost());
+            adapt(hostState, call);
+            call.getCallsPerHost().decrementAndGet();
+            requeue(hostState);
+            runnable = this.idleCallback;
+            Unit unit = Unit.INSTANCE;
+        }
+        if (promoteAndExecute() || runnable == null) {
+            return;
+        }
+        runnable.run();
     }
 
     public final void finished$okhttp(RealCall call) {
@@ -177,10 +384,13 @@ public final class Dispatcher {
 
     public final synchronized List<Call> queuedCalls() {
         List<Call> unmodifiableList;
-        ArrayDeque<RealCall.AsyncCall> arrayDeque = this.readyAsyncCalls;
-        ArrayList arrayList = new ArrayList(CollectionsKt.collectionSizeOrDefault(arrayDeque, 10));
-        for (RealCall.AsyncCall asyncCall : arrayDeque) {
-            arrayList.add(asyncCall.getCall());
+        ArrayList arrayList = new ArrayList(this.readyAsyncCallsCount);
+        for (int i = 0; i < PRIORITIES; i++) {
+            for (HostState hostState : this.hosts.values()) {
+                for (RealCall.AsyncCall asyncCall : hostState.ready[i]) {
+                    arrayList.add(asyncCall.getCall());
+                }
+            }
         }
         unmodifiableList = Collections.unmodifiableList(arrayList);
         Intrinsics.checkNotNullExpressionValue(unmodifiableList, "unmodifiableList(readyAsyncCalls.map { it.call })");
@@ -201,7 +411,7 @@ public final class Dispatcher {
     }
 
     public final synchronized int queuedCallsCount() {
-        return this.readyAsyncCalls.size();
+        return this.readyAsyncCallsCount;
     }
 
     public final synchronized int runningCallsCount() {
@@ -214,25 +424,44 @@ public final class Dispatcher {
         return executorService();
     }
 
+    /**
+     * Starts ready calls in priority order, round-robin across hosts within a priority. {@link CallPriority#BULK}
+     * calls leave a quarter of {@link #getMaxRequests()} free so interactive calls never wait on prefetches.
+     */
     private final boolean promoteAndExecute() {
         int i;
         boolean z;
         if (!Util.assertionsEnabled || !Thread.holdsLock(this)) {
             ArrayList arrayList = new ArrayList();
             synchronized (this) {
-                Iterator<RealCall.AsyncCall> it = this.readyAsyncCalls.iterator();
-                Intrinsics.checkNotNullExpressionValue(it, "readyAsyncCalls.iterator()");
-                while (it.hasNext()) {
-                    RealCall.AsyncCall asyncCall = it.next();
+                int i2 = 0;
+                while (i2 < PRIORITIES) {
+                    int i3 = i2 == CallPriority.BULK.ordinal() ? this.maxRequests - (this.maxRequests / 4) : this.maxRequests;
+                    ArrayDeque<HostState> arrayDeque = this.readyHosts[i2];
+                    while (this.runningAsyncCalls.size() < i3) {
+                        HostState hostState = arrayDeque.poll();
+                        if (hostState == null) {
+                            break;
+                        }
+                        hostState.enqueued[i2] = false;
+                        ArrayDeque<RealCall.AsyncCall> arrayDeque2 = hostState.ready[i2];
+                        RealCall.AsyncCall asyncCall = arrayDeque2.peek();
+                        if (asyncCall != null && (asyncCall.getCall().getForWebSocket() || hostState.callsPerHost.get() < limit(hostState))) {
+                            arrayDeque2.poll();
+                            this.readyAsyncCallsCount--;
+                            asyncCall.getCallsPerHost().incrementAndGet();
+                            arrayList.add(asyncCall);
+                            this.runningAsyncCalls.add(asyncCall);
+                            if (!arrayDeque2.isEmpty()) {
+                                hostState.enqueued[i2] = true;
+                                arrayDeque.add(hostState);
+                            }
+                        }
+                    }
                     if (this.runningAsyncCalls.size() >= this.maxRequests) {
                         break;
-                    } else if (asyncCall.getCallsPerHost().get() < this.maxRequestsPerHost) {
-                        it.remove();
-                        asyncCall.getCallsPerHost().incrementAndGet();
-                        Intrinsics.checkNotNullExpressionValue(asyncCall, "asyncCall");
-                        arrayList.add(asyncCall);
-                        this.runningAsyncCalls.add(asyncCall);
                     }
+                    i2++;
                 }
                 z = runningCallsCount() > 0;
                 Unit unit = Unit.INSTANCE;
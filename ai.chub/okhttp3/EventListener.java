@@ -39,6 +39,18 @@ public abstract class EventListener {
         Intrinsics.checkNotNullParameter(call, "call");
     }
 
+    /** Invoked after {@link #cacheHit} when the response served was stale. */
+    public void cacheStaleHit(Call call, Response response) {
+        Intrinsics.checkNotNullParameter(call, "call");
+        Intrinsics.checkNotNullParameter(response, "response");
+    }
+
+    /** Invoked when a stale hit starts a background revalidation with {@code request}. */
+    public void cacheRevalidation(Call call, Request request) {
+        Intrinsics.checkNotNullParameter(call, "call");
+        Intrinsics.checkNotNullParameter(request, "request");
+    }
+
     public void callEnd(Call call) {
         Intrinsics.checkNotNullParameter(call, "call");
     }
@@ -80,6 +92,12 @@ public abstract class EventListener {
         Intrinsics.checkNotNullParameter(connection, "connection");
     }
 
+    /** Invoked once a call holds a connection, with the time spent finding or establishing it. */
+    public void connectionAcquireDuration(Call call, Connection connection, long durationNanos) {
+        Intrinsics.checkNotNullParameter(call, "call");
+        Intrinsics.checkNotNullParameter(connection, "connection");
+    }
+
     public void connectionReleased(Call call, Connection connection) {
         Intrinsics.checkNotNullParameter(call, "call");
         Intrinsics.checkNotNullParameter(connection, "connection");
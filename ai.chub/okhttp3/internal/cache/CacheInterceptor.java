@@ -8,6 +8,7 @@ import kotlin.jvm.internal.Intrinsics;
 import kotlin.text.StringsKt;
 import okhttp3.Cache;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.EventListener;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
@@ -49,22 +50,26 @@ public final class CacheInterceptor implements Interceptor {
         EventListener eventListener;
         ResponseBody body;
         ResponseBody body2;
+        ResponseBody body3;
         Intrinsics.checkNotNullParameter(chain, "chain");
         Call call = chain.call();
         Cache cache = this.cache;
         Response response = cache != null ? cache.get$okhttp(chain.request()) : null;
-        CacheStrategy compute = new CacheStrategy.Factory(System.currentTimeMillis(), chain.request(), response).compute();
+        Cache cache2 = this.cache;
+        boolean z = cache2 != null && cache2.isOffline();
+        CacheStrategy compute = new CacheStrategy.Factory(System.currentTimeMillis(), chain.request(), response, z).compute();
         Request networkRequest = compute.getNetworkRequest();
         Response cacheResponse = compute.getCacheResponse();
-        Cache cache2 = this.cache;
-        if (cache2 != null) {
-            cache2.trackResponse$okhttp(compute);
+        Response fallbackResponse = compute.getFallbackResponse();
+        Cache cache3 = this.cache;
+        if (cache3 != null) {
+            cache3.trackResponse$okhttp(compute);
         }
         RealCall realCall = call instanceof RealCall ? (RealCall) call : null;
         if (realCall == null || (eventListener = realCall.getEventListener$okhttp()) == null) {
             eventListener = EventListener.NONE;
         }
-        if (response != null && cacheResponse == null && (body2 = response.body()) != null) {
+        if (response != null && cacheResponse == null && fallbackResponse == null && (body2 = response.body()) != null) {
             Util.closeQuietly(body2);
         }
         if (networkRequest == null && cacheResponse == null) {
@@ -75,6 +80,16 @@ public final class CacheInterceptor implements Interceptor {
             Intrinsics.checkNotNull(cacheResponse);
             Response build2 = cacheResponse.newBuilder().cacheResponse(Companion.stripBody(cacheResponse)).build();
             eventListener.cacheHit(call, build2);
+            if (compute.isStale()) {
+                Cache cache4 = this.cache;
+                Intrinsics.checkNotNull(cache4);
+                cache4.trackStaleHit$okhttp();
+                eventListener.cacheStaleHit(call, build2);
+                Request revalidationRequest = compute.getRevalidationRequest();
+                if (revalidationRequest != null && realCall != null && !z) {
+                    revalidate(realCall, revalidationRequest, cacheResponse, eventListener);
+                }
+            }
             return build2;
         } else {
             if (cacheResponse != null) {
@@ -82,59 +97,115 @@ public final class CacheInterceptor implements Interceptor {
             } else if (this.cache != null) {
                 eventListener.cacheMiss(call);
             }
+            boolean z2 = false;
+            Response proceed = null;
             try {
-                Response proceed = chain.proceed(networkRequest);
-                if (proceed == null && response != null && body != null) {
+                proceed = chain.proceed(networkRequest);
+            } catch (IOException e) {
+                if (fallbackResponse == null) {
+                    throw e;
                 }
-                if (cacheResponse != null) {
-                    boolean z = false;
-                    if (proceed != null && proceed.code() == 304) {
-                        z = true;
-                    }
-                    if (z) {
-                        Response.Builder newBuilder = cacheResponse.newBuilder();
-                        Companion companion = Companion;
-                        Response build3 = newBuilder.headers(companion.combine(cacheResponse.headers(), proceed.headers())).sentRequestAtMillis(proceed.sentRequestAtMillis()).receivedResponseAtMillis(proceed.receivedResponseAtMillis()).cacheResponse(companion.stripBody(cacheResponse)).networkResponse(companion.stripBody(proceed)).build();
-                        ResponseBody body3 = proceed.body();
-                        Intrinsics.checkNotNull(body3);
+                z2 = true;
+            } finally {
+                if (proceed == null && !z2 && response != null && (body = response.body()) != null) {
+                    Util.closeQuietly(body);
+                }
+            }
+            if (fallbackResponse != null) {
+                if (proceed == null || proceed.code() >= 500) {
+                    if (proceed != null && (body3 = proceed.body()) != null) {
                         body3.close();
-                        Cache cache3 = this.cache;
-                        Intrinsics.checkNotNull(cache3);
-                        cache3.trackConditionalCacheHit$okhttp();
-                        this.cache.update$okhttp(cacheResponse, build3);
-                        eventListener.cacheHit(call, build3);
-                        return build3;
                     }
-                    ResponseBody body4 = cacheResponse.body();
-                    if (body4 != null) {
-                        Util.closeQuietly(body4);
+                    Response build5 = fallbackResponse.newBuilder().addHeader("Warning", "111 HttpURLConnection \"Revalidation failed\"").cacheResponse(Companion.stripBody(fallbackResponse)).build();
+                    Cache cache5 = this.cache;
+                    Intrinsics.checkNotNull(cache5);
+                    cache5.trackStaleHit$okhttp();
+                    eventListener.cacheHit(call, build5);
+                    eventListener.cacheStaleHit(call, build5);
+                    return build5;
+                }
+                if (cacheResponse == null && (body3 = fallbackResponse.body()) != null) {
+                    Util.closeQuietly(body3);
+                }
+            }
+            Intrinsics.checkNotNull(proceed);
+            if (cacheResponse != null) {
+                if (proceed.code() == 304) {
+                    Response.Builder newBuilder = cacheResponse.newBuilder();
+                    Companion companion = Companion;
+                    Response build3 = newBuilder.headers(companion.combine(cacheResponse.headers(), proceed.headers())).sentRequestAtMillis(proceed.sentRequestAtMillis()).receivedResponseAtMillis(proceed.receivedResponseAtMillis()).cacheResponse(companion.stripBody(cacheResponse)).networkResponse(companion.stripBody(proceed)).build();
+                    ResponseBody body4 = proceed.body();
+                    Intrinsics.checkNotNull(body4);
+                    body4.close();
+                    Cache cache6 = this.cache;
+                    Intrinsics.checkNotNull(cache6);
+                    cache6.trackConditionalCacheHit$okhttp();
+                    this.cache.update$okhttp(cacheResponse, build3);
+                    eventListener.cacheHit(call, build3);
+                    return build3;
+                }
+                ResponseBody body5 = cacheResponse.body();
+                if (body5 != null) {
+                    Util.closeQuietly(body5);
+                }
+            }
+            Response.Builder newBuilder2 = proceed.newBuilder();
+            Companion companion2 = Companion;
+            Response build4 = newBuilder2.cacheResponse(companion2.stripBody(cacheResponse)).networkResponse(companion2.stripBody(proceed)).build();
+            if (this.cache != null) {
+                if (HttpHeaders.promisesBody(build4) && CacheStrategy.Companion.isCacheable(build4, networkRequest)) {
+                    Response cacheWritingResponse = cacheWritingResponse(this.cache.put$okhttp(build4), build4);
+                    if (cacheResponse != null) {
+                        eventListener.cacheMiss(call);
+                    }
+                    return cacheWritingResponse;
+                } else if (HttpMethod.INSTANCE.invalidatesCache(networkRequest.method())) {
+                    try {
+                        this.cache.remove$okhttp(networkRequest);
+                    } catch (IOException unused) {
                     }
                 }
-                Intrinsics.checkNotNull(proceed);
-                Response.Builder newBuilder2 = proceed.newBuilder();
-                Companion companion2 = Companion;
-                Response build4 = newBuilder2.cacheResponse(companion2.stripBody(cacheResponse)).networkResponse(companion2.stripBody(proceed)).build();
-                if (this.cache != null) {
-                    if (HttpHeaders.promisesBody(build4) && CacheStrategy.Companion.isCacheable(build4, networkRequest)) {
-                        Response cacheWritingResponse = cacheWritingResponse(this.cache.put$okhttp(build4), build4);
-                        if (cacheResponse != null) {
-                            eventListener.cacheMiss(call);
-                        }
-                        return cacheWritingResponse;
-                    } else if (HttpMethod.INSTANCE.invalidatesCache(networkRequest.method())) {
-                        try {
-                            this.cache.remove$okhttp(networkRequest);
-                        } catch (IOException unused) {
+            }
+            return build4;
+        }
+    }
+
+    /** Runs {@code request} on the client's dispatcher and folds a 304 back into the stored entry. */
+    private final void revalidate(RealCall realCall, final Request request, final Response cacheResponse, EventListener eventListener) {
+        final Cache cache = this.cache;
+        Intrinsics.checkNotNull(cache);
+        if (!cache.startRevalidation$okhttp(request)) {
+            return;
+        }
+        eventListener.cacheRevalidation(realCall, request);
+        realCall.getClient().newCall(request).enqueue(new Callback() { // from class: okhttp3.internal.cache.CacheInterceptor$revalidate$1
+            @Override // okhttp3.Callback
+            public void onFailure(Call call, IOException e) {
+                Intrinsics.checkNotNullParameter(call, "call");
+                Intrinsics.checkNotNullParameter(e, "e");
+                cache.finishRevalidation$okhttp(request);
+            }
+
+            @Override // okhttp3.Callback
+            public void onResponse(Call call, Response response) throws IOException {
+                Intrinsics.checkNotNullParameter(call, "call");
+                Intrinsics.checkNotNullParameter(response, "response");
+                try {
+                    if (response.code() == 304) {
+                        Companion companion = CacheInterceptor.Companion;
+                        cache.update$okhttp(cacheResponse, cacheResponse.newBuilder().headers(companion.combine(cacheResponse.headers(), response.headers())).sentRequestAtMillis(response.sentRequestAtMillis()).receivedResponseAtMillis(response.receivedResponseAtMillis()).cacheResponse(companion.stripBody(cacheResponse)).networkResponse(companion.stripBody(response)).build());
+                    } else {
+                        ResponseBody body = response.body();
+                        if (body != null) {
+                            body.source().readAll(Okio.blackhole());
                         }
                     }
-                }
-                return build4;
-            } finally {
-                if (response != null && (body = response.body()) != null) {
-                    Util.closeQuietly(body);
+                } finally {
+                    Util.closeQuietly(response);
+                    cache.finishRevalidation$okhttp(request);
                 }
             }
-        }
+        });
     }
 
     private final Response cacheWritingResponse(final CacheRequest cacheRequest, Response response) throws IOException {
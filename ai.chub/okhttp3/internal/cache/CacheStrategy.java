@@ -19,11 +19,21 @@ import okhttp3.internal.http.DatesKt;
 public final class CacheStrategy {
     public static final Companion Companion = new Companion(null);
     private final Response cacheResponse;
+    private final Response fallbackResponse;
     private final Request networkRequest;
+    private final Request revalidationRequest;
+    private final boolean stale;
 
     public CacheStrategy(Request request, Response response) {
+        this(request, response, null, null, false);
+    }
+
+    public CacheStrategy(Request request, Response response, Request revalidationRequest, Response fallbackResponse, boolean z) {
         this.networkRequest = request;
         this.cacheResponse = response;
+        this.revalidationRequest = revalidationRequest;
+        this.fallbackResponse = fallbackResponse;
+        this.stale = z;
     }
 
     public final Request getNetworkRequest() {
@@ -34,6 +44,20 @@ public final class CacheStrategy {
         return this.cacheResponse;
     }
 
+    /** Conditional request to run in the background after serving a stale {@link #getCacheResponse()}. */
+    public final Request getRevalidationRequest() {
+        return this.revalidationRequest;
+    }
+
+    /** Stored response to serve if {@link #getNetworkRequest()} fails, per {@code stale-if-error}. */
+    public final Response getFallbackResponse() {
+        return this.fallbackResponse;
+    }
+
+    public final boolean isStale() {
+        return this.stale;
+    }
+
     /* compiled from: CacheStrategy.kt */
     @Metadata(d1 = {"\u0000B\n\u0002\u0018\u0002\n\u0002\u0010\u0000\n\u0000\n\u0002\u0010\t\n\u0000\n\u0002\u0018\u0002\n\u0000\n\u0002\u0018\u0002\n\u0002\b\u0002\n\u0002\u0010\b\n\u0000\n\u0002\u0010\u000e\n\u0000\n\u0002\u0018\u0002\n\u0002\b\n\n\u0002\u0018\u0002\n\u0002\b\u0003\n\u0002\u0010\u000b\n\u0002\b\u0002\u0018\u00002\u00020\u0001B\u001f\u0012\u0006\u0010\u0002\u001a\u00020\u0003\u0012\u0006\u0010\u0004\u001a\u00020\u0005\u0012\b\u0010\u0006\u001a\u0004\u0018\u00010\u0007¢\u0006\u0002\u0010\bJ\b\u0010\u0017\u001a\u00020\u0003H\u0002J\u0006\u0010\u0018\u001a\u00020\u0019J\b\u0010\u001a\u001a\u00020\u0019H\u0002J\b\u0010\u001b\u001a\u00020\u0003H\u0002J\u0010\u0010\u001c\u001a\u00020\u001d2\u0006\u0010\u0004\u001a\u00020\u0005H\u0002J\b\u0010\u001e\u001a\u00020\u001dH\u0002R\u000e\u0010\t\u001a\u00020\nX\u0082\u000e¢\u0006\u0002\n\u0000R\u0010\u0010\u0006\u001a\u0004\u0018\u00010\u0007X\u0082\u0004¢\u0006\u0002\n\u0000R\u0010\u0010\u000b\u001a\u0004\u0018\u00010\fX\u0082\u000e¢\u0006\u0002\n\u0000R\u0010\u0010\r\u001a\u0004\u0018\u00010\u000eX\u0082\u000e¢\u0006\u0002\n\u0000R\u0010\u0010\u000f\u001a\u0004\u0018\u00010\u000eX\u0082\u000e¢\u0006\u0002\n\u0000R\u0010\u0010\u0010\u001a\u0004\u0018\u00010\fX\u0082\u000e¢\u0006\u0002\n\u0000R\u000e\u0010\u0002\u001a\u00020\u0003X\u0082\u0004¢\u0006\u0002\n\u0000R\u000e\u0010\u0011\u001a\u00020\u0003X\u0082\u000e¢\u0006\u0002\n\u0000R\u0014\u0010\u0004\u001a\u00020\u0005X\u0080\u0004¢\u0006\b\n\u0000\u001a\u0004\b\u0012\u0010\u0013R\u000e\u0010\u0014\u001a\u00020\u0003X\u0082\u000e¢\u0006\u0002\n\u0000R\u0010\u0010\u0015\u001a\u0004\u0018\u00010\u000eX\u0082\u000e¢\u0006\u0002\n\u0000R\u0010\u0010\u0016\u001a\u0004\u0018\u00010\fX\u0082\u000e¢\u0006\u0002\n\u0000¨\u0006\u001f"}, d2 = {"Lokhttp3/internal/cache/CacheStrategy$Factory;", HttpUrl.FRAGMENT_ENCODE_SET, "nowMillis", HttpUrl.FRAGMENT_ENCODE_SET, "request", "Lokhttp3/Request;", "cacheResponse", "Lokhttp3/Response;", "(JLokhttp3/Request;Lokhttp3/Response;)V", "ageSeconds", HttpUrl.FRAGMENT_ENCODE_SET, "etag", HttpUrl.FRAGMENT_ENCODE_SET, "expires", "Ljava/util/Date;", "lastModified", "lastModifiedString", "receivedResponseMillis", "getRequest$okhttp", "()Lokhttp3/Request;", "sentRequestMillis", "servedDate", "servedDateString", "cacheResponseAge", "compute", "Lokhttp3/internal/cache/CacheStrategy;", "computeCandidate", "computeFreshnessLifetime", "hasConditions", HttpUrl.FRAGMENT_ENCODE_SET, "isFreshnessLifetimeHeuristic", "okhttp"}, k = 1, mv = {1, 8, 0}, xi = 48)
     /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
@@ -45,18 +69,28 @@ public final class CacheStrategy {
         private Date lastModified;
         private String lastModifiedString;
         private final long nowMillis;
+        private final boolean offline;
         private long receivedResponseMillis;
         private final Request request;
         private long sentRequestMillis;
         private Date servedDate;
         private String servedDateString;
+        private int staleIfErrorSeconds;
+        private int staleWhileRevalidateSeconds;
 
         public Factory(long j, Request request, Response response) {
+            this(j, request, response, false);
+        }
+
+        public Factory(long j, Request request, Response response, boolean z) {
             Intrinsics.checkNotNullParameter(request, "request");
             this.nowMillis = j;
             this.request = request;
             this.cacheResponse = response;
+            this.offline = z;
             this.ageSeconds = -1;
+            this.staleWhileRevalidateSeconds = -1;
+            this.staleIfErrorSeconds = -1;
             if (response != null) {
                 this.sentRequestMillis = response.sentRequestAtMillis();
                 this.receivedResponseMillis = response.receivedResponseAtMillis();
@@ -77,6 +111,10 @@ public final class CacheStrategy {
                         this.etag = value;
                     } else if (StringsKt.equals(name, "Age", true)) {
                         this.ageSeconds = Util.toNonNegativeInt(value, -1);
+                    } else if (StringsKt.equals(name, "Cache-Control", true)) {
+                        Companion companion = CacheStrategy.Companion;
+                        this.staleWhileRevalidateSeconds = Math.max(this.staleWhileRevalidateSeconds, companion.directiveSeconds(value, "stale-while-revalidate"));
+                        this.staleIfErrorSeconds = Math.max(this.staleIfErrorSeconds, companion.directiveSeconds(value, "stale-if-error"));
                     }
                 }
             }
@@ -94,11 +132,31 @@ public final class CacheStrategy {
 
         public final CacheStrategy compute() {
             CacheStrategy computeCandidate = computeCandidate();
-            return (computeCandidate.getNetworkRequest() == null || !this.request.cacheControl().onlyIfCached()) ? computeCandidate : new CacheStrategy(null, null);
+            if (computeCandidate.getNetworkRequest() == null) {
+                return computeCandidate;
+            }
+            if (this.offline) {
+                CacheStrategy computeOffline = computeOffline();
+                if (computeOffline != null) {
+                    return computeOffline;
+                }
+            }
+            return !this.request.cacheControl().onlyIfCached() ? computeCandidate : new CacheStrategy(null, null);
+        }
+
+        /** Serves any usable stored response regardless of age, or returns null to go to the network. */
+        private final CacheStrategy computeOffline() {
+            Response response = this.cacheResponse;
+            if (response == null || this.request.cacheControl().noCache()) {
+                return null;
+            }
+            if ((this.request.isHttps() && response.handshake() == null) || !CacheStrategy.Companion.isCacheable(response, this.request) || hasConditions(this.request)) {
+                return null;
+            }
+            return new CacheStrategy(null, response.newBuilder().addHeader("Warning", "110 HttpURLConnection \"Response is stale\"").build(), null, null, true);
         }
 
         private final CacheStrategy computeCandidate() {
-            String str;
             if (this.cacheResponse == null) {
                 return new CacheStrategy(this.request, null);
             }
@@ -123,19 +181,38 @@ public final class CacheStrategy {
             if (!cacheControl2.mustRevalidate() && cacheControl.maxStaleSeconds() != -1) {
                 j = TimeUnit.SECONDS.toMillis(cacheControl.maxStaleSeconds());
             }
+            boolean z = false;
+            boolean z2 = false;
             if (!cacheControl2.noCache()) {
                 long j2 = millis + cacheResponseAge;
                 if (j2 < j + computeFreshnessLifetime) {
                     Response.Builder newBuilder = this.cacheResponse.newBuilder();
-                    if (j2 >= computeFreshnessLifetime) {
+                    boolean z3 = j2 >= computeFreshnessLifetime;
+                    if (z3) {
                         newBuilder.addHeader("Warning", "110 HttpURLConnection \"Response is stale\"");
                     }
                     if (cacheResponseAge > 86400000 && isFreshnessLifetimeHeuristic()) {
                         newBuilder.addHeader("Warning", "113 HttpURLConnection \"Heuristic expiration\"");
                     }
-                    return new CacheStrategy(null, newBuilder.build());
+                    return new CacheStrategy(null, newBuilder.build(), null, null, z3);
                 }
+                if (!cacheControl2.mustRevalidate()) {
+                    int i = this.staleWhileRevalidateSeconds;
+                    z = i != -1 && cacheResponseAge < TimeUnit.SECONDS.toMillis(i) + computeFreshnessLifetime;
+                    int i2 = this.staleIfErrorSeconds;
+                    z2 = i2 != -1 && cacheResponseAge < TimeUnit.SECONDS.toMillis(i2) + computeFreshnessLifetime;
+                }
+            }
+            CacheStrategy conditionalStrategy = conditionalStrategy();
+            if (z) {
+                Request networkRequest = conditionalStrategy.getCacheResponse() != null ? conditionalStrategy.getNetworkRequest() : this.request.newBuilder().cacheControl(CacheControl.FORCE_NETWORK).build();
+                return new CacheStrategy(null, this.cacheResponse.newBuilder().addHeader("Warning", "110 HttpURLConnection \"Response is stale\"").build(), networkRequest, null, true);
             }
+            return z2 ? new CacheStrategy(conditionalStrategy.getNetworkRequest(), conditionalStrategy.getCacheResponse(), null, this.cacheResponse, false) : conditionalStrategy;
+        }
+
+        private final CacheStrategy conditionalStrategy() {
+            String str;
             String str2 = this.etag;
             if (str2 != null) {
                 str = "If-None-Match";
@@ -211,6 +288,30 @@ public final class CacheStrategy {
         private Companion() {
         }
 
+        /** Returns the seconds value of {@code directive} in a Cache-Control header, or -1 if absent. */
+        public final int directiveSeconds(String value, String directive) {
+            Intrinsics.checkNotNullParameter(value, "value");
+            Intrinsics.checkNotNullParameter(directive, "directive");
+            int length = directive.length();
+            int i = 0;
+            while (i < value.length()) {
+                int indexOf$default = StringsKt.indexOf$default((CharSequence) value, ',', i, false, 4, (Object) null);
+                if (indexOf$default == -1) {
+                    indexOf$default = value.length();
+                }
+                String obj = StringsKt.trim((CharSequence) value.substring(i, indexOf$default)).toString();
+                if (obj.length() > length && obj.charAt(length) == '=' && obj.regionMatches(true, 0, directive, 0, length)) {
+                    String obj2 = StringsKt.trim((CharSequence) obj.substring(length + 1)).toString();
+                    if (obj2.length() >= 2 && obj2.charAt(0) == '"' && obj2.charAt(obj2.length() - 1) == '"') {
+                        obj2 = obj2.substring(1, obj2.length() - 1);
+                    }
+                    return Util.toNonNegativeInt(obj2, -1);
+                }
+                i = indexOf$default + 1;
+            }
+            return -1;
+        }
+
         public final boolean isCacheable(Response response, Request request) {
             Intrinsics.checkNotNullParameter(response, "response");
             Intrinsics.checkNotNullParameter(request, "request");
@@ -0,0 +1,231 @@
+package okhttp3.internal.cache;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import kotlin.jvm.internal.Intrinsics;
+import okhttp3.internal.Util;
+import okhttp3.internal.concurrent.Task;
+import okhttp3.internal.concurrent.TaskQueue;
+import okhttp3.internal.concurrent.TaskRunner;
+import okhttp3.internal.io.FileSystem;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Sink;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * Forwards to {@code delegate}, except that journal flushes of CLEAN, READ and REMOVE records are
+ * handed to a background task. Callers return as soon as their bytes are buffered, and every flush
+ * requested within one commit window is written with a single write and flush. A flush whose pending
+ * bytes hold a DIRTY record is written on the calling thread, since {@link DiskLruCache} relies on
+ * that record being on disk before it creates the entry's dirty files.
+ */
+public final class GroupCommitFileSystem implements FileSystem {
+    private static final long COMMIT_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final ByteString DIRTY_RECORD = ByteString.Companion.encodeUtf8(DiskLruCache.DIRTY + ' ');
+    private final FileSystem delegate;
+    private final TaskQueue queue;
+    private final ArrayList<CommitSink> sinks;
+
+    public GroupCommitFileSystem(FileSystem delegate, TaskRunner taskRunner) {
+        Intrinsics.checkNotNullParameter(delegate, "delegate");
+        Intrinsics.checkNotNullParameter(taskRunner, "taskRunner");
+        this.delegate = delegate;
+        this.queue = taskRunner.newQueue();
+        this.sinks = new ArrayList<>();
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public Source source(File file) throws FileNotFoundException {
+        return this.delegate.source(file);
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public Sink sink(File file) throws FileNotFoundException {
+        return this.delegate.sink(file);
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public Sink appendingSink(File file) throws FileNotFoundException {
+        Intrinsics.checkNotNullParameter(file, "file");
+        Sink appendingSink = this.delegate.appendingSink(file);
+        if (!Intrinsics.areEqual(file.getName(), DiskLruCache.JOURNAL_FILE)) {
+            return appendingSink;
+        }
+        CommitSink commitSink = new CommitSink(appendingSink);
+        synchronized (this.sinks) {
+            this.sinks.add(commitSink);
+        }
+        return commitSink;
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public void delete(File file) throws IOException {
+        this.delegate.delete(file);
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public boolean exists(File file) {
+        return this.delegate.exists(file);
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public long size(File file) {
+        return this.delegate.size(file);
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public void rename(File from, File to) throws IOException {
+        this.delegate.rename(from, to);
+    }
+
+    @Override // okhttp3.internal.io.FileSystem
+    public void deleteContents(File directory) throws IOException {
+        this.delegate.deleteContents(directory);
+    }
+
+    /** Writes out every pending journal flush on the calling thread. */
+    public final void commitAll() throws IOException {
+        ArrayList arrayList;
+        synchronized (this.sinks) {
+            arrayList = new ArrayList(this.sinks);
+        }
+        int size = arrayList.size();
+        for (int i = 0; i < size; i++) {
+            ((CommitSink) arrayList.get(i)).commit();
+        }
+    }
+
+    public String toString() {
+        return "GroupCommitFileSystem(" + this.delegate + ')';
+    }
+
+    final class CommitSink implements Sink {
+        private boolean closed;
+        private final Task commitTask;
+        private final Sink delegate;
+        private boolean dirtyPending;
+        private IOException failure;
+        private final Buffer pending = new Buffer();
+        private boolean scheduled;
+        private final Object writeLock = new Object();
+
+        CommitSink(Sink delegate) {
+            this.delegate = delegate;
+            this.commitTask = new Task(Util.okHttpName + " Cache Journal", true) { // from class: okhttp3.internal.cache.GroupCommitFileSystem$CommitSink$commitTask$1
+                @Override // okhttp3.internal.concurrent.Task
+                public long runOnce() {
+                    try {
+                        CommitSink.this.commit();
+                        return -1L;
+                    } catch (IOException unused) {
+                        return -1L;
+                    }
+                }
+            };
+        }
+
+        @Override // okio.Sink
+        public void write(Buffer source, long byteCount) throws IOException {
+            Intrinsics.checkNotNullParameter(source, "source");
+            synchronized (this) {
+                throwIfFailed();
+                long size = this.pending.size();
+                this.pending.write(source, byteCount);
+                if (!this.dirtyPending && this.pending.indexOf(GroupCommitFileSystem.DIRTY_RECORD, Math.max(0L, size - (GroupCommitFileSystem.DIRTY_RECORD.size() - 1))) != -1) {
+                    this.dirtyPending = true;
+                }
+            }
+        }
+
+        @Override // okio.Sink, java.io.Flushable
+        public void flush() throws IOException {
+            boolean z;
+            synchronized (this) {
+                throwIfFailed();
+                if (this.closed || this.pending.size() == 0) {
+                    return;
+                }
+                z = this.dirtyPending;
+                if (!z) {
+                    if (this.scheduled) {
+                        return;
+                    }
+                    this.scheduled = true;
+                }
+            }
+            if (z) {
+                commit();
+            } else {
+                GroupCommitFileSystem.this.queue.schedule(this.commitTask, GroupCommitFileSystem.COMMIT_WINDOW_NANOS);
+            }
+        }
+
+        /**
+         * Drains everything buffered so far to the underlying file. Failures surface on the next write,
+         * or right away when called from {@link #flush} for a DIRTY record.
+         */
+        final void commit() throws IOException {
+            synchronized (this.writeLock) {
+                Buffer buffer = new Buffer();
+                synchronized (this) {
+                    this.scheduled = false;
+                    this.dirtyPending = false;
+                    if (this.failure != null || this.pending.size() == 0) {
+                        return;
+                    }
+                    buffer.write(this.pending, this.pending.size());
+                }
+                try {
+                    this.delegate.write(buffer, buffer.size());
+                    this.delegate.flush();
+                } catch (IOException e) {
+                    synchronized (this) {
+                        this.failure = e;
+                        this.pending.clear();
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        @Override // okio.Sink, java.io.Closeable, java.lang.AutoCloseable
+        public void close() throws IOException {
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                this.closed = true;
+            }
+            synchronized (GroupCommitFileSystem.this.sinks) {
+                GroupCommitFileSystem.this.sinks.remove(this);
+            }
+            try {
+                commit();
+                this.delegate.close();
+                synchronized (this) {
+                    throwIfFailed();
+                }
+            } catch (IOException e) {
+                Util.closeQuietly(this.delegate);
+                throw e;
+            }
+        }
+
+        @Override // okio.Sink
+        public Timeout timeout() {
+            return this.delegate.timeout();
+        }
+
+        private void throwIfFailed() throws IOException {
+            IOException iOException = this.failure;
+            if (iOException != null) {
+                throw iOException;
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package okhttp3.internal.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import kotlin.jvm.internal.Intrinsics;
+import okhttp3.internal.concurrent.TaskRunner;
+import okhttp3.internal.io.FileSystem;
+
+/**
+ * Spreads entries across independent {@link DiskLruCache} shards by key hash. Each shard keeps its
+ * own LRU map, lock and journal in {@code shard-N} under {@code directory}, so concurrent readers of
+ * different keys don't serialize on one monitor. Shard journals share a {@link GroupCommitFileSystem}
+ * so edits don't wait on the journal flush while holding their shard's lock.
+ *
+ * <p>A single shard keeps the plain {@link DiskLruCache} layout in {@code directory} itself. Shard
+ * directories left by an earlier, larger shard count are deleted on first use so they don't hold disk
+ * space outside {@code maxSize}.
+ */
+public final class ShardedDiskLruCache implements Closeable, Flushable {
+    private static final String SHARD_PREFIX = "shard-";
+    private final GroupCommitFileSystem commitFileSystem;
+    private final File directory;
+    private final FileSystem fileSystem;
+    private volatile boolean initialized;
+    private final long maxSize;
+    private final DiskLruCache[] shards;
+
+    public ShardedDiskLruCache(FileSystem fileSystem, File directory, int appVersion, int valueCount, long maxSize, int shardCount, TaskRunner taskRunner) {
+        Intrinsics.checkNotNullParameter(fileSystem, "fileSystem");
+        Intrinsics.checkNotNullParameter(directory, "directory");
+        Intrinsics.checkNotNullParameter(taskRunner, "taskRunner");
+        if (!(maxSize > 0)) {
+            throw new IllegalArgumentException("maxSize <= 0".toString());
+        }
+        if (!(shardCount > 0)) {
+            throw new IllegalArgumentException(("shardCount <= 0: " + shardCount).toString());
+        }
+        this.fileSystem = fileSystem;
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.shards = new DiskLruCache[shardCount];
+        if (shardCount == 1) {
+            this.commitFileSystem = null;
+            this.shards[0] = new DiskLruCache(fileSystem, directory, appVersion, valueCount, maxSize, taskRunner);
+            return;
+        }
+        GroupCommitFileSystem groupCommitFileSystem = new GroupCommitFileSystem(fileSystem, taskRunner);
+        this.commitFileSystem = groupCommitFileSystem;
+        long max = Math.max(1L, maxSize / shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new DiskLruCache(groupCommitFileSystem, new File(directory, SHARD_PREFIX + i), appVersion, valueCount, max, taskRunner);
+        }
+    }
+
+    public final File getDirectory() {
+        return this.directory;
+    }
+
+    public final long getMaxSize() {
+        return this.maxSize;
+    }
+
+    public final int getShardCount() {
+        return this.shards.length;
+    }
+
+    private final DiskLruCache shard(String key) throws IOException {
+        if (!this.initialized) {
+            prepareLayout();
+        }
+        DiskLruCache[] diskLruCacheArr = this.shards;
+        int hashCode = key.hashCode();
+        return diskLruCacheArr[((hashCode ^ (hashCode >>> 16)) & Integer.MAX_VALUE) % diskLruCacheArr.length];
+    }
+
+    /**
+     * Clears a journal left in the top-level directory by an unsharded cache, whose entries can't be
+     * routed, and deletes the shard directories beyond the current shard count.
+     */
+    private final synchronized void prepareLayout() throws IOException {
+        if (this.initialized) {
+            return;
+        }
+        int length = this.shards.length;
+        if (length == 1) {
+            length = 0;
+        } else if (this.fileSystem.exists(new File(this.directory, DiskLruCache.JOURNAL_FILE)) || this.fileSystem.exists(new File(this.directory, DiskLruCache.JOURNAL_FILE_BACKUP))) {
+            this.fileSystem.deleteContents(this.directory);
+        }
+        while (true) {
+            File file = new File(this.directory, SHARD_PREFIX + length);
+            if (!this.fileSystem.exists(file)) {
+                break;
+            }
+            this.fileSystem.deleteContents(file);
+            this.fileSystem.delete(file);
+            length++;
+        }
+        this.initialized = true;
+    }
+
+    public final void initialize() throws IOException {
+        if (!this.initialized) {
+            prepareLayout();
+        }
+        for (DiskLruCache diskLruCache : this.shards) {
+            diskLruCache.initialize();
+        }
+    }
+
+    public final DiskLruCache.Snapshot get(String key) throws IOException {
+        Intrinsics.checkNotNullParameter(key, "key");
+        return shard(key).get(key);
+    }
+
+    public final DiskLruCache.Editor edit(String key) throws IOException {
+        Intrinsics.checkNotNullParameter(key, "key");
+        return shard(key).edit(key);
+    }
+
+    public final boolean remove(String key) throws IOException {
+        Intrinsics.checkNotNullParameter(key, "key");
+        return shard(key).remove(key);
+    }
+
+    public final long size() throws IOException {
+        long j = 0;
+        for (DiskLruCache diskLruCache : this.shards) {
+            j += diskLruCache.size();
+        }
+        return j;
+    }
+
+    public final boolean isClosed() {
+        return this.shards[0].isClosed();
+    }
+
+    public final void evictAll() throws IOException {
+        for (DiskLruCache diskLruCache : this.shards) {
+            diskLruCache.evictAll();
+        }
+    }
+
+    public final Iterator<DiskLruCache.Snapshot> snapshots() throws IOException {
+        if (!this.initialized) {
+            prepareLayout();
+        }
+        return new SnapshotIterator(this.shards);
+    }
+
+    @Override // java.io.Flushable
+    public void flush() throws IOException {
+        for (DiskLruCache diskLruCache : this.shards) {
+            diskLruCache.flush();
+        }
+        GroupCommitFileSystem groupCommitFileSystem = this.commitFileSystem;
+        if (groupCommitFileSystem != null) {
+            groupCommitFileSystem.commitAll();
+        }
+    }
+
+    @Override // java.io.Closeable, java.lang.AutoCloseable
+    public void close() throws IOException {
+        IOException e = null;
+        for (DiskLruCache diskLruCache : this.shards) {
+            try {
+                diskLruCache.close();
+            } catch (IOException e2) {
+                if (e == null) {
+                    e = e2;
+                }
+            }
+        }
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    public final void delete() throws IOException {
+        close();
+        this.fileSystem.deleteContents(this.directory);
+    }
+
+    private static final class SnapshotIterator implements Iterator<DiskLruCache.Snapshot> {
+        private Iterator<DiskLruCache.Snapshot> current;
+        private Iterator<DiskLruCache.Snapshot> last;
+        private int next;
+        private final DiskLruCache[] shards;
+
+        SnapshotIterator(DiskLruCache[] shards) {
+            this.shards = shards;
+        }
+
+        @Override // java.util.Iterator
+        public boolean hasNext() {
+            while (true) {
+                Iterator<DiskLruCache.Snapshot> it = this.current;
+                if (it != null && it.hasNext()) {
+                    return true;
+                }
+                int i = this.next;
+                DiskLruCache[] diskLruCacheArr = this.shards;
+                if (i >= diskLruCacheArr.length) {
+                    return false;
+                }
+                this.next = i + 1;
+                try {
+                    this.current = diskLruCacheArr[i].snapshots();
+                } catch (IOException unused) {
+                    this.current = null;
+                }
+            }
+        }
+
+        @Override // java.util.Iterator
+        public DiskLruCache.Snapshot next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Iterator<DiskLruCache.Snapshot> it = this.current;
+            this.last = it;
+            return it.next();
+        }
+
+        @Override // java.util.Iterator
+        public void remove() {
+            Iterator<DiskLruCache.Snapshot> it = this.last;
+            if (it == null) {
+                throw new IllegalStateException("remove() before next()".toString());
+            }
+            it.remove();
+            this.last = null;
+        }
+    }
+}
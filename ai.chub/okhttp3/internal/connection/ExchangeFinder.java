@@ -16,6 +16,7 @@ import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Route;
 import okhttp3.internal.Util;
+import okhttp3.internal.concurrent.TaskRunner;
 import okhttp3.internal.connection.RouteSelector;
 import okhttp3.internal.http.ExchangeCodec;
 import okhttp3.internal.http.RealInterceptorChain;
@@ -56,7 +57,10 @@ public final class ExchangeFinder {
         Intrinsics.checkNotNullParameter(client, "client");
         Intrinsics.checkNotNullParameter(chain, "chain");
         try {
-            return findHealthyConnection(chain.getConnectTimeoutMillis$okhttp(), chain.getReadTimeoutMillis$okhttp(), chain.getWriteTimeoutMillis$okhttp(), client.pingIntervalMillis(), client.retryOnConnectionFailure(), !Intrinsics.areEqual(chain.getRequest$okhttp().method(), ShareTarget.METHOD_GET)).newCodec$okhttp(client, chain);
+            long nanoTime = System.nanoTime();
+            RealConnection findHealthyConnection = findHealthyConnection(chain.getConnectTimeoutMillis$okhttp(), chain.getReadTimeoutMillis$okhttp(), chain.getWriteTimeoutMillis$okhttp(), client.pingIntervalMillis(), client.retryOnConnectionFailure(), !Intrinsics.areEqual(chain.getRequest$okhttp().method(), ShareTarget.METHOD_GET));
+            this.eventListener.connectionAcquireDuration(this.call, findHealthyConnection, System.nanoTime() - nanoTime);
+            return findHealthyConnection.newCodec$okhttp(client, chain);
         } catch (IOException e) {
             trackFailure(e);
             throw new RouteException(e);
@@ -66,6 +70,23 @@ public final class ExchangeFinder {
         }
     }
 
+    /** Finds or establishes a connection for the address without opening a stream on it. */
+    public final RealConnection prewarm$okhttp(OkHttpClient client) throws IOException {
+        Intrinsics.checkNotNullParameter(client, "client");
+        try {
+            long nanoTime = System.nanoTime();
+            RealConnection findHealthyConnection = findHealthyConnection(client.connectTimeoutMillis(), client.readTimeoutMillis(), client.writeTimeoutMillis(), client.pingIntervalMillis(), client.retryOnConnectionFailure(), false);
+            this.eventListener.connectionAcquireDuration(this.call, findHealthyConnection, System.nanoTime() - nanoTime);
+            return findHealthyConnection;
+        } catch (IOException e) {
+            trackFailure(e);
+            throw e;
+        } catch (RouteException e2) {
+            trackFailure(e2.getLastConnectException());
+            throw e2.getLastConnectException();
+        }
+    }
+
     private final RealConnection findHealthyConnection(int i, int i2, int i3, int i4, boolean z, boolean z2) throws IOException {
         while (true) {
             RealConnection findConnection = findConnection(i, i2, i3, i4, z);
@@ -87,35 +108,32 @@ public final class ExchangeFinder {
         }
     }
 
-    /* JADX WARN: Removed duplicated region for block: B:58:0x0149  */
-    /* JADX WARN: Removed duplicated region for block: B:60:0x0168  */
-    /*
-        Code decompiled incorrectly, please refer to instructions dump.
-    */
     private final RealConnection findConnection(int i, int i2, int i3, int i4, boolean z) throws IOException {
         List<Route> routes;
-        Socket releaseConnectionNoEvents$okhttp;
+        Route route;
+        RealConnection realConnection;
+        Socket socket;
         if (this.call.isCanceled()) {
             throw new IOException("Canceled");
         }
         RealConnection connection = this.call.getConnection();
         if (connection != null) {
             synchronized (connection) {
-                if (!connection.getNoNewExchanges() && sameHostAndPort(connection.route().address().url())) {
-                    releaseConnectionNoEvents$okhttp = null;
-                    Unit unit = Unit.INSTANCE;
+                if (connection.getNoNewExchanges() || !sameHostAndPort(connection.route().address().url())) {
+                    socket = this.call.releaseConnectionNoEvents$okhttp();
+                } else {
+                    socket = null;
                 }
-                releaseConnectionNoEvents$okhttp = this.call.releaseConnectionNoEvents$okhttp();
-                Unit unit2 = Unit.INSTANCE;
+                Unit unit = Unit.INSTANCE;
             }
             if (this.call.getConnection() != null) {
-                if (releaseConnectionNoEvents$okhttp == null) {
+                if (socket == null) {
                     return connection;
                 }
                 throw new IllegalStateException("Check failed.".toString());
             }
-            if (releaseConnectionNoEvents$okhttp != null) {
-                Util.closeQuietly(releaseConnectionNoEvents$okhttp);
+            if (socket != null) {
+                Util.closeQuietly(socket);
             }
             this.eventListener.connectionReleased(this.call, connection);
         }
@@ -128,21 +146,17 @@ public final class ExchangeFinder {
             this.eventListener.connectionAcquired(this.call, connection2);
             return connection2;
         }
-        Route route = this.nextRouteToTry;
-        try {
-            if (route != null) {
-                Intrinsics.checkNotNull(route);
-                this.nextRouteToTry = null;
+        Route route2 = this.nextRouteToTry;
+        if (route2 != null) {
+            this.nextRouteToTry = null;
+            routes = null;
+            route = route2;
+        } else {
+            RouteSelector.Selection selection = this.routeSelection;
+            if (selection != null && selection.hasNext()) {
+                routes = null;
+                route = selection.next();
             } else {
-                RouteSelector.Selection selection = this.routeSelection;
-                if (selection != null) {
-                    Intrinsics.checkNotNull(selection);
-                    if (selection.hasNext()) {
-                        RouteSelector.Selection selection2 = this.routeSelection;
-                        Intrinsics.checkNotNull(selection2);
-                        route = selection2.next();
-                    }
-                }
                 RouteSelector routeSelector = this.routeSelector;
                 if (routeSelector == null) {
                     routeSelector = new RouteSelector(this.address, this.call.getClient().getRouteDatabase(), this.call, this.eventListener);
@@ -161,39 +175,37 @@ public final class ExchangeFinder {
                     return connection3;
                 }
                 route = next.next();
-                RealConnection realConnection = new RealConnection(this.connectionPool, route);
-                this.call.setConnectionToCancel(realConnection);
+            }
+        }
+        RouteSelector.Selection selection2 = this.routeSelection;
+        if (route2 == null && selection2 != null && selection2.hasNext()) {
+            realConnection = new FastFallbackConnector(this.connectionPool, this.call, this.eventListener, TaskRunner.INSTANCE).connect(route, selection2, i, i2, i3, i4, z);
+            route = realConnection.route();
+        } else {
+            realConnection = new RealConnection(this.connectionPool, route);
+            this.call.setConnectionToCancel(realConnection);
+            try {
                 realConnection.connect(i, i2, i3, i4, z, this.call, this.eventListener);
+            } finally {
                 this.call.setConnectionToCancel(null);
-                this.call.getClient().getRouteDatabase().connected(realConnection.route());
-                if (!this.connectionPool.callAcquirePooledConnection(this.address, this.call, routes, true)) {
-                    RealConnection connection4 = this.call.getConnection();
-                    Intrinsics.checkNotNull(connection4);
-                    this.nextRouteToTry = route;
-                    Util.closeQuietly(realConnection.socket());
-                    this.eventListener.connectionAcquired(this.call, connection4);
-                    return connection4;
-                }
-                synchronized (realConnection) {
-                    this.connectionPool.put(realConnection);
-                    this.call.acquireConnectionNoEvents(realConnection);
-                    Unit unit3 = Unit.INSTANCE;
-                }
-                this.eventListener.connectionAcquired(this.call, realConnection);
-                return realConnection;
-            }
-            realConnection.connect(i, i2, i3, i4, z, this.call, this.eventListener);
-            this.call.setConnectionToCancel(null);
-            this.call.getClient().getRouteDatabase().connected(realConnection.route());
-            if (!this.connectionPool.callAcquirePooledConnection(this.address, this.call, routes, true)) {
             }
-        } catch (Throwable th) {
-            this.call.setConnectionToCancel(null);
-            throw th;
         }
-        routes = null;
-        RealConnection realConnection2 = new RealConnection(this.connectionPool, route);
-        this.call.setConnectionToCancel(realConnection2);
+        this.call.getClient().getRouteDatabase().connected(realConnection.route());
+        if (this.connectionPool.callAcquirePooledConnection(this.address, this.call, routes, true)) {
+            RealConnection connection4 = this.call.getConnection();
+            Intrinsics.checkNotNull(connection4);
+            this.nextRouteToTry = route;
+            Util.closeQuietly(realConnection.socket());
+            this.eventListener.connectionAcquired(this.call, connection4);
+            return connection4;
+        }
+        synchronized (realConnection) {
+            this.connectionPool.put(realConnection);
+            this.call.acquireConnectionNoEvents(realConnection);
+            Unit unit2 = Unit.INSTANCE;
+        }
+        this.eventListener.connectionAcquired(this.call, realConnection);
+        return realConnection;
     }
 
     public final void trackFailure(IOException e) {
@@ -0,0 +1,180 @@
+package okhttp3.internal.connection;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import kotlin.ExceptionsKt;
+import kotlin.jvm.internal.Intrinsics;
+import okhttp3.EventListener;
+import okhttp3.Route;
+import okhttp3.internal.Util;
+import okhttp3.internal.concurrent.Task;
+import okhttp3.internal.concurrent.TaskRunner;
+
+/**
+ * Races connects across the routes of one selection, RFC 8305 style. A new attempt starts every
+ * {@link #CONNECTION_ATTEMPT_DELAY_MS} or as soon as one fails, and the first attempt to connect wins;
+ * the rest are cancelled. Routes that fail are recorded in the client's {@link RouteDatabase}. While racing,
+ * the connector is registered with the call so that {@link RealCall#cancel()} closes every attempt at once.
+ */
+public final class FastFallbackConnector {
+    public static final long CONNECTION_ATTEMPT_DELAY_MS = 250;
+    private static final Attempt CANCELED = new Attempt(null, null);
+    private final RealCall call;
+    private final RealConnectionPool connectionPool;
+    private final EventListener eventListener;
+    private boolean finished;
+    private final ArrayList<RealConnection> running;
+    private final LinkedBlockingQueue<Attempt> results;
+    private final TaskRunner taskRunner;
+
+    private static final class Attempt {
+        final RealConnection connection;
+        final IOException failure;
+
+        Attempt(RealConnection connection, IOException failure) {
+            this.connection = connection;
+            this.failure = failure;
+        }
+    }
+
+    public FastFallbackConnector(RealConnectionPool connectionPool, RealCall call, EventListener eventListener, TaskRunner taskRunner) {
+        Intrinsics.checkNotNullParameter(connectionPool, "connectionPool");
+        Intrinsics.checkNotNullParameter(call, "call");
+        Intrinsics.checkNotNullParameter(eventListener, "eventListener");
+        Intrinsics.checkNotNullParameter(taskRunner, "taskRunner");
+        this.connectionPool = connectionPool;
+        this.call = call;
+        this.eventListener = eventListener;
+        this.taskRunner = taskRunner;
+        this.running = new ArrayList<>();
+        this.results = new LinkedBlockingQueue<>();
+    }
+
+    /** Returns the first connection to succeed, starting with {@code first} and drawing more routes from {@code selection}. */
+    public final RealConnection connect(Route first, RouteSelector.Selection selection, int i, int i2, int i3, int i4, boolean z) throws IOException {
+        Intrinsics.checkNotNullParameter(first, "first");
+        Intrinsics.checkNotNullParameter(selection, "selection");
+        IOException iOException = null;
+        this.call.setFastFallbackToCancel$okhttp(this);
+        try {
+            start(first, i, i2, i3, i4, z);
+            while (true) {
+                if (this.call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                try {
+                    Attempt poll = this.results.poll(CONNECTION_ATTEMPT_DELAY_MS, TimeUnit.MILLISECONDS);
+                    if (poll == null) {
+                        if (selection.hasNext()) {
+                            start(selection.next(), i, i2, i3, i4, z);
+                        }
+                    } else if (poll != CANCELED) {
+                        synchronized (this) {
+                            this.running.remove(poll.connection);
+                        }
+                        if (poll.failure == null) {
+                            return poll.connection;
+                        }
+                        poll.connection.connectFailed$okhttp(this.call.getClient(), poll.connection.route(), poll.failure);
+                        if (iOException == null) {
+                            iOException = poll.failure;
+                        } else {
+                            ExceptionsKt.addSuppressed(iOException, poll.failure);
+                        }
+                        if (selection.hasNext()) {
+                            start(selection.next(), i, i2, i3, i4, z);
+                        } else if (isIdle()) {
+                            throw iOException;
+                        }
+                    }
+                } catch (InterruptedException unused) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        } finally {
+            this.call.setFastFallbackToCancel$okhttp(null);
+            cancelLosers();
+        }
+    }
+
+    /** Closes the sockets of all in-flight attempts and wakes up {@link #connect}, which then sees the canceled call. */
+    public final void cancel() {
+        ArrayList arrayList;
+        synchronized (this) {
+            arrayList = new ArrayList(this.running);
+        }
+        int size = arrayList.size();
+        for (int i = 0; i < size; i++) {
+            ((RealConnection) arrayList.get(i)).cancel();
+        }
+        this.results.add(CANCELED);
+    }
+
+    private final synchronized boolean isIdle() {
+        return this.running.isEmpty();
+    }
+
+    private final void start(Route route, final int i, final int i2, final int i3, final int i4, final boolean z) {
+        final RealConnection realConnection = new RealConnection(this.connectionPool, route);
+        synchronized (this) {
+            this.running.add(realConnection);
+        }
+        this.taskRunner.newQueue().schedule(new Task(Util.okHttpName + " Connect " + route.socketAddress(), false) { // from class: okhttp3.internal.connection.FastFallbackConnector$start$1
+            @Override // okhttp3.internal.concurrent.Task
+            public long runOnce() {
+                IOException iOException = null;
+                try {
+                    realConnection.connect(i, i2, i3, i4, z, FastFallbackConnector.this.call, FastFallbackConnector.this.eventListener);
+                } catch (RouteException e) {
+                    iOException = e.getLastConnectException();
+                } catch (Throwable th) {
+                    iOException = th instanceof IOException ? (IOException) th : new IOException("Connect to " + realConnection.route().socketAddress() + " failed", th);
+                } finally {
+                    FastFallbackConnector.this.finish(new Attempt(realConnection, iOException));
+                }
+                return -1L;
+            }
+        }, 0L);
+    }
+
+    /** Hands a result to {@link #connect}, or closes it if the race is already decided. */
+    final void finish(Attempt attempt) {
+        synchronized (this) {
+            if (!this.finished) {
+                this.results.add(attempt);
+                return;
+            }
+        }
+        if (attempt != CANCELED && attempt.failure == null) {
+            Util.closeQuietly(attempt.connection.socket());
+        }
+    }
+
+    private final void cancelLosers() {
+        ArrayList arrayList;
+        synchronized (this) {
+            this.finished = true;
+            arrayList = new ArrayList(this.running);
+            this.running.clear();
+        }
+        int size = arrayList.size();
+        for (int i = 0; i < size; i++) {
+            ((RealConnection) arrayList.get(i)).cancel();
+        }
+        while (true) {
+            Attempt poll = this.results.poll();
+            if (poll == null) {
+                return;
+            }
+            if (poll != CANCELED && poll.failure == null) {
+                Socket socket = poll.connection.socket();
+                Util.closeQuietly(socket);
+            }
+        }
+    }
+}
@@ -24,12 +24,14 @@ import kotlin.collections.CollectionsKt;
 import kotlin.jvm.internal.Intrinsics;
 import okhttp3.Address;
 import okhttp3.Call;
+import okhttp3.CallPriority;
 import okhttp3.Callback;
 import okhttp3.CertificatePinner;
 import okhttp3.Dispatcher;
 import okhttp3.EventListener;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.internal.Util;
@@ -50,12 +52,14 @@ public final class RealCall implements Call {
     private RealConnection connection;
     private final RealConnectionPool connectionPool;
     private volatile RealConnection connectionToCancel;
+    private volatile FastFallbackConnector fastFallbackToCancel;
     private final EventListener eventListener;
     private volatile Exchange exchange;
     private ExchangeFinder exchangeFinder;
     private final AtomicBoolean executed;
     private boolean expectMoreExchanges;
     private final boolean forWebSocket;
+    private volatile long headersNanos;
     private Exchange interceptorScopedExchange;
     private final Request originalRequest;
     private boolean requestBodyOpen;
@@ -82,6 +86,7 @@ public final class RealCall implements Call {
         this.timeout = r4;
         this.executed = new AtomicBoolean();
         this.expectMoreExchanges = true;
+        this.headersNanos = -1L;
     }
 
     public final OkHttpClient getClient() {
@@ -116,6 +121,22 @@ public final class RealCall implements Call {
         this.connectionToCancel = realConnection;
     }
 
+    public final void setFastFallbackToCancel$okhttp(FastFallbackConnector fastFallbackConnector) {
+        this.fastFallbackToCancel = fastFallbackConnector;
+    }
+
+    /**
+     * Nanoseconds from writing the request headers until the response headers were read for the most recent network
+     * exchange, or -1 if the response was served without reaching the network.
+     */
+    public final long getHeadersNanos$okhttp() {
+        return this.headersNanos;
+    }
+
+    public final void setHeadersNanos$okhttp(long j) {
+        this.headersNanos = j;
+    }
+
     @Override // okhttp3.Call
     public AsyncTimeout timeout() {
         return this.timeout;
@@ -145,6 +166,10 @@ public final class RealCall implements Call {
         if (realConnection != null) {
             realConnection.cancel();
         }
+        FastFallbackConnector fastFallbackConnector = this.fastFallbackToCancel;
+        if (fastFallbackConnector != null) {
+            fastFallbackConnector.cancel();
+        }
         this.eventListener.canceled(this);
     }
 
@@ -183,6 +208,29 @@ public final class RealCall implements Call {
         return this.executed.get();
     }
 
+    /**
+     * Opens a connection to this call's host and leaves it idle in the pool, without sending the request. A
+     * pooled connection that already fits is reused instead.
+     */
+    public final void prewarm$okhttp() throws IOException {
+        if (!this.executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already Executed".toString());
+        }
+        this.timeout.enter();
+        callStart();
+        enterNetworkInterceptorExchange(this.originalRequest, true);
+        try {
+            ExchangeFinder exchangeFinder = this.exchangeFinder;
+            Intrinsics.checkNotNull(exchangeFinder);
+            exchangeFinder.prewarm$okhttp(this.client);
+            noMoreExchanges$okhttp(null);
+        } catch (IOException e) {
+            IOException noMoreExchanges$okhttp = noMoreExchanges$okhttp(e);
+            Intrinsics.checkNotNull(noMoreExchanges$okhttp, "null cannot be cast to non-null type kotlin.Throwable");
+            throw noMoreExchanges$okhttp;
+        }
+    }
+
     private final void callStart() {
         this.callStackTrace = Platform.Companion.get().getStackTraceForCloseable("response.body().close()");
         this.eventListener.callStart(this);
@@ -460,6 +508,9 @@ public final class RealCall implements Call {
     /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
     public final class AsyncCall implements Runnable {
         private volatile AtomicInteger callsPerHost;
+        private volatile int code;
+        private volatile boolean failed;
+        private volatile Protocol protocol;
         private final Callback responseCallback;
         final /* synthetic */ RealCall this$0;
 
@@ -479,6 +530,33 @@ public final class RealCall implements Call {
             this.callsPerHost = other.callsPerHost;
         }
 
+        public final void setCallsPerHost$okhttp(AtomicInteger callsPerHost) {
+            Intrinsics.checkNotNullParameter(callsPerHost, "callsPerHost");
+            this.callsPerHost = callsPerHost;
+        }
+
+        public final CallPriority getPriority() {
+            CallPriority callPriority = (CallPriority) this.this$0.getOriginalRequest().tag(CallPriority.class);
+            return callPriority == null ? CallPriority.DEFAULT : callPriority;
+        }
+
+        /** Server latency of the call as measured by {@link RealCall#getHeadersNanos$okhttp}. */
+        public final long getHeadersNanos$okhttp() {
+            return this.this$0.getHeadersNanos$okhttp();
+        }
+
+        public final Protocol getProtocol$okhttp() {
+            return this.protocol;
+        }
+
+        public final int getCode$okhttp() {
+            return this.code;
+        }
+
+        public final boolean getFailed$okhttp() {
+            return this.failed;
+        }
+
         public final String getHost() {
             return this.this$0.getOriginalRequest().url().host();
         }
@@ -517,7 +595,6 @@ public final class RealCall implements Call {
 
         @Override // java.lang.Runnable
         public void run() {
-            Dispatcher dispatcher;
             RealCall realCall = this.this$0;
             Thread currentThread = Thread.currentThread();
             String name = currentThread.getName();
@@ -527,35 +604,31 @@ public final class RealCall implements Call {
                 boolean z = false;
                 try {
                     try {
-                        this.responseCallback.onResponse(realCall, realCall.getResponseWithInterceptorChain$okhttp());
-                        dispatcher = realCall.getClient().dispatcher();
-                    } catch (IOException e) {
-                        e = e;
+                        Response responseWithInterceptorChain$okhttp = realCall.getResponseWithInterceptorChain$okhttp();
+                        this.protocol = responseWithInterceptorChain$okhttp.protocol();
+                        this.code = responseWithInterceptorChain$okhttp.code();
                         z = true;
+                        this.responseCallback.onResponse(realCall, responseWithInterceptorChain$okhttp);
+                    } catch (IOException e) {
                         if (z) {
                             Platform.Companion.get().log("Callback failure for " + realCall.toLoggableString(), 4, e);
                         } else {
+                            this.failed = true;
                             this.responseCallback.onFailure(realCall, e);
                         }
-                        dispatcher = realCall.getClient().dispatcher();
-                        dispatcher.finished$okhttp(this);
                     } catch (Throwable th) {
-                        th = th;
-                        z = true;
                         realCall.cancel();
                         if (!z) {
+                            this.failed = true;
                             IOException iOException = new IOException("canceled due to " + th);
                             ExceptionsKt.addSuppressed(iOException, th);
                             this.responseCallback.onFailure(realCall, iOException);
                         }
                         throw th;
                     }
-                } catch (IOException e2) {
-                    e = e2;
-                } catch (Throwable th2) {
-                    th = th2;
+                } finally {
+                    realCall.getClient().dispatcher().finished$okhttp(this);
                 }
-                dispatcher.finished$okhttp(this);
             } finally {
                 currentThread.setName(name);
             }
@@ -74,6 +74,7 @@ public final class RealConnection extends Http2Connection.Listener implements Co
     private Handshake handshake;
     private Http2Connection http2Connection;
     private long idleAtNs;
+    private long lastHealthCheckNs;
     private boolean noCoalescedConnections;
     private boolean noNewExchanges;
     private Protocol protocol;
@@ -148,10 +149,31 @@ public final class RealConnection extends Http2Connection.Listener implements Co
         this.idleAtNs = j;
     }
 
+    public final long getLastHealthCheckNs$okhttp() {
+        return this.lastHealthCheckNs;
+    }
+
+    public final void setLastHealthCheckNs$okhttp(long j) {
+        this.lastHealthCheckNs = j;
+    }
+
     public final boolean isMultiplexed$okhttp() {
         return this.http2Connection != null;
     }
 
+    public final Http2Connection getHttp2Connection$okhttp() {
+        return this.http2Connection;
+    }
+
+    /** Returns the last measured HTTP/2 ping round trip, or -1 for HTTP/1 or before the first health check. */
+    public final long rttNanos() {
+        Http2Connection http2Connection = this.http2Connection;
+        if (http2Connection != null) {
+            return http2Connection.getRttNanos();
+        }
+        return -1L;
+    }
+
     public final synchronized void noNewExchanges$okhttp() {
         this.noNewExchanges = true;
     }
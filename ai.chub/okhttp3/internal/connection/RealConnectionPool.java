@@ -1,11 +1,13 @@
 package okhttp3.internal.connection;
 
 import androidx.core.app.NotificationCompat;
+import java.io.IOException;
 import java.lang.ref.Reference;
 import java.net.Socket;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import kotlin.Metadata;
@@ -17,31 +19,48 @@ import net.openid.appauth.AuthorizationRequest;
 import okhttp3.Address;
 import okhttp3.ConnectionPool;
 import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okhttp3.Route;
 import okhttp3.internal.Util;
 import okhttp3.internal.concurrent.Task;
 import okhttp3.internal.concurrent.TaskQueue;
 import okhttp3.internal.concurrent.TaskRunner;
 import okhttp3.internal.connection.RealCall;
+import okhttp3.internal.http2.Http2Connection;
 import okhttp3.internal.platform.Platform;
 /* compiled from: RealConnectionPool.kt */
 @Metadata(d1 = {"\u0000c\n\u0002\u0018\u0002\n\u0002\u0010\u0000\n\u0000\n\u0002\u0018\u0002\n\u0000\n\u0002\u0010\b\n\u0000\n\u0002\u0010\t\n\u0000\n\u0002\u0018\u0002\n\u0002\b\u0002\n\u0002\u0018\u0002\n\u0000\n\u0002\b\u0003\n\u0002\u0018\u0002\n\u0002\u0018\u0002\n\u0002\b\u0002\n\u0002\u0010\u000b\n\u0000\n\u0002\u0018\u0002\n\u0000\n\u0002\u0018\u0002\n\u0000\n\u0002\u0010 \n\u0002\u0018\u0002\n\u0002\b\u0007\n\u0002\u0010\u0002\n\u0002\b\u0005*\u0001\u000e\u0018\u0000 (2\u00020\u0001:\u0001(B%\u0012\u0006\u0010\u0002\u001a\u00020\u0003\u0012\u0006\u0010\u0004\u001a\u00020\u0005\u0012\u0006\u0010\u0006\u001a\u00020\u0007\u0012\u0006\u0010\b\u001a\u00020\t¢\u0006\u0002\u0010\nJ.\u0010\u0014\u001a\u00020\u00152\u0006\u0010\u0016\u001a\u00020\u00172\u0006\u0010\u0018\u001a\u00020\u00192\u000e\u0010\u001a\u001a\n\u0012\u0004\u0012\u00020\u001c\u0018\u00010\u001b2\u0006\u0010\u001d\u001a\u00020\u0015J\u000e\u0010\u001e\u001a\u00020\u00072\u0006\u0010\u001f\u001a\u00020\u0007J\u000e\u0010 \u001a\u00020\u00152\u0006\u0010!\u001a\u00020\u0012J\u0006\u0010\"\u001a\u00020\u0005J\u0006\u0010#\u001a\u00020$J\u0006\u0010%\u001a\u00020\u0005J\u0018\u0010&\u001a\u00020\u00052\u0006\u0010!\u001a\u00020\u00122\u0006\u0010\u001f\u001a\u00020\u0007H\u0002J\u000e\u0010'\u001a\u00020$2\u0006\u0010!\u001a\u00020\u0012R\u000e\u0010\u000b\u001a\u00020\fX\u0082\u0004¢\u0006\u0002\n\u0000R\u0010\u0010\r\u001a\u00020\u000eX\u0082\u0004¢\u0006\u0004\n\u0002\u0010\u000fR\u0014\u0010\u0010\u001a\b\u0012\u0004\u0012\u00020\u00120\u0011X\u0082\u0004¢\u0006\u0002\n\u0000R\u000e\u0010\u0013\u001a\u00020\u0007X\u0082\u0004¢\u0006\u0002\n\u0000R\u000e\u0010\u0004\u001a\u00020\u0005X\u0082\u0004¢\u0006\u0002\n\u0000¨\u0006)"}, d2 = {"Lokhttp3/internal/connection/RealConnectionPool;", HttpUrl.FRAGMENT_ENCODE_SET, "taskRunner", "Lokhttp3/internal/concurrent/TaskRunner;", "maxIdleConnections", HttpUrl.FRAGMENT_ENCODE_SET, "keepAliveDuration", HttpUrl.FRAGMENT_ENCODE_SET, "timeUnit", "Ljava/util/concurrent/TimeUnit;", "(Lokhttp3/internal/concurrent/TaskRunner;IJLjava/util/concurrent/TimeUnit;)V", "cleanupQueue", "Lokhttp3/internal/concurrent/TaskQueue;", "cleanupTask", "okhttp3/internal/connection/RealConnectionPool$cleanupTask$1", "Lokhttp3/internal/connection/RealConnectionPool$cleanupTask$1;", "connections", "Ljava/util/concurrent/ConcurrentLinkedQueue;", "Lokhttp3/internal/connection/RealConnection;", "keepAliveDurationNs", "callAcquirePooledConnection", HttpUrl.FRAGMENT_ENCODE_SET, AuthorizationRequest.Scope.ADDRESS, "Lokhttp3/Address;", NotificationCompat.CATEGORY_CALL, "Lokhttp3/internal/connection/RealCall;", "routes", HttpUrl.FRAGMENT_ENCODE_SET, "Lokhttp3/Route;", "requireMultiplexed", "cleanup", "now", "connectionBecameIdle", "connection", "connectionCount", "evictAll", HttpUrl.FRAGMENT_ENCODE_SET, "idleConnectionCount", "pruneAndGetAllocationCount", "put", "Companion", "okhttp"}, k = 1, mv = {1, 8, 0}, xi = 48)
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public final class RealConnectionPool {
     public static final Companion Companion = new Companion(null);
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL_NS = 30000000000L;
     private final TaskQueue cleanupQueue;
     private final RealConnectionPool$cleanupTask$1 cleanupTask;
     private final ConcurrentLinkedQueue<RealConnection> connections;
+    private final long healthCheckIntervalNs;
     private final long keepAliveDurationNs;
     private final int maxIdleConnections;
+    private final ConcurrentHashMap<String, TaskQueue> prewarmQueues;
+    private final TaskRunner taskRunner;
 
-    /* JADX WARN: Type inference failed for: r4v3, types: [okhttp3.internal.connection.RealConnectionPool$cleanupTask$1] */
     public RealConnectionPool(TaskRunner taskRunner, int i, long j, TimeUnit timeUnit) {
+        this(taskRunner, i, j, timeUnit, DEFAULT_HEALTH_CHECK_INTERVAL_NS);
+    }
+
+    /* JADX WARN: Type inference failed for: r4v3, types: [okhttp3.internal.connection.RealConnectionPool$cleanupTask$1] */
+    public RealConnectionPool(TaskRunner taskRunner, int i, long j, TimeUnit timeUnit, long j2) {
         Intrinsics.checkNotNullParameter(taskRunner, "taskRunner");
         Intrinsics.checkNotNullParameter(timeUnit, "timeUnit");
+        if (!(j2 >= 0)) {
+            throw new IllegalArgumentException(("healthCheckInterval < 0: " + j2).toString());
+        }
+        this.taskRunner = taskRunner;
         this.maxIdleConnections = i;
         this.keepAliveDurationNs = timeUnit.toNanos(j);
+        this.healthCheckIntervalNs = j2;
         this.cleanupQueue = taskRunner.newQueue();
+        this.prewarmQueues = new ConcurrentHashMap<>();
         final String str = Util.okHttpName + " ConnectionPool";
         this.cleanupTask = new Task(str) { // from class: okhttp3.internal.connection.RealConnectionPool$cleanupTask$1
             @Override // okhttp3.internal.concurrent.Task
@@ -129,7 +148,111 @@ public final class RealConnectionPool {
         }
     }
 
+    /**
+     * Connects to each URL's host in parallel and leaves the connections idle in this pool, so the first
+     * calls after startup skip DNS, TCP and TLS. {@code client} must use this pool.
+     */
+    public final void prewarm(final OkHttpClient client, List<HttpUrl> urls) {
+        Intrinsics.checkNotNullParameter(client, "client");
+        Intrinsics.checkNotNullParameter(urls, "urls");
+        if (!(client.connectionPool().getDelegate$okhttp() == this)) {
+            throw new IllegalArgumentException("client doesn't use this connection pool".toString());
+        }
+        for (final HttpUrl httpUrl : urls) {
+            final Request build = new Request.Builder().url(httpUrl).build();
+            prewarmQueue(httpUrl).schedule(new Task(Util.okHttpName + " Prewarm " + httpUrl.redact(), true) { // from class: okhttp3.internal.connection.RealConnectionPool$prewarm$1
+                @Override // okhttp3.internal.concurrent.Task
+                public long runOnce() {
+                    try {
+                        new RealCall(client, build, false).prewarm$okhttp();
+                        return -1L;
+                    } catch (IOException e) {
+                        Platform.Companion.get().log("Failed to prewarm " + httpUrl.redact(), 4, e);
+                        return -1L;
+                    }
+                }
+            }, 0L);
+        }
+    }
+
+    /** Returns the queue for {@code url}'s origin, so each origin is prewarmed once at a time and distinct origins in parallel. */
+    private final TaskQueue prewarmQueue(HttpUrl httpUrl) {
+        String str = httpUrl.scheme() + "://" + httpUrl.host() + ':' + httpUrl.port();
+        TaskQueue taskQueue = this.prewarmQueues.get(str);
+        if (taskQueue != null) {
+            return taskQueue;
+        }
+        TaskQueue newQueue = this.taskRunner.newQueue();
+        TaskQueue putIfAbsent = this.prewarmQueues.putIfAbsent(str, newQueue);
+        return putIfAbsent == null ? newQueue : putIfAbsent;
+    }
+
     public final long cleanup(long j) {
+        long checkHealth = checkHealth(j);
+        long evictIdle = evictIdle(j);
+        if (evictIdle == 0 || checkHealth < 0) {
+            return evictIdle;
+        }
+        return evictIdle < 0 ? checkHealth : Math.min(evictIdle, checkHealth);
+    }
+
+    /**
+     * Pings idle HTTP/2 connections once per health check interval and evicts those whose previous ping
+     * went unanswered. Returns the nanoseconds until the next check is due, or -1 if none is.
+     */
+    private final long checkHealth(long j) {
+        Http2Connection http2Connection$okhttp;
+        long max;
+        long j2 = this.healthCheckIntervalNs;
+        if (j2 == 0) {
+            return -1L;
+        }
+        long j3 = -1;
+        for (RealConnection connection : this.connections) {
+            Intrinsics.checkNotNullExpressionValue(connection, "connection");
+            synchronized (connection) {
+                http2Connection$okhttp = connection.getHttp2Connection$okhttp();
+                if (http2Connection$okhttp == null || !connection.getCalls().isEmpty() || connection.getNoNewExchanges()) {
+                    continue;
+                }
+                max = j - Math.max(connection.getIdleAtNs$okhttp(), connection.getLastHealthCheckNs$okhttp());
+            }
+            if (!http2Connection$okhttp.isHealthy(j)) {
+                evictUnhealthy(connection);
+            } else {
+                long j4;
+                if (max >= j2) {
+                    synchronized (connection) {
+                        connection.setLastHealthCheckNs$okhttp(j);
+                        Unit unit = Unit.INSTANCE;
+                    }
+                    http2Connection$okhttp.sendDegradedPingLater$okhttp();
+                    j4 = 2L * Http2Connection.DEGRADED_PONG_TIMEOUT_NS;
+                } else {
+                    j4 = j2 - max;
+                }
+                j3 = j3 < 0 ? j4 : Math.min(j3, j4);
+            }
+        }
+        return j3;
+    }
+
+    private final void evictUnhealthy(RealConnection realConnection) {
+        synchronized (realConnection) {
+            if (!realConnection.getCalls().isEmpty()) {
+                return;
+            }
+            realConnection.setNoNewExchanges(true);
+            this.connections.remove(realConnection);
+            Unit unit = Unit.INSTANCE;
+        }
+        Util.closeQuietly(realConnection.socket());
+        if (this.connections.isEmpty()) {
+            this.cleanupQueue.cancelAll();
+        }
+    }
+
+    private final long evictIdle(long j) {
         Iterator<RealConnection> it = this.connections.iterator();
         int i = 0;
         long j2 = Long.MIN_VALUE;
@@ -3,6 +3,7 @@ package okhttp3.internal.connection;
 import androidx.core.app.NotificationCompat;
 import com.google.android.gms.common.internal.ImagesContract;
 import java.io.IOException;
+import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
@@ -163,12 +164,46 @@ public final class RouteSelector {
                 }
                 this.eventListener.dnsEnd(this.call, host, lookup);
             }
-            for (InetAddress inetAddress : lookup) {
+            for (InetAddress inetAddress : interleaveFamilies(lookup)) {
                 arrayList.add(new InetSocketAddress(inetAddress, port));
             }
         }
     }
 
+    /**
+     * Alternates address families, starting with the family of the first address, so a fast-fallback
+     * race reaches the other family on its second attempt (RFC 8305 section 4).
+     */
+    private static final List<InetAddress> interleaveFamilies(List<InetAddress> list) {
+        if (list.size() < 2) {
+            return list;
+        }
+        boolean z = list.get(0) instanceof Inet6Address;
+        ArrayList arrayList = new ArrayList();
+        ArrayList arrayList2 = new ArrayList();
+        for (InetAddress inetAddress : list) {
+            if ((inetAddress instanceof Inet6Address) == z) {
+                arrayList.add(inetAddress);
+            } else {
+                arrayList2.add(inetAddress);
+            }
+        }
+        if (arrayList2.isEmpty()) {
+            return arrayList;
+        }
+        ArrayList arrayList3 = new ArrayList(list.size());
+        int max = Math.max(arrayList.size(), arrayList2.size());
+        for (int i = 0; i < max; i++) {
+            if (i < arrayList.size()) {
+                arrayList3.add(arrayList.get(i));
+            }
+            if (i < arrayList2.size()) {
+                arrayList3.add(arrayList2.get(i));
+            }
+        }
+        return arrayList3;
+    }
+
     /* compiled from: RouteSelector.kt */
     @Metadata(d1 = {"\u0000&\n\u0002\u0018\u0002\n\u0002\u0010\u0000\n\u0000\n\u0002\u0010 \n\u0002\u0018\u0002\n\u0002\b\u0002\n\u0002\u0010\b\n\u0002\b\u0003\n\u0002\u0010\u000b\n\u0002\b\u0002\u0018\u00002\u00020\u0001B\u0013\u0012\f\u0010\u0002\u001a\b\u0012\u0004\u0012\u00020\u00040\u0003¢\u0006\u0002\u0010\u0005J\t\u0010\n\u001a\u00020\u000bH\u0086\u0002J\t\u0010\f\u001a\u00020\u0004H\u0086\u0002R\u000e\u0010\u0006\u001a\u00020\u0007X\u0082\u000e¢\u0006\u0002\n\u0000R\u0017\u0010\u0002\u001a\b\u0012\u0004\u0012\u00020\u00040\u0003¢\u0006\b\n\u0000\u001a\u0004\b\b\u0010\t¨\u0006\r"}, d2 = {"Lokhttp3/internal/connection/RouteSelector$Selection;", HttpUrl.FRAGMENT_ENCODE_SET, "routes", HttpUrl.FRAGMENT_ENCODE_SET, "Lokhttp3/Route;", "(Ljava/util/List;)V", "nextRouteIndex", HttpUrl.FRAGMENT_ENCODE_SET, "getRoutes", "()Ljava/util/List;", "hasNext", HttpUrl.FRAGMENT_ENCODE_SET, "next", "okhttp"}, k = 1, mv = {1, 8, 0}, xi = 48)
     /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
@@ -71,6 +71,7 @@ public final class CallServerInterceptor implements Interceptor {
         Request request$okhttp = realInterceptorChain.getRequest$okhttp();
         RequestBody body2 = request$okhttp.body();
         long currentTimeMillis = System.currentTimeMillis();
+        long nanoTime = System.nanoTime();
         try {
             exchange$okhttp.writeRequestHeaders(request$okhttp);
             builder = HttpMethod.permitsRequestBody(request$okhttp.method());
@@ -137,6 +138,7 @@ public final class CallServerInterceptor implements Interceptor {
                 code = build.code();
                 if (shouldIgnoreAndWaitForRealResponse(code)) {
                 }
+                exchange$okhttp.getCall$okhttp().setHeadersNanos$okhttp(System.nanoTime() - nanoTime);
                 exchange$okhttp.responseHeadersEnd(build);
                 if (!this.forWebSocket) {
                 }
@@ -182,6 +184,7 @@ public final class CallServerInterceptor implements Interceptor {
             build = readResponseHeaders.request(request$okhttp).handshake(exchange$okhttp.getConnection$okhttp().handshake()).sentRequestAtMillis(currentTimeMillis).receivedResponseAtMillis(System.currentTimeMillis()).build();
             code = build.code();
         }
+        exchange$okhttp.getCall$okhttp().setHeadersNanos$okhttp(System.nanoTime() - nanoTime);
         exchange$okhttp.responseHeadersEnd(build);
         if (!this.forWebSocket && code == 101) {
             build2 = build.newBuilder().body(Util.EMPTY_RESPONSE).build();
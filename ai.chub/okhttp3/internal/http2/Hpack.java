@@ -59,11 +59,13 @@ public final class Hpack {
     public static final class Reader {
         public Header[] dynamicTable;
         public int dynamicTableByteCount;
+        private int[] dynamicTableSizes;
         public int headerCount;
         private final List<Header> headerList;
         private final int headerTableSizeSetting;
         private int maxDynamicTableByteCount;
         private int nextHeaderIndex;
+        private byte[] scratch;
         private final BufferedSource source;
 
         /* JADX WARN: 'this' call moved to the top of the method (can break code semantics) */
@@ -78,9 +80,10 @@ public final class Hpack {
             this.maxDynamicTableByteCount = i2;
             this.headerList = new ArrayList();
             this.source = Okio.buffer(source);
-            Header[] headerArr = new Header[8];
-            this.dynamicTable = headerArr;
-            this.nextHeaderIndex = headerArr.length - 1;
+            this.dynamicTable = new Header[8];
+            this.dynamicTableSizes = new int[8];
+            this.nextHeaderIndex = 0;
+            this.scratch = new byte[64];
         }
 
         public /* synthetic */ Reader(Source source, int i, int i2, int i3, DefaultConstructorMarker defaultConstructorMarker) {
@@ -111,34 +114,25 @@ public final class Hpack {
 
         private final void clearDynamicTable() {
             ArraysKt.fill$default(this.dynamicTable, (Object) null, 0, 0, 6, (Object) null);
-            this.nextHeaderIndex = this.dynamicTable.length - 1;
+            this.nextHeaderIndex = 0;
             this.headerCount = 0;
             this.dynamicTableByteCount = 0;
         }
 
+        /** Drops the oldest entries of the ring until {@code i} bytes are recovered. */
         private final int evictToRecoverBytes(int i) {
-            int i2;
-            int i3 = 0;
-            if (i > 0) {
-                int length = this.dynamicTable.length;
-                while (true) {
-                    length--;
-                    i2 = this.nextHeaderIndex;
-                    if (length < i2 || i <= 0) {
-                        break;
-                    }
-                    Header header = this.dynamicTable[length];
-                    Intrinsics.checkNotNull(header);
-                    i -= header.hpackSize;
-                    this.dynamicTableByteCount -= header.hpackSize;
-                    this.headerCount--;
-                    i3++;
-                }
-                Header[] headerArr = this.dynamicTable;
-                System.arraycopy(headerArr, i2 + 1, headerArr, i2 + 1 + i3, this.headerCount);
-                this.nextHeaderIndex += i3;
+            int i2 = 0;
+            int length = this.dynamicTable.length - 1;
+            while (i > 0 && this.headerCount > 0) {
+                int i3 = (this.nextHeaderIndex - this.headerCount) & length;
+                int i4 = this.dynamicTableSizes[i3];
+                i -= i4;
+                this.dynamicTableByteCount -= i4;
+                this.dynamicTable[i3] = null;
+                this.headerCount--;
+                i2++;
             }
-            return i3;
+            return i2;
         }
 
         public final void readHeaders() throws IOException {
@@ -171,92 +165,77 @@ public final class Hpack {
         private final void readIndexedHeader(int i) throws IOException {
             if (isStaticHeader(i)) {
                 this.headerList.add(Hpack.INSTANCE.getSTATIC_HEADER_TABLE()[i]);
-                return;
-            }
-            int dynamicTableIndex = dynamicTableIndex(i - Hpack.INSTANCE.getSTATIC_HEADER_TABLE().length);
-            if (dynamicTableIndex >= 0) {
-                Header[] headerArr = this.dynamicTable;
-                if (dynamicTableIndex < headerArr.length) {
-                    Header header = headerArr[dynamicTableIndex];
-                    Intrinsics.checkNotNull(header);
-                    this.headerList.add(header);
-                    return;
-                }
+            } else {
+                this.headerList.add(dynamicEntry(i - Hpack.INSTANCE.getSTATIC_HEADER_TABLE().length, i));
             }
-            throw new IOException("Header index too large " + (i + 1));
         }
 
-        private final int dynamicTableIndex(int i) {
-            return this.nextHeaderIndex + 1 + i;
+        /** Returns the {@code i}-th most recently inserted entry; {@code i2} is the wire index for errors. */
+        private final Header dynamicEntry(int i, int i2) throws IOException {
+            if (i < 0 || i >= this.headerCount) {
+                throw new IOException("Header index too large " + (i2 + 1));
+            }
+            Header header = this.dynamicTable[((this.nextHeaderIndex - 1) - i) & (this.dynamicTable.length - 1)];
+            Intrinsics.checkNotNull(header);
+            return header;
         }
 
         private final void readLiteralHeaderWithoutIndexingIndexedName(int i) throws IOException {
-            this.headerList.add(new Header(getName(i), readByteString()));
+            this.headerList.add(readHeader(getName(i), true));
         }
 
         private final void readLiteralHeaderWithoutIndexingNewName() throws IOException {
-            this.headerList.add(new Header(Hpack.INSTANCE.checkLowercase(readByteString()), readByteString()));
+            this.headerList.add(readHeader(readName(), true));
         }
 
         private final void readLiteralHeaderWithIncrementalIndexingIndexedName(int i) throws IOException {
-            insertIntoDynamicTable(-1, new Header(getName(i), readByteString()));
+            insertIntoDynamicTable(readHeader(getName(i), false));
         }
 
         private final void readLiteralHeaderWithIncrementalIndexingNewName() throws IOException {
-            insertIntoDynamicTable(-1, new Header(Hpack.INSTANCE.checkLowercase(readByteString()), readByteString()));
+            insertIntoDynamicTable(readHeader(readName(), false));
         }
 
         private final ByteString getName(int i) throws IOException {
             if (isStaticHeader(i)) {
                 return Hpack.INSTANCE.getSTATIC_HEADER_TABLE()[i].name;
             }
-            int dynamicTableIndex = dynamicTableIndex(i - Hpack.INSTANCE.getSTATIC_HEADER_TABLE().length);
-            if (dynamicTableIndex >= 0) {
-                Header[] headerArr = this.dynamicTable;
-                if (dynamicTableIndex < headerArr.length) {
-                    Header header = headerArr[dynamicTableIndex];
-                    Intrinsics.checkNotNull(header);
-                    return header.name;
-                }
-            }
-            throw new IOException("Header index too large " + (i + 1));
+            return dynamicEntry(i - Hpack.INSTANCE.getSTATIC_HEADER_TABLE().length, i).name;
         }
 
         private final boolean isStaticHeader(int i) {
             return i >= 0 && i <= Hpack.INSTANCE.getSTATIC_HEADER_TABLE().length - 1;
         }
 
-        private final void insertIntoDynamicTable(int i, Header header) {
+        private final void insertIntoDynamicTable(Header header) {
             this.headerList.add(header);
-            int i2 = header.hpackSize;
-            if (i != -1) {
-                Header header2 = this.dynamicTable[dynamicTableIndex(i)];
-                Intrinsics.checkNotNull(header2);
-                i2 -= header2.hpackSize;
-            }
-            int i3 = this.maxDynamicTableByteCount;
-            if (i2 > i3) {
+            int i = header.hpackSize;
+            int i2 = this.maxDynamicTableByteCount;
+            if (i > i2) {
                 clearDynamicTable();
                 return;
             }
-            int evictToRecoverBytes = evictToRecoverBytes((this.dynamicTableByteCount + i2) - i3);
-            if (i == -1) {
-                int i4 = this.headerCount + 1;
-                Header[] headerArr = this.dynamicTable;
-                if (i4 > headerArr.length) {
-                    Header[] headerArr2 = new Header[headerArr.length * 2];
-                    System.arraycopy(headerArr, 0, headerArr2, headerArr.length, headerArr.length);
-                    this.nextHeaderIndex = this.dynamicTable.length - 1;
-                    this.dynamicTable = headerArr2;
+            evictToRecoverBytes((this.dynamicTableByteCount + i) - i2);
+            Header[] headerArr = this.dynamicTable;
+            if (this.headerCount == headerArr.length) {
+                int length = headerArr.length;
+                Header[] headerArr2 = new Header[length * 2];
+                int[] iArr = new int[length * 2];
+                for (int i3 = 0; i3 < length; i3++) {
+                    int i4 = (this.nextHeaderIndex + i3) & (length - 1);
+                    headerArr2[i3] = headerArr[i4];
+                    iArr[i3] = this.dynamicTableSizes[i4];
                 }
-                int i5 = this.nextHeaderIndex;
-                this.nextHeaderIndex = i5 - 1;
-                this.dynamicTable[i5] = header;
-                this.headerCount++;
-            } else {
-                this.dynamicTable[i + dynamicTableIndex(i) + evictToRecoverBytes] = header;
+                this.dynamicTable = headerArr2;
+                this.dynamicTableSizes = iArr;
+                this.nextHeaderIndex = length;
             }
-            this.dynamicTableByteCount += i2;
+            int i5 = this.nextHeaderIndex;
+            this.dynamicTable[i5] = header;
+            this.dynamicTableSizes[i5] = i;
+            this.nextHeaderIndex = (i5 + 1) & (this.dynamicTable.length - 1);
+            this.headerCount++;
+            this.dynamicTableByteCount += i;
         }
 
         private final int readByte() throws IOException {
@@ -280,15 +259,83 @@ public final class Hpack {
         }
 
         public final ByteString readByteString() throws IOException {
+            return ByteString.Companion.of(this.scratch, 0, readLiteral());
+        }
+
+        /** Reads a string literal into {@link #scratch}, Huffman-decoding it if needed, and returns its length. */
+        private final int readLiteral() throws IOException {
             int readByte = readByte();
             boolean z = (readByte & 128) == 128;
             long readInt = readInt(readByte, 127);
+            this.source.require(readInt);
+            long j = z ? (readInt * 8) / 5 : readInt;
+            if (j > this.scratch.length) {
+                this.scratch = new byte[(int) Math.max(j, this.scratch.length * 2L)];
+            }
             if (z) {
-                Buffer buffer = new Buffer();
-                Huffman.INSTANCE.decode(this.source, readInt, buffer);
-                return buffer.readByteString();
+                return Huffman.INSTANCE.decode(this.source, readInt, this.scratch);
+            }
+            int i = (int) readInt;
+            int i2 = 0;
+            while (i2 < i) {
+                i2 += this.source.getBuffer().read(this.scratch, i2, i - i2);
+            }
+            return i;
+        }
+
+        /** Reads a literal header name, reusing the static or dynamic table's copy when there is one. */
+        private final ByteString readName() throws IOException {
+            int readLiteral = readLiteral();
+            byte[] bArr = this.scratch;
+            for (Header header : Hpack.INSTANCE.getSTATIC_HEADER_TABLE()) {
+                if (header.name.size() == readLiteral && header.name.rangeEquals(0, bArr, 0, readLiteral)) {
+                    return header.name;
+                }
+            }
+            int length = this.dynamicTable.length - 1;
+            for (int i = 1; i <= this.headerCount; i++) {
+                Header header2 = this.dynamicTable[(this.nextHeaderIndex - i) & length];
+                Intrinsics.checkNotNull(header2);
+                if (header2.name.size() == readLiteral && header2.name.rangeEquals(0, bArr, 0, readLiteral)) {
+                    return header2.name;
+                }
+            }
+            return Hpack.INSTANCE.checkLowercase(ByteString.Companion.of(bArr, 0, readLiteral));
+        }
+
+        /**
+         * Reads a literal value for {@code name}. Returns the static table's header, or the dynamic table's
+         * if {@code z}, when it already holds this name and value, so repeated literals don't allocate.
+         * Literals about to be indexed are new by definition, so they skip the dynamic table.
+         */
+        private final Header readHeader(ByteString name, boolean z) throws IOException {
+            int readLiteral = readLiteral();
+            byte[] bArr = this.scratch;
+            Integer num = Hpack.INSTANCE.getNAME_TO_FIRST_INDEX().get(name);
+            if (num != null) {
+                Header[] sTATIC_HEADER_TABLE = Hpack.INSTANCE.getSTATIC_HEADER_TABLE();
+                for (int intValue = num.intValue(); intValue < sTATIC_HEADER_TABLE.length; intValue++) {
+                    Header header = sTATIC_HEADER_TABLE[intValue];
+                    if (!Intrinsics.areEqual(header.name, name)) {
+                        break;
+                    }
+                    if (header.value.size() == readLiteral && header.value.rangeEquals(0, bArr, 0, readLiteral)) {
+                        return header;
+                    }
+                }
+            }
+            if (!z) {
+                return new Header(name, ByteString.Companion.of(bArr, 0, readLiteral));
+            }
+            int length = this.dynamicTable.length - 1;
+            for (int i = 1; i <= this.headerCount; i++) {
+                Header header2 = this.dynamicTable[(this.nextHeaderIndex - i) & length];
+                Intrinsics.checkNotNull(header2);
+                if (header2.value.size() == readLiteral && Intrinsics.areEqual(header2.name, name) && header2.value.rangeEquals(0, bArr, 0, readLiteral)) {
+                    return header2;
+                }
             }
-            return this.source.readByteString(readInt);
+            return new Header(name, ByteString.Companion.of(bArr, 0, readLiteral));
         }
     }
 
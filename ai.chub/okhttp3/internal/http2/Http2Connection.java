@@ -10,7 +10,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import kotlin.Metadata;
 import kotlin.Unit;
 import kotlin.jvm.functions.Function0;
@@ -35,15 +37,21 @@ import okio.Okio;
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public final class Http2Connection implements Closeable {
     public static final int AWAIT_PING = 3;
+    public static final int BDP_PING = 4;
     public static final Companion Companion = new Companion(null);
     private static final Settings DEFAULT_SETTINGS;
     public static final int DEGRADED_PING = 2;
     public static final int DEGRADED_PONG_TIMEOUT_NS = 1000000000;
     public static final int INTERVAL_PING = 1;
+    public static final int OKHTTP_CLIENT_MAX_WINDOW_SIZE = 67108864;
     public static final int OKHTTP_CLIENT_WINDOW_SIZE = 16777216;
     private long awaitPingsSent;
     private long awaitPongsReceived;
+    private double bdpBandwidthMax;
+    private long bdpBytes;
+    private long bdpPingSentNs;
     private final boolean client;
+    private long connectionWindowSize;
     private final String connectionName;
     private final Set<Integer> currentPushRequests;
     private long degradedPingsSent;
@@ -51,12 +59,14 @@ public final class Http2Connection implements Closeable {
     private long degradedPongsReceived;
     private long intervalPingsSent;
     private long intervalPongsReceived;
+    private long rttNanos;
     private boolean isShutdown;
     private int lastGoodStreamId;
     private final Listener listener;
     private int nextStreamId;
     private final Settings okHttpSettings;
     private Settings peerSettings;
+    private final ConcurrentLinkedQueue<long[]> pendingWindowUpdates;
     private final PushObserver pushObserver;
     private final TaskQueue pushQueue;
     private long readBytesAcknowledged;
@@ -64,8 +74,10 @@ public final class Http2Connection implements Closeable {
     private final ReaderRunnable readerRunnable;
     private final TaskQueue settingsListenerQueue;
     private final Socket socket;
+    private volatile int streamWindowSize;
     private final Map<Integer, Http2Stream> streams;
     private final TaskRunner taskRunner;
+    private final AtomicBoolean windowUpdateScheduled;
     private long writeBytesMaximum;
     private long writeBytesTotal;
     private final Http2Writer writer;
@@ -88,6 +100,7 @@ public final class Http2Connection implements Closeable {
         boolean client$okhttp = builder.getClient$okhttp();
         this.client = client$okhttp;
         this.listener = builder.getListener$okhttp();
+        this.rttNanos = -1L;
         this.streams = new LinkedHashMap();
         String connectionName$okhttp = builder.getConnectionName$okhttp();
         this.connectionName = connectionName$okhttp;
@@ -104,6 +117,11 @@ public final class Http2Connection implements Closeable {
             settings.set(7, 16777216);
         }
         this.okHttpSettings = settings;
+        this.streamWindowSize = settings.getInitialWindowSize();
+        this.connectionWindowSize = settings.getInitialWindowSize();
+        this.bdpPingSentNs = -1L;
+        this.pendingWindowUpdates = new ConcurrentLinkedQueue<>();
+        this.windowUpdateScheduled = new AtomicBoolean();
         Settings settings2 = DEFAULT_SETTINGS;
         this.peerSettings = settings2;
         this.writeBytesMaximum = settings2.getInitialWindowSize();
@@ -177,6 +195,11 @@ public final class Http2Connection implements Closeable {
         return this.okHttpSettings;
     }
 
+    /** The receive window each stream gets, safe to read without holding this connection's lock. */
+    public final int getStreamWindowSize$okhttp() {
+        return this.streamWindowSize;
+    }
+
     public final Settings getPeerSettings() {
         return this.peerSettings;
     }
@@ -234,7 +257,7 @@ public final class Http2Connection implements Closeable {
         long j2 = this.readBytesTotal + j;
         this.readBytesTotal = j2;
         long j3 = j2 - this.readBytesAcknowledged;
-        if (j3 >= this.okHttpSettings.getInitialWindowSize() / 2) {
+        if (j3 >= this.connectionWindowSize / 2) {
             writeWindowUpdateLater$okhttp(0, j3);
             this.readBytesAcknowledged += j3;
         }
@@ -371,16 +394,116 @@ public final class Http2Connection implements Closeable {
         this.writer.rstStream(i, statusCode);
     }
 
-    public final void writeWindowUpdateLater$okhttp(final int i, final long j) {
+    /**
+     * Queues a WINDOW_UPDATE. Updates queued before the writer gets to them are merged and flushed together.
+     * Takes no lock on this connection, as streams call it while holding their own.
+     */
+    public final void writeWindowUpdateLater$okhttp(int i, long j) {
+        this.pendingWindowUpdates.add(new long[]{i, j});
+        if (!this.windowUpdateScheduled.compareAndSet(false, true)) {
+            return;
+        }
         TaskQueue taskQueue = this.writerQueue;
-        taskQueue.schedule(new Task(this.connectionName + '[' + i + "] windowUpdate", true) { // from class: okhttp3.internal.http2.Http2Connection$writeWindowUpdateLater$$inlined$execute$default$1
+        taskQueue.schedule(new Task(this.connectionName + " windowUpdate", true) { // from class: okhttp3.internal.http2.Http2Connection$writeWindowUpdateLater$1
+            @Override // okhttp3.internal.concurrent.Task
+            public long runOnce() {
+                Http2Connection.this.writePendingWindowUpdates$okhttp();
+                return -1L;
+            }
+        }, 0L);
+    }
+
+    public final void writePendingWindowUpdates$okhttp() {
+        this.windowUpdateScheduled.set(false);
+        LinkedHashMap linkedHashMap = new LinkedHashMap();
+        while (true) {
+            long[] poll = this.pendingWindowUpdates.poll();
+            if (poll == null) {
+                break;
+            }
+            Integer valueOf = Integer.valueOf((int) poll[0]);
+            Long l = (Long) linkedHashMap.get(valueOf);
+            linkedHashMap.put(valueOf, Long.valueOf(l != null ? l.longValue() + poll[1] : poll[1]));
+        }
+        if (linkedHashMap.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (this.writer) {
+                for (Map.Entry entry : linkedHashMap.entrySet()) {
+                    this.writer.windowUpdate(((Number) entry.getKey()).intValue(), ((Number) entry.getValue()).longValue(), false);
+                }
+                this.writer.flush();
+                Unit unit = Unit.INSTANCE;
+            }
+        } catch (IOException e) {
+            failConnection(e);
+        }
+    }
+
+    /**
+     * Adds received DATA to the bandwidth-delay sample and starts a BDP ping if none is in flight. The
+     * sample is the data that arrives between sending the ping and receiving its ack.
+     */
+    public final void receivedData$okhttp(long j) {
+        synchronized (this) {
+            if (!this.client || this.connectionWindowSize >= OKHTTP_CLIENT_MAX_WINDOW_SIZE) {
+                return;
+            }
+            if (this.bdpPingSentNs != -1) {
+                this.bdpBytes += j;
+                return;
+            }
+            this.bdpBytes = j;
+            this.bdpPingSentNs = System.nanoTime();
+            Unit unit = Unit.INSTANCE;
+        }
+        TaskQueue taskQueue = this.writerQueue;
+        taskQueue.schedule(new Task(this.connectionName + " ping", true) { // from class: okhttp3.internal.http2.Http2Connection$receivedData$1
+            @Override // okhttp3.internal.concurrent.Task
+            public long runOnce() {
+                Http2Connection.this.writePing(false, 4, 0);
+                return -1L;
+            }
+        }, 0L);
+    }
+
+    /**
+     * Grows the receive windows when a BDP sample fills at least 2/3 of the connection window while
+     * bandwidth is still rising. The new window is twice the sample, capped at {@link #OKHTTP_CLIENT_MAX_WINDOW_SIZE}.
+     */
+    private final void bdpPongReceived() {
+        long nanoTime = System.nanoTime() - this.bdpPingSentNs;
+        long j = this.bdpBytes;
+        this.bdpPingSentNs = -1L;
+        double max = ((double) j) / Math.max(1L, nanoTime);
+        if (max < this.bdpBandwidthMax) {
+            return;
+        }
+        this.bdpBandwidthMax = max;
+        if (j * 3 < this.connectionWindowSize * 2) {
+            return;
+        }
+        long min = Math.min(67108864L, j * 2);
+        final long j2 = min - this.connectionWindowSize;
+        if (j2 <= 0) {
+            return;
+        }
+        this.connectionWindowSize = min;
+        final Settings settings = new Settings();
+        settings.set(7, (int) min);
+        TaskQueue taskQueue = this.writerQueue;
+        taskQueue.schedule(new Task(this.connectionName + " windowGrow", true) { // from class: okhttp3.internal.http2.Http2Connection$bdpPongReceived$1
             @Override // okhttp3.internal.concurrent.Task
             public long runOnce() {
                 try {
-                    this.getWriter().windowUpdate(i, j);
+                    Http2Connection.this.setSettings(settings);
+                    Http2Connection.this.writer.windowUpdate(0, j2);
+                    return -1L;
+                } catch (ConnectionShutdownException unused) {
                     return -1L;
                 } catch (IOException e) {
-                    this.failConnection(e);
+                    Http2Connection.this.failConnection(e);
                     return -1L;
                 }
             }
@@ -475,6 +598,7 @@ public final class Http2Connection implements Closeable {
                     throw new ConnectionShutdownException();
                 }
                 this.okHttpSettings.merge(settings);
+                this.streamWindowSize = this.okHttpSettings.getInitialWindowSize();
                 Unit unit = Unit.INSTANCE;
             }
             this.writer.settings(settings);
@@ -494,6 +618,11 @@ public final class Http2Connection implements Closeable {
         return true;
     }
 
+    /** Returns the round trip time of the most recent degraded ping, or -1 if none has been answered. */
+    public final synchronized long getRttNanos() {
+        return this.rttNanos;
+    }
+
     public final void sendDegradedPingLater$okhttp() {
         synchronized (this) {
             long j = this.degradedPongsReceived;
@@ -770,6 +899,7 @@ public final class Http2Connection implements Closeable {
         @Override // okhttp3.internal.http2.Http2Reader.Handler
         public void data(boolean z, int i, BufferedSource source, int i2) throws IOException {
             Intrinsics.checkNotNullParameter(source, "source");
+            this.this$0.receivedData$okhttp(i2);
             if (this.this$0.pushedStream$okhttp(i)) {
                 this.this$0.pushDataLater$okhttp(i, source, i2, z);
                 return;
@@ -948,7 +1078,10 @@ public final class Http2Connection implements Closeable {
                 } else if (i == 2) {
                     long j2 = http2Connection2.degradedPongsReceived;
                     http2Connection2.degradedPongsReceived = 1 + j2;
+                    http2Connection2.rttNanos = System.nanoTime() - (http2Connection2.degradedPongDeadlineNs - Http2Connection.DEGRADED_PONG_TIMEOUT_NS);
                     Long.valueOf(j2);
+                } else if (i == 4) {
+                    http2Connection2.bdpPongReceived();
                 } else {
                     if (i == 3) {
                         http2Connection2.awaitPongsReceived++;
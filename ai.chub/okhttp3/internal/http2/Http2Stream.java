@@ -47,7 +47,7 @@ public final class Http2Stream {
         this.writeBytesMaximum = connection.getPeerSettings().getInitialWindowSize();
         ArrayDeque<Headers> arrayDeque = new ArrayDeque<>();
         this.headersQueue = arrayDeque;
-        this.source = new FramingSource(connection.getOkHttpSettings().getInitialWindowSize(), z2);
+        this.source = new FramingSource(connection.getStreamWindowSize$okhttp(), z2);
         this.sink = new FramingSink(z);
         this.readTimeout = new StreamTimeout();
         this.writeTimeout = new StreamTimeout();
@@ -353,7 +353,7 @@ public final class Http2Stream {
                         j2 = buffer.read(sink, Math.min(j, buffer.size()));
                         http2Stream.setReadBytesTotal$okhttp(http2Stream.getReadBytesTotal() + j2);
                         long readBytesTotal = http2Stream.getReadBytesTotal() - http2Stream.getReadBytesAcknowledged();
-                        if (streamResetException == null && readBytesTotal >= http2Stream.getConnection().getOkHttpSettings().getInitialWindowSize() / 2) {
+                        if (streamResetException == null && readBytesTotal >= http2Stream.getConnection().getStreamWindowSize$okhttp() / 2) {
                             http2Stream.getConnection().writeWindowUpdateLater$okhttp(http2Stream.getId(), readBytesTotal);
                             http2Stream.setReadBytesAcknowledged$okhttp(http2Stream.getReadBytesTotal());
                         }
@@ -404,7 +404,7 @@ public final class Http2Stream {
                     synchronized (Http2Stream.this) {
                         z = this.finished;
                         z2 = true;
-                        z3 = this.readBuffer.size() + j2 > this.maxByteCount;
+                        z3 = this.readBuffer.size() + j2 > Math.max(this.maxByteCount, Http2Stream.this.getConnection().getStreamWindowSize$okhttp());
                         Unit unit = Unit.INSTANCE;
                     }
                     if (z3) {
@@ -172,6 +172,11 @@ public final class Http2Writer implements Closeable {
     }
 
     public final synchronized void windowUpdate(int i, long j) throws IOException {
+        windowUpdate(i, j, true);
+    }
+
+    /** Writes a WINDOW_UPDATE frame, flushing only if {@code z} so a batch of updates costs one flush. */
+    public final synchronized void windowUpdate(int i, long j, boolean z) throws IOException {
         if (this.closed) {
             throw new IOException("closed");
         }
@@ -180,7 +185,9 @@ public final class Http2Writer implements Closeable {
         }
         frameHeader(i, 4, 8, 0);
         this.sink.writeInt((int) j);
-        this.sink.flush();
+        if (z) {
+            this.sink.flush();
+        }
     }
 
     public final void frameHeader(int i, int i2, int i3, int i4) throws IOException {
@@ -103,6 +103,51 @@ public final class Huffman {
         }
     }
 
+    /**
+     * Decodes {@code j} bytes from {@code source} into {@code sink} and returns the decoded length.
+     * {@code sink} must hold at least {@code j * 8 / 5} bytes: no code is shorter than 5 bits.
+     */
+    public final int decode(BufferedSource source, long j, byte[] sink) throws IOException {
+        Intrinsics.checkNotNullParameter(source, "source");
+        Intrinsics.checkNotNullParameter(sink, "sink");
+        Node node = root;
+        int i = 0;
+        int i2 = 0;
+        int i3 = 0;
+        for (long j2 = 0; j2 < j; j2++) {
+            i = (i << 8) | Util.and(source.readByte(), 255);
+            i2 += 8;
+            while (i2 >= 8) {
+                Node[] children = node.getChildren();
+                Intrinsics.checkNotNull(children);
+                node = children[(i >>> (i2 - 8)) & 255];
+                Intrinsics.checkNotNull(node);
+                if (node.getChildren() == null) {
+                    sink[i3] = (byte) node.getSymbol();
+                    i3++;
+                    i2 -= node.getTerminalBitCount();
+                    node = root;
+                } else {
+                    i2 -= 8;
+                }
+            }
+        }
+        while (i2 > 0) {
+            Node[] children2 = node.getChildren();
+            Intrinsics.checkNotNull(children2);
+            Node node2 = children2[(i << (8 - i2)) & 255];
+            Intrinsics.checkNotNull(node2);
+            if (node2.getChildren() != null || node2.getTerminalBitCount() > i2) {
+                break;
+            }
+            sink[i3] = (byte) node2.getSymbol();
+            i3++;
+            i2 -= node2.getTerminalBitCount();
+            node = root;
+        }
+        return i3;
+    }
+
     private final void addCode(int i, int i2, int i3) {
         Node node = new Node(i, i3);
         Node node2 = root;
@@ -23,9 +23,12 @@ public class AsyncTimeout extends Timeout {
     private static final Condition condition;
     private static AsyncTimeout head;
     private static final ReentrantLock lock;
+    private static volatile TimeoutScheduler scheduler;
+    private TimeoutScheduler activeScheduler;
     private boolean inQueue;
     private AsyncTimeout next;
     private long timeoutAt;
+    TimingWheelScheduler.Entry wheelEntry;
 
     protected void timedOut() {
     }
@@ -34,12 +37,23 @@ public class AsyncTimeout extends Timeout {
         long timeoutNanos = timeoutNanos();
         boolean hasDeadline = hasDeadline();
         if (timeoutNanos != 0 || hasDeadline) {
-            Companion.scheduleTimeout(this, timeoutNanos, hasDeadline);
+            TimeoutScheduler timeoutScheduler = scheduler;
+            if (timeoutScheduler == null) {
+                Companion.scheduleTimeout(this, timeoutNanos, hasDeadline);
+                return;
+            }
+            timeoutScheduler.schedule(this, timeoutNanos, hasDeadline);
+            this.activeScheduler = timeoutScheduler;
         }
     }
 
     public final boolean exit() {
-        return Companion.cancelScheduledTimeout(this);
+        TimeoutScheduler timeoutScheduler = this.activeScheduler;
+        if (timeoutScheduler == null) {
+            return Companion.cancelScheduledTimeout(this);
+        }
+        this.activeScheduler = null;
+        return timeoutScheduler.cancel(this);
     }
 
     /* JADX INFO: Access modifiers changed from: private */
@@ -304,6 +318,15 @@ public class AsyncTimeout extends Timeout {
             return AsyncTimeout.condition;
         }
 
+        public final TimeoutScheduler getScheduler() {
+            return AsyncTimeout.scheduler;
+        }
+
+        /** Routes subsequent {@link AsyncTimeout#enter()} calls to {@code scheduler}, or to the built-in queue if null. */
+        public final void setScheduler(TimeoutScheduler scheduler) {
+            AsyncTimeout.scheduler = scheduler;
+        }
+
         /* JADX INFO: Access modifiers changed from: private */
         public final void scheduleTimeout(AsyncTimeout asyncTimeout, long j, boolean z) {
             ReentrantLock lock = AsyncTimeout.Companion.getLock();
@@ -412,5 +435,8 @@ public class AsyncTimeout extends Timeout {
         long millis = TimeUnit.SECONDS.toMillis(60L);
         IDLE_TIMEOUT_MILLIS = millis;
         IDLE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(millis);
+        if ("wheel".equals(System.getProperty("okio.AsyncTimeout.scheduler"))) {
+            scheduler = new TimingWheelScheduler();
+        }
     }
 }
@@ -1,5 +1,6 @@
 package okio;
 
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 import kotlin.Metadata;
 import kotlin.jvm.JvmStatic;
@@ -9,12 +10,32 @@ import okhttp3.HttpUrl;
 @Metadata(d1 = {"\u0000.\n\u0002\u0018\u0002\n\u0002\u0010\u0000\n\u0002\b\u0002\n\u0002\u0010\b\n\u0000\n\u0002\u0018\u0002\n\u0002\b\u0006\n\u0002\u0010\u0011\n\u0002\u0018\u0002\n\u0002\b\u0003\n\u0002\u0010\u0002\n\u0002\b\u0003\bÀ\u0002\u0018\u00002\u00020\u0001B\u0007\b\u0002¢\u0006\u0002\u0010\u0002J\u0010\u0010\u0010\u001a\n\u0012\u0006\u0012\u0004\u0018\u00010\u00060\u000eH\u0002J\u0010\u0010\u0011\u001a\u00020\u00122\u0006\u0010\u0013\u001a\u00020\u0006H\u0007J\b\u0010\u0014\u001a\u00020\u0006H\u0007R\u000e\u0010\u0003\u001a\u00020\u0004X\u0082\u0004¢\u0006\u0002\n\u0000R\u000e\u0010\u0005\u001a\u00020\u0006X\u0082\u0004¢\u0006\u0002\n\u0000R\u0014\u0010\u0007\u001a\u00020\u0004X\u0086D¢\u0006\b\n\u0000\u001a\u0004\b\b\u0010\tR\u0011\u0010\n\u001a\u00020\u00048F¢\u0006\u0006\u001a\u0004\b\u000b\u0010\tR\u001e\u0010\f\u001a\u0010\u0012\f\u0012\n\u0012\u0006\u0012\u0004\u0018\u00010\u00060\u000e0\rX\u0082\u0004¢\u0006\u0004\n\u0002\u0010\u000f¨\u0006\u0015"}, d2 = {"Lokio/SegmentPool;", HttpUrl.FRAGMENT_ENCODE_SET, "()V", "HASH_BUCKET_COUNT", HttpUrl.FRAGMENT_ENCODE_SET, "LOCK", "Lokio/Segment;", "MAX_SIZE", "getMAX_SIZE", "()I", "byteCount", "getByteCount", "hashBuckets", HttpUrl.FRAGMENT_ENCODE_SET, "Ljava/util/concurrent/atomic/AtomicReference;", "[Ljava/util/concurrent/atomic/AtomicReference;", "firstRef", "recycle", HttpUrl.FRAGMENT_ENCODE_SET, "segment", "take", "okio"}, k = 1, mv = {1, 9, 0}, xi = 48)
 /* loaded from: /home/ubuntu/aichub_analysis/apk_contents/classes.dex */
 public final class SegmentPool {
+    private static final int DEFAULT_MAGAZINE_SIZE = 4;
+    private static final int DEFAULT_MAX_SIZE = 262144;
     private static final int HASH_BUCKET_COUNT;
+    private static final int STAT_HIT = 0;
+    private static final int STAT_LOCAL_HIT = 1;
+    private static final int STAT_MISS = 2;
+    private static final int STAT_OVERFLOW = 3;
+    private static final int STATS_STRIDE = 16;
     private static final AtomicReference<Segment>[] hashBuckets;
+    private static volatile int magazineSize;
+    private static final ThreadLocal<Magazine> magazines;
+    private static volatile int maxSize;
+    private static final AtomicLongArray stats;
+    private static volatile boolean statsEnabled;
     public static final SegmentPool INSTANCE = new SegmentPool();
-    private static final int MAX_SIZE = 65536;
     private static final Segment LOCK = new Segment(new byte[0], 0, 0, false, false);
 
+    /** Per-thread stack of recycled segments that is consulted before the shared buckets. */
+    private static final class Magazine {
+        int count;
+        Segment head;
+
+        private Magazine() {
+        }
+    }
+
     private SegmentPool() {
     }
 
@@ -26,10 +47,24 @@ public final class SegmentPool {
             atomicReferenceArr[i] = new AtomicReference<>();
         }
         hashBuckets = atomicReferenceArr;
+        stats = new AtomicLongArray(highestOneBit * STATS_STRIDE);
+        magazines = new ThreadLocal<Magazine>() { // from class: okio.SegmentPool.1
+            /* JADX INFO: Access modifiers changed from: protected */
+            @Override // java.lang.ThreadLocal
+            public Magazine initialValue() {
+                return new Magazine();
+            }
+        };
+        magazineSize = Integer.getInteger("okio.SegmentPool.magazineSize", DEFAULT_MAGAZINE_SIZE).intValue();
+        maxSize = Integer.getInteger("okio.SegmentPool.maxSize", DEFAULT_MAX_SIZE).intValue();
     }
 
     public final int getMAX_SIZE() {
-        return MAX_SIZE;
+        return maxSize;
+    }
+
+    public final int getMagazineSize() {
+        return magazineSize;
     }
 
     public final int getByteCount() {
@@ -40,39 +75,116 @@ public final class SegmentPool {
         return segment.limit;
     }
 
+    /**
+     * Sets how many segments each thread keeps for itself and how many bytes each shared bucket may
+     * hold. Segments already pooled above the new limits are released as they are taken.
+     */
+    public final void configure(int magazineSize, int maxSize) {
+        if (!(magazineSize >= 0)) {
+            throw new IllegalArgumentException(("magazineSize < 0: " + magazineSize).toString());
+        }
+        if (!(maxSize >= 0)) {
+            throw new IllegalArgumentException(("maxSize < 0: " + maxSize).toString());
+        }
+        SegmentPool.magazineSize = magazineSize;
+        SegmentPool.maxSize = maxSize;
+    }
+
+    public final boolean getStatsEnabled() {
+        return statsEnabled;
+    }
+
+    public final void setStatsEnabled(boolean z) {
+        statsEnabled = z;
+    }
+
+    /** Segments served from a shared bucket. */
+    public final long getHitCount() {
+        return sumStat(STAT_HIT);
+    }
+
+    /** Segments served from the calling thread's magazine. */
+    public final long getLocalHitCount() {
+        return sumStat(STAT_LOCAL_HIT);
+    }
+
+    /** Segments that had to be allocated. */
+    public final long getMissCount() {
+        return sumStat(STAT_MISS);
+    }
+
+    /** Recycled segments dropped because their bucket was full or busy. */
+    public final long getOverflowCount() {
+        return sumStat(STAT_OVERFLOW);
+    }
+
+    public final void resetStats() {
+        int length = stats.length();
+        for (int i = 0; i < length; i++) {
+            stats.set(i, 0L);
+        }
+    }
+
     @JvmStatic
     public static final Segment take() {
+        Magazine magazine = magazines.get();
+        Segment segment = magazine.head;
+        if (segment != null) {
+            magazine.head = segment.next;
+            magazine.count--;
+            segment.next = null;
+            segment.limit = 0;
+            INSTANCE.recordStat(STAT_LOCAL_HIT);
+            return segment;
+        }
         AtomicReference<Segment> firstRef = INSTANCE.firstRef();
-        Segment segment = LOCK;
-        Segment andSet = firstRef.getAndSet(segment);
-        if (andSet == segment) {
+        Segment segment2 = LOCK;
+        Segment andSet = firstRef.getAndSet(segment2);
+        if (andSet == segment2) {
+            INSTANCE.recordStat(STAT_MISS);
             return new Segment();
         }
         if (andSet == null) {
             firstRef.set(null);
+            INSTANCE.recordStat(STAT_MISS);
             return new Segment();
         }
         firstRef.set(andSet.next);
         andSet.next = null;
         andSet.limit = 0;
+        INSTANCE.recordStat(STAT_HIT);
         return andSet;
     }
 
     @JvmStatic
     public static final void recycle(Segment segment) {
-        AtomicReference<Segment> firstRef;
-        Segment segment2;
-        Segment andSet;
         Intrinsics.checkNotNullParameter(segment, "segment");
         if (!(segment.next == null && segment.prev == null)) {
             throw new IllegalArgumentException("Failed requirement.".toString());
         }
-        if (segment.shared || (andSet = (firstRef = INSTANCE.firstRef()).getAndSet((segment2 = LOCK))) == segment2) {
+        if (segment.shared) {
+            return;
+        }
+        Magazine magazine = magazines.get();
+        if (magazine.count < magazineSize) {
+            segment.next = magazine.head;
+            segment.pos = 0;
+            segment.limit = 0;
+            magazine.head = segment;
+            magazine.count++;
+            return;
+        }
+        AtomicReference<Segment> firstRef = INSTANCE.firstRef();
+        Segment segment2 = LOCK;
+        Segment andSet = firstRef.getAndSet(segment2);
+        if (andSet == segment2) {
+            INSTANCE.recordStat(STAT_OVERFLOW);
             return;
         }
         int i = andSet != null ? andSet.limit : 0;
-        if (i >= MAX_SIZE) {
+        if (i >= maxSize) {
             firstRef.set(andSet);
+            INSTANCE.recordStat(STAT_OVERFLOW);
             return;
         }
         segment.next = andSet;
@@ -82,6 +194,24 @@ public final class SegmentPool {
     }
 
     private final AtomicReference<Segment> firstRef() {
-        return hashBuckets[(int) (Thread.currentThread().getId() & (HASH_BUCKET_COUNT - 1))];
+        return hashBuckets[bucketIndex()];
+    }
+
+    private final int bucketIndex() {
+        return (int) (Thread.currentThread().getId() & (HASH_BUCKET_COUNT - 1));
+    }
+
+    private final void recordStat(int i) {
+        if (statsEnabled) {
+            stats.getAndIncrement((bucketIndex() * STATS_STRIDE) + i);
+        }
+    }
+
+    private final long sumStat(int i) {
+        long j = 0;
+        for (int i2 = 0; i2 < HASH_BUCKET_COUNT; i2++) {
+            j += stats.get((i2 * STATS_STRIDE) + i);
+        }
+        return j;
     }
 }
@@ -0,0 +1,13 @@
+package okio;
+
+/**
+ * Tracks entered {@link AsyncTimeout}s and calls {@link AsyncTimeout#timedOut()} once they expire.
+ * Install one with {@link AsyncTimeout.Companion#setScheduler(TimeoutScheduler)}; when none is set
+ * the built-in deadline-ordered queue is used.
+ */
+public interface TimeoutScheduler {
+    void schedule(AsyncTimeout node, long timeoutNanos, boolean hasDeadline);
+
+    /** Returns true if {@code node} already timed out. */
+    boolean cancel(AsyncTimeout node);
+}
@@ -0,0 +1,313 @@
+package okio;
+
+import java.util.ArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import kotlin.jvm.internal.Intrinsics;
+
+/**
+ * Hierarchical timing wheel. Scheduling and cancelling lock only the target bucket; a shared read
+ * lock keeps them off the wheel while the watchdog advances it. Only non-empty buckets enter the
+ * delay queue, so the watchdog sleeps until the next bucket is due rather than ticking.
+ */
+public final class TimingWheelScheduler implements TimeoutScheduler {
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int WHEEL_SIZE = 64;
+    private final long origin;
+    private final DelayQueue<Bucket> queue;
+    private final ReentrantReadWriteLock lock;
+    private final AtomicBoolean running;
+    private final Wheel wheel;
+
+    static final class Entry {
+        static final int CANCELLED = 1;
+        static final int FIRED = 2;
+        static final int SCHEDULED = 0;
+        private static final AtomicIntegerFieldUpdater<Entry> STATE = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+        volatile Bucket bucket;
+        long expiration;
+        Entry next;
+        final AsyncTimeout node;
+        Entry prev;
+        volatile int state;
+
+        Entry(AsyncTimeout node, long expiration) {
+            this.node = node;
+            this.expiration = expiration;
+        }
+
+        boolean transition(int from, int to) {
+            return STATE.compareAndSet(this, from, to);
+        }
+    }
+
+    final class Bucket implements Delayed {
+        private final AtomicLong expiration = new AtomicLong(-1);
+        private final Entry root = new Entry(null, 0);
+
+        Bucket() {
+            Entry entry = this.root;
+            entry.next = entry;
+            entry.prev = entry;
+        }
+
+        synchronized void add(Entry entry) {
+            if (entry.bucket == null) {
+                Entry entry2 = this.root;
+                Entry entry3 = entry2.prev;
+                entry.next = entry2;
+                entry.prev = entry3;
+                entry3.next = entry;
+                entry2.prev = entry;
+                entry.bucket = this;
+            }
+        }
+
+        synchronized void remove(Entry entry) {
+            if (entry.bucket == this) {
+                entry.next.prev = entry.prev;
+                entry.prev.next = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                entry.bucket = null;
+            }
+        }
+
+        synchronized void flush(ArrayList<Entry> out) {
+            Entry entry = this.root.next;
+            while (entry != this.root) {
+                Entry entry2 = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                entry.bucket = null;
+                out.add(entry);
+                entry = entry2;
+            }
+            Entry entry3 = this.root;
+            entry3.next = entry3;
+            entry3.prev = entry3;
+            this.expiration.set(-1L);
+        }
+
+        long getExpiration() {
+            return this.expiration.get();
+        }
+
+        boolean setExpiration(long expiration) {
+            return this.expiration.getAndSet(expiration) != expiration;
+        }
+
+        @Override // java.util.concurrent.Delayed
+        public long getDelay(TimeUnit unit) {
+            Intrinsics.checkNotNullParameter(unit, "unit");
+            return unit.convert(this.expiration.get() - TimingWheelScheduler.this.now(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override // java.lang.Comparable
+        public int compareTo(Delayed other) {
+            Intrinsics.checkNotNullParameter(other, "other");
+            return Long.compare(this.expiration.get(), ((Bucket) other).expiration.get());
+        }
+    }
+
+    final class Wheel {
+        private final Bucket[] buckets = new Bucket[WHEEL_SIZE];
+        private volatile long currentTime;
+        private final long interval;
+        private volatile Wheel overflow;
+        private final boolean root;
+        private final long tick;
+
+        Wheel(long tick, long startTime, boolean root) {
+            this.tick = tick;
+            this.interval = WHEEL_SIZE * tick;
+            this.currentTime = startTime - (startTime % tick);
+            this.root = root;
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                this.buckets[i] = new Bucket();
+            }
+        }
+
+        /** Returns false if {@code entry} is already due; only the innermost wheel can say so. */
+        boolean add(Entry entry) {
+            long j = entry.expiration;
+            if (this.root && j < this.currentTime) {
+                return false;
+            }
+            if (j >= this.currentTime + this.interval) {
+                Wheel wheel = this.overflow;
+                if (wheel == null) {
+                    wheel = addOverflow();
+                }
+                return wheel.add(entry);
+            }
+            long j2 = j / this.tick;
+            Bucket bucket = this.buckets[(int) (j2 % WHEEL_SIZE)];
+            bucket.add(entry);
+            if (bucket.setExpiration(this.root ? (j2 + 1) * this.tick : j2 * this.tick)) {
+                TimingWheelScheduler.this.queue.offer(bucket);
+            }
+            return true;
+        }
+
+        private synchronized Wheel addOverflow() {
+            Wheel wheel;
+            wheel = this.overflow;
+            if (wheel == null) {
+                wheel = new Wheel(this.interval, this.currentTime, false);
+                this.overflow = wheel;
+            }
+            return wheel;
+        }
+
+        void advanceClock(long time) {
+            long j = this.tick;
+            if (time >= this.currentTime + j) {
+                this.currentTime = time - (time % j);
+                Wheel wheel = this.overflow;
+                if (wheel != null) {
+                    wheel.advanceClock(this.currentTime);
+                }
+            }
+        }
+
+        long getCurrentTime() {
+            return this.currentTime;
+        }
+    }
+
+    final class Watchdog extends Thread {
+        Watchdog() {
+            super("Okio Watchdog");
+            setDaemon(true);
+        }
+
+        @Override // java.lang.Thread, java.lang.Runnable
+        public void run() {
+            ArrayList<Entry> arrayList = new ArrayList<>();
+            ArrayList<AsyncTimeout> arrayList2 = new ArrayList<>();
+            while (true) {
+                try {
+                    Bucket poll = TimingWheelScheduler.this.queue.poll(TimingWheelScheduler.IDLE_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+                    if (poll != null) {
+                        TimingWheelScheduler.this.advance(poll, arrayList, arrayList2);
+                        int size = arrayList2.size();
+                        for (int i = 0; i < size; i++) {
+                            arrayList2.get(i).timedOut();
+                        }
+                        arrayList2.clear();
+                    } else if (TimingWheelScheduler.this.queue.isEmpty()) {
+                        TimingWheelScheduler.this.running.set(false);
+                        if (TimingWheelScheduler.this.queue.isEmpty() || !TimingWheelScheduler.this.running.compareAndSet(false, true)) {
+                            return;
+                        }
+                    }
+                } catch (InterruptedException unused) {
+                }
+            }
+        }
+    }
+
+    public TimingWheelScheduler() {
+        this(TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+
+    public TimingWheelScheduler(long tickNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException(("tickNanos <= 0: " + tickNanos).toString());
+        }
+        this.origin = System.nanoTime();
+        this.queue = new DelayQueue<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.running = new AtomicBoolean();
+        this.wheel = new Wheel(tickNanos, 0L, true);
+    }
+
+    /* JADX INFO: Access modifiers changed from: private */
+    public final long now() {
+        return System.nanoTime() - this.origin;
+    }
+
+    @Override // okio.TimeoutScheduler
+    public void schedule(AsyncTimeout node, long timeoutNanos, boolean hasDeadline) {
+        long j;
+        Intrinsics.checkNotNullParameter(node, "node");
+        if (node.wheelEntry != null) {
+            throw new IllegalStateException("Unbalanced enter/exit".toString());
+        }
+        long nanoTime = System.nanoTime();
+        int i = (timeoutNanos > 0L ? 1 : (timeoutNanos == 0L ? 0 : -1));
+        if (i != 0 && hasDeadline) {
+            j = Math.min(timeoutNanos, node.deadlineNanoTime() - nanoTime) + nanoTime;
+        } else if (i != 0) {
+            j = nanoTime + timeoutNanos;
+        } else if (hasDeadline) {
+            j = node.deadlineNanoTime();
+        } else {
+            throw new AssertionError();
+        }
+        Entry entry = new Entry(node, j - this.origin);
+        node.wheelEntry = entry;
+        ReentrantReadWriteLock.ReadLock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            if (!this.wheel.add(entry)) {
+                entry.expiration = this.wheel.getCurrentTime();
+                this.wheel.add(entry);
+            }
+        } finally {
+            readLock.unlock();
+        }
+        if (!this.running.get() && this.running.compareAndSet(false, true)) {
+            new Watchdog().start();
+        }
+    }
+
+    @Override // okio.TimeoutScheduler
+    public boolean cancel(AsyncTimeout node) {
+        Intrinsics.checkNotNullParameter(node, "node");
+        Entry entry = node.wheelEntry;
+        if (entry == null) {
+            return false;
+        }
+        node.wheelEntry = null;
+        if (!entry.transition(0, 1)) {
+            return true;
+        }
+        Bucket bucket = entry.bucket;
+        if (bucket != null) {
+            bucket.remove(entry);
+        }
+        return false;
+    }
+
+    /** Drains every due bucket, re-inserting cascaded entries and collecting expired ones. */
+    /* JADX INFO: Access modifiers changed from: private */
+    public final void advance(Bucket bucket, ArrayList<Entry> flushed, ArrayList<AsyncTimeout> expired) {
+        ReentrantReadWriteLock.WriteLock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            while (bucket != null) {
+                this.wheel.advanceClock(bucket.getExpiration());
+                bucket.flush(flushed);
+                int size = flushed.size();
+                for (int i = 0; i < size; i++) {
+                    Entry entry = flushed.get(i);
+                    if (entry.state == 0 && !this.wheel.add(entry) && entry.transition(0, 2)) {
+                        expired.add(entry.node);
+                    }
+                }
+                flushed.clear();
+                bucket = this.queue.poll();
+            }
+        } finally {
+            flushed.clear();
+            writeLock.unlock();
+        }
+    }
+}